@@ -1,9 +1,13 @@
 package com.algoviz.algorithms.graph;
 
 import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.PackedIntArray;
 import com.algoviz.model.AlgorithmStep;
 import com.algoviz.model.ComplexityMetrics;
 import com.algoviz.model.graph.GraphResult;
+import com.algoviz.model.graph.ParallelStatistics;
+import com.algoviz.service.AlgorithmExecutor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -11,69 +15,88 @@ import java.util.*;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class BFSService {
     
+    private final AlgorithmExecutor executor;
+    
     public GraphResult bfs(Graph graph, int startVertex) {
+        return bfs(graph, startVertex, true);
+    }
+    
+    public GraphResult bfs(Graph graph, int startVertex, boolean recordSteps) {
         List<AlgorithmStep> steps = new ArrayList<>();
         List<Integer> traversalOrder = new ArrayList<>();
-        boolean[] visited = new boolean[graph.getVertices()];
-        Queue<Integer> queue = new LinkedList<>();
-        Map<Integer, Integer> distances = new HashMap<>();
-        Map<Integer, Integer> predecessors = new HashMap<>();
+        int vertices = graph.getVertices();
+        boolean[] visited = new boolean[vertices];
+        // Every vertex is enqueued at most once, so a plain array serves as the queue
+        int[] queue = new int[vertices];
+        int head = 0;
+        int tail = 0;
+        int[] distances = new int[vertices];
+        int[] predecessors = new int[vertices];
         int stepNumber = 0;
         long operations = 0;
         long startTime = System.currentTimeMillis();
         
         // Initialize
-        for (int i = 0; i < graph.getVertices(); i++) {
-            distances.put(i, Integer.MAX_VALUE);
-            predecessors.put(i, -1);
-        }
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(predecessors, -1);
         
         visited[startVertex] = true;
-        queue.add(startVertex);
-        distances.put(startVertex, 0);
+        queue[tail++] = startVertex;
+        distances[startVertex] = 0;
         
-        steps.add(createStep(stepNumber++, visited, queue, new ArrayList<>(), startVertex, -1, 
-                "INITIAL", String.format("Starting BFS from vertex %d", startVertex)));
+        if (recordSteps) {
+            steps.add(createStep(stepNumber++, visited, queue, head, tail, traversalOrder, startVertex, -1, 
+                    "INITIAL", String.format("Starting BFS from vertex %d", startVertex)));
+        }
         
-        while (!queue.isEmpty()) {
-            int current = queue.poll();
+        while (head < tail) {
+            int current = queue[head++];
             traversalOrder.add(current);
             operations++;
             
-            steps.add(createStep(stepNumber++, visited, queue, traversalOrder, current, -1, 
-                    "DEQUEUE", String.format("Processing vertex %d", current)));
+            if (recordSteps) {
+                steps.add(createStep(stepNumber++, visited, queue, head, tail, traversalOrder, current, -1, 
+                        "DEQUEUE", String.format("Processing vertex %d", current)));
+            }
             
-            for (int neighbor : graph.getNeighborVertices(current)) {
+            int end = graph.neighborEnd(current);
+            for (int e = graph.neighborStart(current); e < end; e++) {
+                int neighbor = graph.target(e);
                 operations++;
                 
                 if (!visited[neighbor]) {
                     visited[neighbor] = true;
-                    queue.add(neighbor);
-                    distances.put(neighbor, distances.get(current) + 1);
-                    predecessors.put(neighbor, current);
+                    queue[tail++] = neighbor;
+                    distances[neighbor] = distances[current] + 1;
+                    predecessors[neighbor] = current;
                     
-                    steps.add(createStep(stepNumber++, visited, queue, traversalOrder, current, neighbor, 
-                            "VISIT", String.format("Discovered vertex %d from %d (distance: %d)", 
-                                    neighbor, current, distances.get(neighbor))));
-                } else {
-                    steps.add(createStep(stepNumber++, visited, queue, traversalOrder, current, neighbor, 
+                    if (recordSteps) {
+                        steps.add(createStep(stepNumber++, visited, queue, head, tail, traversalOrder, current, 
+                                neighbor, "VISIT", String.format("Discovered vertex %d from %d (distance: %d)", 
+                                        neighbor, current, distances[neighbor])));
+                    }
+                } else if (recordSteps) {
+                    steps.add(createStep(stepNumber++, visited, queue, head, tail, traversalOrder, current, neighbor, 
                             "ALREADY_VISITED", String.format("Vertex %d already visited", neighbor)));
                 }
             }
         }
         
-        steps.add(createStep(stepNumber++, visited, queue, traversalOrder, -1, -1, 
-                "COMPLETE", "BFS traversal complete"));
+        if (recordSteps) {
+            steps.add(createStep(stepNumber++, visited, queue, head, tail, traversalOrder, -1, -1, 
+                    "COMPLETE", "BFS traversal complete"));
+        }
         
         long executionTime = System.currentTimeMillis() - startTime;
         
         return GraphResult.builder()
                 .steps(steps)
                 .traversalOrder(traversalOrder)
-                .distances(distances)
-                .predecessors(predecessors)
+                .distances(PackedIntArray.asMap(distances))
+                .predecessors(PackedIntArray.asMap(predecessors))
                 .metrics(ComplexityMetrics.builder()
                         .timeComplexity("O(V + E)")
                         .spaceComplexity("O(V)")
@@ -85,7 +108,155 @@ public class BFSService {
                 .build();
     }
     
-    private AlgorithmStep createStep(int stepNumber, boolean[] visited, Queue<Integer> queue, 
+    public GraphResult bfsDirectionOptimizing(Graph graph, int startVertex, boolean recordSteps) {
+        return bfsDirectionOptimizing(graph, startVertex, recordSteps, false);
+    }
+    
+    /**
+     * Parallel direction-optimizing BFS (see {@link DirectionOptimizingBfs}) on the shared
+     * fork-join pool, recording one step per level. The traversal order lists vertices by level,
+     * then by id. Only the parallel search runs unless {@code compareBaseline} is set; then it is
+     * also timed with every level on the calling thread, and as the queue BFS, whose distances
+     * it must match.
+     */
+    public GraphResult bfsDirectionOptimizing(Graph graph, int startVertex, boolean recordSteps, 
+                                              boolean compareBaseline) {
+        int vertices = graph.getVertices();
+        graph.edgeCount();
+        
+        int[] baselineLevels = null;
+        long baselineNanos = 0;
+        long sequentialNanos = 0;
+        if (compareBaseline) {
+            long baselineStart = System.nanoTime();
+            baselineLevels = queueLevels(graph, startVertex);
+            baselineNanos = System.nanoTime() - baselineStart;
+            
+            long sequentialStart = System.nanoTime();
+            new DirectionOptimizingBfs(graph, startVertex).run(null);
+            sequentialNanos = System.nanoTime() - sequentialStart;
+        }
+        
+        DirectionOptimizingBfs search = new DirectionOptimizingBfs(graph, startVertex);
+        List<AlgorithmStep> steps = new ArrayList<>();
+        if (recordSteps) {
+            steps.add(levelStep(steps.size(), search.visited(), vertices, null, -1, "INITIAL", 
+                    String.format("Starting direction-optimizing BFS from vertex %d", startVertex)));
+            search.setListener((depth, bottomUp, frontier, discovered, examined) -> steps.add(levelStep(
+                    steps.size(), search.visited(), vertices, frontier, depth, 
+                    bottomUp ? "BOTTOM_UP_LEVEL" : "TOP_DOWN_LEVEL", String.format(bottomUp
+                            ? "Level %d bottom-up: unvisited vertices checked %d in-edges, found %d at level %d"
+                            : "Level %d top-down: frontier scanned %d out-edges, discovered %d at level %d", 
+                            depth, examined, discovered, depth + 1))));
+        }
+        long parallelStart = System.nanoTime();
+        search.run(executor.getPool());
+        long parallelNanos = System.nanoTime() - parallelStart;
+        
+        // Counting sort by level keeps the order deterministic however the levels were expanded
+        int[] levels = search.levels();
+        int[] levelStart = new int[search.depth() + 1];
+        for (int level : levels) {
+            if (level != Integer.MAX_VALUE) {
+                levelStart[level + 1]++;
+            }
+        }
+        for (int i = 1; i < levelStart.length; i++) {
+            levelStart[i] += levelStart[i - 1];
+        }
+        int[] order = new int[levelStart[levelStart.length - 1]];
+        for (int v = 0; v < vertices; v++) {
+            if (levels[v] != Integer.MAX_VALUE) {
+                order[levelStart[levels[v]]++] = v;
+            }
+        }
+        if (recordSteps) {
+            steps.add(levelStep(steps.size(), search.visited(), vertices, null, -1, "COMPLETE", String.format(
+                    "BFS complete: %d vertices reached in %d levels", order.length, search.depth())));
+        }
+        
+        double parallelMs = parallelNanos / 1e6;
+        ParallelStatistics statistics = ParallelStatistics.builder()
+                .method("DIRECTION_OPTIMIZING")
+                .parallelism(executor.getPool().getParallelism())
+                .phases(search.depth())
+                .parallelTimeMs(parallelMs)
+                .topDownLevels(search.topDownLevels())
+                .bottomUpLevels(search.bottomUpLevels())
+                .edgesExamined(search.edgesExamined())
+                .build();
+        if (compareBaseline) {
+            statistics.recordComparison(sequentialNanos, baselineNanos, parallelNanos, 
+                    Arrays.equals(levels, baselineLevels));
+        }
+        return GraphResult.builder()
+                .steps(steps)
+                .traversalOrder(PackedIntArray.asList(order))
+                .distances(PackedIntArray.asMap(levels))
+                .predecessors(PackedIntArray.asMap(search.parents()))
+                .parallelStatistics(statistics)
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(V + E)")
+                        .spaceComplexity("O(V)")
+                        .actualOperations(search.edgesExamined() + order.length)
+                        .executionTimeMs((long) parallelMs)
+                        .build())
+                .codeSnippet(getDirectionOptimizingCodeSnippet())
+                .algorithmName("Breadth-First Search (Direction-Optimizing, Parallel)")
+                .build();
+    }
+    
+    // Plain queue BFS levels, the sequential baseline for the direction-optimizing mode
+    private int[] queueLevels(Graph graph, int startVertex) {
+        int[] levels = new int[graph.getVertices()];
+        int[] queue = new int[graph.getVertices()];
+        Arrays.fill(levels, Integer.MAX_VALUE);
+        levels[startVertex] = 0;
+        queue[0] = startVertex;
+        for (int head = 0, tail = 1; head < tail; head++) {
+            int current = queue[head];
+            int end = graph.neighborEnd(current);
+            for (int e = graph.neighborStart(current); e < end; e++) {
+                int neighbor = graph.target(e);
+                if (levels[neighbor] == Integer.MAX_VALUE) {
+                    levels[neighbor] = levels[current] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return levels;
+    }
+    
+    private AlgorithmStep levelStep(int stepNumber, long[] visitedBits, int vertices, long[] frontierBits, int level, 
+                                    String operationType, String description) {
+        Map<String, Object> highlights = new HashMap<>();
+        List<Boolean> visitedList = new ArrayList<>(vertices);
+        for (int v = 0; v < vertices; v++) {
+            visitedList.add((visitedBits[v >>> 6] & 1L << v) != 0);
+        }
+        highlights.put("visited", visitedList);
+        if (frontierBits != null) {
+            List<Integer> frontier = new ArrayList<>();
+            for (int v = 0; v < vertices; v++) {
+                if ((frontierBits[v >>> 6] & 1L << v) != 0) {
+                    frontier.add(v);
+                }
+            }
+            highlights.put("frontier", frontier);
+            highlights.put("level", level);
+        }
+        
+        return AlgorithmStep.builder()
+                .stepNumber(stepNumber)
+                .description(description)
+                .currentState(highlights)
+                .highlights(highlights)
+                .timestamp(System.currentTimeMillis())
+                .operationType(operationType)
+                .build();
+    }
+    
+    private AlgorithmStep createStep(int stepNumber, boolean[] visited, int[] queue, int head, int tail, 
                                       List<Integer> traversalOrder, int current, int neighbor, 
                                       String operationType, String description) {
         Map<String, Object> highlights = new HashMap<>();
@@ -94,7 +265,7 @@ public class BFSService {
             visitedList.add(b);
         }
         highlights.put("visited", visitedList);
-        highlights.put("queue", new ArrayList<>(queue));
+        highlights.put("queue", PackedIntArray.asList(Arrays.copyOfRange(queue, head, tail)));
         highlights.put("traversalOrder", new ArrayList<>(traversalOrder));
         if (current >= 0) highlights.put("current", current);
         if (neighbor >= 0) highlights.put("neighbor", neighbor);
@@ -109,6 +280,38 @@ public class BFSService {
                 .build();
     }
     
+    private String getDirectionOptimizingCodeSnippet() {
+        return """
+                public int[] bfs(Graph graph, int start) {
+                    BitSet visited = new BitSet(), frontier = new BitSet();
+                    visited.set(start);
+                    frontier.set(start);
+                    
+                    while (!frontier.isEmpty()) {
+                        BitSet next = new BitSet();
+                        if (edgesOf(frontier) > edgesOf(unvisited) / 14) {
+                            // Bottom-up: each unvisited vertex looks for any parent in the frontier
+                            unvisited.parallelStream().forEach(v -> {
+                                for (int u : graph.inNeighbors(v)) {
+                                    if (frontier.get(u)) { parent[v] = u; next.set(v); break; }
+                                }
+                            });
+                        } else {
+                            // Top-down: the frontier claims its unvisited neighbors atomically
+                            frontier.parallelStream().forEach(u -> {
+                                for (int v : graph.neighbors(u)) {
+                                    if (visited.testAndSet(v)) { parent[v] = u; next.set(v); }
+                                }
+                            });
+                        }
+                        visited.or(next);
+                        frontier = next;
+                    }
+                    return parent;
+                }
+                """;
+    }
+    
     private String getCodeSnippet() {
         return """
                 public void bfs(Graph graph, int start) {
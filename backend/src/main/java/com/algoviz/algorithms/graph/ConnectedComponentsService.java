@@ -0,0 +1,218 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.ConcurrentDisjointSet;
+import com.algoviz.datastructures.DisjointSet;
+import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.graph.Edge;
+import com.algoviz.model.graph.GraphResult;
+import com.algoviz.model.graph.ParallelStatistics;
+import com.algoviz.service.AlgorithmExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Serves {@code /connected-components} on top of {@link ParallelConnectedComponents}. It sizes
+ * the edge chunks from the pool's parallelism, turns each chunk into a {@code UNION_CHUNK} step
+ * by replaying that chunk's unions in order, and groups the final labels into components with
+ * a counting sort.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConnectedComponentsService {
+    
+    private static final int MIN_CHUNK_EDGES = 8;
+    private static final int MAX_CHUNK_EDGES = 1 << 14;
+    
+    private final AlgorithmExecutor executor;
+    
+    public GraphResult connectedComponents(Graph graph, boolean recordSteps) {
+        return connectedComponents(graph, recordSteps, false);
+    }
+    
+    /**
+     * Components are listed by their smallest vertex. {@code compareBaseline} also times the
+     * chunks run back to back on the calling thread, and a plain {@link DisjointSet} pass whose
+     * labels must be the same.
+     */
+    public GraphResult connectedComponents(Graph graph, boolean recordSteps, boolean compareBaseline) {
+        int vertices = graph.getVertices();
+        int edges = graph.edgeCount();
+        int parallelism = executor.getPool().getParallelism();
+        // About four chunks per worker, so a dense chunk does not hold up the others
+        int chunkEdges = Math.max(MIN_CHUNK_EDGES, Math.min(MAX_CHUNK_EDGES, edges / (4 * parallelism)));
+        
+        int[] baselineLabels = null;
+        long baselineNanos = 0;
+        long sequentialNanos = 0;
+        if (compareBaseline) {
+            long baselineStart = System.nanoTime();
+            baselineLabels = sequentialLabels(graph);
+            baselineNanos = System.nanoTime() - baselineStart;
+            
+            long sequentialStart = System.nanoTime();
+            new ParallelConnectedComponents(graph, chunkEdges).run(null);
+            sequentialNanos = System.nanoTime() - sequentialStart;
+        }
+        
+        ParallelConnectedComponents search = new ParallelConnectedComponents(graph, chunkEdges);
+        List<AlgorithmStep> steps = new ArrayList<>();
+        List<Edge> forestEdges = new ArrayList<>();
+        if (recordSteps) {
+            // Replaying each chunk's successful unions in chunk order gives the partition it left behind
+            ConcurrentDisjointSet replay = new ConcurrentDisjointSet(vertices);
+            steps.add(chunkStep(steps.size(), labelsOf(replay), forestEdges, List.of(), -1, -1, "INITIAL", 
+                    String.format("Starting parallel union-find over %d edge entries in %d chunks", 
+                            edges, search.chunkCount())));
+            search.setListener((index, lowVertex, highVertex, scanned, merged) -> {
+                List<Edge> joined = new ArrayList<>(merged.length / 2);
+                for (int i = 0; i < merged.length; i += 2) {
+                    replay.union(merged[i], merged[i + 1]);
+                    joined.add(new Edge(merged[i], merged[i + 1], 1));
+                }
+                forestEdges.addAll(joined);
+                steps.add(chunkStep(steps.size(), labelsOf(replay), forestEdges, joined, lowVertex, highVertex, 
+                        "UNION_CHUNK", String.format("Chunk %d (vertices %d-%d) scanned %d edge entries; "
+                                + "%d of them joined two components", 
+                                index, lowVertex, highVertex - 1, scanned, joined.size())));
+            });
+        }
+        long parallelStart = System.nanoTime();
+        search.run(executor.getPool());
+        long parallelNanos = System.nanoTime() - parallelStart;
+        int[] labels = search.labels();
+        
+        // Counting sort by label; labels are smallest members, so components come out ordered
+        int[] starts = new int[vertices + 1];
+        for (int label : labels) {
+            starts[label + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            starts[v + 1] += starts[v];
+        }
+        int[] members = new int[vertices];
+        int[] next = Arrays.copyOf(starts, vertices);
+        for (int v = 0; v < vertices; v++) {
+            members[next[labels[v]]++] = v;
+        }
+        List<List<Integer>> components = new ArrayList<>();
+        for (int v = 0; v < vertices; v++) {
+            if (labels[v] == v) {
+                components.add(PackedIntArray.asList(Arrays.copyOfRange(members, starts[v], starts[v + 1])));
+            }
+        }
+        if (recordSteps) {
+            steps.add(chunkStep(steps.size(), labels, forestEdges, List.of(), -1, -1, "COMPLETE", 
+                    String.format("Found %d connected components", components.size())));
+        }
+        
+        double parallelMs = parallelNanos / 1e6;
+        ParallelStatistics statistics = ParallelStatistics.builder()
+                .method("UNION_FIND")
+                .parallelism(parallelism)
+                .phases(search.chunkCount())
+                .parallelTimeMs(parallelMs)
+                .unions(search.unions())
+                .build();
+        if (compareBaseline) {
+            statistics.recordComparison(sequentialNanos, baselineNanos, parallelNanos, 
+                    Arrays.equals(labels, baselineLabels));
+        }
+        return GraphResult.builder()
+                .steps(steps)
+                .components(components)
+                .parallelStatistics(statistics)
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O((V + E) α(V))")
+                        .spaceComplexity("O(V)")
+                        .actualOperations(search.scanned())
+                        .executionTimeMs((long) parallelMs)
+                        .build())
+                .codeSnippet(getCodeSnippet())
+                .algorithmName("Connected Components (Parallel Union-Find)")
+                .build();
+    }
+    
+    // Sequential union-find over every edge, relabelled by smallest member to compare with the parallel run
+    private int[] sequentialLabels(Graph graph) {
+        int vertices = graph.getVertices();
+        DisjointSet sets = new DisjointSet(vertices);
+        for (int u = 0; u < vertices; u++) {
+            int end = graph.neighborEnd(u);
+            for (int e = graph.neighborStart(u); e < end; e++) {
+                sets.union(u, graph.target(e));
+            }
+        }
+        int[] smallest = new int[vertices];
+        Arrays.fill(smallest, -1);
+        int[] labels = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            int root = sets.find(v);
+            if (smallest[root] < 0) {
+                smallest[root] = v;
+            }
+            labels[v] = smallest[root];
+        }
+        return labels;
+    }
+    
+    private int[] labelsOf(ConcurrentDisjointSet sets) {
+        int[] labels = new int[sets.size()];
+        for (int v = 0; v < labels.length; v++) {
+            labels[v] = sets.find(v);
+        }
+        return labels;
+    }
+    
+    private AlgorithmStep chunkStep(int stepNumber, int[] componentOf, List<Edge> forestEdges, 
+                                    List<Edge> chunkEdges, int lowVertex, int highVertex, 
+                                    String operationType, String description) {
+        Map<String, Object> highlights = new HashMap<>();
+        highlights.put("componentOf", PackedIntArray.asList(componentOf));
+        highlights.put("forestEdges", new ArrayList<>(forestEdges));
+        highlights.put("chunkEdges", chunkEdges);
+        if (lowVertex >= 0) {
+            highlights.put("chunkStart", lowVertex);
+            highlights.put("chunkEnd", highVertex);
+        }
+        
+        return AlgorithmStep.builder()
+                .stepNumber(stepNumber)
+                .description(description)
+                .currentState(highlights)
+                .highlights(highlights)
+                .timestamp(System.currentTimeMillis())
+                .operationType(operationType)
+                .build();
+    }
+    
+    private String getCodeSnippet() {
+        return """
+                public int[] connectedComponents(Graph graph) {
+                    // parent[] is an AtomicIntegerArray; a root is always the smallest member
+                    chunksOf(graph.edges()).parallelStream().forEach(chunk -> {
+                        for (Edge e : chunk) {
+                            while (true) {
+                                int a = find(e.source), b = find(e.destination);
+                                if (a == b) break;
+                                int high = Math.max(a, b), low = Math.min(a, b);
+                                if (parent.compareAndSet(high, high, low)) break;
+                            }
+                        }
+                    });
+                    
+                    int[] label = new int[graph.vertices];
+                    for (int v = 0; v < label.length; v++) {
+                        label[v] = find(v);
+                    }
+                    return label;
+                }
+                """;
+    }
+}
@@ -1,6 +1,7 @@
 package com.algoviz.algorithms.graph;
 
 import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.PackedIntArray;
 import com.algoviz.model.AlgorithmStep;
 import com.algoviz.model.ComplexityMetrics;
 import com.algoviz.model.graph.GraphResult;
@@ -13,39 +14,87 @@ import java.util.*;
 @Service
 public class DFSService {
     
-    private List<AlgorithmStep> steps;
-    private List<Integer> traversalOrder;
-    private boolean[] visited;
-    private int stepNumber;
-    private long operations;
-    private Stack<Integer> stack;
+    // Per-call traversal state, driven by the iterative walk; the service itself is a shared singleton
+    private static class Traversal implements IterativeDfs.Visitor {
+        final List<AlgorithmStep> steps = new ArrayList<>();
+        final IterativeDfs dfs;
+        final int[] traversalOrder;
+        final boolean recordSteps;
+        int visitedCount;
+        long operations;
+        
+        Traversal(Graph graph, boolean recordSteps) {
+            dfs = new IterativeDfs(graph);
+            traversalOrder = new int[graph.getVertices()];
+            this.recordSteps = recordSteps;
+        }
+        
+        @Override
+        public void discover(int vertex, int parent) {
+            traversalOrder[visitedCount++] = vertex;
+            operations++;
+            if (recordSteps) {
+                steps.add(createStep(this, vertex, -1, 
+                        "VISIT", String.format("Visiting vertex %d", vertex)));
+            }
+        }
+        
+        @Override
+        public void treeEdge(int from, int to) {
+            operations++;
+            if (recordSteps) {
+                steps.add(createStep(this, from, to, 
+                        "EXPLORE", String.format("Exploring edge %d -> %d", from, to)));
+            }
+        }
+        
+        @Override
+        public void nonTreeEdge(int from, int to) {
+            operations++;
+            if (recordSteps) {
+                steps.add(createStep(this, from, to, 
+                        "ALREADY_VISITED", String.format("Vertex %d already visited", to)));
+            }
+        }
+        
+        @Override
+        public void finish(int vertex, int parent) {
+            if (recordSteps) {
+                steps.add(createStep(this, vertex, -1, 
+                        "BACKTRACK", String.format("Backtracking from vertex %d", vertex)));
+            }
+        }
+    }
     
     public GraphResult dfs(Graph graph, int startVertex) {
-        steps = new ArrayList<>();
-        traversalOrder = new ArrayList<>();
-        visited = new boolean[graph.getVertices()];
-        stack = new Stack<>();
-        stepNumber = 0;
-        operations = 0;
+        return dfs(graph, startVertex, true);
+    }
+    
+    public GraphResult dfs(Graph graph, int startVertex, boolean recordSteps) {
+        Traversal t = new Traversal(graph, recordSteps);
         long startTime = System.currentTimeMillis();
         
-        steps.add(createStep(visited, stack, startVertex, -1, 
-                "INITIAL", String.format("Starting DFS from vertex %d", startVertex)));
+        if (t.recordSteps) {
+            t.steps.add(createStep(t, startVertex, -1, 
+                    "INITIAL", String.format("Starting DFS from vertex %d", startVertex)));
+        }
         
-        dfsRecursive(graph, startVertex);
+        t.dfs.visit(startVertex, t);
         
-        steps.add(createStep(visited, stack, -1, -1, 
-                "COMPLETE", "DFS traversal complete"));
+        if (t.recordSteps) {
+            t.steps.add(createStep(t, -1, -1, 
+                    "COMPLETE", "DFS traversal complete"));
+        }
         
         long executionTime = System.currentTimeMillis() - startTime;
         
         return GraphResult.builder()
-                .steps(steps)
-                .traversalOrder(traversalOrder)
+                .steps(t.steps)
+                .traversalOrder(PackedIntArray.asList(Arrays.copyOf(t.traversalOrder, t.visitedCount)))
                 .metrics(ComplexityMetrics.builder()
                         .timeComplexity("O(V + E)")
                         .spaceComplexity("O(V)")
-                        .actualOperations(operations)
+                        .actualOperations(t.operations)
                         .executionTimeMs(executionTime)
                         .build())
                 .codeSnippet(getCodeSnippet())
@@ -53,71 +102,43 @@ public class DFSService {
                 .build();
     }
     
-    private void dfsRecursive(Graph graph, int vertex) {
-        visited[vertex] = true;
-        traversalOrder.add(vertex);
-        stack.push(vertex);
-        operations++;
-        
-        steps.add(createStep(visited, stack, vertex, -1, 
-                "VISIT", String.format("Visiting vertex %d", vertex)));
-        
-        for (int neighbor : graph.getNeighborVertices(vertex)) {
-            operations++;
-            
-            if (!visited[neighbor]) {
-                steps.add(createStep(visited, stack, vertex, neighbor, 
-                        "EXPLORE", String.format("Exploring edge %d -> %d", vertex, neighbor)));
-                dfsRecursive(graph, neighbor);
-            } else {
-                steps.add(createStep(visited, stack, vertex, neighbor, 
-                        "ALREADY_VISITED", String.format("Vertex %d already visited", neighbor)));
-            }
-        }
-        
-        stack.pop();
-        steps.add(createStep(visited, stack, vertex, -1, 
-                "BACKTRACK", String.format("Backtracking from vertex %d", vertex)));
-    }
-    
-    private AlgorithmStep createStep(boolean[] visited, Stack<Integer> stack, 
-                                      int current, int neighbor, 
-                                      String operationType, String description) {
-        Map<String, Object> highlights = new HashMap<>();
+    private static AlgorithmStep createStep(Traversal t, int current, int neighbor, 
+                                             String operationType, String description) {
+        AlgorithmStep step = t.dfs.step(t.steps.size(), current, neighbor, operationType, description);
         List<Boolean> visitedList = new ArrayList<>();
-        for (boolean b : visited) {
-            visitedList.add(b);
+        for (int v = 0; v < t.traversalOrder.length; v++) {
+            visitedList.add(t.dfs.isDiscovered(v));
         }
-        highlights.put("visited", visitedList);
-        highlights.put("stack", new ArrayList<>(stack));
-        highlights.put("traversalOrder", new ArrayList<>(traversalOrder));
-        if (current >= 0) highlights.put("current", current);
-        if (neighbor >= 0) highlights.put("neighbor", neighbor);
-        
-        return AlgorithmStep.builder()
-                .stepNumber(stepNumber++)
-                .description(description)
-                .currentState(highlights)
-                .highlights(highlights)
-                .timestamp(System.currentTimeMillis())
-                .operationType(operationType)
-                .build();
+        step.getHighlights().put("visited", visitedList);
+        step.getHighlights().put("traversalOrder", 
+                PackedIntArray.asList(Arrays.copyOf(t.traversalOrder, t.visitedCount)));
+        return step;
     }
     
     private String getCodeSnippet() {
         return """
-                public void dfs(Graph graph, int vertex) {
+                public void dfs(Graph graph, int start) {
                     boolean[] visited = new boolean[graph.vertices];
-                    dfsRecursive(graph, vertex, visited);
-                }
-                
-                private void dfsRecursive(Graph graph, int vertex, boolean[] visited) {
-                    visited[vertex] = true;
-                    System.out.println(vertex);
+                    int[] cursor = new int[graph.vertices];   // next edge to try per vertex
+                    IntStack stack = new IntStack();
                     
-                    for (int neighbor : graph.getNeighbors(vertex)) {
-                        if (!visited[neighbor]) {
-                            dfsRecursive(graph, neighbor, visited);
+                    visited[start] = true;
+                    cursor[start] = graph.neighborStart(start);
+                    stack.push(start);
+                    System.out.println(start);
+                    
+                    while (!stack.isEmpty()) {
+                        int u = stack.peek();
+                        if (cursor[u] == graph.neighborEnd(u)) {
+                            stack.pop();                      // backtrack
+                            continue;
+                        }
+                        int v = graph.target(cursor[u]++);
+                        if (!visited[v]) {
+                            visited[v] = true;
+                            cursor[v] = graph.neighborStart(v);
+                            stack.push(v);                    // descend, as the recursive call would
+                            System.out.println(v);
                         }
                     }
                 }
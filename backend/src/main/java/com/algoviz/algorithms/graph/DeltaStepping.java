@@ -0,0 +1,265 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Meyer-Sanders delta-stepping. Tentative distances fall into buckets of width
+ * {@code delta}. The current bucket is emptied in phases that relax light edges
+ * ({@code weight <= delta}) of the whole frontier in parallel, since they may refill the
+ * same bucket. Once it stays empty, the heavy edges of everything it settled are relaxed
+ * once, also in parallel. Each label packs the distance into the high half of a
+ * {@code long} and the predecessor into the low half. One compare-and-set then lowers both
+ * together, so they always agree. Buckets are visited through a queue of the non-empty ones,
+ * so a small {@code delta} with large weights never walks long runs of empty buckets.
+ */
+final class DeltaStepping {
+    
+    static final long UNREACHED = Long.MAX_VALUE;
+    private static final VarHandle LABELS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int LEAF_VERTICES = 256;
+    
+    /**
+     * Called on the calling thread after each relaxation round, once the parallel work has joined.
+     */
+    @FunctionalInterface
+    interface PhaseListener {
+        void phase(int bucket, boolean light, int[] frontier, long relaxations, int improved);
+    }
+    
+    private final Graph graph;
+    private final int delta;
+    private final long[] labels;
+    // Absolute bucket a vertex is queued in, so a bucket lists each vertex at most once
+    private final int[] queuedBucket;
+    private final int[] settledBucket;
+    private final Ints[] buckets;
+    // Absolute indexes of buckets that became non-empty; may hold duplicates and emptied buckets
+    private final PriorityQueue<Integer> nonEmpty = new PriorityQueue<>();
+    private PhaseListener listener;
+    private int queued;
+    private int bucketsProcessed;
+    private int phases;
+    private long lightRelaxations;
+    private long heavyRelaxations;
+    
+    DeltaStepping(Graph graph, int source, int delta, int maxWeight) {
+        int vertices = graph.getVertices();
+        this.graph = graph;
+        this.delta = delta;
+        labels = new long[vertices];
+        queuedBucket = new int[vertices];
+        settledBucket = new int[vertices];
+        Arrays.fill(labels, UNREACHED);
+        Arrays.fill(queuedBucket, -1);
+        Arrays.fill(settledBucket, -1);
+        // Pending distances never span more than maxWeight past the current bucket
+        buckets = new Ints[maxWeight / delta + 2];
+        labels[source] = 0xFFFFFFFFL; // distance 0, no predecessor
+        enqueue(source);
+    }
+    
+    void setListener(PhaseListener listener) {
+        this.listener = listener;
+    }
+    
+    static int distance(long label) {
+        return (int) (label >>> 32);
+    }
+    
+    static int predecessor(long label) {
+        return (int) label;
+    }
+    
+    /**
+     * Runs to completion; a {@code null} pool relaxes every round on the calling thread.
+     */
+    void run(ForkJoinPool pool) {
+        while (queued > 0) {
+            int bucket = nonEmpty.poll();
+            Ints pending = buckets[bucket % buckets.length];
+            // The slot may since have been emptied, or reused for a later bucket
+            if (pending.size == 0 || pending.bucket != bucket) {
+                continue;
+            }
+            Ints settled = new Ints();
+            while (pending.size > 0) {
+                Ints frontier = new Ints();
+                for (int i = 0; i < pending.size; i++) {
+                    int v = pending.values[i];
+                    if (queuedBucket[v] != bucket) {
+                        continue;
+                    }
+                    queuedBucket[v] = -1;
+                    queued--;
+                    frontier.add(v);
+                    if (settledBucket[v] != bucket) {
+                        settledBucket[v] = bucket;
+                        settled.add(v);
+                    }
+                }
+                pending.size = 0;
+                if (frontier.size > 0) {
+                    lightRelaxations += relax(pool, frontier, true, bucket);
+                }
+            }
+            if (settled.size > 0) {
+                bucketsProcessed++;
+                heavyRelaxations += relax(pool, settled, false, bucket);
+            }
+        }
+    }
+    
+    // Relaxes the light or heavy edges of every vertex in `from`, then queues the improved targets
+    private long relax(ForkJoinPool pool, Ints from, boolean light, int bucket) {
+        ConcurrentLinkedQueue<Ints> improved = new ConcurrentLinkedQueue<>();
+        RelaxTask task = new RelaxTask(from.values, 0, from.size, light, improved);
+        if (pool == null || from.size <= LEAF_VERTICES) {
+            task.relaxRange();
+        } else {
+            pool.invoke(task);
+        }
+        int count = 0;
+        for (Ints vertices : improved) {
+            for (int i = 0; i < vertices.size; i++) {
+                enqueue(vertices.values[i]);
+            }
+            count += vertices.size;
+        }
+        phases++;
+        if (listener != null) {
+            listener.phase(bucket, light, Arrays.copyOf(from.values, from.size), task.relaxations, count);
+        }
+        return task.relaxations;
+    }
+    
+    private void enqueue(int v) {
+        int bucket = distance(labels[v]) / delta;
+        if (queuedBucket[v] == bucket) {
+            return;
+        }
+        if (queuedBucket[v] < 0) {
+            queued++;
+        }
+        queuedBucket[v] = bucket;
+        Ints list = buckets[bucket % buckets.length];
+        if (list == null) {
+            list = buckets[bucket % buckets.length] = new Ints();
+        }
+        if (list.size == 0) {
+            list.bucket = bucket;
+            nonEmpty.add(bucket);
+        }
+        list.add(v);
+    }
+    
+    private final class RelaxTask extends RecursiveAction {
+        private final int[] vertices;
+        private final int low;
+        private final int high;
+        private final boolean light;
+        private final Queue<Ints> improved;
+        private long relaxations;
+        
+        RelaxTask(int[] vertices, int low, int high, boolean light, Queue<Ints> improved) {
+            this.vertices = vertices;
+            this.low = low;
+            this.high = high;
+            this.light = light;
+            this.improved = improved;
+        }
+        
+        @Override
+        protected void compute() {
+            if (high - low > LEAF_VERTICES) {
+                int mid = (low + high) >>> 1;
+                RelaxTask left = new RelaxTask(vertices, low, mid, light, improved);
+                RelaxTask right = new RelaxTask(vertices, mid, high, light, improved);
+                invokeAll(left, right);
+                relaxations = left.relaxations + right.relaxations;
+            } else {
+                relaxRange();
+            }
+        }
+        
+        void relaxRange() {
+            Ints changed = new Ints();
+            for (int i = low; i < high; i++) {
+                int u = vertices[i];
+                // A racy read can only be stale-high, which costs a wasted relaxation, never a wrong one
+                long base = distance(labels[u]);
+                int end = graph.neighborEnd(u);
+                for (int e = graph.neighborStart(u); e < end; e++) {
+                    int weight = graph.weight(e);
+                    if ((weight <= delta) != light) {
+                        continue;
+                    }
+                    relaxations++;
+                    long candidate = base + weight;
+                    if (candidate < Integer.MAX_VALUE && lowerLabel(graph.target(e), candidate << 32 | u)) {
+                        changed.add(graph.target(e));
+                    }
+                }
+            }
+            if (changed.size > 0) {
+                improved.add(changed);
+            }
+        }
+    }
+    
+    // Atomic min on the distance half; a tie keeps the current predecessor, so zero-weight edges
+    // cannot form predecessor cycles
+    private boolean lowerLabel(int v, long label) {
+        long current = (long) LABELS.getOpaque(labels, v);
+        while (distance(label) < distance(current)) {
+            long witness = (long) LABELS.compareAndExchange(labels, v, current, label);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+    
+    long[] labels() {
+        return labels;
+    }
+    
+    int phases() {
+        return phases;
+    }
+    
+    int bucketsProcessed() {
+        return bucketsProcessed;
+    }
+    
+    long lightRelaxations() {
+        return lightRelaxations;
+    }
+    
+    long heavyRelaxations() {
+        return heavyRelaxations;
+    }
+    
+    // Growable int array, filled by one thread at a time
+    static final class Ints {
+        int[] values = new int[16];
+        int size;
+        int bucket; // absolute bucket held while used as a bucket list
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
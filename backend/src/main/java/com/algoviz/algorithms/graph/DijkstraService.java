@@ -1,11 +1,16 @@
 package com.algoviz.algorithms.graph;
 
 import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.IndexedDaryHeap;
+import com.algoviz.datastructures.PackedIntArray;
 import com.algoviz.model.AlgorithmStep;
 import com.algoviz.model.ComplexityMetrics;
 import com.algoviz.model.graph.GraphResult;
+import com.algoviz.model.graph.ParallelStatistics;
+import com.algoviz.service.AlgorithmExecutor;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -13,8 +18,15 @@ import java.util.*;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class DijkstraService {
     
+    private static final int HEAP_ARITY = 4;
+    // Delta-stepping keeps max weight / delta + 2 buckets live in a ring
+    private static final int MAX_DELTA_BUCKETS = 1 << 22;
+    
+    private final AlgorithmExecutor executor;
+    
     @Data
     @AllArgsConstructor
     private static class Node implements Comparable<Node> {
@@ -28,6 +40,10 @@ public class DijkstraService {
     }
     
     public GraphResult dijkstra(Graph graph, int startVertex) {
+        return dijkstra(graph, startVertex, true);
+    }
+    
+    public GraphResult dijkstra(Graph graph, int startVertex, boolean recordSteps) {
         List<AlgorithmStep> steps = new ArrayList<>();
         int vertices = graph.getVertices();
         int[] distances = new int[vertices];
@@ -44,8 +60,10 @@ public class DijkstraService {
         distances[startVertex] = 0;
         pq.offer(new Node(startVertex, 0));
         
-        steps.add(createStep(stepNumber++, distances, visited, pq, startVertex, -1, 
-                "INITIAL", String.format("Starting Dijkstra's algorithm from vertex %d", startVertex)));
+        if (recordSteps) {
+            steps.add(createStep(stepNumber++, distances, visited, pq, startVertex, -1, 
+                    "INITIAL", String.format("Starting Dijkstra's algorithm from vertex %d", startVertex)));
+        }
         
         while (!pq.isEmpty()) {
             Node current = pq.poll();
@@ -57,12 +75,15 @@ public class DijkstraService {
             }
             
             visited[u] = true;
-            steps.add(createStep(stepNumber++, distances, visited, pq, u, -1, 
-                    "VISIT", String.format("Visiting vertex %d with distance %d", u, distances[u])));
+            if (recordSteps) {
+                steps.add(createStep(stepNumber++, distances, visited, pq, u, -1, 
+                        "VISIT", String.format("Visiting vertex %d with distance %d", u, distances[u])));
+            }
             
-            for (var edge : graph.getNeighbors(u)) {
-                int v = edge.getDestination();
-                int weight = edge.getWeight();
+            int end = graph.neighborEnd(u);
+            for (int e = graph.neighborStart(u); e < end; e++) {
+                int v = graph.target(e);
+                int weight = graph.weight(e);
                 operations++;
                 
                 if (!visited[v] && distances[u] != Integer.MAX_VALUE) {
@@ -73,10 +94,12 @@ public class DijkstraService {
                         predecessors[v] = u;
                         pq.offer(new Node(v, newDist));
                         
-                        steps.add(createStep(stepNumber++, distances, visited, pq, u, v, 
-                                "RELAX", String.format("Relaxed edge %d -> %d, new distance: %d", 
-                                        u, v, newDist)));
-                    } else {
+                        if (recordSteps) {
+                            steps.add(createStep(stepNumber++, distances, visited, pq, u, v, 
+                                    "RELAX", String.format("Relaxed edge %d -> %d, new distance: %d", 
+                                            u, v, newDist)));
+                        }
+                    } else if (recordSteps) {
                         steps.add(createStep(stepNumber++, distances, visited, pq, u, v, 
                                 "NO_IMPROVEMENT", String.format("No improvement for edge %d -> %d", u, v)));
                     }
@@ -84,22 +107,17 @@ public class DijkstraService {
             }
         }
         
-        steps.add(createStep(stepNumber++, distances, visited, pq, -1, -1, 
-                "COMPLETE", "Dijkstra's algorithm complete"));
+        if (recordSteps) {
+            steps.add(createStep(stepNumber++, distances, visited, pq, -1, -1, 
+                    "COMPLETE", "Dijkstra's algorithm complete"));
+        }
         
         long executionTime = System.currentTimeMillis() - startTime;
         
-        Map<Integer, Integer> distanceMap = new HashMap<>();
-        Map<Integer, Integer> predecessorMap = new HashMap<>();
-        for (int i = 0; i < vertices; i++) {
-            distanceMap.put(i, distances[i]);
-            predecessorMap.put(i, predecessors[i]);
-        }
-        
         return GraphResult.builder()
                 .steps(steps)
-                .distances(distanceMap)
-                .predecessors(predecessorMap)
+                .distances(PackedIntArray.asMap(distances))
+                .predecessors(PackedIntArray.asMap(predecessors))
                 .metrics(ComplexityMetrics.builder()
                         .timeComplexity("O((V + E) log V)")
                         .spaceComplexity("O(V)")
@@ -111,6 +129,256 @@ public class DijkstraService {
                 .build();
     }
     
+    /**
+     * Dijkstra over an {@link IndexedDaryHeap}: each vertex has at most one heap entry, which
+     * relaxations lower in place with decrease-key, so nothing is allocated per relaxation and
+     * no stale entries are polled. Sift-up and sift-down moves are recorded as steps.
+     */
+    public GraphResult dijkstraIndexedHeap(Graph graph, int startVertex, boolean recordSteps) {
+        int vertices = graph.getVertices();
+        HeapRun run = new HeapRun(vertices, recordSteps);
+        int[] distances = run.distances;
+        int[] predecessors = new int[vertices];
+        long startTime = System.currentTimeMillis();
+        long operations = indexedHeapSearch(graph, startVertex, run, predecessors);
+        long executionTime = System.currentTimeMillis() - startTime;
+        
+        return GraphResult.builder()
+                .steps(run.steps)
+                .distances(PackedIntArray.asMap(distances))
+                .predecessors(PackedIntArray.asMap(predecessors))
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(E log_d V + V·d log_d V)")
+                        .spaceComplexity("O(V)")
+                        .actualOperations(operations + run.sifts)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getIndexedHeapCodeSnippet())
+                .algorithmName("Dijkstra's Shortest Path (Indexed d-ary Heap)")
+                .build();
+    }
+    
+    // Runs the indexed-heap search into run.distances and predecessors; returns the operation count
+    private long indexedHeapSearch(Graph graph, int startVertex, HeapRun run, int[] predecessors) {
+        int[] distances = run.distances;
+        boolean[] visited = run.visited;
+        IndexedDaryHeap heap = run.heap;
+        long operations = 0;
+        
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(predecessors, -1);
+        distances[startVertex] = 0;
+        run.step(startVertex, -1, "INITIAL", 
+                "Starting Dijkstra's algorithm from vertex %d with a %d-ary heap", startVertex, HEAP_ARITY);
+        heap.insert(startVertex, 0);
+        
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            visited[u] = true;
+            operations++;
+            run.step(u, -1, "VISIT", "Visiting vertex %d with distance %d", u, distances[u]);
+            
+            int end = graph.neighborEnd(u);
+            for (int e = graph.neighborStart(u); e < end; e++) {
+                int v = graph.target(e);
+                operations++;
+                if (visited[v]) {
+                    continue;
+                }
+                int newDist = distances[u] + graph.weight(e);
+                if (newDist < distances[v]) {
+                    distances[v] = newDist;
+                    predecessors[v] = u;
+                    run.step(u, v, "RELAX", "Relaxed edge %d -> %d, new distance: %d", u, v, newDist);
+                    if (heap.contains(v)) {
+                        heap.decreaseKey(v, newDist);
+                    } else {
+                        heap.insert(v, newDist);
+                    }
+                } else {
+                    run.step(u, v, "NO_IMPROVEMENT", "No improvement for edge %d -> %d", u, v);
+                }
+            }
+        }
+        
+        run.step(-1, -1, "COMPLETE", "Dijkstra's algorithm complete");
+        return operations;
+    }
+    
+    public GraphResult dijkstraDeltaStepping(Graph graph, int startVertex, Integer delta, boolean recordSteps) {
+        return dijkstraDeltaStepping(graph, startVertex, delta, recordSteps, false);
+    }
+    
+    /**
+     * Parallel delta-stepping (see {@link DeltaStepping}) on the shared fork-join pool; each
+     * light or heavy relaxation round is one step. With {@code compareBaseline} the same search
+     * is also timed with every round on the calling thread, and as the indexed-heap Dijkstra,
+     * whose distances it must match. Without {@code delta} the bucket width is max weight /
+     * average degree.
+     */
+    public GraphResult dijkstraDeltaStepping(Graph graph, int startVertex, Integer delta, boolean recordSteps,
+                                             boolean compareBaseline) {
+        int vertices = graph.getVertices();
+        int edges = graph.edgeCount();
+        int maxWeight = 0;
+        for (int e = 0; e < edges; e++) {
+            if (graph.weight(e) < 0) {
+                throw new IllegalArgumentException("Delta-stepping requires non-negative edge weights");
+            }
+            maxWeight = Math.max(maxWeight, graph.weight(e));
+        }
+        int width = delta != null ? delta : (int) Math.max(1, (long) maxWeight * vertices / Math.max(1, edges));
+        if (width < 1) {
+            throw new IllegalArgumentException("delta must be at least 1");
+        }
+        if (maxWeight / width > MAX_DELTA_BUCKETS) {
+            throw new IllegalArgumentException(String.format(
+                    "delta %d is too small for maximum edge weight %d; use at least %d", 
+                    width, maxWeight, maxWeight / MAX_DELTA_BUCKETS + 1));
+        }
+        
+        HeapRun baseline = null;
+        long baselineNanos = 0;
+        long sequentialNanos = 0;
+        if (compareBaseline) {
+            baseline = new HeapRun(vertices, false);
+            long baselineStart = System.nanoTime();
+            indexedHeapSearch(graph, startVertex, baseline, new int[vertices]);
+            baselineNanos = System.nanoTime() - baselineStart;
+            
+            long sequentialStart = System.nanoTime();
+            new DeltaStepping(graph, startVertex, width, maxWeight).run(null);
+            sequentialNanos = System.nanoTime() - sequentialStart;
+        }
+        
+        DeltaStepping search = new DeltaStepping(graph, startVertex, width, maxWeight);
+        List<AlgorithmStep> steps = new ArrayList<>();
+        if (recordSteps) {
+            steps.add(deltaStep(steps.size(), search.labels(), 0, -1, null, "INITIAL", String.format(
+                    "Starting delta-stepping from vertex %d with bucket width %d", startVertex, width)));
+            search.setListener((bucket, light, frontier, relaxations, improved) -> {
+                long low = (long) bucket * width;
+                steps.add(light
+                        ? deltaStep(steps.size(), search.labels(), low, bucket, frontier, "LIGHT_PHASE", 
+                                String.format("Bucket %d [%d, %d): relaxed %d light edges of %d vertices, "
+                                        + "%d labels lowered", bucket, low, low + width, relaxations, 
+                                        frontier.length, improved))
+                        : deltaStep(steps.size(), search.labels(), low + width, bucket, frontier, "HEAVY_PHASE",
+                                String.format("Bucket %d settled: relaxed %d heavy edges of its %d vertices, "
+                                        + "%d labels lowered", bucket, relaxations, frontier.length, improved)));
+            });
+        }
+        long parallelStart = System.nanoTime();
+        search.run(executor.getPool());
+        long parallelNanos = System.nanoTime() - parallelStart;
+        
+        long[] labels = search.labels();
+        boolean matches = true;
+        int[] distances = new int[vertices];
+        int[] predecessors = new int[vertices];
+        for (int i = 0; i < vertices; i++) {
+            boolean reached = labels[i] != DeltaStepping.UNREACHED;
+            distances[i] = reached ? DeltaStepping.distance(labels[i]) : Integer.MAX_VALUE;
+            predecessors[i] = reached ? DeltaStepping.predecessor(labels[i]) : -1;
+            matches &= baseline == null || distances[i] == baseline.distances[i];
+        }
+        if (recordSteps) {
+            steps.add(deltaStep(steps.size(), labels, Long.MAX_VALUE, -1, null, "COMPLETE", 
+                    String.format("Delta-stepping complete after %d buckets and %d phases", 
+                            search.bucketsProcessed(), search.phases())));
+        }
+        
+        double parallelMs = parallelNanos / 1e6;
+        ParallelStatistics statistics = ParallelStatistics.builder()
+                .method("DELTA_STEPPING")
+                .parallelism(executor.getPool().getParallelism())
+                .phases(search.phases())
+                .parallelTimeMs(parallelMs)
+                .delta(width)
+                .buckets(search.bucketsProcessed())
+                .lightRelaxations(search.lightRelaxations())
+                .heavyRelaxations(search.heavyRelaxations())
+                .build();
+        if (compareBaseline) {
+            statistics.recordComparison(sequentialNanos, baselineNanos, parallelNanos, matches);
+        }
+        return GraphResult.builder()
+                .steps(steps)
+                .distances(PackedIntArray.asMap(distances))
+                .predecessors(PackedIntArray.asMap(predecessors))
+                .parallelStatistics(statistics)
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(V + E + L/Δ)")
+                        .spaceComplexity("O(V + L/Δ)")
+                        .actualOperations(search.lightRelaxations() + search.heavyRelaxations() + search.phases())
+                        .executionTimeMs((long) parallelMs)
+                        .build())
+                .codeSnippet(getDeltaSteppingCodeSnippet())
+                .algorithmName("Dijkstra's Shortest Path (Parallel Delta-Stepping)")
+                .build();
+    }
+    
+    // Distances below `settledBelow` are final; `frontier` holds the vertices the round relaxed from
+    private AlgorithmStep deltaStep(int stepNumber, long[] labels, long settledBelow, int bucket, int[] frontier, 
+                                    String operationType, String description) {
+        int[] distances = new int[labels.length];
+        boolean[] settled = new boolean[labels.length];
+        for (int v = 0; v < labels.length; v++) {
+            distances[v] = labels[v] == DeltaStepping.UNREACHED 
+                    ? Integer.MAX_VALUE : DeltaStepping.distance(labels[v]);
+            settled[v] = distances[v] < settledBelow;
+        }
+        AlgorithmStep step = createStep(stepNumber, distances, settled, null, -1, -1, operationType, description);
+        if (frontier != null) {
+            step.getHighlights().put("bucket", bucket);
+            step.getHighlights().put("frontier", PackedIntArray.asList(frontier));
+        }
+        return step;
+    }
+    
+    // Per-call state for the indexed-heap variant; it also receives the heap's sift callbacks
+    private class HeapRun implements IndexedDaryHeap.SiftListener {
+        final List<AlgorithmStep> steps = new ArrayList<>();
+        final int[] distances;
+        final boolean[] visited;
+        final IndexedDaryHeap heap;
+        final boolean recordSteps;
+        int stepNumber;
+        long sifts;
+        
+        HeapRun(int vertices, boolean recordSteps) {
+            distances = new int[vertices];
+            visited = new boolean[vertices];
+            heap = new IndexedDaryHeap(vertices, HEAP_ARITY);
+            heap.setListener(this);
+            this.recordSteps = recordSteps;
+        }
+        
+        @Override
+        public void sifted(String operation, int item, int fromSlot, int toSlot) {
+            sifts++;
+            if (recordSteps && fromSlot != toSlot) {
+                AlgorithmStep step = createStep(stepNumber++, distances, visited, null, item, -1, operation, 
+                        String.format("Vertex %d (key %d) moved from heap slot %d to %d", 
+                                item, heap.key(item), fromSlot, toSlot));
+                step.getHighlights().put("heap", PackedIntArray.asList(heap.toArray()));
+                step.getHighlights().put("fromSlot", fromSlot);
+                step.getHighlights().put("toSlot", toSlot);
+                steps.add(step);
+            }
+        }
+        
+        // Formats the description only when recording, so untraced runs skip the formatting
+        void step(int current, int neighbor, String operationType, String format, Object... args) {
+            if (recordSteps) {
+                AlgorithmStep step = createStep(stepNumber++, distances, visited, null, current, neighbor, 
+                        operationType, String.format(format, args));
+                step.getHighlights().put("heap", PackedIntArray.asList(heap.toArray()));
+                steps.add(step);
+            }
+        }
+    }
+    
     private AlgorithmStep createStep(int stepNumber, int[] distances, boolean[] visited, 
                                       PriorityQueue<Node> pq, int current, int neighbor, 
                                       String operationType, String description) {
@@ -134,6 +402,65 @@ public class DijkstraService {
                 .build();
     }
     
+    private String getDeltaSteppingCodeSnippet() {
+        return """
+                public long[] deltaStepping(Graph graph, int start, int delta) {
+                    long[] dist = new long[graph.vertices];   // updated with atomic min
+                    Arrays.fill(dist, INF);
+                    dist[start] = 0;
+                    buckets.add(0, start);
+                    
+                    for (int i = 0; !buckets.isEmpty(); i++) {
+                        List<Integer> settled = new ArrayList<>();
+                        while (!buckets.get(i).isEmpty()) {
+                            List<Integer> frontier = buckets.removeAll(i);
+                            settled.addAll(frontier);
+                            // Light edges (w <= delta) can land back in bucket i
+                            frontier.parallelStream().forEach(u -> relax(u, w -> w <= delta));
+                        }
+                        // Heavy edges always land in a later bucket, so one round suffices
+                        settled.parallelStream().forEach(u -> relax(u, w -> w > delta));
+                    }
+                    return dist;
+                }
+                
+                void relax(int u, IntPredicate kind) {
+                    for (Edge e : graph.getNeighbors(u)) {
+                        if (kind.test(e.weight) && atomicMin(dist, e.destination, dist[u] + e.weight)) {
+                            buckets.add((dist[u] + e.weight) / delta, e.destination);
+                        }
+                    }
+                }
+                """;
+    }
+    
+    private String getIndexedHeapCodeSnippet() {
+        return """
+                public int[] dijkstra(Graph graph, int start) {
+                    int[] dist = new int[graph.vertices];
+                    IndexedDaryHeap heap = new IndexedDaryHeap(graph.vertices, 4);
+                    
+                    Arrays.fill(dist, Integer.MAX_VALUE);
+                    dist[start] = 0;
+                    heap.insert(start, 0);
+                    
+                    while (!heap.isEmpty()) {
+                        int u = heap.extractMin();
+                        for (int e = graph.neighborStart(u); e < graph.neighborEnd(u); e++) {
+                            int v = graph.target(e);
+                            int newDist = dist[u] + graph.weight(e);
+                            if (newDist < dist[v]) {
+                                if (heap.contains(v)) heap.decreaseKey(v, newDist);
+                                else heap.insert(v, newDist);
+                                dist[v] = newDist;
+                            }
+                        }
+                    }
+                    return dist;
+                }
+                """;
+    }
+    
     private String getCodeSnippet() {
         return """
                 public int[] dijkstra(Graph graph, int start) {
@@ -0,0 +1,239 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Level-synchronous BFS that switches between top-down and bottom-up expansion (Beamer,
+ * Asanović and Patterson). Top-down scans the out-edges of the frontier and claims each new
+ * vertex with an atomic OR on the visited bitset. Bottom-up has every unvisited vertex scan
+ * its in-edges for a parent in the frontier and stop at the first one, which is cheaper once
+ * the frontier holds most of the unexplored edges. Each task owns whole bitset words there,
+ * so no atomics are needed. Frontiers and the visited set are {@code long[]} bitsets; parents
+ * and levels are plain {@code int[]}.
+ */
+final class DirectionOptimizingBfs {
+    
+    // Go bottom-up once the frontier's edges exceed the unexplored edges / ALPHA
+    static final int ALPHA = 14;
+    // Go back top-down once a shrinking frontier falls below V / BETA
+    static final int BETA = 24;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int LEAF_WORDS = 64;
+    
+    /**
+     * Called on the calling thread after each level, with the frontier it expanded from.
+     */
+    @FunctionalInterface
+    interface LevelListener {
+        void level(int depth, boolean bottomUp, long[] frontier, int discovered, long edgesExamined);
+    }
+    
+    private final Graph graph;
+    private final int source;
+    private final int vertices;
+    private final int words;
+    private final int[] parents;
+    private final int[] levels;
+    private final long[] visited;
+    private long[] frontier;
+    private long[] next;
+    private Graph incoming;
+    private LevelListener listener;
+    private int depth;
+    private int topDownLevels;
+    private int bottomUpLevels;
+    private long edgesExamined;
+    
+    DirectionOptimizingBfs(Graph graph, int source) {
+        this.graph = graph;
+        this.source = source;
+        vertices = graph.getVertices();
+        words = (vertices + 63) >>> 6;
+        parents = new int[vertices];
+        levels = new int[vertices];
+        visited = new long[words];
+        frontier = new long[words];
+        next = new long[words];
+        Arrays.fill(parents, -1);
+        Arrays.fill(levels, Integer.MAX_VALUE);
+        levels[source] = 0;
+        visited[source >>> 6] |= 1L << source;
+        frontier[source >>> 6] |= 1L << source;
+    }
+    
+    void setListener(LevelListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Runs to completion; a {@code null} pool expands every level on the calling thread.
+     */
+    void run(ForkJoinPool pool) {
+        int frontierSize = 1;
+        long frontierEdges = graph.degree(source);
+        long unexploredEdges = graph.edgeCount() - frontierEdges;
+        boolean bottomUp = false;
+        while (frontierSize > 0) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+                if (incoming == null) {
+                    incoming = graph.reversed();
+                }
+            }
+            LevelTask task = new LevelTask(0, words, bottomUp);
+            if (pool == null || words <= LEAF_WORDS) {
+                task.expand();
+            } else {
+                pool.invoke(task);
+            }
+            if (bottomUp) {
+                bottomUpLevels++;
+            } else {
+                topDownLevels++;
+            }
+            edgesExamined += task.examined;
+            if (listener != null) {
+                listener.level(depth, bottomUp, frontier, task.discovered, task.examined);
+            }
+            depth++;
+            
+            if (bottomUp && task.discovered < frontierSize && task.discovered < vertices / BETA) {
+                bottomUp = false;
+            }
+            frontierSize = task.discovered;
+            frontierEdges = task.discoveredEdges;
+            unexploredEdges -= frontierEdges;
+            long[] expanded = frontier;
+            frontier = next;
+            next = expanded;
+            Arrays.fill(next, 0L);
+        }
+    }
+    
+    private final class LevelTask extends RecursiveAction {
+        private final int lowWord;
+        private final int highWord;
+        private final boolean bottomUp;
+        private int discovered;
+        private long discoveredEdges;
+        private long examined;
+        
+        LevelTask(int lowWord, int highWord, boolean bottomUp) {
+            this.lowWord = lowWord;
+            this.highWord = highWord;
+            this.bottomUp = bottomUp;
+        }
+        
+        @Override
+        protected void compute() {
+            if (highWord - lowWord > LEAF_WORDS) {
+                int mid = (lowWord + highWord) >>> 1;
+                LevelTask left = new LevelTask(lowWord, mid, bottomUp);
+                LevelTask right = new LevelTask(mid, highWord, bottomUp);
+                invokeAll(left, right);
+                discovered = left.discovered + right.discovered;
+                discoveredEdges = left.discoveredEdges + right.discoveredEdges;
+                examined = left.examined + right.examined;
+            } else {
+                expand();
+            }
+        }
+        
+        void expand() {
+            if (bottomUp) {
+                bottomUp();
+            } else {
+                topDown();
+            }
+        }
+        
+        // Claims targets with an atomic OR, since frontier vertices in other words share them
+        private void topDown() {
+            int level = depth + 1;
+            for (int w = lowWord; w < highWord; w++) {
+                for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                    int u = w << 6 | Long.numberOfTrailingZeros(bits);
+                    int end = graph.neighborEnd(u);
+                    for (int e = graph.neighborStart(u); e < end; e++) {
+                        int v = graph.target(e);
+                        long mask = 1L << v;
+                        examined++;
+                        if (((long) WORDS.getOpaque(visited, v >>> 6) & mask) != 0
+                                || ((long) WORDS.getAndBitwiseOr(visited, v >>> 6, mask) & mask) != 0) {
+                            continue;
+                        }
+                        parents[v] = u;
+                        levels[v] = level;
+                        WORDS.getAndBitwiseOr(next, v >>> 6, mask);
+                        discovered++;
+                        discoveredEdges += graph.degree(v);
+                    }
+                }
+            }
+        }
+        
+        // Every vertex in this task's words is written by this task alone
+        private void bottomUp() {
+            int level = depth + 1;
+            for (int w = lowWord; w < highWord; w++) {
+                long unvisited = ~visited[w];
+                if (w == words - 1 && (vertices & 63) != 0) {
+                    unvisited &= (1L << vertices) - 1;
+                }
+                long found = 0;
+                for (long bits = unvisited; bits != 0; bits &= bits - 1) {
+                    int v = w << 6 | Long.numberOfTrailingZeros(bits);
+                    int end = incoming.neighborEnd(v);
+                    for (int e = incoming.neighborStart(v); e < end; e++) {
+                        int u = incoming.target(e);
+                        examined++;
+                        if ((frontier[u >>> 6] & 1L << u) != 0) {
+                            parents[v] = u;
+                            levels[v] = level;
+                            found |= 1L << v;
+                            discovered++;
+                            discoveredEdges += graph.degree(v);
+                            break;
+                        }
+                    }
+                }
+                visited[w] |= found;
+                next[w] = found;
+            }
+        }
+    }
+    
+    int[] parents() {
+        return parents;
+    }
+    
+    int[] levels() {
+        return levels;
+    }
+    
+    long[] visited() {
+        return visited;
+    }
+    
+    int depth() {
+        return depth;
+    }
+    
+    int topDownLevels() {
+        return topDownLevels;
+    }
+    
+    int bottomUpLevels() {
+        return bottomUpLevels;
+    }
+    
+    long edgesExamined() {
+        return edgesExamined;
+    }
+}
@@ -0,0 +1,10 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphRequest;
+import com.algoviz.model.graph.GraphResult;
+
+@FunctionalInterface
+public interface GraphAlgorithm {
+    GraphResult run(Graph graph, GraphRequest request);
+}
@@ -0,0 +1,119 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphRequest;
+import com.algoviz.service.GraphInputService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+public class GraphAlgorithmRegistry {
+    
+    private final Map<String, GraphAlgorithm> algorithms = new LinkedHashMap<>();
+    private final int maxStepVertices;
+    
+    public GraphAlgorithmRegistry(BFSService bfsService,
+                                  DFSService dfsService,
+                                  DijkstraService dijkstraService,
+                                  KruskalMSTService kruskalMSTService,
+                                  ShortestPathService shortestPathService,
+                                  TarjanSCCService tarjanSCCService,
+                                  TopologicalSortService topologicalSortService,
+                                  ConnectedComponentsService connectedComponentsService,
+                                  GraphInputService graphInputService,
+                                  @Value("${algorithm.max-graph-step-vertices:1000}") int maxStepVertices) {
+        this.maxStepVertices = maxStepVertices;
+        algorithms.put("bfs", (graph, request) -> {
+            int start = request.getStartVertex();
+            boolean recordSteps = includeSteps(graph, request);
+            return switch (Objects.toString(request.getMode(), "QUEUE").toUpperCase()) {
+                case "QUEUE" -> bfsService.bfs(graph, start, recordSteps);
+                case "DIRECTION_OPTIMIZING" -> bfsService.bfsDirectionOptimizing(graph, start, recordSteps, 
+                        request.isCompareBaseline());
+                default -> throw new IllegalArgumentException("Unknown bfs mode: " + request.getMode()
+                        + ". Available: [QUEUE, DIRECTION_OPTIMIZING]");
+            };
+        });
+        algorithms.put("dfs", (graph, request) -> 
+                dfsService.dfs(graph, request.getStartVertex(), includeSteps(graph, request)));
+        algorithms.put("dijkstra", (graph, request) -> {
+            int start = request.getStartVertex();
+            boolean recordSteps = includeSteps(graph, request);
+            return switch (Objects.toString(request.getMode(), "PRIORITY_QUEUE").toUpperCase()) {
+                case "PRIORITY_QUEUE" -> dijkstraService.dijkstra(graph, start, recordSteps);
+                case "INDEXED_HEAP" -> dijkstraService.dijkstraIndexedHeap(graph, start, recordSteps);
+                case "DELTA_STEPPING" -> dijkstraService.dijkstraDeltaStepping(graph, start, request.getDelta(), 
+                        recordSteps, request.isCompareBaseline());
+                default -> throw new IllegalArgumentException("Unknown dijkstra mode: " + request.getMode()
+                        + ". Available: [PRIORITY_QUEUE, INDEXED_HEAP, DELTA_STEPPING]");
+            };
+        });
+        algorithms.put("scc", (graph, request) -> 
+                tarjanSCCService.stronglyConnectedComponents(graph, includeSteps(graph, request)));
+        algorithms.put("topological-sort", (graph, request) -> 
+                topologicalSortService.topologicalSort(graph, includeSteps(graph, request)));
+        algorithms.put("connected-components", (graph, request) -> 
+                connectedComponentsService.connectedComponents(graph, includeSteps(graph, request), 
+                        request.isCompareBaseline()));
+        algorithms.put("kruskal-mst", (graph, request) -> {
+            boolean recordSteps = includeSteps(graph, request);
+            return switch (Objects.toString(request.getMode(), "KRUSKAL").toUpperCase()) {
+                case "KRUSKAL" -> kruskalMSTService.kruskalMST(graph, recordSteps);
+                case "FILTER_KRUSKAL" -> kruskalMSTService.filterKruskalMST(graph, recordSteps);
+                case "BORUVKA" -> kruskalMSTService.boruvkaMST(graph, recordSteps);
+                default -> throw new IllegalArgumentException("Unknown kruskal-mst mode: " + request.getMode()
+                        + ". Available: [KRUSKAL, FILTER_KRUSKAL, BORUVKA]");
+            };
+        });
+        algorithms.put("shortest-path", (graph, request) -> {
+            if (request.getEndVertex() == null) {
+                throw new IllegalArgumentException("endVertex is required for shortest-path");
+            }
+            int start = request.getStartVertex();
+            int end = request.getEndVertex();
+            boolean recordSteps = includeSteps(graph, request);
+            return switch (Objects.toString(request.getMode(), "DIJKSTRA").toUpperCase()) {
+                case "DIJKSTRA" -> shortestPathService.dijkstra(graph, start, end, recordSteps);
+                case "BIDIRECTIONAL" -> shortestPathService.bidirectional(graph, start, end, recordSteps);
+                case "A_STAR" -> shortestPathService.aStar(graph, start, end, request.getHeuristic(),
+                        graphInputService.coordinates(request), recordSteps);
+                default -> throw new IllegalArgumentException("Unknown shortest-path mode: " + request.getMode()
+                        + ". Available: [DIJKSTRA, BIDIRECTIONAL, A_STAR]");
+            };
+        });
+    }
+    
+    /**
+     * Every step snapshots per-vertex state, so traces are only recorded for graphs up to
+     * {@code max-graph-step-vertices}. Unset means record when the graph is small enough.
+     */
+    public boolean includeSteps(Graph graph, GraphRequest request) {
+        if (request.getIncludeSteps() == null) {
+            return graph.getVertices() <= maxStepVertices;
+        }
+        if (request.getIncludeSteps() && graph.getVertices() > maxStepVertices) {
+            throw new IllegalArgumentException(String.format(
+                    "includeSteps is limited to graphs of at most %d vertices", maxStepVertices));
+        }
+        return request.getIncludeSteps();
+    }
+    
+    public GraphAlgorithm get(String name) {
+        GraphAlgorithm algorithm = name == null ? null : algorithms.get(name.toLowerCase());
+        if (algorithm == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Unknown graph algorithm: %s. Available: %s", name, algorithms.keySet()));
+        }
+        return algorithm;
+    }
+    
+    public boolean contains(String name) {
+        return name != null && algorithms.containsKey(name.toLowerCase());
+    }
+    
+    public Set<String> names() {
+        return Collections.unmodifiableSet(algorithms.keySet());
+    }
+}
@@ -0,0 +1,126 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.IntStack;
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.AlgorithmStep;
+
+import java.util.*;
+
+/**
+ * Depth-first search on an explicit {@link IntStack}. Each vertex on the stack keeps a cursor
+ * into its CSR edge range, so the walk resumes where it left off after a child finishes and
+ * visits vertices in the same order as the recursive version, at any depth. Discovery and
+ * finish times come from one clock, as in CLRS.
+ */
+final class IterativeDfs {
+    
+    /**
+     * Callbacks in recursive order: {@code treeEdge} comes just before the target is
+     * discovered, and {@code finish} comes once its stack frame has been popped.
+     */
+    interface Visitor {
+        default void discover(int vertex, int parent) {
+        }
+        
+        default void treeEdge(int from, int to) {
+        }
+        
+        default void nonTreeEdge(int from, int to) {
+        }
+        
+        default void finish(int vertex, int parent) {
+        }
+    }
+    
+    private final Graph graph;
+    private final int[] cursors;
+    private final int[] discovery;
+    private final int[] finish;
+    private final IntStack stack = new IntStack();
+    private int clock;
+    
+    IterativeDfs(Graph graph) {
+        this.graph = graph;
+        int vertices = graph.getVertices();
+        cursors = new int[vertices];
+        discovery = new int[vertices];
+        finish = new int[vertices];
+        Arrays.fill(discovery, -1);
+        Arrays.fill(finish, -1);
+    }
+    
+    boolean isDiscovered(int vertex) {
+        return discovery[vertex] >= 0;
+    }
+    
+    /**
+     * Discovered but not yet finished, i.e. on the DFS stack.
+     */
+    boolean isActive(int vertex) {
+        return discovery[vertex] >= 0 && finish[vertex] < 0;
+    }
+    
+    /**
+     * Walks every vertex reachable from {@code root} that has not been discovered yet.
+     */
+    void visit(int root, Visitor visitor) {
+        if (isDiscovered(root)) {
+            return;
+        }
+        discover(root, -1, visitor);
+        while (!stack.isEmpty()) {
+            int u = stack.peek();
+            if (cursors[u] < graph.neighborEnd(u)) {
+                int v = graph.target(cursors[u]++);
+                if (isDiscovered(v)) {
+                    visitor.nonTreeEdge(u, v);
+                } else {
+                    visitor.treeEdge(u, v);
+                    discover(v, u, visitor);
+                }
+            } else {
+                stack.pop();
+                finish[u] = clock++;
+                visitor.finish(u, stack.isEmpty() ? -1 : stack.peek());
+            }
+        }
+    }
+    
+    private void discover(int vertex, int parent, Visitor visitor) {
+        discovery[vertex] = clock++;
+        cursors[vertex] = graph.neighborStart(vertex);
+        stack.push(vertex);
+        visitor.discover(vertex, parent);
+    }
+    
+    int[] discovery() {
+        return discovery;
+    }
+    
+    int[] finish() {
+        return finish;
+    }
+    
+    /**
+     * Step with the DFS stack and the discovery and finish times so far (-1 when unset);
+     * callers add their own highlights.
+     */
+    AlgorithmStep step(int stepNumber, int current, int neighbor, String operationType, String description) {
+        Map<String, Object> highlights = new HashMap<>();
+        highlights.put("stack", PackedIntArray.asList(stack.toArray()));
+        highlights.put("discovery", PackedIntArray.asList(discovery.clone()));
+        highlights.put("finish", PackedIntArray.asList(finish.clone()));
+        if (current >= 0) highlights.put("current", current);
+        if (neighbor >= 0) highlights.put("neighbor", neighbor);
+        
+        return AlgorithmStep.builder()
+                .stepNumber(stepNumber)
+                .description(description)
+                .currentState(highlights)
+                .highlights(highlights)
+                .timestamp(System.currentTimeMillis())
+                .operationType(operationType)
+                .build();
+    }
+}
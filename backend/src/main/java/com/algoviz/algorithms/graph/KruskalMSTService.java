@@ -6,6 +6,8 @@ import com.algoviz.model.AlgorithmStep;
 import com.algoviz.model.ComplexityMetrics;
 import com.algoviz.model.graph.Edge;
 import com.algoviz.model.graph.GraphResult;
+import com.algoviz.service.AlgorithmExecutor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -13,12 +15,31 @@ import java.util.*;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class KruskalMSTService {
     
+    // Filter-Kruskal sorts ranges up to this size directly instead of partitioning further
+    private static final int FILTER_BASE_EDGES = 1024;
+    
+    private final AlgorithmExecutor executor;
+    
     public GraphResult kruskalMST(Graph graph) {
+        return kruskalMST(graph, true);
+    }
+    
+    public GraphResult kruskalMST(Graph graph, boolean recordSteps) {
         List<AlgorithmStep> steps = new ArrayList<>();
         List<Edge> mstEdges = new ArrayList<>();
-        List<Edge> allEdges = new ArrayList<>(graph.getAllEdges());
+        List<Edge> allEdges = new ArrayList<>();
+        // An undirected edge is stored in both neighbor ranges; take it once
+        for (int v = 0; v < graph.getVertices(); v++) {
+            int end = graph.neighborEnd(v);
+            for (int e = graph.neighborStart(v); e < end; e++) {
+                if (graph.isDirected() || graph.target(e) >= v) {
+                    allEdges.add(new Edge(v, graph.target(e), graph.weight(e)));
+                }
+            }
+        }
         DisjointSet ds = new DisjointSet(graph.getVertices());
         int stepNumber = 0;
         long operations = 0;
@@ -27,8 +48,10 @@ public class KruskalMSTService {
         // Sort edges by weight
         allEdges.sort(Comparator.comparingInt(Edge::getWeight));
         
-        steps.add(createStep(stepNumber++, mstEdges, allEdges, -1, -1, 
-                "INITIAL", "Starting Kruskal's MST algorithm. Edges sorted by weight"));
+        if (recordSteps) {
+            steps.add(createStep(stepNumber++, mstEdges, allEdges, -1, -1, 
+                    "INITIAL", "Starting Kruskal's MST algorithm. Edges sorted by weight"));
+        }
         
         int totalWeight = 0;
         
@@ -37,31 +60,37 @@ public class KruskalMSTService {
             int source = edge.getSource();
             int destination = edge.getDestination();
             
-            steps.add(createStep(stepNumber++, mstEdges, allEdges, source, destination, 
-                    "CONSIDER", String.format("Considering edge %d -> %d (weight: %d)", 
-                            source, destination, edge.getWeight())));
+            if (recordSteps) {
+                steps.add(createStep(stepNumber++, mstEdges, allEdges, source, destination, 
+                        "CONSIDER", String.format("Considering edge %d -> %d (weight: %d)", 
+                                source, destination, edge.getWeight())));
+            }
             
             if (!ds.connected(source, destination)) {
                 ds.union(source, destination);
                 mstEdges.add(edge);
                 totalWeight += edge.getWeight();
                 
-                steps.add(createStep(stepNumber++, mstEdges, allEdges, source, destination, 
-                        "ACCEPT", String.format("Edge %d -> %d accepted. Total weight: %d", 
-                                source, destination, totalWeight)));
+                if (recordSteps) {
+                    steps.add(createStep(stepNumber++, mstEdges, allEdges, source, destination, 
+                            "ACCEPT", String.format("Edge %d -> %d accepted. Total weight: %d", 
+                                    source, destination, totalWeight)));
+                }
                 
                 if (mstEdges.size() == graph.getVertices() - 1) {
                     break;
                 }
-            } else {
+            } else if (recordSteps) {
                 steps.add(createStep(stepNumber++, mstEdges, allEdges, source, destination, 
                         "REJECT", String.format("Edge %d -> %d rejected (would form cycle)", 
                                 source, destination)));
             }
         }
         
-        steps.add(createStep(stepNumber++, mstEdges, allEdges, -1, -1, 
-                "COMPLETE", String.format("MST complete. Total weight: %d", totalWeight)));
+        if (recordSteps) {
+            steps.add(createStep(stepNumber++, mstEdges, allEdges, -1, -1, 
+                    "COMPLETE", String.format("MST complete. Total weight: %d", totalWeight)));
+        }
         
         long executionTime = System.currentTimeMillis() - startTime;
         
@@ -79,6 +108,256 @@ public class KruskalMSTService {
                 .build();
     }
     
+    /**
+     * Filter-Kruskal (Osipov, Sanders and Singler) on primitive edges. A range is split around
+     * a pivot weight. The lighter part is solved first, the pivot-weight edges are taken
+     * directly, and the heavier part drops every edge whose endpoints are already connected
+     * before it is split again. Heavy edges of dense graphs are mostly filtered out instead of
+     * sorted. Each filter round and each directly sorted range is one step.
+     */
+    public GraphResult filterKruskalMST(Graph graph, boolean recordSteps) {
+        UndirectedEdges edges = UndirectedEdges.of(graph);
+        FilterRun run = new FilterRun(graph.getVertices(), edges, recordSteps);
+        long startTime = System.currentTimeMillis();
+        
+        run.step(-1, -1, "INITIAL", "Starting Filter-Kruskal over %d distinct edges", edges.count);
+        // Sort keys pack (weight, edge index), so sorting them orders edges by weight
+        long[] keys = new long[edges.count];
+        for (int e = 0; e < edges.count; e++) {
+            keys[e] = (long) edges.weights[e] << 32 | e;
+        }
+        run.filterKruskal(keys, 0, keys.length, new Random(keys.length));
+        run.step(-1, -1, "COMPLETE", "MST complete. Total weight: %d", run.totalWeight);
+        
+        long executionTime = System.currentTimeMillis() - startTime;
+        
+        return GraphResult.builder()
+                .steps(run.steps)
+                .resultEdges(run.mstEdges)
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(E + V log V log(E/V))")
+                        .spaceComplexity("O(E)")
+                        .actualOperations(run.operations)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getFilterKruskalCodeSnippet())
+                .algorithmName("Filter-Kruskal Minimum Spanning Tree")
+                .build();
+    }
+    
+    /**
+     * Borůvka's algorithm (see {@link ParallelBoruvka}) on the shared fork-join pool: every
+     * component picks its cheapest outgoing edge concurrently, then all of them are contracted
+     * at once. The number of components at least halves per round. Each round is one step.
+     */
+    public GraphResult boruvkaMST(Graph graph, boolean recordSteps) {
+        UndirectedEdges edges = UndirectedEdges.of(graph);
+        ParallelBoruvka boruvka = new ParallelBoruvka(graph.getVertices(), 
+                edges.sources, edges.targets, edges.weights, edges.count);
+        List<AlgorithmStep> steps = new ArrayList<>();
+        List<Edge> mstEdges = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
+        
+        if (recordSteps) {
+            steps.add(createStep(steps.size(), mstEdges, null, -1, -1, "INITIAL", String.format(
+                    "Starting parallel Borůvka over %d distinct edges", edges.count)));
+            boruvka.setListener((round, components, added, remaining, liveEdges) -> {
+                // Each round's edges were appended last, so they are the tail of chosen()
+                int[] chosen = boruvka.chosen();
+                for (int i = chosen.length - added; i < chosen.length; i++) {
+                    mstEdges.add(edges.edge(chosen[i]));
+                }
+                AlgorithmStep step = createStep(steps.size(), mstEdges, null, -1, -1, "CONTRACT", String.format(
+                        "Round %d: %d components picked their cheapest edges; %d added, %d components remain "
+                                + "(%d edges crossed components)", round, components, added, remaining, liveEdges));
+                step.getHighlights().put("round", round);
+                step.getHighlights().put("roundEdges", new ArrayList<>(mstEdges.subList(mstEdges.size() - added, 
+                        mstEdges.size())));
+                steps.add(step);
+            });
+        }
+        boruvka.run(executor.getPool());
+        
+        if (!recordSteps) {
+            for (int edge : boruvka.chosen()) {
+                mstEdges.add(edges.edge(edge));
+            }
+        }
+        long totalWeight = 0;
+        for (Edge edge : mstEdges) {
+            totalWeight += edge.getWeight();
+        }
+        if (recordSteps) {
+            steps.add(createStep(steps.size(), mstEdges, null, -1, -1, "COMPLETE", String.format(
+                    "MST complete after %d rounds. Total weight: %d", boruvka.rounds(), totalWeight)));
+        }
+        
+        long executionTime = System.currentTimeMillis() - startTime;
+        
+        return GraphResult.builder()
+                .steps(steps)
+                .resultEdges(mstEdges)
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(E log V)")
+                        .spaceComplexity("O(V + E)")
+                        .actualOperations(boruvka.scanned())
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getBoruvkaCodeSnippet())
+                .algorithmName("Borůvka's Minimum Spanning Tree (Parallel)")
+                .build();
+    }
+    
+    /**
+     * Each undirected edge once, as parallel primitive arrays. Self-loops are dropped, and of
+     * parallel edges only the lightest is kept, which the CSR order makes the first of its run.
+     * Directed edges are treated as undirected.
+     */
+    private static final class UndirectedEdges {
+        final int[] sources;
+        final int[] targets;
+        final int[] weights;
+        final int count;
+        
+        private UndirectedEdges(int[] sources, int[] targets, int[] weights, int count) {
+            this.sources = sources;
+            this.targets = targets;
+            this.weights = weights;
+            this.count = count;
+        }
+        
+        static UndirectedEdges of(Graph graph) {
+            int capacity = graph.isDirected() ? graph.edgeCount() : graph.edgeCount() / 2 + 1;
+            int[] sources = new int[capacity];
+            int[] targets = new int[capacity];
+            int[] weights = new int[capacity];
+            int count = 0;
+            for (int v = 0; v < graph.getVertices(); v++) {
+                int end = graph.neighborEnd(v);
+                int previous = -1;
+                for (int e = graph.neighborStart(v); e < end; e++) {
+                    int target = graph.target(e);
+                    if (target == previous || target == v || (!graph.isDirected() && target < v)) {
+                        continue;
+                    }
+                    previous = target;
+                    sources[count] = v;
+                    targets[count] = target;
+                    weights[count] = graph.weight(e);
+                    count++;
+                }
+            }
+            return new UndirectedEdges(sources, targets, weights, count);
+        }
+        
+        Edge edge(int index) {
+            return new Edge(sources[index], targets[index], weights[index]);
+        }
+    }
+    
+    // Per-call Filter-Kruskal state over the packed (weight, edge) keys
+    private class FilterRun {
+        final List<AlgorithmStep> steps = new ArrayList<>();
+        final List<Edge> mstEdges = new ArrayList<>();
+        final UndirectedEdges edges;
+        final DisjointSet forest;
+        final int treeEdges;
+        final boolean recordSteps;
+        long totalWeight;
+        long operations;
+        
+        FilterRun(int vertices, UndirectedEdges edges, boolean recordSteps) {
+            this.edges = edges;
+            this.forest = new DisjointSet(vertices);
+            this.treeEdges = Math.max(vertices - 1, 0);
+            this.recordSteps = recordSteps;
+        }
+        
+        void filterKruskal(long[] keys, int low, int high, Random random) {
+            if (mstEdges.size() == treeEdges || low >= high) {
+                return;
+            }
+            if (high - low <= FILTER_BASE_EDGES) {
+                Arrays.sort(keys, low, high);
+                int before = mstEdges.size();
+                kruskal(keys, low, high);
+                step(-1, -1, "SORT_RANGE", "Sorted %d edges directly and accepted %d of them", 
+                        high - low, mstEdges.size() - before);
+                return;
+            }
+            
+            // Three-way partition around the pivot's weight: [low, lt) < pivot, [lt, gt) ==, [gt, high) >
+            int pivot = weight(keys[low + random.nextInt(high - low)]);
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i < gt) {
+                int weight = weight(keys[i]);
+                operations++;
+                if (weight < pivot) {
+                    swap(keys, lt++, i++);
+                } else if (weight > pivot) {
+                    swap(keys, i, --gt);
+                } else {
+                    i++;
+                }
+            }
+            filterKruskal(keys, low, lt, random);
+            int before = mstEdges.size();
+            // Equal weights need no order among themselves
+            kruskal(keys, lt, gt);
+            int heavy = filter(keys, gt, high);
+            step(-1, -1, "FILTER", "Pivot weight %d: %d lighter edges done, %d at the pivot gave %d tree edges; "
+                    + "%d of %d heavier edges were already inside one component and were dropped", 
+                    pivot, lt - low, gt - lt, mstEdges.size() - before, high - heavy, high - gt);
+            filterKruskal(keys, gt, heavy, random);
+        }
+        
+        private void kruskal(long[] keys, int low, int high) {
+            for (int i = low; i < high && mstEdges.size() < treeEdges; i++) {
+                int edge = (int) keys[i];
+                int source = edges.sources[edge];
+                int destination = edges.targets[edge];
+                operations++;
+                if (forest.union(source, destination)) {
+                    mstEdges.add(edges.edge(edge));
+                    totalWeight += edges.weights[edge];
+                }
+            }
+        }
+        
+        // Compacts the edges of [low, high) that still join two components to the front; returns the new end
+        private int filter(long[] keys, int low, int high) {
+            int kept = low;
+            for (int i = low; i < high; i++) {
+                int edge = (int) keys[i];
+                operations++;
+                if (!forest.connected(edges.sources[edge], edges.targets[edge])) {
+                    keys[kept++] = keys[i];
+                }
+            }
+            return kept;
+        }
+        
+        private int weight(long key) {
+            return (int) (key >> 32);
+        }
+        
+        private void swap(long[] keys, int i, int j) {
+            long temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+        
+        // Formats the description only when recording, so untraced runs skip the formatting
+        void step(int source, int destination, String operationType, String format, Object... args) {
+            if (recordSteps) {
+                steps.add(createStep(steps.size(), mstEdges, null, source, destination, 
+                        operationType, String.format(format, args)));
+            }
+        }
+    }
+    
     private AlgorithmStep createStep(int stepNumber, List<Edge> mstEdges, List<Edge> allEdges, 
                                       int source, int destination, 
                                       String operationType, String description) {
@@ -97,6 +376,62 @@ public class KruskalMSTService {
                 .build();
     }
     
+    private String getFilterKruskalCodeSnippet() {
+        return """
+                void filterKruskal(Edge[] edges, int low, int high) {
+                    if (high - low <= BASE) {
+                        Arrays.sort(edges, low, high);          // plain Kruskal on a small range
+                        kruskal(edges, low, high);
+                        return;
+                    }
+                    int pivot = edges[low + random.nextInt(high - low)].weight;
+                    int[] bounds = partition(edges, low, high, pivot);   // <, ==, > pivot
+                    filterKruskal(edges, low, bounds[0]);
+                    kruskal(edges, bounds[0], bounds[1]);       // equal weights, any order
+                    
+                    // Drop heavy edges whose endpoints the lighter ones already connected
+                    int kept = bounds[1];
+                    for (int i = bounds[1]; i < high; i++) {
+                        if (!ds.connected(edges[i].source, edges[i].destination)) {
+                            edges[kept++] = edges[i];
+                        }
+                    }
+                    filterKruskal(edges, bounds[1], kept);
+                }
+                """;
+    }
+    
+    private String getBoruvkaCodeSnippet() {
+        return """
+                public List<Edge> boruvka(Graph graph) {
+                    List<Edge> mst = new ArrayList<>();
+                    int[] component = identity(graph.vertices);
+                    
+                    while (true) {
+                        long[] cheapest = filled(graph.vertices, NONE);
+                        // In parallel: every crossing edge bids for both of its components
+                        edges.parallelStream()
+                             .filter(e -> component[e.source] != component[e.destination])
+                             .forEach(e -> {
+                                 atomicMin(cheapest, component[e.source], bid(e));
+                                 atomicMin(cheapest, component[e.destination], bid(e));
+                             });
+                        if (noBids(cheapest)) break;
+                        
+                        for (long bid : cheapest) {
+                            Edge e = edgeOf(bid);
+                            if (e != null && !ds.connected(e.source, e.destination)) {
+                                ds.union(e.source, e.destination);
+                                mst.add(e);
+                            }
+                        }
+                        relabel(component, ds);                 // contract merged components
+                    }
+                    return mst;
+                }
+                """;
+    }
+    
     private String getCodeSnippet() {
         return """
                 public List<Edge> kruskalMST(Graph graph) {
@@ -0,0 +1,238 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.ConcurrentDisjointSet;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Borůvka's minimum spanning forest over primitive edge arrays. Each round scans the edges
+ * in parallel chunks. Edges already inside one component are dropped in place, and every other
+ * edge bids for the cheapest slot of both of its components with a compare-and-set min. Bids
+ * are ordered by (weight, edge index), so ties cannot close a cycle. The chosen edges are then
+ * merged in parallel through a {@link ConcurrentDisjointSet}, and every vertex takes its merged
+ * component label, the smallest vertex of the component, in parallel as well.
+ */
+final class ParallelBoruvka {
+    
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long NONE = Long.MAX_VALUE;
+    private static final int CHUNK = 4096;
+    
+    /**
+     * Called on the calling thread after each contraction round.
+     */
+    @FunctionalInterface
+    interface RoundListener {
+        void round(int round, int components, int added, int remaining, long liveEdges);
+    }
+    
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] component;
+    private final long[] cheapest;
+    // Edge indices per chunk, compacted as edges become internal; chunk c holds liveCounts[c]
+    private final int[] live;
+    private final int[] liveCounts;
+    private final int[] chosen;
+    private final AtomicInteger roundAdded = new AtomicInteger();
+    private ConcurrentDisjointSet merged;
+    private RoundListener listener;
+    private int chosenCount;
+    private int rounds;
+    private long scanned;
+    
+    ParallelBoruvka(int vertices, int[] sources, int[] targets, int[] weights, int edges) {
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        component = new int[vertices];
+        cheapest = new long[vertices];
+        for (int v = 0; v < vertices; v++) {
+            component[v] = v;
+        }
+        live = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            live[e] = e;
+        }
+        liveCounts = new int[(edges + CHUNK - 1) / CHUNK];
+        for (int c = 0; c < liveCounts.length; c++) {
+            liveCounts[c] = Math.min(CHUNK, edges - c * CHUNK);
+        }
+        chosen = new int[Math.max(vertices - 1, 0)];
+    }
+    
+    void setListener(RoundListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Runs until no edge crosses two components; a {@code null} pool scans on the calling thread.
+     */
+    void run(ForkJoinPool pool) {
+        int vertices = component.length;
+        int components = vertices;
+        merged = new ConcurrentDisjointSet(vertices);
+        while (true) {
+            Arrays.fill(cheapest, NONE);
+            ScanTask scan = new ScanTask(0, liveCounts.length);
+            if (pool == null || liveCounts.length <= 1) {
+                scan.scanChunks();
+            } else {
+                pool.invoke(scan);
+            }
+            scanned += scan.scanned;
+            if (scan.liveEdges == 0) {
+                break;
+            }
+            
+            roundAdded.set(0);
+            VertexTask merge = new VertexTask(0, vertices, true);
+            VertexTask relabel = new VertexTask(0, vertices, false);
+            if (pool == null || vertices <= CHUNK) {
+                merge.mergeRange();
+                relabel.relabelRange();
+            } else {
+                pool.invoke(merge);
+                pool.invoke(relabel);
+            }
+            int added = roundAdded.get();
+            // Merges land in any order; sorting the round keeps chosen() deterministic
+            Arrays.sort(chosen, chosenCount, chosenCount + added);
+            chosenCount += added;
+            components -= added;
+            rounds++;
+            if (listener != null) {
+                listener.round(rounds, components + added, added, components, scan.liveEdges);
+            }
+        }
+    }
+    
+    // (weight, edge) packed so that a plain long comparison orders bids
+    private static long bid(int weight, int edge) {
+        return (long) weight << 32 | edge;
+    }
+    
+    private void offer(int slot, long bid) {
+        long current = (long) SLOTS.getOpaque(cheapest, slot);
+        while (bid < current) {
+            long witness = (long) SLOTS.compareAndExchange(cheapest, slot, current, bid);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+    
+    private final class ScanTask extends RecursiveAction {
+        private final int lowChunk;
+        private final int highChunk;
+        private long liveEdges;
+        private long scanned;
+        
+        ScanTask(int lowChunk, int highChunk) {
+            this.lowChunk = lowChunk;
+            this.highChunk = highChunk;
+        }
+        
+        @Override
+        protected void compute() {
+            if (highChunk - lowChunk > 1) {
+                int mid = (lowChunk + highChunk) >>> 1;
+                ScanTask left = new ScanTask(lowChunk, mid);
+                ScanTask right = new ScanTask(mid, highChunk);
+                invokeAll(left, right);
+                liveEdges = left.liveEdges + right.liveEdges;
+                scanned = left.scanned + right.scanned;
+            } else {
+                scanChunks();
+            }
+        }
+        
+        void scanChunks() {
+            for (int chunk = lowChunk; chunk < highChunk; chunk++) {
+                int base = chunk * CHUNK;
+                int kept = 0;
+                for (int i = base; i < base + liveCounts[chunk]; i++) {
+                    int edge = live[i];
+                    int from = component[sources[edge]];
+                    int to = component[targets[edge]];
+                    scanned++;
+                    if (from == to) {
+                        continue;
+                    }
+                    live[base + kept++] = edge;
+                    long bid = bid(weights[edge], edge);
+                    offer(from, bid);
+                    offer(to, bid);
+                }
+                liveCounts[chunk] = kept;
+                liveEdges += kept;
+            }
+        }
+    }
+    
+    // Over component slots it merges each slot's cheapest edge; over vertices it relabels
+    private final class VertexTask extends RecursiveAction {
+        private final int low;
+        private final int high;
+        private final boolean merge;
+        
+        VertexTask(int low, int high, boolean merge) {
+            this.low = low;
+            this.high = high;
+            this.merge = merge;
+        }
+        
+        @Override
+        protected void compute() {
+            if (high - low > CHUNK) {
+                int mid = (low + high) >>> 1;
+                invokeAll(new VertexTask(low, mid, merge), new VertexTask(mid, high, merge));
+            } else if (merge) {
+                mergeRange();
+            } else {
+                relabelRange();
+            }
+        }
+        
+        // The chosen edges form a forest, so each distinct edge wins exactly one union
+        void mergeRange() {
+            for (int c = low; c < high; c++) {
+                if (cheapest[c] == NONE) {
+                    continue;
+                }
+                int edge = (int) cheapest[c];
+                if (merged.union(component[sources[edge]], component[targets[edge]])) {
+                    chosen[chosenCount + roundAdded.getAndIncrement()] = edge;
+                }
+            }
+        }
+        
+        void relabelRange() {
+            for (int v = low; v < high; v++) {
+                component[v] = merged.find(component[v]);
+            }
+        }
+    }
+    
+    /**
+     * Indices of the forest edges, in the order they were added.
+     */
+    int[] chosen() {
+        return Arrays.copyOf(chosen, chosenCount);
+    }
+    
+    int rounds() {
+        return rounds;
+    }
+    
+    long scanned() {
+        return scanned;
+    }
+}
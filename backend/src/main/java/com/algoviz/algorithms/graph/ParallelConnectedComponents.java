@@ -0,0 +1,172 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.ConcurrentDisjointSet;
+import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.IntStack;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Connected components by union-find over edge chunks in parallel. The CSR edge range is cut
+ * at vertex boundaries into chunks of roughly {@code chunkEdges} entries, and every chunk
+ * unions its edges into one shared {@link ConcurrentDisjointSet}. An undirected edge is stored
+ * twice, so only the copy whose target is larger is used. Directed edges are unioned as they
+ * are, which gives the weakly connected components. Each component is labelled with its
+ * smallest vertex.
+ */
+final class ParallelConnectedComponents {
+    
+    /**
+     * Called on the calling thread for every chunk, in vertex order, once all chunks have joined.
+     * {@code merged} holds the (source, target) pairs whose union joined two sets.
+     */
+    @FunctionalInterface
+    interface ChunkListener {
+        void chunk(int index, int lowVertex, int highVertex, int edges, int[] merged);
+    }
+    
+    private final Graph graph;
+    private final ConcurrentDisjointSet sets;
+    private final Chunk[] chunks;
+    private ChunkListener listener;
+    private long unions;
+    private long scanned;
+    
+    ParallelConnectedComponents(Graph graph, int chunkEdges) {
+        this.graph = graph;
+        int vertices = graph.getVertices();
+        sets = new ConcurrentDisjointSet(vertices);
+        
+        // Cut at the first vertex whose edges start at or past each multiple of chunkEdges
+        IntStack bounds = new IntStack();
+        bounds.push(0);
+        int edges = graph.edgeCount();
+        for (long cut = chunkEdges; cut < edges; cut += chunkEdges) {
+            int low = bounds.peek();
+            int high = vertices;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (graph.neighborStart(mid) < cut) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low > bounds.peek()) {
+                bounds.push(low);
+            }
+        }
+        if (vertices > bounds.peek()) {
+            bounds.push(vertices);
+        }
+        int[] cuts = bounds.toArray();
+        chunks = new Chunk[cuts.length - 1];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = new Chunk(cuts[c], cuts[c + 1]);
+        }
+    }
+    
+    void setListener(ChunkListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Unions every chunk; a {@code null} pool processes them one after another on the calling thread.
+     */
+    void run(ForkJoinPool pool) {
+        ChunkTask task = new ChunkTask(0, chunks.length);
+        if (pool == null || chunks.length <= 1) {
+            task.unionChunks();
+        } else {
+            pool.invoke(task);
+        }
+        for (int c = 0; c < chunks.length; c++) {
+            Chunk chunk = chunks[c];
+            unions += chunk.unions;
+            scanned += chunk.scanned;
+            if (listener != null) {
+                listener.chunk(c, chunk.lowVertex, chunk.highVertex, chunk.scanned, chunk.merged.toArray());
+            }
+        }
+    }
+    
+    private final class ChunkTask extends RecursiveAction {
+        private final int lowChunk;
+        private final int highChunk;
+        
+        ChunkTask(int lowChunk, int highChunk) {
+            this.lowChunk = lowChunk;
+            this.highChunk = highChunk;
+        }
+        
+        @Override
+        protected void compute() {
+            if (highChunk - lowChunk > 1) {
+                int mid = (lowChunk + highChunk) >>> 1;
+                invokeAll(new ChunkTask(lowChunk, mid), new ChunkTask(mid, highChunk));
+            } else {
+                unionChunks();
+            }
+        }
+        
+        void unionChunks() {
+            boolean directed = graph.isDirected();
+            boolean record = listener != null;
+            for (int c = lowChunk; c < highChunk; c++) {
+                Chunk chunk = chunks[c];
+                for (int u = chunk.lowVertex; u < chunk.highVertex; u++) {
+                    int end = graph.neighborEnd(u);
+                    for (int e = graph.neighborStart(u); e < end; e++) {
+                        int v = graph.target(e);
+                        chunk.scanned++;
+                        if ((directed || v > u) && sets.union(u, v)) {
+                            chunk.unions++;
+                            if (record) {
+                                chunk.merged.push(u);
+                                chunk.merged.push(v);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    // Vertex range [lowVertex, highVertex) and what its edges did; written by one task only
+    private static final class Chunk {
+        final int lowVertex;
+        final int highVertex;
+        final IntStack merged = new IntStack(0);
+        int scanned;
+        int unions;
+        
+        Chunk(int lowVertex, int highVertex) {
+            this.lowVertex = lowVertex;
+            this.highVertex = highVertex;
+        }
+    }
+    
+    /**
+     * Smallest vertex of each vertex's component, valid after {@link #run}.
+     */
+    int[] labels() {
+        int[] labels = new int[sets.size()];
+        for (int v = 0; v < labels.length; v++) {
+            labels[v] = sets.find(v);
+        }
+        return labels;
+    }
+    
+    int chunkCount() {
+        return chunks.length;
+    }
+    
+    long unions() {
+        return unions;
+    }
+    
+    long scanned() {
+        return scanned;
+    }
+}
@@ -0,0 +1,457 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.IndexedDaryHeap;
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.graph.GraphResult;
+import com.algoviz.model.graph.PathStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Point-to-point shortest paths that stop once the end vertex is settled, instead of
+ * computing the whole single-source tree. Negative weights are rejected.
+ */
+@Slf4j
+@Service
+public class ShortestPathService {
+    
+    private static final int HEAP_ARITY = 4;
+    
+    /**
+     * Lower bound on the remaining distance from a vertex to the end vertex.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        int estimate(int vertex);
+    }
+    
+    public GraphResult dijkstra(Graph graph, int startVertex, int endVertex, boolean recordSteps) {
+        checkInput(graph, startVertex, endVertex);
+        long startTime = System.currentTimeMillis();
+        Trace trace = new Trace(recordSteps);
+        Search search = new Search(graph, trace, "forward");
+        trace.forward = search;
+        
+        search.run(startVertex, endVertex, vertex -> 0);
+        
+        List<Integer> path = search.pathTo(endVertex);
+        trace.step(-1, -1, "COMPLETE", path.isEmpty() ? "Vertex %d is unreachable" : "Shortest path to %d found",
+                endVertex);
+        PathStatistics statistics = statistics(graph, "DIJKSTRA", search.distance(endVertex), search.settledCount,
+                search.settledCount, search.relaxed);
+        return result(trace, search, path, statistics, "O((V + E) log V)", getDijkstraCodeSnippet(),
+                "Dijkstra's Shortest Path (Point-to-Point)", startTime);
+    }
+    
+    /**
+     * Searches forward from the start and backward from the end, always expanding the side
+     * whose next vertex is closer. {@code mu} is the best path seen through an edge that
+     * reaches a vertex labeled by the other side. Once the two queue minima add up to at
+     * least {@code mu}, no shorter path can exist.
+     */
+    public GraphResult bidirectional(Graph graph, int startVertex, int endVertex, boolean recordSteps) {
+        checkInput(graph, startVertex, endVertex);
+        long startTime = System.currentTimeMillis();
+        Trace trace = new Trace(recordSteps);
+        Search forward = new Search(graph, trace, "forward");
+        Search backward = new Search(graph.reversed(), trace, "backward");
+        trace.forward = forward;
+        trace.backward = backward;
+        
+        forward.label(startVertex, 0, -1, 0);
+        backward.label(endVertex, 0, -1, 0);
+        trace.step(startVertex, endVertex, "INITIAL",
+                "Searching forward from %d and backward from %d", startVertex, endVertex);
+        long mu = startVertex == endVertex ? 0 : Long.MAX_VALUE;
+        int meeting = startVertex == endVertex ? startVertex : -1;
+        
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+            int forwardTop = forward.heap.key(forward.heap.peek());
+            int backwardTop = backward.heap.key(backward.heap.peek());
+            if ((long) forwardTop + backwardTop >= mu) {
+                trace.step(-1, -1, "STOP", "Queue minima %d + %d >= best path %d, so the path is final",
+                        forwardTop, backwardTop, mu);
+                break;
+            }
+            Search side = forwardTop <= backwardTop ? forward : backward;
+            Search other = side == forward ? backward : forward;
+            int u = side.settleNext();
+            
+            Graph sideGraph = side.graph;
+            int end = sideGraph.neighborEnd(u);
+            for (int e = sideGraph.neighborStart(u); e < end; e++) {
+                int v = sideGraph.target(e);
+                int candidate = side.distances[u] + sideGraph.weight(e);
+                side.relaxed++;
+                if (!side.settled[v] && candidate < side.distances[v]) {
+                    side.label(v, candidate, u, candidate);
+                    trace.step(u, v, "RELAX", "Relaxed %s edge %d -> %d, new distance: %d",
+                            side.direction, u, v, candidate);
+                }
+                if (other.distances[v] != Integer.MAX_VALUE && (long) candidate + other.distances[v] < mu) {
+                    mu = (long) candidate + other.distances[v];
+                    meeting = v;
+                    trace.step(u, v, "MEET", "Searches meet at %d; best path so far: %d", v, mu);
+                }
+            }
+        }
+        
+        List<Integer> path = new ArrayList<>();
+        if (meeting >= 0) {
+            path = forward.pathTo(meeting);
+            // Backward predecessors point towards the end vertex
+            for (int v = backward.predecessors[meeting]; v >= 0; v = backward.predecessors[v]) {
+                path.add(v);
+            }
+        }
+        trace.step(-1, -1, "COMPLETE", meeting >= 0 ? "Shortest path found through %d" : "Vertex %d is unreachable",
+                meeting >= 0 ? meeting : endVertex);
+        
+        PathStatistics statistics = statistics(graph, "BIDIRECTIONAL", meeting >= 0 ? (int) mu : null,
+                forward.settledCount + backward.settledCount, baselineSettled(graph, startVertex, endVertex),
+                forward.relaxed + backward.relaxed);
+        statistics.setMeetingVertex(meeting >= 0 ? meeting : null);
+        return result(trace, forward, path, statistics, "O((V + E) log V)", getBidirectionalCodeSnippet(),
+                "Bidirectional Dijkstra", startTime);
+    }
+    
+    /**
+     * A* with keys {@code distance + h(v)}. The heuristic is a geometric distance to the end
+     * vertex times the largest scale no edge undercuts ({@code min weight / length} over all
+     * edges). That keeps it consistent, so every vertex is settled at most once.
+     */
+    public GraphResult aStar(Graph graph, int startVertex, int endVertex, String heuristic,
+                             double[][] coordinates, boolean recordSteps) {
+        checkInput(graph, startVertex, endVertex);
+        long startTime = System.currentTimeMillis();
+        String name = heuristic == null ? (coordinates == null ? "ZERO" : "EUCLIDEAN") : heuristic.toUpperCase();
+        double scale = 0;
+        Heuristic h = vertex -> 0;
+        switch (name) {
+            case "ZERO" -> { }
+            case "EUCLIDEAN", "MANHATTAN" -> {
+                checkCoordinates(graph, coordinates);
+                boolean euclidean = name.equals("EUCLIDEAN");
+                double[] target = coordinates[endVertex];
+                scale = admissibleScale(graph, coordinates, euclidean);
+                double s = scale;
+                h = vertex -> (int) Math.floor(s * length(coordinates[vertex], target, euclidean));
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown heuristic: " + heuristic + ". Available: [ZERO, EUCLIDEAN, MANHATTAN]");
+        }
+        
+        Trace trace = new Trace(recordSteps);
+        Search search = new Search(graph, trace, "forward");
+        trace.forward = search;
+        search.run(startVertex, endVertex, h);
+        
+        List<Integer> path = search.pathTo(endVertex);
+        trace.step(-1, -1, "COMPLETE", path.isEmpty() ? "Vertex %d is unreachable" : "Shortest path to %d found",
+                endVertex);
+        PathStatistics statistics = statistics(graph, "A_STAR", search.distance(endVertex), search.settledCount,
+                baselineSettled(graph, startVertex, endVertex), search.relaxed);
+        statistics.setHeuristic(name);
+        statistics.setHeuristicScale(name.equals("ZERO") ? null : scale);
+        return result(trace, search, path, statistics, "O((V + E) log V)", getAStarCodeSnippet(),
+                "A* Search (" + name + ")", startTime);
+    }
+    
+    private int baselineSettled(Graph graph, int startVertex, int endVertex) {
+        Search baseline = new Search(graph, new Trace(false), "forward");
+        baseline.run(startVertex, endVertex, vertex -> 0);
+        return baseline.settledCount;
+    }
+    
+    // Largest s with s * length(u, v) <= weight(u, v) for every edge
+    private double admissibleScale(Graph graph, double[][] coordinates, boolean euclidean) {
+        double scale = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < graph.getVertices(); u++) {
+            int end = graph.neighborEnd(u);
+            for (int e = graph.neighborStart(u); e < end; e++) {
+                double length = length(coordinates[u], coordinates[graph.target(e)], euclidean);
+                if (length > 0) {
+                    scale = Math.min(scale, graph.weight(e) / length);
+                }
+            }
+        }
+        // Shaved slightly so rounding in scale * length never pushes an estimate past a weight
+        return Double.isInfinite(scale) ? 0 : Math.max(scale * (1 - 1e-9), 0);
+    }
+    
+    private static double length(double[] a, double[] b, boolean euclidean) {
+        double dx = a[0] - b[0];
+        double dy = a[1] - b[1];
+        return euclidean ? Math.sqrt(dx * dx + dy * dy) : Math.abs(dx) + Math.abs(dy);
+    }
+    
+    // Settling a vertex is only final when no edge can lower a distance again
+    private void checkInput(Graph graph, int startVertex, int endVertex) {
+        if (startVertex < 0 || startVertex >= graph.getVertices() || endVertex < 0
+                || endVertex >= graph.getVertices()) {
+            throw new IllegalArgumentException(String.format(
+                    "startVertex and endVertex must be between 0 and %d", graph.getVertices() - 1));
+        }
+        int edges = graph.edgeCount();
+        for (int e = 0; e < edges; e++) {
+            if (graph.weight(e) < 0) {
+                throw new IllegalArgumentException("Shortest paths require non-negative edge weights; found "
+                        + graph.weight(e));
+            }
+        }
+    }
+    
+    private void checkCoordinates(Graph graph, double[][] coordinates) {
+        if (coordinates == null || coordinates.length != graph.getVertices()) {
+            throw new IllegalArgumentException(
+                    "coordinates must hold one [x, y] pair per vertex for a geometric heuristic");
+        }
+        for (int v = 0; v < coordinates.length; v++) {
+            if (coordinates[v] == null || coordinates[v].length != 2) {
+                throw new IllegalArgumentException(String.format("coordinates[%d] must be an [x, y] pair", v));
+            }
+        }
+    }
+    
+    private PathStatistics statistics(Graph graph, String method, Integer distance, int settled, int baseline,
+                                      long relaxed) {
+        return PathStatistics.builder()
+                .method(method)
+                .distance(distance)
+                .settledVertices(settled)
+                .baselineSettledVertices(baseline)
+                .settledFraction((double) settled / graph.getVertices())
+                .relaxedEdges(relaxed)
+                .build();
+    }
+    
+    private GraphResult result(Trace trace, Search search, List<Integer> path, PathStatistics statistics,
+                               String timeComplexity, String codeSnippet, String algorithmName, long startTime) {
+        long executionTime = System.currentTimeMillis() - startTime;
+        log.debug("{} settled {} of {} vertices (baseline {})", algorithmName, statistics.getSettledVertices(),
+                search.distances.length, statistics.getBaselineSettledVertices());
+        
+        // Only vertices the search reached, so the maps stay small when it stops early
+        Map<Integer, Integer> distanceMap = new HashMap<>();
+        Map<Integer, Integer> predecessorMap = new HashMap<>();
+        for (int i = 0; i < search.labeledCount; i++) {
+            int v = search.labeled[i];
+            distanceMap.put(v, search.distances[v]);
+            predecessorMap.put(v, search.predecessors[v]);
+        }
+        
+        return GraphResult.builder()
+                .steps(trace.steps)
+                .distances(distanceMap)
+                .predecessors(predecessorMap)
+                .path(path)
+                .pathStatistics(statistics)
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity(timeComplexity)
+                        .spaceComplexity("O(V)")
+                        .actualOperations(statistics.getSettledVertices() + statistics.getRelaxedEdges())
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(codeSnippet)
+                .algorithmName(algorithmName)
+                .build();
+    }
+    
+    // One direction of a search: labels, predecessors and the queue keyed by distance plus heuristic
+    private static final class Search {
+        final Graph graph;
+        final Trace trace;
+        final String direction;
+        final int[] distances;
+        final int[] predecessors;
+        final boolean[] settled;
+        final int[] labeled;
+        final IndexedDaryHeap heap;
+        int labeledCount;
+        int settledCount;
+        long relaxed;
+        
+        Search(Graph graph, Trace trace, String direction) {
+            int vertices = graph.getVertices();
+            this.graph = graph;
+            this.trace = trace;
+            this.direction = direction;
+            distances = new int[vertices];
+            predecessors = new int[vertices];
+            settled = new boolean[vertices];
+            labeled = new int[vertices];
+            heap = new IndexedDaryHeap(vertices, HEAP_ARITY);
+            Arrays.fill(distances, Integer.MAX_VALUE);
+            Arrays.fill(predecessors, -1);
+        }
+        
+        void label(int vertex, int distance, int predecessor, int key) {
+            if (distances[vertex] == Integer.MAX_VALUE) {
+                labeled[labeledCount++] = vertex;
+            }
+            distances[vertex] = distance;
+            predecessors[vertex] = predecessor;
+            if (heap.contains(vertex)) {
+                heap.decreaseKey(vertex, key);
+            } else {
+                heap.insert(vertex, key);
+            }
+        }
+        
+        int settleNext() {
+            int u = heap.extractMin();
+            settled[u] = true;
+            settledCount++;
+            trace.step(u, -1, "SETTLE", "Settled vertex %d (%s) at distance %d", u, direction, distances[u]);
+            return u;
+        }
+        
+        void run(int startVertex, int endVertex, Heuristic h) {
+            label(startVertex, 0, -1, h.estimate(startVertex));
+            trace.step(startVertex, endVertex, "INITIAL",
+                    "Searching from vertex %d for vertex %d", startVertex, endVertex);
+            while (!heap.isEmpty()) {
+                int u = settleNext();
+                if (u == endVertex) {
+                    trace.step(u, -1, "TARGET_SETTLED", "Vertex %d settled; stopping early", u);
+                    return;
+                }
+                int end = graph.neighborEnd(u);
+                for (int e = graph.neighborStart(u); e < end; e++) {
+                    int v = graph.target(e);
+                    relaxed++;
+                    if (settled[v]) {
+                        continue;
+                    }
+                    int candidate = distances[u] + graph.weight(e);
+                    if (candidate < distances[v]) {
+                        label(v, candidate, u, candidate + h.estimate(v));
+                        trace.step(u, v, "RELAX", "Relaxed edge %d -> %d, new distance: %d", u, v, candidate);
+                    }
+                }
+            }
+        }
+        
+        Integer distance(int vertex) {
+            return distances[vertex] == Integer.MAX_VALUE ? null : distances[vertex];
+        }
+        
+        List<Integer> pathTo(int vertex) {
+            List<Integer> path = new ArrayList<>();
+            if (distances[vertex] == Integer.MAX_VALUE) {
+                return path;
+            }
+            for (int v = vertex; v >= 0; v = predecessors[v]) {
+                path.add(v);
+            }
+            Collections.reverse(path);
+            return path;
+        }
+    }
+    
+    // Step recorder; descriptions are only formatted when recording
+    private static final class Trace {
+        final List<AlgorithmStep> steps = new ArrayList<>();
+        final boolean recordSteps;
+        Search forward;
+        Search backward;
+        int stepNumber;
+        
+        Trace(boolean recordSteps) {
+            this.recordSteps = recordSteps;
+        }
+        
+        void step(int current, int neighbor, String operationType, String format, Object... args) {
+            if (!recordSteps) {
+                return;
+            }
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("distances", Arrays.stream(forward.distances).boxed().toList());
+            highlights.put("settled", settledList(forward.settled));
+            if (backward != null) {
+                highlights.put("backwardDistances", Arrays.stream(backward.distances).boxed().toList());
+                highlights.put("backwardSettled", settledList(backward.settled));
+            }
+            if (current >= 0) highlights.put("current", current);
+            if (neighbor >= 0) highlights.put("neighbor", neighbor);
+            
+            steps.add(AlgorithmStep.builder()
+                    .stepNumber(stepNumber++)
+                    .description(String.format(format, args))
+                    .currentState(highlights)
+                    .highlights(highlights)
+                    .timestamp(System.currentTimeMillis())
+                    .operationType(operationType)
+                    .build());
+        }
+        
+        private static List<Boolean> settledList(boolean[] settled) {
+            List<Boolean> list = new ArrayList<>(settled.length);
+            for (boolean b : settled) {
+                list.add(b);
+            }
+            return list;
+        }
+    }
+    
+    private String getDijkstraCodeSnippet() {
+        return """
+                public int shortestPath(Graph graph, int start, int end) {
+                    int[] dist = new int[graph.vertices];
+                    Arrays.fill(dist, Integer.MAX_VALUE);
+                    dist[start] = 0;
+                    heap.insert(start, 0);
+                    
+                    while (!heap.isEmpty()) {
+                        int u = heap.extractMin();
+                        if (u == end) return dist[u]; // settled: nothing shorter remains
+                        for (int e = graph.neighborStart(u); e < graph.neighborEnd(u); e++) {
+                            relax(u, graph.target(e), graph.weight(e));
+                        }
+                    }
+                    return -1;
+                }
+                """;
+    }
+    
+    private String getBidirectionalCodeSnippet() {
+        return """
+                long mu = Long.MAX_VALUE;
+                while (!fwd.isEmpty() && !bwd.isEmpty()) {
+                    if (fwd.minKey() + bwd.minKey() >= mu) break; // no shorter path left
+                    Search side = fwd.minKey() <= bwd.minKey() ? fwd : bwd;
+                    Search other = side == fwd ? bwd : fwd;
+                    int u = side.extractMin();
+                    for (Edge e : side.graph.edgesFrom(u)) {
+                        int d = side.dist[u] + e.weight;
+                        side.relax(e.target, d);
+                        if (other.dist[e.target] != INF) {
+                            mu = Math.min(mu, d + other.dist[e.target]);
+                        }
+                    }
+                }
+                """;
+    }
+    
+    private String getAStarCodeSnippet() {
+        return """
+                heap.insert(start, h(start));
+                while (!heap.isEmpty()) {
+                    int u = heap.extractMin();
+                    if (u == end) return dist[u];
+                    for (int e = graph.neighborStart(u); e < graph.neighborEnd(u); e++) {
+                        int v = graph.target(e);
+                        int d = dist[u] + graph.weight(e);
+                        if (d < dist[v]) {
+                            dist[v] = d;
+                            heap.insertOrDecrease(v, d + h(v)); // h never overestimates
+                        }
+                    }
+                }
+                """;
+    }
+}
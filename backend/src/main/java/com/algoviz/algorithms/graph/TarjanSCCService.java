@@ -0,0 +1,184 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.datastructures.IntStack;
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.graph.GraphResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+@Slf4j
+@Service
+public class TarjanSCCService {
+    
+    /**
+     * Tarjan's strongly connected components on the iterative DFS, so it is stack-safe at any
+     * depth. Components come out in reverse topological order of the condensation; on an
+     * undirected graph they are the connected components.
+     */
+    public GraphResult stronglyConnectedComponents(Graph graph, boolean recordSteps) {
+        int vertices = graph.getVertices();
+        Run run = new Run(graph, recordSteps);
+        long startTime = System.currentTimeMillis();
+        
+        run.step(-1, -1, "INITIAL", "Starting Tarjan's algorithm over %d vertices", vertices);
+        for (int v = 0; v < vertices; v++) {
+            run.dfs.visit(v, run);
+        }
+        run.step(-1, -1, "COMPLETE", "Found %d strongly connected components", run.componentEnds.size());
+        
+        long executionTime = System.currentTimeMillis() - startTime;
+        
+        int[] ends = run.componentEnds.toArray();
+        List<List<Integer>> components = new ArrayList<>(ends.length);
+        for (int c = 0; c < ends.length; c++) {
+            components.add(PackedIntArray.asList(
+                    Arrays.copyOfRange(run.members, c == 0 ? 0 : ends[c - 1], ends[c])));
+        }
+        
+        return GraphResult.builder()
+                .steps(run.steps)
+                .traversalOrder(PackedIntArray.asList(run.order))
+                .components(components)
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(V + E)")
+                        .spaceComplexity("O(V)")
+                        .actualOperations(run.operations)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getCodeSnippet())
+                .algorithmName("Tarjan's Strongly Connected Components")
+                .build();
+    }
+    
+    // Per-call state; low-links start at the discovery time and only ever decrease
+    private static class Run implements IterativeDfs.Visitor {
+        final List<AlgorithmStep> steps = new ArrayList<>();
+        final IterativeDfs dfs;
+        final int[] lowLink;
+        final int[] componentOf;
+        final boolean[] onStack;
+        final IntStack componentStack = new IntStack();
+        final int[] members;
+        final IntStack componentEnds = new IntStack();
+        final int[] order;
+        final boolean recordSteps;
+        int memberCount;
+        int orderCount;
+        long operations;
+        
+        Run(Graph graph, boolean recordSteps) {
+            int vertices = graph.getVertices();
+            dfs = new IterativeDfs(graph);
+            lowLink = new int[vertices];
+            componentOf = new int[vertices];
+            onStack = new boolean[vertices];
+            members = new int[vertices];
+            order = new int[vertices];
+            Arrays.fill(componentOf, -1);
+            this.recordSteps = recordSteps;
+        }
+        
+        @Override
+        public void discover(int vertex, int parent) {
+            lowLink[vertex] = dfs.discovery()[vertex];
+            componentStack.push(vertex);
+            onStack[vertex] = true;
+            order[orderCount++] = vertex;
+            operations++;
+            step(vertex, -1, "DISCOVER", "Discovered vertex %d at time %d", vertex, dfs.discovery()[vertex]);
+        }
+        
+        @Override
+        public void treeEdge(int from, int to) {
+            operations++;
+            step(from, to, "TREE_EDGE", "Exploring edge %d -> %d", from, to);
+        }
+        
+        @Override
+        public void nonTreeEdge(int from, int to) {
+            operations++;
+            if (!onStack[to]) {
+                step(from, to, "SKIP_EDGE", "Edge %d -> %d leads into finished component %d", 
+                        from, to, componentOf[to]);
+            } else if (dfs.discovery()[to] < lowLink[from]) {
+                lowLink[from] = dfs.discovery()[to];
+                step(from, to, "LOW_LINK", "Edge %d -> %d reaches stacked vertex %d: low-link of %d is now %d", 
+                        from, to, to, from, lowLink[from]);
+            } else {
+                step(from, to, "ALREADY_VISITED", "Edge %d -> %d does not lower the low-link of %d", 
+                        from, to, from);
+            }
+        }
+        
+        @Override
+        public void finish(int vertex, int parent) {
+            step(vertex, -1, "FINISH", "Finished vertex %d at time %d with low-link %d", 
+                    vertex, dfs.finish()[vertex], lowLink[vertex]);
+            if (lowLink[vertex] == dfs.discovery()[vertex]) {
+                int component = componentEnds.size();
+                int first = memberCount;
+                int member;
+                do {
+                    member = componentStack.pop();
+                    onStack[member] = false;
+                    componentOf[member] = component;
+                    members[memberCount++] = member;
+                } while (member != vertex);
+                componentEnds.push(memberCount);
+                step(vertex, -1, "COMPONENT", "Vertex %d roots component %d: %s", vertex, component, 
+                        Arrays.toString(Arrays.copyOfRange(members, first, memberCount)));
+            }
+            if (parent >= 0 && lowLink[vertex] < lowLink[parent]) {
+                lowLink[parent] = lowLink[vertex];
+            }
+        }
+        
+        // Formats the description only when recording, so untraced runs skip the formatting
+        void step(int current, int neighbor, String operationType, String format, Object... args) {
+            if (recordSteps) {
+                AlgorithmStep step = dfs.step(steps.size(), current, neighbor, operationType, 
+                        String.format(format, args));
+                step.getHighlights().put("lowLink", PackedIntArray.asList(lowLink.clone()));
+                step.getHighlights().put("componentStack", PackedIntArray.asList(componentStack.toArray()));
+                step.getHighlights().put("componentOf", PackedIntArray.asList(componentOf.clone()));
+                steps.add(step);
+            }
+        }
+    }
+    
+    private String getCodeSnippet() {
+        return """
+                // Iterative: the DFS keeps an explicit stack and an edge cursor per vertex
+                void strongConnect(int v) {
+                    index[v] = lowLink[v] = time++;
+                    stack.push(v);
+                    onStack[v] = true;
+                    
+                    for (int w : graph.getNeighbors(v)) {
+                        if (index[w] == -1) {
+                            strongConnect(w);
+                            lowLink[v] = Math.min(lowLink[v], lowLink[w]);
+                        } else if (onStack[w]) {
+                            lowLink[v] = Math.min(lowLink[v], index[w]);
+                        }
+                    }
+                    
+                    if (lowLink[v] == index[v]) {     // v is the root of a component
+                        List<Integer> component = new ArrayList<>();
+                        int w;
+                        do {
+                            w = stack.pop();
+                            onStack[w] = false;
+                            component.add(w);
+                        } while (w != v);
+                        components.add(component);
+                    }
+                }
+                """;
+    }
+}
@@ -0,0 +1,145 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.sorting.SortingResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Counting sort for arrays whose value range is small. Keys are counted into a primitive
+ * histogram and written back run by run; element writes are reported as swaps. Inputs over
+ * {@link RadixSortService#BUCKET_STEPS_MAX_SIZE} keys record one step for the whole write-back
+ * instead of one per distinct value.
+ */
+@Slf4j
+@Service
+public class CountingSortService {
+    
+    private static final int MAX_RANGE = 1 << 20;
+    
+    public SortingResult sort(List<Integer> inputArray) {
+        return sort(inputArray.stream().mapToInt(Integer::intValue).toArray());
+    }
+    
+    public SortingResult sort(int[] array) {
+        return sort(array, true);
+    }
+    
+    public SortingResult sort(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addStep(array, -1, -1, "INITIAL", "Starting CountingSort");
+        int range = countingSort(context, array);
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        
+        long executionTime = context.elapsedMillis();
+        
+        return SortingResult.builder()
+                .sortedArray(PackedIntArray.asList(array))
+                .steps(context.getSteps())
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(n + k)")
+                        .spaceComplexity("O(k), k = " + range)
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getCodeSnippet())
+                .algorithmName("CountingSort")
+                .build();
+    }
+    
+    private int countingSort(SortingContext context, int[] array) {
+        int n = array.length;
+        if (n == 0) {
+            return 0;
+        }
+        int min = array[0];
+        int max = array[0];
+        for (int i = 1; i < n; i++) {
+            if (array[i] < min) {
+                min = array[i];
+            } else if (array[i] > max) {
+                max = array[i];
+            }
+        }
+        long range = (long) max - min + 1;
+        if (range > MAX_RANGE) {
+            throw new IllegalArgumentException(String.format(
+                    "Value range %d exceeds the counting sort limit of %d; use radix-sort instead",
+                    range, MAX_RANGE));
+        }
+        if (context.isRecording()) {
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("min", min);
+            highlights.put("max", max);
+            context.addStep(array, highlights, "RANGE_SCANNED",
+                    String.format("Values lie in [%d..%d], %d counters needed", min, max, range));
+        }
+        
+        int[] counts = new int[(int) range];
+        for (int i = 0; i < n; i++) {
+            counts[array[i] - min]++;
+        }
+        if (context.isRecording()) {
+            Map<String, Object> highlights = new HashMap<>();
+            Map<Integer, Integer> nonEmpty = new LinkedHashMap<>();
+            for (int v = 0; v < counts.length; v++) {
+                if (counts[v] > 0) {
+                    nonEmpty.put(min + v, counts[v]);
+                }
+            }
+            highlights.put("bucketCounts", nonEmpty);
+            context.addStep(array, highlights, "COUNTED",
+                    String.format("Counted %d distinct values", nonEmpty.size()));
+        }
+        
+        boolean bucketSteps = context.isRecording() && n <= RadixSortService.BUCKET_STEPS_MAX_SIZE;
+        int pos = 0;
+        for (int v = 0; v < counts.length; v++) {
+            int count = counts[v];
+            if (count == 0) {
+                continue;
+            }
+            Arrays.fill(array, pos, pos + count, min + v);
+            context.swaps += count;
+            if (bucketSteps) {
+                Map<String, Object> highlights = new HashMap<>();
+                highlights.put("low", pos);
+                highlights.put("high", pos + count - 1);
+                highlights.put("value", min + v);
+                context.addStep(array, highlights, "BUCKET_WRITTEN", String.format(
+                        "Wrote %d copies of %d to [%d..%d]", count, min + v, pos, pos + count - 1));
+            }
+            pos += count;
+        }
+        if (context.isRecording() && !bucketSteps) {
+            context.addStep(array, -1, -1, "BUCKETS_WRITTEN",
+                    "Wrote %d keys back in value order", n);
+        }
+        return (int) range;
+    }
+    
+    private String getCodeSnippet() {
+        return """
+                public void countingSort(int[] arr) {
+                    int min = Arrays.stream(arr).min().orElse(0);
+                    int max = Arrays.stream(arr).max().orElse(0);
+                    int[] count = new int[max - min + 1];
+                    for (int x : arr) {
+                        count[x - min]++;
+                    }
+                    int pos = 0;
+                    for (int v = 0; v < count.length; v++) {
+                        for (int c = 0; c < count[v]; c++) {
+                            arr[pos++] = min + v;
+                        }
+                    }
+                }
+                """;
+    }
+}
@@ -0,0 +1,239 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.sorting.IncrementalUpdate;
+import com.algoviz.model.sorting.SortEdit;
+import com.algoviz.model.sorting.SortingResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Applies SET, INSERT and DELETE edits to an already sorted array without re-sorting it.
+ * A few edits are relocated in place: removals shift the tail left, and insertions find
+ * their slot by binary search and shift the tail right. When the estimated shifting would
+ * exceed one pass over the array, the sorted edits are merged in a single pass instead.
+ */
+@Slf4j
+@Service
+public class IncrementalSortService {
+    
+    private final int maxArraySize;
+    
+    public IncrementalSortService(@Value("${algorithm.max-array-size:10000}") int maxArraySize) {
+        this.maxArraySize = maxArraySize;
+    }
+    
+    /**
+     * @param sorted the stored result; it is copied, never modified
+     */
+    public SortingResult apply(int[] sorted, List<SortEdit> edits, boolean recordSteps) {
+        int n = sorted.length;
+        if (edits == null || edits.isEmpty()) {
+            throw new IllegalArgumentException("At least one edit is required");
+        }
+        
+        // SET is a removal plus an insertion; indices all refer to the stored result
+        int[] removals = new int[edits.size()];
+        int[] insertions = new int[edits.size()];
+        int removed = 0;
+        int inserted = 0;
+        for (int e = 0; e < edits.size(); e++) {
+            SortEdit edit = edits.get(e);
+            String type = edit.getType() == null ? "" : edit.getType().toUpperCase();
+            if (!type.equals("SET") && !type.equals("INSERT") && !type.equals("DELETE")) {
+                throw new IllegalArgumentException(String.format(
+                        "edits[%d] has unknown type %s. Available: [SET, INSERT, DELETE]", e, edit.getType()));
+            }
+            if (!type.equals("INSERT")) {
+                if (edit.getIndex() == null || edit.getIndex() < 0 || edit.getIndex() >= n) {
+                    throw new IllegalArgumentException(String.format(
+                            "edits[%d].index must be between 0 and %d", e, n - 1));
+                }
+                removals[removed++] = edit.getIndex();
+            }
+            if (!type.equals("DELETE")) {
+                if (edit.getValue() == null) {
+                    throw new IllegalArgumentException(String.format("edits[%d].value is required for %s", e, type));
+                }
+                insertions[inserted++] = edit.getValue();
+            }
+        }
+        removals = Arrays.copyOf(removals, removed);
+        insertions = Arrays.copyOf(insertions, inserted);
+        Arrays.sort(removals);
+        for (int r = 1; r < removed; r++) {
+            if (removals[r] == removals[r - 1]) {
+                throw new IllegalArgumentException("Index " + removals[r] + " is edited more than once");
+            }
+        }
+        if (n - removed + inserted > maxArraySize) {
+            throw new IllegalArgumentException(String.format(
+                    "Edited array would have %d elements; the maximum is %d", n - removed + inserted, maxArraySize));
+        }
+        
+        SortingContext context = new SortingContext(recordSteps);
+        context.addStep(sorted, -1, -1, "INITIAL",
+                "Applying %d edits to a sorted array of %d elements", edits.size(), n);
+        
+        // Tail shifts: removals from their index, insertions (estimated on the stored array)
+        // from their slot. A merge writes every element once.
+        long relocationMoves = 0;
+        for (int r = 0; r < removed; r++) {
+            relocationMoves += n - removals[r] - 1;
+        }
+        for (int i = 0; i < inserted; i++) {
+            relocationMoves += n - upperBound(context, sorted, n, insertions[i]);
+        }
+        boolean merge = relocationMoves > n;
+        int[] result = merge
+                ? merge(context, sorted, removals, insertions)
+                : relocate(context, sorted, removals, insertions);
+        long moves = context.swaps;
+        
+        context.addStep(result, -1, -1, "COMPLETE", "Array is sorted");
+        long executionTime = context.elapsedMillis();
+        long fullSort = result.length < 2 ? 0
+                : (long) Math.ceil(result.length * (Math.log(result.length) / Math.log(2)));
+        log.debug("Incremental sort applied {} edits to {} elements by {} with {} moves",
+                edits.size(), n, merge ? "merge" : "relocation", moves);
+        
+        return SortingResult.builder()
+                .sortedArray(PackedIntArray.asList(result))
+                .steps(context.getSteps())
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity(merge ? "O(n + k log k)" : "O(k log n + k·n_move)")
+                        .spaceComplexity("O(n)")
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(merge ? getMergeCodeSnippet() : getRelocateCodeSnippet())
+                .algorithmName(merge ? "Incremental Merge" : "Incremental Relocation")
+                .incremental(IncrementalUpdate.builder()
+                        .edits(edits.size())
+                        .removed(removed)
+                        .inserted(inserted)
+                        .strategy(merge ? "MERGE" : "RELOCATE")
+                        .elementsMoved(moves)
+                        .fullSortComparisons(fullSort)
+                        .build())
+                .build();
+    }
+    
+    private int[] relocate(SortingContext context, int[] sorted, int[] removals, int[] insertions) {
+        int length = sorted.length;
+        int[] out = Arrays.copyOf(sorted, Math.max(length, length - removals.length + insertions.length));
+        
+        // Highest index first, so the lower ones still point at the same elements
+        for (int r = removals.length - 1; r >= 0; r--) {
+            int index = removals[r];
+            int value = out[index];
+            System.arraycopy(out, index + 1, out, index, length - index - 1);
+            length--;
+            context.swaps += length - index;
+            if (context.isRecording()) {
+                context.addStep(Arrays.copyOf(out, length), index, -1, "REMOVED",
+                        "Removed %d from index %d, shifting %d elements left", value, index, length - index);
+            }
+        }
+        for (int value : insertions) {
+            int slot = upperBound(context, out, length, value);
+            System.arraycopy(out, slot, out, slot + 1, length - slot);
+            out[slot] = value;
+            length++;
+            context.swaps += length - slot;
+            if (context.isRecording()) {
+                context.addStep(Arrays.copyOf(out, length), slot, -1, "INSERTED",
+                        "Binary search placed %d at index %d, shifting %d elements right",
+                        value, slot, length - slot - 1);
+            }
+        }
+        return length == out.length ? out : Arrays.copyOf(out, length);
+    }
+    
+    private int[] merge(SortingContext context, int[] sorted, int[] removals, int[] insertions) {
+        Arrays.sort(insertions);
+        if (context.isRecording()) {
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("removed", PackedIntArray.asList(removals.clone()));
+            highlights.put("inserted", PackedIntArray.asList(insertions.clone()));
+            context.addStep(sorted, highlights, "EDITS_SORTED", String.format(
+                    "Sorted %d inserted values; %d indices to drop", insertions.length, removals.length));
+        }
+        
+        int[] out = new int[sorted.length - removals.length + insertions.length];
+        int next = 0;
+        int r = 0;
+        int j = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (r < removals.length && removals[r] == i) {
+                r++;
+                continue;
+            }
+            while (j < insertions.length) {
+                context.comparisons++;
+                if (insertions[j] >= sorted[i]) {
+                    break;
+                }
+                out[next++] = insertions[j++];
+            }
+            out[next++] = sorted[i];
+        }
+        while (j < insertions.length) {
+            out[next++] = insertions[j++];
+        }
+        context.swaps += out.length;
+        context.addStep(out, -1, -1, "MERGED",
+                "Merged the kept elements with the inserted values in one pass");
+        return out;
+    }
+    
+    // First index in arr[0..length) whose value is greater than key
+    private int upperBound(SortingContext context, int[] arr, int length, int key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            context.comparisons++;
+            if (arr[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private String getRelocateCodeSnippet() {
+        return """
+                // removals, highest index first
+                System.arraycopy(arr, index + 1, arr, index, length - index - 1);
+                length--;
+                // insertions
+                int slot = upperBound(arr, length, value); // binary search
+                System.arraycopy(arr, slot, arr, slot + 1, length - slot);
+                arr[slot] = value;
+                length++;
+                """;
+    }
+    
+    private String getMergeCodeSnippet() {
+        return """
+                Arrays.sort(inserted);
+                int next = 0, j = 0;
+                for (int i = 0; i < arr.length; i++) {
+                    if (removed.contains(i)) continue;
+                    while (j < inserted.length && inserted[j] < arr[i]) {
+                        out[next++] = inserted[j++];
+                    }
+                    out[next++] = arr[i];
+                }
+                while (j < inserted.length) out[next++] = inserted[j++];
+                """;
+    }
+}
@@ -1,8 +1,10 @@
 package com.algoviz.algorithms.sorting;
 
-import com.algoviz.model.AlgorithmStep;
+import com.algoviz.datastructures.PackedIntArray;
 import com.algoviz.model.ComplexityMetrics;
 import com.algoviz.model.sorting.SortingResult;
+import com.algoviz.service.AlgorithmExecutor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -10,37 +12,37 @@ import java.util.*;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class MergeSortService {
     
-    private List<AlgorithmStep> steps;
-    private int stepNumber;
-    private long comparisons;
-    private long merges;
-    private long startTime;
+    private final AlgorithmExecutor executor;
     
     public SortingResult sort(List<Integer> inputArray) {
-        int[] array = inputArray.stream().mapToInt(Integer::intValue).toArray();
-        steps = new ArrayList<>();
-        stepNumber = 0;
-        comparisons = 0;
-        merges = 0;
-        startTime = System.currentTimeMillis();
+        return sort(inputArray.stream().mapToInt(Integer::intValue).toArray());
+    }
+    
+    public SortingResult sort(int[] array) {
+        return sort(array, true);
+    }
+    
+    public SortingResult sort(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
         
-        addStep(array, -1, -1, "INITIAL", "Starting MergeSort");
-        mergeSort(array, 0, array.length - 1);
-        addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        context.addStep(array, -1, -1, "INITIAL", "Starting MergeSort");
+        mergeSort(context, array, 0, array.length - 1);
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
         
-        long executionTime = System.currentTimeMillis() - startTime;
+        long executionTime = context.elapsedMillis();
         
         return SortingResult.builder()
-                .sortedArray(Arrays.stream(array).boxed().toList())
-                .steps(steps)
+                .sortedArray(PackedIntArray.asList(array))
+                .steps(context.getSteps())
                 .metrics(ComplexityMetrics.builder()
                         .timeComplexity("O(n log n)")
                         .spaceComplexity("O(n)")
-                        .actualOperations(comparisons + merges)
-                        .comparisons(comparisons)
-                        .swaps(merges)
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
                         .executionTimeMs(executionTime)
                         .build())
                 .codeSnippet(getCodeSnippet())
@@ -48,20 +50,71 @@ public class MergeSortService {
                 .build();
     }
     
-    private void mergeSort(int[] arr, int left, int right) {
+    public SortingResult sortParallel(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
+        int[] initial = recordSteps ? array.clone() : null;
+        
+        ParallelMergeSort parallelSort = new ParallelMergeSort(array, recordSteps);
+        parallelSort.sort(executor.getPool());
+        
+        if (recordSteps) {
+            // Replay the merged task buffers in logical-time order to rebuild each snapshot
+            int[] state = initial;
+            context.addStep(state, -1, -1, "INITIAL", "Starting parallel MergeSort");
+            for (ParallelMergeSort.TraceEvent event : parallelSort.trace()) {
+                if (event.values() != null) {
+                    System.arraycopy(event.values(), 0, state, event.low(), event.values().length);
+                }
+                Map<String, Object> highlights = new HashMap<>();
+                highlights.put("index1", event.low());
+                highlights.put("index2", event.high() - 1);
+                highlights.put("taskId", event.taskId());
+                highlights.put("depth", event.depth());
+                highlights.put("logicalTime", event.logicalTime());
+                highlights.put("worker", event.worker());
+                context.addStep(state, highlights, event.operationType(), String.format(
+                        switch (event.operationType()) {
+                            case "SPLIT" -> "Task %d forked [%d...%d] into two subtasks";
+                            case "LEAF_SORTED" -> "Task %d sorted [%d...%d] sequentially";
+                            default -> "Task %d merged [%d...%d]";
+                        }, event.taskId(), event.low(), event.high() - 1));
+            }
+            context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        }
+        
+        long executionTime = context.elapsedMillis();
+        
+        return SortingResult.builder()
+                .sortedArray(PackedIntArray.asList(array))
+                .steps(context.getSteps())
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity(String.format("O(n log n) work, O(log³ n) span, %d tasks", 
+                                parallelSort.getTasks()))
+                        .spaceComplexity("O(n)")
+                        .actualOperations(parallelSort.getComparisons() + parallelSort.getMoves())
+                        .comparisons(parallelSort.getComparisons())
+                        .swaps(parallelSort.getMoves())
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getParallelCodeSnippet())
+                .algorithmName("Parallel MergeSort")
+                .build();
+    }
+    
+    private void mergeSort(SortingContext context, int[] arr, int left, int right) {
         if (left < right) {
             int mid = left + (right - left) / 2;
             
-            addStep(arr, left, right, "DIVIDE", 
-                    String.format("Dividing array: [%d...%d] at mid=%d", left, right, mid));
+            context.addStep(arr, left, right, "DIVIDE", 
+                    "Dividing array: [%d...%d] at mid=%d", left, right, mid);
             
-            mergeSort(arr, left, mid);
-            mergeSort(arr, mid + 1, right);
-            merge(arr, left, mid, right);
+            mergeSort(context, arr, left, mid);
+            mergeSort(context, arr, mid + 1, right);
+            merge(context, arr, left, mid, right);
         }
     }
     
-    private void merge(int[] arr, int left, int mid, int right) {
+    private void merge(SortingContext context, int[] arr, int left, int mid, int right) {
         int n1 = mid - left + 1;
         int n2 = right - mid;
         
@@ -71,14 +124,13 @@ public class MergeSortService {
         System.arraycopy(arr, left, leftArray, 0, n1);
         System.arraycopy(arr, mid + 1, rightArray, 0, n2);
         
-        addStep(arr, left, right, "MERGING", 
-                String.format("Merging subarrays [%d...%d] and [%d...%d]", 
-                        left, mid, mid + 1, right));
+        context.addStep(arr, left, right, "MERGING", 
+                "Merging subarrays [%d...%d] and [%d...%d]", left, mid, mid + 1, right);
         
         int i = 0, j = 0, k = left;
         
         while (i < n1 && j < n2) {
-            comparisons++;
+            context.comparisons++;
             if (leftArray[i] <= rightArray[j]) {
                 arr[k] = leftArray[i];
                 i++;
@@ -86,9 +138,9 @@ public class MergeSortService {
                 arr[k] = rightArray[j];
                 j++;
             }
-            merges++;
-            addStep(arr, k, -1, "MERGE_STEP", 
-                    String.format("Placed %d at position %d", arr[k], k));
+            context.swaps++;
+            context.addStep(arr, k, -1, "MERGE_STEP", 
+                    "Placed %d at position %d", arr[k], k);
             k++;
         }
         
@@ -96,33 +148,18 @@ public class MergeSortService {
             arr[k] = leftArray[i];
             i++;
             k++;
-            merges++;
+            context.swaps++;
         }
         
         while (j < n2) {
             arr[k] = rightArray[j];
             j++;
             k++;
-            merges++;
+            context.swaps++;
         }
         
-        addStep(arr, left, right, "MERGE_COMPLETE", 
-                String.format("Merged [%d...%d]", left, right));
-    }
-    
-    private void addStep(int[] array, int index1, int index2, String operationType, String description) {
-        Map<String, Object> highlights = new HashMap<>();
-        if (index1 >= 0) highlights.put("index1", index1);
-        if (index2 >= 0) highlights.put("index2", index2);
-        
-        steps.add(AlgorithmStep.builder()
-                .stepNumber(stepNumber++)
-                .description(description)
-                .currentState(Arrays.stream(array).boxed().toList())
-                .highlights(highlights)
-                .timestamp(System.currentTimeMillis())
-                .operationType(operationType)
-                .build());
+        context.addStep(arr, left, right, "MERGE_COMPLETE", 
+                "Merged [%d...%d]", left, right);
     }
     
     private String getCodeSnippet() {
@@ -154,4 +191,34 @@ public class MergeSortService {
                 }
                 """;
     }
+    
+    private String getParallelCodeSnippet() {
+        return """
+                class SortTask extends RecursiveAction {
+                    protected void compute() {
+                        if (high - low <= CUTOFF) {
+                            sequentialSort(target, low, high);
+                            return;
+                        }
+                        int mid = (low + high) >>> 1;
+                        // children sort into the other buffer, then we merge back
+                        invokeAll(new SortTask(low, mid, !intoArray),
+                                  new SortTask(mid, high, !intoArray));
+                        new MergeTask(other, target, low, mid, mid, high, low).invoke();
+                    }
+                }
+                
+                class MergeTask extends RecursiveAction {
+                    protected void compute() {
+                        if (total <= CUTOFF) { sequentialMerge(); return; }
+                        int aMid = (aLo + aHi) >>> 1;
+                        int bMid = lowerBound(src, bLo, bHi, src[aMid]);
+                        int dMid = dLo + (aMid - aLo) + (bMid - bLo);
+                        dst[dMid] = src[aMid];
+                        invokeAll(new MergeTask(aLo, aMid, bLo, bMid, dLo),
+                                  new MergeTask(aMid + 1, aHi, bMid, bHi, dMid + 1));
+                    }
+                }
+                """;
+    }
 }
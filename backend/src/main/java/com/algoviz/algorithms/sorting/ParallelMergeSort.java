@@ -0,0 +1,238 @@
+package com.algoviz.algorithms.sorting;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fork-join merge sort that ping-pongs between the input and one auxiliary buffer
+ * allocated up front. Each task records into its own event buffer stamped with a
+ * Lamport-style logical clock, so the buffers can be merged into one trace afterwards
+ * without any synchronisation while sorting.
+ */
+final class ParallelMergeSort {
+    
+    static final int SEQUENTIAL_CUTOFF = 1 << 13;
+    static final int MERGE_CUTOFF = 1 << 13;
+    private static final int INSERTION_CUTOFF = 32;
+    
+    record TraceEvent(long logicalTime, int taskId, int depth, String operationType,
+                      int low, int high, int[] values, String worker) {
+    }
+    
+    private final int[] array;
+    private final int[] aux;
+    private final boolean recording;
+    private final int cutoff;
+    private final AtomicInteger taskIds = new AtomicInteger();
+    private final Queue<List<TraceEvent>> buffers = new ConcurrentLinkedQueue<>();
+    private long comparisons;
+    private long moves;
+    private int tasks;
+    
+    ParallelMergeSort(int[] array, boolean recording) {
+        this.array = array;
+        this.aux = new int[array.length];
+        this.recording = recording;
+        // A traced run is small, so split it finely enough to show the task tree
+        this.cutoff = recording ? Math.max(2, array.length / 8) : SEQUENTIAL_CUTOFF;
+    }
+    
+    void sort(ForkJoinPool pool) {
+        SortTask root = new SortTask(0, array.length, true, 0, 0);
+        pool.invoke(root);
+        comparisons = root.comparisons;
+        moves = root.moves;
+        tasks = taskIds.get();
+    }
+    
+    List<TraceEvent> trace() {
+        List<TraceEvent> events = new ArrayList<>();
+        buffers.forEach(events::addAll);
+        events.sort(Comparator.comparingLong(TraceEvent::logicalTime)
+                .thenComparingInt(TraceEvent::low));
+        return events;
+    }
+    
+    long getComparisons() {
+        return comparisons;
+    }
+    
+    long getMoves() {
+        return moves;
+    }
+    
+    int getTasks() {
+        return tasks;
+    }
+    
+    private final class SortTask extends RecursiveAction {
+        private final int low;
+        private final int high;
+        private final boolean intoArray;
+        private final int depth;
+        private final int id = taskIds.getAndIncrement();
+        private final List<TraceEvent> events = recording ? new ArrayList<>() : null;
+        private long clock;
+        private long comparisons;
+        private long moves;
+        
+        SortTask(int low, int high, boolean intoArray, int depth, long clock) {
+            this.low = low;
+            this.high = high;
+            this.intoArray = intoArray;
+            this.depth = depth;
+            this.clock = clock;
+        }
+        
+        @Override
+        protected void compute() {
+            int[] target = intoArray ? array : aux;
+            int[] other = intoArray ? aux : array;
+            
+            if (high - low <= cutoff) {
+                // Unsorted input for this range still lives in the original array
+                if (!intoArray) {
+                    System.arraycopy(array, low, aux, low, high - low);
+                    moves += high - low;
+                }
+                sequentialSort(target, other, low, high);
+                record("LEAF_SORTED", target);
+                finish();
+                return;
+            }
+            
+            record("SPLIT", null);
+            int mid = (low + high) >>> 1;
+            // Children leave their output in the other buffer so this task can merge it back
+            SortTask left = new SortTask(low, mid, !intoArray, depth + 1, clock);
+            SortTask right = new SortTask(mid, high, !intoArray, depth + 1, clock);
+            invokeAll(left, right);
+            clock = Math.max(left.clock, right.clock) + 1;
+            comparisons += left.comparisons + right.comparisons;
+            moves += left.moves + right.moves;
+            
+            if (recording || high - low <= MERGE_CUTOFF) {
+                merge(other, target, low, mid, mid, high, low);
+            } else {
+                MergeTask merge = new MergeTask(other, target, low, mid, mid, high, low);
+                merge.invoke();
+                comparisons += merge.comparisons;
+                moves += high - low;
+            }
+            record("MERGE_COMPLETE", target);
+            finish();
+        }
+        
+        private void sequentialSort(int[] x, int[] scratch, int lo, int hi) {
+            if (hi - lo <= INSERTION_CUTOFF) {
+                for (int i = lo + 1; i < hi; i++) {
+                    int key = x[i];
+                    int j = i - 1;
+                    while (j >= lo && x[j] > key) {
+                        comparisons++;
+                        x[j + 1] = x[j];
+                        moves++;
+                        j--;
+                    }
+                    if (j >= lo) {
+                        comparisons++;
+                    }
+                    x[j + 1] = key;
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            sequentialSort(x, scratch, lo, mid);
+            sequentialSort(x, scratch, mid, hi);
+            comparisons++;
+            if (x[mid - 1] <= x[mid]) {
+                return; // Runs are already in order
+            }
+            System.arraycopy(x, lo, scratch, lo, hi - lo);
+            merge(scratch, x, lo, mid, mid, hi, lo);
+        }
+        
+        private void merge(int[] src, int[] dst, int aLo, int aHi, int bLo, int bHi, int dLo) {
+            int i = aLo, j = bLo, k = dLo;
+            while (i < aHi && j < bHi) {
+                comparisons++;
+                dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+            }
+            while (i < aHi) dst[k++] = src[i++];
+            while (j < bHi) dst[k++] = src[j++];
+            moves += (aHi - aLo) + (bHi - bLo);
+        }
+        
+        private void record(String operationType, int[] source) {
+            if (!recording) {
+                return;
+            }
+            int[] values = source == null ? null : Arrays.copyOfRange(source, low, high);
+            events.add(new TraceEvent(clock++, id, depth, operationType, low, high, values, 
+                    Thread.currentThread().getName()));
+        }
+        
+        private void finish() {
+            if (recording) {
+                buffers.add(events);
+            }
+        }
+    }
+    
+    // Splits around the middle element of the longer run so both halves merge in parallel
+    private static final class MergeTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dst;
+        private final int aLo, aHi, bLo, bHi, dLo;
+        private long comparisons;
+        
+        MergeTask(int[] src, int[] dst, int aLo, int aHi, int bLo, int bHi, int dLo) {
+            this.src = src;
+            this.dst = dst;
+            this.aLo = aLo;
+            this.aHi = aHi;
+            this.bLo = bLo;
+            this.bHi = bHi;
+            this.dLo = dLo;
+        }
+        
+        @Override
+        protected void compute() {
+            if ((aHi - aLo) + (bHi - bLo) <= MERGE_CUTOFF) {
+                int i = aLo, j = bLo, k = dLo;
+                while (i < aHi && j < bHi) {
+                    comparisons++;
+                    dst[k++] = src[i] <= src[j] ? src[i++] : src[j++];
+                }
+                while (i < aHi) dst[k++] = src[i++];
+                while (j < bHi) dst[k++] = src[j++];
+                return;
+            }
+            
+            // Split the longer run; equal ints are indistinguishable, so the order of the runs does not matter
+            boolean splitA = aHi - aLo >= bHi - bLo;
+            int longLo = splitA ? aLo : bLo, longHi = splitA ? aHi : bHi;
+            int shortLo = splitA ? bLo : aLo, shortHi = splitA ? bHi : aHi;
+            
+            int longMid = (longLo + longHi) >>> 1;
+            int pivot = src[longMid];
+            int lo = shortLo, hi = shortHi;
+            while (lo < hi) {
+                int m = (lo + hi) >>> 1;
+                comparisons++;
+                if (src[m] < pivot) lo = m + 1; else hi = m;
+            }
+            int shortMid = lo;
+            int dMid = dLo + (longMid - longLo) + (shortMid - shortLo);
+            dst[dMid] = pivot;
+            
+            MergeTask left = new MergeTask(src, dst, longLo, longMid, shortLo, shortMid, dLo);
+            MergeTask right = new MergeTask(src, dst, longMid + 1, longHi, shortMid, shortHi, dMid + 1);
+            invokeAll(left, right);
+            comparisons += left.comparisons + right.comparisons;
+        }
+    }
+}
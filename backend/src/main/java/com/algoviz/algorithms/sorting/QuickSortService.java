@@ -1,6 +1,6 @@
 package com.algoviz.algorithms.sorting;
 
-import com.algoviz.model.AlgorithmStep;
+import com.algoviz.datastructures.PackedIntArray;
 import com.algoviz.model.ComplexityMetrics;
 import com.algoviz.model.sorting.SortingResult;
 import lombok.extern.slf4j.Slf4j;
@@ -12,100 +12,603 @@ import java.util.*;
 @Service
 public class QuickSortService {
     
-    private List<AlgorithmStep> steps;
-    private int stepNumber;
-    private long comparisons;
-    private long swaps;
-    private long startTime;
+    private static final int INSERTION_CUTOFF = 16;
+    private static final int NINTHER_THRESHOLD = 40;
     
     public SortingResult sort(List<Integer> inputArray) {
-        int[] array = inputArray.stream().mapToInt(Integer::intValue).toArray();
-        steps = new ArrayList<>();
-        stepNumber = 0;
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.currentTimeMillis();
+        return sort(inputArray.stream().mapToInt(Integer::intValue).toArray());
+    }
+    
+    public SortingResult sort(int[] array) {
+        return sort(array, true);
+    }
+    
+    public SortingResult sort(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addStep(array, -1, -1, "INITIAL", "Starting QuickSort");
+        quickSort(context, array, 0, array.length - 1);
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        
+        return buildResult(context, array, "O(n log n) average, O(n²) worst",
+                getCodeSnippet(), "QuickSort");
+    }
+    
+    /**
+     * Introsort: median-of-three (ninther for large ranges) pivots, an explicit stack that
+     * always continues with the smaller side, heapsort once depth exceeds 2·log n, and
+     * insertion sort for small partitions.
+     */
+    public SortingResult sortIntrosort(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addStep(array, -1, -1, "INITIAL", "Starting Introsort");
+        introsort(context, array, 0, array.length - 1);
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        
+        return buildResult(context, array, "O(n log n)", getIntrosortCodeSnippet(), "Introsort");
+    }
+    
+    /**
+     * Yaroslavskiy dual-pivot quicksort, the scheme behind {@code Arrays.sort(int[])}.
+     * Pivots are the 2nd and 4th of five sorted samples; when they are equal the middle part
+     * holds only equal keys and is skipped.
+     */
+    public SortingResult sortDualPivot(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addStep(array, -1, -1, "INITIAL", "Starting Dual-Pivot QuickSort");
+        dualPivotQuickSort(context, array, 0, array.length - 1, 0);
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        
+        return buildResult(context, array, "O(n log n) average, O(n²) worst",
+                getDualPivotCodeSnippet(), "Dual-Pivot QuickSort");
+    }
+    
+    /**
+     * Bentley-McIlroy three-way partitioning: keys equal to the pivot are gathered at both
+     * ends during the scan and swapped into the middle, so they are never partitioned again.
+     */
+    public SortingResult sortThreeWay(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
         
-        addStep(array, -1, -1, "INITIAL", "Starting QuickSort");
-        quickSort(array, 0, array.length - 1);
-        addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        context.addStep(array, -1, -1, "INITIAL", "Starting Three-Way QuickSort");
+        threeWayQuickSort(context, array, 0, array.length - 1, 0);
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
         
-        long executionTime = System.currentTimeMillis() - startTime;
+        return buildResult(context, array, "O(n log n) average, O(n) with few distinct keys",
+                getThreeWayCodeSnippet(), "Three-Way QuickSort");
+    }
+    
+    private SortingResult buildResult(SortingContext context, int[] array, String timeComplexity,
+                                      String codeSnippet, String algorithmName) {
+        long executionTime = context.elapsedMillis();
         
         return SortingResult.builder()
-                .sortedArray(Arrays.stream(array).boxed().toList())
-                .steps(steps)
+                .sortedArray(PackedIntArray.asList(array))
+                .steps(context.getSteps())
                 .metrics(ComplexityMetrics.builder()
-                        .timeComplexity("O(n log n) average, O(n²) worst")
+                        .timeComplexity(timeComplexity)
                         .spaceComplexity("O(log n)")
-                        .actualOperations(comparisons + swaps)
-                        .comparisons(comparisons)
-                        .swaps(swaps)
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
                         .executionTimeMs(executionTime)
                         .build())
-                .codeSnippet(getCodeSnippet())
-                .algorithmName("QuickSort")
+                .codeSnippet(codeSnippet)
+                .algorithmName(algorithmName)
                 .build();
     }
     
-    private void quickSort(int[] arr, int low, int high) {
+    private void quickSort(SortingContext context, int[] arr, int low, int high) {
         if (low < high) {
-            int pi = partition(arr, low, high);
-            quickSort(arr, low, pi - 1);
-            quickSort(arr, pi + 1, high);
+            int pi = partition(context, arr, low, high);
+            quickSort(context, arr, low, pi - 1);
+            quickSort(context, arr, pi + 1, high);
         }
     }
     
-    private int partition(int[] arr, int low, int high) {
+    private int partition(SortingContext context, int[] arr, int low, int high) {
+        context.addStep(arr, high, -1, "PIVOT_SELECTED", 
+                "Selected pivot: %d at index %d", arr[high], high);
+        return partitionAroundHigh(context, arr, low, high);
+    }
+    
+    private int partitionAroundHigh(SortingContext context, int[] arr, int low, int high) {
         int pivot = arr[high];
-        addStep(arr, high, -1, "PIVOT_SELECTED", 
-                String.format("Selected pivot: %d at index %d", pivot, high));
-        
         int i = low - 1;
         
         for (int j = low; j < high; j++) {
-            comparisons++;
-            addStep(arr, j, high, "COMPARING", 
-                    String.format("Comparing arr[%d]=%d with pivot=%d", j, arr[j], pivot));
+            context.comparisons++;
+            context.addStep(arr, j, high, "COMPARING", 
+                    "Comparing arr[%d]=%d with pivot=%d", j, arr[j], pivot);
             
             if (arr[j] < pivot) {
                 i++;
                 swap(arr, i, j);
-                swaps++;
-                addStep(arr, i, j, "SWAPPED", 
-                        String.format("Swapped arr[%d]=%d with arr[%d]=%d", i, arr[i], j, arr[j]));
+                context.swaps++;
+                context.addStep(arr, i, j, "SWAPPED", 
+                        "Swapped arr[%d]=%d with arr[%d]=%d", i, arr[i], j, arr[j]);
             }
         }
         
         swap(arr, i + 1, high);
-        swaps++;
-        addStep(arr, i + 1, high, "PARTITION_COMPLETE", 
-                String.format("Pivot placed at correct position: %d", i + 1));
+        context.swaps++;
+        context.addStep(arr, i + 1, high, "PARTITION_COMPLETE", 
+                "Pivot placed at correct position: %d", i + 1);
         
         return i + 1;
     }
     
+    void introsort(SortingContext context, int[] arr, int low, int high) {
+        int n = high - low + 1;
+        if (n < 2) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(n));
+        // Pending (low, high, depth) triples. Only the larger side is pushed, so each entry
+        // is at least twice the size of the range processed after it: at most log2(n) pending.
+        int[] stack = new int[3 * 33];
+        int top = 0;
+        int depth = 0;
+        
+        while (true) {
+            if (high - low < INSERTION_CUTOFF) {
+                insertionSort(context, arr, low, high, depth);
+            } else if (depth >= depthLimit) {
+                heapSort(context, arr, low, high, depth);
+            } else {
+                int p = partitionIntro(context, arr, low, high, depth);
+                depth++;
+                if (p - low < high - p) {
+                    stack[top++] = p + 1;
+                    stack[top++] = high;
+                    stack[top++] = depth;
+                    high = p - 1;
+                } else {
+                    stack[top++] = low;
+                    stack[top++] = p - 1;
+                    stack[top++] = depth;
+                    low = p + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                break;
+            }
+            depth = stack[--top];
+            high = stack[--top];
+            low = stack[--top];
+        }
+    }
+    
+    private int partitionIntro(SortingContext context, int[] arr, int low, int high, int depth) {
+        boolean ninther = high - low + 1 > NINTHER_THRESHOLD;
+        int pivotIndex = selectPivot(context, arr, low, high);
+        
+        if (context.isRecording()) {
+            Map<String, Object> highlights = rangeHighlights(low, high, depth,
+                    ninther ? "NINTHER" : "MEDIAN_OF_THREE");
+            highlights.put("index1", pivotIndex);
+            context.addStep(arr, highlights, "PIVOT_SELECTED", String.format(
+                    "Selected pivot %d at index %d by %s over [%d..%d]", arr[pivotIndex], pivotIndex,
+                    ninther ? "ninther" : "median-of-three", low, high));
+        }
+        
+        if (pivotIndex != high) {
+            swap(arr, pivotIndex, high);
+            context.swaps++;
+        }
+        return partitionAroundHigh(context, arr, low, high);
+    }
+    
+    /** Median-of-three for small ranges, Tukey's ninther above {@link #NINTHER_THRESHOLD}. */
+    private int selectPivot(SortingContext context, int[] arr, int low, int high) {
+        int size = high - low + 1;
+        int mid = low + ((high - low) >>> 1);
+        if (size > NINTHER_THRESHOLD) {
+            int eighth = size / 8;
+            return medianOfThree(context, arr,
+                    medianOfThree(context, arr, low, low + eighth, low + 2 * eighth),
+                    medianOfThree(context, arr, mid - eighth, mid, mid + eighth),
+                    medianOfThree(context, arr, high - 2 * eighth, high - eighth, high));
+        }
+        return medianOfThree(context, arr, low, mid, high);
+    }
+    
+    private int medianOfThree(SortingContext context, int[] arr, int i, int j, int k) {
+        context.comparisons++;
+        if (arr[i] < arr[j]) {
+            context.comparisons++;
+            if (arr[j] < arr[k]) {
+                return j;
+            }
+            context.comparisons++;
+            return arr[i] < arr[k] ? k : i;
+        }
+        context.comparisons++;
+        if (arr[i] < arr[k]) {
+            return i;
+        }
+        context.comparisons++;
+        return arr[j] < arr[k] ? k : j;
+    }
+    
+    void insertionSort(SortingContext context, int[] arr, int low, int high, int depth) {
+        if (high <= low) {
+            return;
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= low) {
+                context.comparisons++;
+                if (arr[j] <= key) {
+                    break;
+                }
+                arr[j + 1] = arr[j];
+                context.swaps++;
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+        if (context.isRecording()) {
+            context.addStep(arr, rangeHighlights(low, high, depth, "INSERTION_SORT"), "INSERTION_SORT",
+                    String.format("Insertion-sorted small partition [%d..%d]", low, high));
+        }
+    }
+    
+    private void heapSort(SortingContext context, int[] arr, int low, int high, int depth) {
+        if (context.isRecording()) {
+            context.addStep(arr, rangeHighlights(low, high, depth, "HEAPSORT"), "HEAPSORT_FALLBACK",
+                    String.format("Depth limit reached at depth %d, heapsorting [%d..%d]", depth, low, high));
+        }
+        int size = high - low + 1;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(context, arr, low, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(arr, low, low + end);
+            context.swaps++;
+            context.addStep(arr, low, low + end, "SWAPPED",
+                    "Moved heap maximum %d to index %d", arr[low + end], low + end);
+            siftDown(context, arr, low, 0, end);
+        }
+    }
+    
+    private void siftDown(SortingContext context, int[] arr, int base, int i, int size) {
+        int value = arr[base + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size) {
+                context.comparisons++;
+                if (arr[base + child] < arr[base + child + 1]) {
+                    child++;
+                }
+            }
+            context.comparisons++;
+            if (arr[base + child] <= value) {
+                break;
+            }
+            arr[base + i] = arr[base + child];
+            context.swaps++;
+            i = child;
+        }
+        arr[base + i] = value;
+    }
+    
+    private void dualPivotQuickSort(SortingContext context, int[] arr, int low, int high, int depth) {
+        // Recurse into the two smaller parts and loop on the largest, keeping the stack O(log n)
+        while (low < high) {
+            long bounds = dualPivotPartition(context, arr, low, high, depth);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            int middleLow = lt + 1;
+            int middleHigh = gt - 1;
+            if (arr[lt] == arr[gt]) {
+                middleHigh = lt;
+            } else if ((middleHigh - middleLow + 1) * 7L > (high - low + 1) * 4L) {
+                long middle = excludePivotKeys(context, arr, middleLow, middleHigh, arr[lt], arr[gt], depth);
+                middleLow = (int) (middle >>> 32);
+                middleHigh = (int) middle;
+            }
+            int leftSize = lt - low;
+            int middleSize = Math.max(0, middleHigh - middleLow + 1);
+            int rightSize = high - gt;
+            depth++;
+            
+            if (leftSize >= middleSize && leftSize >= rightSize) {
+                dualPivotQuickSort(context, arr, middleLow, middleHigh, depth);
+                dualPivotQuickSort(context, arr, gt + 1, high, depth);
+                high = lt - 1;
+            } else if (rightSize >= middleSize) {
+                dualPivotQuickSort(context, arr, low, lt - 1, depth);
+                dualPivotQuickSort(context, arr, middleLow, middleHigh, depth);
+                low = gt + 1;
+            } else {
+                dualPivotQuickSort(context, arr, low, lt - 1, depth);
+                dualPivotQuickSort(context, arr, gt + 1, high, depth);
+                low = middleLow;
+                high = middleHigh;
+            }
+        }
+    }
+    
+    /**
+     * A large middle part usually means many keys equal to a pivot (the JDK uses the same
+     * test). Moves keys equal to {@code pivot1} to its front and {@code pivot2} to its back
+     * and returns the bounds of what is left, packed as {@code (low << 32) | high}.
+     */
+    private long excludePivotKeys(SortingContext context, int[] arr, int low, int high,
+                                  int pivot1, int pivot2, int depth) {
+        if (context.isRecording()) {
+            context.addStep(arr, rangeHighlights(low, high, depth, "DUAL_PIVOT"), "EQUAL_KEYS_PASS",
+                    String.format("Middle part [%d..%d] is large, moving keys equal to %d and %d out",
+                            low, high, pivot1, pivot2));
+        }
+        int less = low;
+        int great = high;
+        for (int k = less; k <= great; k++) {
+            context.comparisons++;
+            if (arr[k] == pivot1) {
+                swapEqualKey(context, arr, less++, k);
+                continue;
+            }
+            context.comparisons++;
+            if (arr[k] == pivot2) {
+                while (k < great) {
+                    context.comparisons++;
+                    if (arr[great] != pivot2) {
+                        break;
+                    }
+                    great--;
+                }
+                swapEqualKey(context, arr, great--, k);
+                context.comparisons++;
+                if (arr[k] == pivot1) {
+                    swapEqualKey(context, arr, less++, k);
+                }
+            }
+        }
+        return ((long) less << 32) | (great & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Partitions {@code arr[low..high]} into {@code < p1 | p1 <= x <= p2 | > p2} and returns
+     * the final pivot positions packed as {@code (lt << 32) | gt}.
+     */
+    private long dualPivotPartition(SortingContext context, int[] arr, int low, int high, int depth) {
+        selectDualPivots(context, arr, low, high);
+        int pivot1 = arr[low];
+        int pivot2 = arr[high];
+        if (context.isRecording()) {
+            Map<String, Object> highlights = rangeHighlights(low, high, depth, "DUAL_PIVOT");
+            highlights.put("index1", low);
+            highlights.put("index2", high);
+            context.addStep(arr, highlights, "PIVOTS_SELECTED", String.format(
+                    "Selected pivots %d and %d for [%d..%d]", pivot1, pivot2, low, high));
+        }
+        
+        int lt = low + 1;
+        int gt = high - 1;
+        int k = lt;
+        while (k <= gt) {
+            context.comparisons++;
+            context.addStep(arr, k, -1, "COMPARING",
+                    "Comparing arr[%d]=%d with pivots %d and %d", k, arr[k], pivot1, pivot2);
+            if (arr[k] < pivot1) {
+                if (k != lt) {
+                    swap(arr, k, lt);
+                    context.swaps++;
+                    context.addStep(arr, k, lt, "SWAPPED",
+                            "Moved %d below pivot %d to index %d", arr[lt], pivot1, lt);
+                }
+                lt++;
+            } else {
+                context.comparisons++;
+                if (arr[k] > pivot2) {
+                    while (k < gt) {
+                        context.comparisons++;
+                        if (arr[gt] <= pivot2) {
+                            break;
+                        }
+                        gt--;
+                    }
+                    swap(arr, k, gt);
+                    context.swaps++;
+                    context.addStep(arr, k, gt, "SWAPPED",
+                            "Moved %d above pivot %d to index %d", arr[gt], pivot2, gt);
+                    gt--;
+                    context.comparisons++;
+                    if (arr[k] < pivot1) {
+                        swap(arr, k, lt);
+                        context.swaps++;
+                        context.addStep(arr, k, lt, "SWAPPED",
+                                "Moved %d below pivot %d to index %d", arr[lt], pivot1, lt);
+                        lt++;
+                    }
+                }
+            }
+            k++;
+        }
+        lt--;
+        gt++;
+        swap(arr, low, lt);
+        swap(arr, high, gt);
+        context.swaps += 2;
+        
+        if (context.isRecording()) {
+            Map<String, Object> highlights = rangeHighlights(low, high, depth, "DUAL_PIVOT");
+            highlights.put("index1", lt);
+            highlights.put("index2", gt);
+            context.addStep(arr, highlights, "PARTITION_COMPLETE", String.format(
+                    "Pivots placed at %d and %d", lt, gt));
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Leaves the smaller pivot at {@code low} and the larger at {@code high}. Large ranges
+     * sort five evenly spaced samples and take the second and fourth, as the JDK does.
+     */
+    private void selectDualPivots(SortingContext context, int[] arr, int low, int high) {
+        int size = high - low + 1;
+        if (size > NINTHER_THRESHOLD) {
+            int seventh = size / 7;
+            int e3 = low + ((high - low) >>> 1);
+            int[] samples = {e3 - 2 * seventh, e3 - seventh, e3, e3 + seventh, e3 + 2 * seventh};
+            for (int i = 1; i < samples.length; i++) {
+                for (int j = i; j > 0; j--) {
+                    context.comparisons++;
+                    if (arr[samples[j - 1]] <= arr[samples[j]]) {
+                        break;
+                    }
+                    swap(arr, samples[j - 1], samples[j]);
+                    context.swaps++;
+                }
+            }
+            swap(arr, low, samples[1]);
+            swap(arr, high, samples[3]);
+            context.swaps += 2;
+        }
+        context.comparisons++;
+        if (arr[low] > arr[high]) {
+            swap(arr, low, high);
+            context.swaps++;
+        }
+    }
+    
+    private void threeWayQuickSort(SortingContext context, int[] arr, int low, int high, int depth) {
+        while (low < high) {
+            long bounds = threeWayPartition(context, arr, low, high, depth);
+            int lessEnd = (int) (bounds >>> 32);
+            int greaterStart = (int) bounds;
+            depth++;
+            if (lessEnd - low < high - greaterStart) {
+                threeWayQuickSort(context, arr, low, lessEnd, depth);
+                low = greaterStart;
+            } else {
+                threeWayQuickSort(context, arr, greaterStart, high, depth);
+                high = lessEnd;
+            }
+        }
+    }
+    
+    /**
+     * Bentley-McIlroy partition of {@code arr[low..high]}. Returns the end of the
+     * {@code < pivot} part and the start of the {@code > pivot} part packed into a long.
+     */
+    long threeWayPartition(SortingContext context, int[] arr, int low, int high, int depth) {
+        if (high - low >= 2) {
+            int pivotIndex = selectPivot(context, arr, low, high);
+            if (pivotIndex != low) {
+                swap(arr, low, pivotIndex);
+                context.swaps++;
+            }
+        }
+        return partitionAroundLow(context, arr, low, high, depth, "THREE_WAY");
+    }
+    
+    /**
+     * Three-way partition around the pivot already at {@code arr[low]}; {@code strategy}
+     * names how it was chosen in the recorded steps.
+     */
+    long partitionAroundLow(SortingContext context, int[] arr, int low, int high, int depth, String strategy) {
+        int pivot = arr[low];
+        if (context.isRecording()) {
+            Map<String, Object> highlights = rangeHighlights(low, high, depth, strategy);
+            highlights.put("index1", low);
+            context.addStep(arr, highlights, "PIVOT_SELECTED", String.format(
+                    "Selected pivot %d for [%d..%d]", pivot, low, high));
+        }
+        
+        // Invariant: arr[low..p] == pivot, arr[p+1..i-1] < pivot, arr[j+1..q-1] > pivot, arr[q..high] == pivot
+        int i = low;
+        int j = high + 1;
+        int p = low;
+        int q = high + 1;
+        while (true) {
+            while (i < high) {
+                i++;
+                context.comparisons++;
+                if (arr[i] >= pivot) {
+                    break;
+                }
+            }
+            while (j > low) {
+                j--;
+                context.comparisons++;
+                if (arr[j] <= pivot) {
+                    break;
+                }
+            }
+            if (i == j) {
+                context.comparisons++;
+                if (arr[i] == pivot) {
+                    swapEqualKey(context, arr, ++p, i);
+                }
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(arr, i, j);
+            context.swaps++;
+            context.addStep(arr, i, j, "SWAPPED",
+                    "Swapped arr[%d]=%d with arr[%d]=%d", i, arr[i], j, arr[j]);
+            context.comparisons += 2;
+            if (arr[i] == pivot) {
+                swapEqualKey(context, arr, ++p, i);
+            }
+            if (arr[j] == pivot) {
+                swapEqualKey(context, arr, --q, j);
+            }
+        }
+        
+        i = j + 1;
+        for (int k = low; k <= p; k++) {
+            swap(arr, k, j--);
+            context.swaps++;
+        }
+        for (int k = high; k >= q; k--) {
+            swap(arr, k, i++);
+            context.swaps++;
+        }
+        
+        if (context.isRecording()) {
+            Map<String, Object> highlights = rangeHighlights(low, high, depth, strategy);
+            highlights.put("equalLow", j + 1);
+            highlights.put("equalHigh", i - 1);
+            context.addStep(arr, highlights, "PARTITION_COMPLETE", String.format(
+                    "Keys equal to %d moved to [%d..%d]", pivot, j + 1, i - 1));
+        }
+        return ((long) j << 32) | (i & 0xFFFFFFFFL);
+    }
+    
+    private void swapEqualKey(SortingContext context, int[] arr, int end, int index) {
+        swap(arr, end, index);
+        context.swaps++;
+        context.addStep(arr, end, index, "EQUAL_KEY_SWAP",
+                "Parked key %d equal to pivot at index %d", arr[end], end);
+    }
+    
+    Map<String, Object> rangeHighlights(int low, int high, int depth, String strategy) {
+        Map<String, Object> highlights = new HashMap<>();
+        highlights.put("low", low);
+        highlights.put("high", high);
+        highlights.put("depth", depth);
+        highlights.put("strategy", strategy);
+        return highlights;
+    }
+    
     private void swap(int[] arr, int i, int j) {
         int temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
     }
     
-    private void addStep(int[] array, int index1, int index2, String operationType, String description) {
-        Map<String, Object> highlights = new HashMap<>();
-        if (index1 >= 0) highlights.put("index1", index1);
-        if (index2 >= 0) highlights.put("index2", index2);
-        
-        steps.add(AlgorithmStep.builder()
-                .stepNumber(stepNumber++)
-                .description(description)
-                .currentState(Arrays.stream(array).boxed().toList())
-                .highlights(highlights)
-                .timestamp(System.currentTimeMillis())
-                .operationType(operationType)
-                .build());
-    }
-    
     private String getCodeSnippet() {
         return """
                 public void quickSort(int[] arr, int low, int high) {
@@ -130,4 +633,86 @@ public class QuickSortService {
                 }
                 """;
     }
+    
+    private String getIntrosortCodeSnippet() {
+        return """
+                public void introsort(int[] arr) {
+                    int depthLimit = 2 * log2(arr.length);
+                    Deque<int[]> stack = new ArrayDeque<>();
+                    int low = 0, high = arr.length - 1, depth = 0;
+                    while (true) {
+                        if (high - low < 16) {
+                            insertionSort(arr, low, high);
+                        } else if (depth >= depthLimit) {
+                            heapSort(arr, low, high);
+                        } else {
+                            int p = partition(arr, low, high, ninther(arr, low, high));
+                            depth++;
+                            // push the larger side, keep going on the smaller one
+                            if (p - low < high - p) {
+                                stack.push(new int[]{p + 1, high, depth});
+                                high = p - 1;
+                            } else {
+                                stack.push(new int[]{low, p - 1, depth});
+                                low = p + 1;
+                            }
+                            continue;
+                        }
+                        if (stack.isEmpty()) break;
+                        int[] next = stack.pop();
+                        low = next[0]; high = next[1]; depth = next[2];
+                    }
+                }
+                """;
+    }
+    
+    private String getDualPivotCodeSnippet() {
+        return """
+                private void dualPivotQuickSort(int[] arr, int low, int high) {
+                    if (low >= high) return;
+                    if (arr[low] > arr[high]) swap(arr, low, high);
+                    int p1 = arr[low], p2 = arr[high];
+                    int lt = low + 1, gt = high - 1, k = lt;
+                    while (k <= gt) {
+                        if (arr[k] < p1) {
+                            swap(arr, k, lt++);
+                        } else if (arr[k] > p2) {
+                            while (arr[gt] > p2 && k < gt) gt--;
+                            swap(arr, k, gt--);
+                            if (arr[k] < p1) swap(arr, k, lt++);
+                        }
+                        k++;
+                    }
+                    swap(arr, low, --lt);
+                    swap(arr, high, ++gt);
+                    dualPivotQuickSort(arr, low, lt - 1);
+                    if (p1 < p2) dualPivotQuickSort(arr, lt + 1, gt - 1);
+                    dualPivotQuickSort(arr, gt + 1, high);
+                }
+                """;
+    }
+    
+    private String getThreeWayCodeSnippet() {
+        return """
+                private void threeWayQuickSort(int[] arr, int low, int high) {
+                    if (low >= high) return;
+                    int v = arr[low];
+                    int i = low, j = high + 1, p = low, q = high + 1;
+                    while (true) {
+                        while (arr[++i] < v) if (i == high) break;
+                        while (v < arr[--j]) if (j == low) break;
+                        if (i == j && arr[i] == v) swap(arr, ++p, i);
+                        if (i >= j) break;
+                        swap(arr, i, j);
+                        if (arr[i] == v) swap(arr, ++p, i);
+                        if (arr[j] == v) swap(arr, --q, j);
+                    }
+                    i = j + 1;
+                    for (int k = low; k <= p; k++) swap(arr, k, j--);
+                    for (int k = high; k >= q; k--) swap(arr, k, i++);
+                    threeWayQuickSort(arr, low, j);
+                    threeWayQuickSort(arr, i, high);
+                }
+                """;
+    }
 }
@@ -0,0 +1,320 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.sorting.SortingResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Radix sorts on primitive buffers. Keys are compared as {@code x ^ Integer.MIN_VALUE},
+ * which orders signed ints as unsigned, so negative values need no special pass.
+ * Element writes are reported as swaps; LSD makes no comparisons at all. Inputs over
+ * {@code BUCKET_STEPS_MAX_SIZE} keys record one LSD step per pass instead of one per bucket,
+ * and MSD steps only for ranges of at least 1/{@code MSD_STEP_FRACTION} of the input.
+ */
+@Slf4j
+@Service
+public class RadixSortService {
+    
+    private static final int MSD_DIGIT_BITS = 8;
+    private static final int MSD_INSERTION_CUTOFF = 32;
+    private static final int MSD_STEP_FRACTION = 16;
+    static final int BUCKET_STEPS_MAX_SIZE = 256;
+    
+    public SortingResult sort(List<Integer> inputArray) {
+        return sort(inputArray.stream().mapToInt(Integer::intValue).toArray());
+    }
+    
+    public SortingResult sort(int[] array) {
+        return sort(array, true);
+    }
+    
+    public SortingResult sort(int[] array, boolean recordSteps) {
+        return sortLsd(array, 8, recordSteps);
+    }
+    
+    /**
+     * LSD radix sort with 8-bit (4 passes) or 11-bit (3 passes) digits. Passes where every
+     * key has the same digit are skipped.
+     */
+    public SortingResult sortLsd(int[] array, int digitBits, boolean recordSteps) {
+        if (digitBits != 8 && digitBits != 11) {
+            throw new IllegalArgumentException("Radix digit width must be 8 or 11 bits, got " + digitBits);
+        }
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addStep(array, -1, -1, "INITIAL",
+                "Starting LSD RadixSort with %d-bit digits", digitBits);
+        lsdRadixSort(context, array, digitBits);
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        
+        int passes = (Integer.SIZE + digitBits - 1) / digitBits;
+        return buildResult(context, array, String.format("O(%d·(n + %d))", passes, 1 << digitBits),
+                "O(n + " + (1 << digitBits) + ")", getLsdCodeSnippet(), "LSD RadixSort");
+    }
+    
+    /**
+     * MSD radix sort with 8-bit digits: each bucket is sorted recursively on the next digit,
+     * and buckets below the cutoff are finished with insertion sort.
+     */
+    public SortingResult sortMsd(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addStep(array, -1, -1, "INITIAL", "Starting MSD RadixSort with 8-bit digits");
+        if (array.length > 1) {
+            // Every range is disjoint from the others on its level, so each level records at most
+            // MSD_STEP_FRACTION steps once the input is too large for one step per bucket
+            int minStepSize = array.length > BUCKET_STEPS_MAX_SIZE ? array.length / MSD_STEP_FRACTION : 0;
+            msdRadixSort(context, array, new int[array.length], 0, array.length - 1,
+                    Integer.SIZE - MSD_DIGIT_BITS, minStepSize);
+        }
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        
+        return buildResult(context, array, "O(4·(n + 256))", "O(n + 256)",
+                getMsdCodeSnippet(), "MSD RadixSort");
+    }
+    
+    private void lsdRadixSort(SortingContext context, int[] array, int digitBits) {
+        int n = array.length;
+        if (n < 2) {
+            return;
+        }
+        int radix = 1 << digitBits;
+        int mask = radix - 1;
+        int[] counts = new int[radix];
+        int[] source = array;
+        int[] target = new int[n];
+        // Snapshot of a pass in progress, only allocated when recording one step per bucket
+        int[] view = context.isRecording() && n <= BUCKET_STEPS_MAX_SIZE ? new int[n] : null;
+        
+        for (int shift = 0, pass = 1; shift < Integer.SIZE; shift += digitBits, pass++) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[((source[i] ^ Integer.MIN_VALUE) >>> shift) & mask]++;
+            }
+            if (counts[((source[0] ^ Integer.MIN_VALUE) >>> shift) & mask] == n) {
+                if (context.isRecording()) {
+                    context.addStep(source, passHighlights(pass, shift, digitBits), "PASS_SKIPPED",
+                            String.format("Pass %d: every key has the same digit at bits %d-%d",
+                                    pass, shift, Math.min(shift + digitBits, Integer.SIZE) - 1));
+                }
+                continue;
+            }
+            if (context.isRecording()) {
+                Map<String, Object> highlights = passHighlights(pass, shift, digitBits);
+                highlights.put("bucketCounts", nonEmptyBuckets(counts));
+                context.addStep(source, highlights, "DIGIT_PASS", String.format(
+                        "Pass %d: counted digits at bits %d-%d", pass, shift,
+                        Math.min(shift + digitBits, Integer.SIZE) - 1));
+            }
+            
+            int[] starts = new int[radix];
+            for (int d = 1; d < radix; d++) {
+                starts[d] = starts[d - 1] + counts[d - 1];
+            }
+            int[] next = starts.clone();
+            for (int i = 0; i < n; i++) {
+                int value = source[i];
+                target[next[((value ^ Integer.MIN_VALUE) >>> shift) & mask]++] = value;
+            }
+            context.swaps += n;
+            
+            if (context.isRecording() && n > BUCKET_STEPS_MAX_SIZE) {
+                context.addStep(target, passHighlights(pass, shift, digitBits), "PASS_COMPLETE", String.format(
+                        "Pass %d: scattered %d keys into buckets by digit", pass, n));
+            } else if (context.isRecording()) {
+                // Buckets scattered so far sit in front of keys still in last pass's order
+                System.arraycopy(source, 0, view, 0, n);
+                for (int d = 0; d < radix; d++) {
+                    if (counts[d] == 0) {
+                        continue;
+                    }
+                    System.arraycopy(target, starts[d], view, starts[d], counts[d]);
+                    Map<String, Object> highlights = passHighlights(pass, shift, digitBits);
+                    highlights.put("digit", d);
+                    highlights.put("low", starts[d]);
+                    highlights.put("high", starts[d] + counts[d] - 1);
+                    context.addStep(view, highlights, "BUCKET_SCATTER", String.format(
+                            "Pass %d: scattered %d keys with digit %d to [%d..%d]",
+                            pass, counts[d], d, starts[d], starts[d] + counts[d] - 1));
+                }
+            }
+            
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        
+        if (source != array) {
+            System.arraycopy(source, 0, array, 0, n);
+            context.swaps += n;
+        }
+    }
+    
+    private void msdRadixSort(SortingContext context, int[] array, int[] aux, int low, int high, int shift,
+                              int minStepSize) {
+        int size = high - low + 1;
+        if (size <= MSD_INSERTION_CUTOFF) {
+            insertionSort(context, array, low, high, size >= minStepSize);
+            return;
+        }
+        int mask = (1 << MSD_DIGIT_BITS) - 1;
+        int[] counts = new int[1 << MSD_DIGIT_BITS];
+        for (int i = low; i <= high; i++) {
+            counts[((array[i] ^ Integer.MIN_VALUE) >>> shift) & mask]++;
+        }
+        int[] starts = new int[counts.length];
+        starts[0] = low;
+        for (int d = 1; d < counts.length; d++) {
+            starts[d] = starts[d - 1] + counts[d - 1];
+        }
+        
+        if (counts[((array[low] ^ Integer.MIN_VALUE) >>> shift) & mask] != size) {
+            int[] next = starts.clone();
+            for (int i = low; i <= high; i++) {
+                int value = array[i];
+                aux[next[((value ^ Integer.MIN_VALUE) >>> shift) & mask]++] = value;
+            }
+            System.arraycopy(aux, low, array, low, size);
+            context.swaps += 2L * size;
+        }
+        
+        if (context.isRecording() && size >= minStepSize) {
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("low", low);
+            highlights.put("high", high);
+            highlights.put("shift", shift);
+            highlights.put("bucketCounts", nonEmptyBuckets(counts));
+            context.addStep(array, highlights, "BUCKET_SCATTER", String.format(
+                    "Distributed [%d..%d] into buckets by bits %d-%d", low, high, shift,
+                    shift + MSD_DIGIT_BITS - 1));
+        }
+        
+        if (shift == 0) {
+            return;
+        }
+        for (int d = 0; d < counts.length; d++) {
+            if (counts[d] > 1) {
+                msdRadixSort(context, array, aux, starts[d], starts[d] + counts[d] - 1, shift - MSD_DIGIT_BITS,
+                        minStepSize);
+            }
+        }
+    }
+    
+    private void insertionSort(SortingContext context, int[] array, int low, int high, boolean recordStep) {
+        if (high <= low) {
+            return;
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int key = array[i];
+            int j = i - 1;
+            while (j >= low) {
+                context.comparisons++;
+                if (array[j] <= key) {
+                    break;
+                }
+                array[j + 1] = array[j];
+                context.swaps++;
+                j--;
+            }
+            array[j + 1] = key;
+        }
+        if (context.isRecording() && recordStep) {
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("low", low);
+            highlights.put("high", high);
+            context.addStep(array, highlights, "INSERTION_SORT",
+                    String.format("Insertion-sorted small bucket [%d..%d]", low, high));
+        }
+    }
+    
+    static Map<String, Object> passHighlights(int pass, int shift, int digitBits) {
+        Map<String, Object> highlights = new HashMap<>();
+        highlights.put("pass", pass);
+        highlights.put("shift", shift);
+        highlights.put("digitBits", digitBits);
+        return highlights;
+    }
+    
+    static Map<Integer, Integer> nonEmptyBuckets(int[] counts) {
+        Map<Integer, Integer> buckets = new LinkedHashMap<>();
+        for (int d = 0; d < counts.length; d++) {
+            if (counts[d] > 0) {
+                buckets.put(d, counts[d]);
+            }
+        }
+        return buckets;
+    }
+    
+    private SortingResult buildResult(SortingContext context, int[] array, String timeComplexity,
+                                      String spaceComplexity, String codeSnippet, String algorithmName) {
+        long executionTime = context.elapsedMillis();
+        
+        return SortingResult.builder()
+                .sortedArray(PackedIntArray.asList(array))
+                .steps(context.getSteps())
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity(timeComplexity)
+                        .spaceComplexity(spaceComplexity)
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(codeSnippet)
+                .algorithmName(algorithmName)
+                .build();
+    }
+    
+    private String getLsdCodeSnippet() {
+        return """
+                public void radixSort(int[] arr) {
+                    int[] source = arr, target = new int[arr.length];
+                    for (int shift = 0; shift < 32; shift += 8) {
+                        int[] count = new int[257];
+                        for (int x : source) {
+                            count[(((x ^ Integer.MIN_VALUE) >>> shift) & 0xFF) + 1]++;
+                        }
+                        for (int d = 0; d < 256; d++) {
+                            count[d + 1] += count[d];
+                        }
+                        for (int x : source) {
+                            target[count[((x ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = x;
+                        }
+                        int[] tmp = source; source = target; target = tmp;
+                    }
+                    // four passes: the result is back in arr
+                }
+                """;
+    }
+    
+    private String getMsdCodeSnippet() {
+        return """
+                private void msdSort(int[] arr, int[] aux, int low, int high, int shift) {
+                    if (high - low < 32) {
+                        insertionSort(arr, low, high);
+                        return;
+                    }
+                    int[] count = new int[257];
+                    for (int i = low; i <= high; i++) {
+                        count[(((arr[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF) + 1]++;
+                    }
+                    for (int d = 0; d < 256; d++) {
+                        count[d + 1] += count[d];
+                    }
+                    int[] start = count.clone();
+                    for (int i = low; i <= high; i++) {
+                        aux[low + count[((arr[i] ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = arr[i];
+                    }
+                    System.arraycopy(aux, low, arr, low, high - low + 1);
+                    if (shift == 0) return;
+                    for (int d = 0; d < 256; d++) {
+                        msdSort(arr, aux, low + start[d], low + start[d + 1] - 1, shift - 8);
+                    }
+                }
+                """;
+    }
+}
@@ -0,0 +1,306 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.sorting.SelectionResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Order statistics without a full sort. Introselect narrows to the side holding the wanted
+ * rank using the three-way partition of {@link QuickSortService}, and switches to
+ * median-of-medians pivots past a depth of {@code 2·log2(n)}, so it stays linear in the worst
+ * case. Small top-k requests use a bounded heap instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SelectionService {
+    
+    private static final int INSERTION_CUTOFF = 16;
+    private static final int GROUP_SIZE = 5;
+    private static final int HEAP_MAX_K = 1024;
+    
+    private final QuickSortService quickSortService;
+    
+    /**
+     * @param operation KTH (default), MEDIAN or TOP_K
+     * @param k         1-based rank for KTH, result count for TOP_K; ignored for MEDIAN
+     * @param largest   rank from the top instead of the bottom
+     */
+    public SelectionResult select(int[] array, String operation, Integer k, boolean largest, boolean recordSteps) {
+        int n = array.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("Selection needs a non-empty array");
+        }
+        String op = operation == null ? "KTH" : operation.toUpperCase();
+        SortingContext context = new SortingContext(recordSteps);
+        SelectionResult.SelectionResultBuilder result = SelectionResult.builder().operation(op);
+        
+        context.addStep(array, -1, -1, "INITIAL", "Starting %s selection over %d elements", op, n);
+        String method = "INTROSELECT";
+        String timeComplexity = "O(n)";
+        switch (op) {
+            case "KTH", "MEDIAN" -> {
+                int rank;
+                if ("MEDIAN".equals(op)) {
+                    rank = (n - 1) / 2;
+                    result.k(rank + 1);
+                } else {
+                    int kth = requireK(k, n);
+                    rank = largest ? n - kth : kth - 1;
+                    result.k(kth);
+                }
+                Introselect introselect = new Introselect(context, array);
+                introselect.select(0, n - 1, rank, 0, false);
+                context.addStep(array, rank, -1, "SELECTED",
+                        "Element of rank %d is %d", rank + 1, array[rank]);
+                result.value(array[rank]).fallbackUsed(introselect.fallbackUsed);
+            }
+            case "TOP_K" -> {
+                int count = requireK(k, n);
+                result.k(count);
+                if (count <= HEAP_MAX_K && count <= n / 8) {
+                    result.topK(PackedIntArray.asList(heapTopK(context, array, count, largest)));
+                    method = "HEAP";
+                    timeComplexity = "O(n log k)";
+                } else {
+                    Introselect introselect = new Introselect(context, array);
+                    int low = largest ? n - count : 0;
+                    int high = largest ? n - 1 : count - 1;
+                    introselect.select(0, n - 1, largest ? low : high, 0, false);
+                    quickSortService.introsort(context, array, low, high);
+                    int[] top = Arrays.copyOfRange(array, low, high + 1);
+                    if (largest) {
+                        reverse(top);
+                    }
+                    context.addStep(array, low, high, "SELECTED",
+                            "The %d %s elements are at [%d..%d]", count, largest ? "largest" : "smallest", low, high);
+                    result.topK(PackedIntArray.asList(top)).fallbackUsed(introselect.fallbackUsed);
+                    timeComplexity = "O(n + k log k)";
+                }
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown selection operation: " + operation + ". Available: [KTH, MEDIAN, TOP_K]");
+        }
+        context.addStep(array, -1, -1, "COMPLETE", "Selection finished");
+        
+        long executionTime = context.elapsedMillis();
+        log.debug("{} selection over {} elements took {} comparisons", op, n, context.comparisons);
+        return result
+                .method(method)
+                .steps(context.getSteps())
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity(timeComplexity)
+                        .spaceComplexity("HEAP".equals(method) ? "O(k)" : "O(log n)")
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getCodeSnippet())
+                .algorithmName("HEAP".equals(method) ? "Heap Top-K" : "Introselect")
+                .build();
+    }
+    
+    private int requireK(Integer k, int n) {
+        if (k == null || k < 1 || k > n) {
+            throw new IllegalArgumentException(String.format("k must be between 1 and %d", n));
+        }
+        return k;
+    }
+    
+    /**
+     * Keeps the best {@code k} seen so far in a heap whose root is the worst of them, so each
+     * later element costs one comparison unless it displaces the root.
+     */
+    private int[] heapTopK(SortingContext context, int[] arr, int k, boolean largest) {
+        int[] heap = Arrays.copyOf(arr, k);
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            siftDown(context, heap, i, k, largest);
+        }
+        if (context.isRecording()) {
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("heap", PackedIntArray.asList(heap.clone()));
+            context.addStep(arr, highlights, "HEAP_BUILT",
+                    String.format("Built a %d-element %s-heap from the first elements", k, largest ? "min" : "max"));
+        }
+        
+        for (int i = k; i < arr.length; i++) {
+            context.comparisons++;
+            if (largest ? arr[i] > heap[0] : arr[i] < heap[0]) {
+                int evicted = heap[0];
+                heap[0] = arr[i];
+                context.swaps++;
+                siftDown(context, heap, 0, k, largest);
+                if (context.isRecording()) {
+                    Map<String, Object> highlights = new HashMap<>();
+                    highlights.put("index1", i);
+                    highlights.put("evicted", evicted);
+                    highlights.put("heap", PackedIntArray.asList(heap.clone()));
+                    context.addStep(arr, highlights, "HEAP_REPLACED",
+                            String.format("arr[%d]=%d replaced %d at the heap root", i, arr[i], evicted));
+                }
+            }
+        }
+        
+        // Popping the root to the end leaves the best element first
+        for (int end = k - 1; end > 0; end--) {
+            swap(heap, 0, end);
+            context.swaps++;
+            siftDown(context, heap, 0, end, largest);
+        }
+        return heap;
+    }
+    
+    // Max-heap when keeping the smallest values, min-heap when keeping the largest
+    private void siftDown(SortingContext context, int[] heap, int i, int size, boolean largest) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size) {
+                context.comparisons++;
+                if (largest ? heap[child + 1] < heap[child] : heap[child + 1] > heap[child]) {
+                    child++;
+                }
+            }
+            context.comparisons++;
+            if (largest ? heap[child] >= heap[i] : heap[child] <= heap[i]) {
+                return;
+            }
+            swap(heap, i, child);
+            context.swaps++;
+            i = child;
+        }
+    }
+    
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+    
+    private static void reverse(int[] arr) {
+        for (int i = 0, j = arr.length - 1; i < j; i++, j--) {
+            swap(arr, i, j);
+        }
+    }
+    
+    private final class Introselect {
+        private final SortingContext context;
+        private final int[] arr;
+        private final int depthLimit;
+        private boolean fallbackUsed;
+        
+        Introselect(SortingContext context, int[] arr) {
+            this.context = context;
+            this.arr = arr;
+            this.depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+        }
+        
+        /**
+         * Moves the element of rank {@code rank} to {@code arr[rank]}, with smaller elements
+         * before it and larger ones after.
+         */
+        void select(int low, int high, int rank, int depth, boolean deterministic) {
+            while (high > low) {
+                if (high - low < INSERTION_CUTOFF) {
+                    quickSortService.insertionSort(context, arr, low, high, depth);
+                    return;
+                }
+                long bounds;
+                if (deterministic || depth >= depthLimit) {
+                    if (!fallbackUsed) {
+                        fallbackUsed = true;
+                        context.addStep(arr, quickSortService.rangeHighlights(low, high, depth, "MEDIAN_OF_MEDIANS"),
+                                "FALLBACK", String.format("Depth %d reached; switching to median-of-medians pivots",
+                                        depth));
+                    }
+                    int pivotIndex = medianOfMedians(low, high, depth);
+                    if (pivotIndex != low) {
+                        swap(arr, low, pivotIndex);
+                        context.swaps++;
+                    }
+                    bounds = quickSortService.partitionAroundLow(context, arr, low, high, depth, "MEDIAN_OF_MEDIANS");
+                    deterministic = true;
+                } else {
+                    bounds = quickSortService.threeWayPartition(context, arr, low, high, depth);
+                }
+                int lessEnd = (int) (bounds >>> 32);
+                int greaterStart = (int) bounds;
+                if (rank <= lessEnd) {
+                    high = lessEnd;
+                } else if (rank >= greaterStart) {
+                    low = greaterStart;
+                } else {
+                    return;
+                }
+                depth++;
+            }
+        }
+        
+        // Sorts each group of five, gathers the group medians at the front of the range and
+        // selects their median, which has at least 30% of the range on either side
+        private int medianOfMedians(int low, int high, int depth) {
+            int groups = 0;
+            for (int start = low; start <= high; start += GROUP_SIZE) {
+                int end = Math.min(start + GROUP_SIZE - 1, high);
+                sortGroup(start, end);
+                swap(arr, low + groups, start + (end - start) / 2);
+                context.swaps++;
+                groups++;
+            }
+            if (context.isRecording()) {
+                Map<String, Object> highlights =
+                        quickSortService.rangeHighlights(low, high, depth, "MEDIAN_OF_MEDIANS");
+                highlights.put("groups", groups);
+                context.addStep(arr, highlights, "MEDIANS_GATHERED", String.format(
+                        "Moved the medians of %d groups of five to [%d..%d]", groups, low, low + groups - 1));
+            }
+            int mid = low + (groups - 1) / 2;
+            select(low, low + groups - 1, mid, depth + 1, true);
+            return mid;
+        }
+        
+        private void sortGroup(int low, int high) {
+            for (int i = low + 1; i <= high; i++) {
+                int key = arr[i];
+                int j = i - 1;
+                while (j >= low) {
+                    context.comparisons++;
+                    if (arr[j] <= key) {
+                        break;
+                    }
+                    arr[j + 1] = arr[j];
+                    context.swaps++;
+                    j--;
+                }
+                arr[j + 1] = key;
+            }
+        }
+    }
+    
+    private String getCodeSnippet() {
+        return """
+                public int select(int[] arr, int rank) {
+                    int low = 0, high = arr.length - 1;
+                    int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+                    for (int depth = 0; high > low; depth++) {
+                        int pivot = depth < depthLimit
+                                ? ninther(arr, low, high)
+                                : medianOfMedians(arr, low, high);
+                        int[] eq = threeWayPartition(arr, low, high, pivot);
+                        if (rank < eq[0]) high = eq[0] - 1;
+                        else if (rank > eq[1]) low = eq[1] + 1;
+                        else break;
+                    }
+                    return arr[rank];
+                }
+                """;
+    }
+}
@@ -0,0 +1,8 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.model.sorting.SortingResult;
+
+@FunctionalInterface
+public interface SortingAlgorithm {
+    SortingResult sort(int[] array, boolean recordSteps);
+}
@@ -0,0 +1,50 @@
+package com.algoviz.algorithms.sorting;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+public class SortingAlgorithmRegistry {
+    
+    private final Map<String, SortingAlgorithm> algorithms = new LinkedHashMap<>();
+    
+    public SortingAlgorithmRegistry(QuickSortService quickSortService,
+                                    MergeSortService mergeSortService,
+                                    BubbleSortService bubbleSortService,
+                                    InsertionSortService insertionSortService,
+                                    RadixSortService radixSortService,
+                                    CountingSortService countingSortService,
+                                    TimSortService timSortService) {
+        algorithms.put("quick-sort", quickSortService::sort);
+        algorithms.put("introsort", quickSortService::sortIntrosort);
+        algorithms.put("dual-pivot-quick-sort", quickSortService::sortDualPivot);
+        algorithms.put("three-way-quick-sort", quickSortService::sortThreeWay);
+        algorithms.put("merge-sort", mergeSortService::sort);
+        algorithms.put("parallel-merge-sort", mergeSortService::sortParallel);
+        algorithms.put("bubble-sort", bubbleSortService::sort);
+        algorithms.put("insertion-sort", insertionSortService::sort);
+        algorithms.put("radix-sort", radixSortService::sort);
+        algorithms.put("radix-sort-11", (array, recordSteps) -> radixSortService.sortLsd(array, 11, recordSteps));
+        algorithms.put("msd-radix-sort", radixSortService::sortMsd);
+        algorithms.put("counting-sort", countingSortService::sort);
+        algorithms.put("tim-sort", timSortService::sort);
+    }
+    
+    public SortingAlgorithm get(String name) {
+        SortingAlgorithm algorithm = name == null ? null : algorithms.get(name.toLowerCase());
+        if (algorithm == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Unknown sorting algorithm: %s. Available: %s", name, algorithms.keySet()));
+        }
+        return algorithm;
+    }
+    
+    public boolean contains(String name) {
+        return name != null && algorithms.containsKey(name.toLowerCase());
+    }
+    
+    public Set<String> names() {
+        return Collections.unmodifiableSet(algorithms.keySet());
+    }
+}
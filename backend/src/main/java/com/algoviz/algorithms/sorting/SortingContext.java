@@ -0,0 +1,116 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.AlgorithmStep;
+
+import java.util.*;
+
+/**
+ * Per-run state for a sorting service: the recorded steps and operation counters.
+ * Services are singletons, so this must never be kept in a field. Under a
+ * {@link StepSampling} limit only every {@code stride}-th step is copied and kept; the
+ * stride doubles whenever twice the limit is reached, so memory stays bounded by the
+ * limit rather than by the length of the trace.
+ */
+class SortingContext {
+    
+    private final List<AlgorithmStep> steps = new ArrayList<>();
+    private final boolean recording;
+    private final int maxSteps = StepSampling.current();
+    private final long startTime = System.currentTimeMillis();
+    private int stepNumber;
+    private int stride = 1;
+    private Pending pending;
+    
+    long comparisons;
+    long swaps;
+    
+    SortingContext(boolean recording) {
+        this.recording = recording;
+    }
+    
+    boolean isRecording() {
+        return recording;
+    }
+    
+    void addStep(int[] array, int index1, int index2, String operationType, String description) {
+        if (!recording) {
+            return;
+        }
+        Map<String, Object> highlights = new HashMap<>();
+        if (index1 >= 0) highlights.put("index1", index1);
+        if (index2 >= 0) highlights.put("index2", index2);
+        addStep(array, highlights, operationType, description);
+    }
+    
+    void addStep(int[] array, int index1, int index2, String operationType, String format, Object... args) {
+        if (recording) {
+            addStep(array, index1, index2, operationType, String.format(format, args));
+        }
+    }
+    
+    void addStep(int[] array, Map<String, Object> highlights, String operationType, String description) {
+        if (!recording) {
+            return;
+        }
+        if (stepNumber % stride != 0) {
+            // Copied only if it turns out to be the final step, when the array is in this same state
+            pending = new Pending(stepNumber++, array, highlights, operationType, description);
+            return;
+        }
+        addSnapshot(PackedIntArray.asList(array.clone()), highlights, operationType, description);
+    }
+    
+    /**
+     * Records a step for typed inputs; {@code state} must already be a copy, e.g. a cloned
+     * {@code long[]}, so later writes do not change it.
+     */
+    void addSnapshot(Object state, Map<String, Object> highlights, String operationType, String description) {
+        if (!recording) {
+            return;
+        }
+        int number = stepNumber++;
+        if (number % stride != 0) {
+            pending = new Pending(number, state, highlights, operationType, description);
+            return;
+        }
+        pending = null;
+        steps.add(step(number, state, highlights, operationType, description));
+        if (maxSteps > 0 && steps.size() >= 2 * maxSteps) {
+            for (int i = 0; i < maxSteps; i++) {
+                steps.set(i, steps.get(2 * i));
+            }
+            steps.subList(maxSteps, steps.size()).clear();
+            stride *= 2;
+        }
+    }
+    
+    List<AlgorithmStep> getSteps() {
+        if (pending != null) {
+            Object state = pending.state instanceof int[] array ? PackedIntArray.asList(array.clone()) : pending.state;
+            steps.add(step(pending.number, state, pending.highlights, pending.operationType, pending.description));
+            pending = null;
+        }
+        return steps;
+    }
+    
+    private static AlgorithmStep step(int number, Object state, Map<String, Object> highlights,
+                                      String operationType, String description) {
+        return AlgorithmStep.builder()
+                .stepNumber(number)
+                .description(description)
+                .currentState(state)
+                .highlights(highlights)
+                .timestamp(System.currentTimeMillis())
+                .operationType(operationType)
+                .build();
+    }
+    
+    long elapsedMillis() {
+        return System.currentTimeMillis() - startTime;
+    }
+    
+    private record Pending(int number, Object state, Map<String, Object> highlights, String operationType,
+                           String description) {
+    }
+}
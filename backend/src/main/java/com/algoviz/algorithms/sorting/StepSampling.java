@@ -0,0 +1,36 @@
+package com.algoviz.algorithms.sorting;
+
+import java.util.function.Supplier;
+
+/**
+ * Caps the steps a sort keeps while it records, for callers such as races that only show a
+ * sample of the trace. Sorts started inside {@link #limit} keep evenly spaced steps, at most
+ * twice {@code maxSteps}, plus the final step; {@code stepNumber} still counts every step.
+ */
+public final class StepSampling {
+    
+    private static final ThreadLocal<Integer> MAX_STEPS = new ThreadLocal<>();
+    
+    private StepSampling() {
+    }
+    
+    public static <T> T limit(int maxSteps, Supplier<T> run) {
+        Integer previous = MAX_STEPS.get();
+        MAX_STEPS.set(maxSteps);
+        try {
+            return run.get();
+        } finally {
+            if (previous == null) {
+                MAX_STEPS.remove();
+            } else {
+                MAX_STEPS.set(previous);
+            }
+        }
+    }
+    
+    // 0 when the calling thread records every step
+    static int current() {
+        Integer maxSteps = MAX_STEPS.get();
+        return maxSteps == null ? 0 : maxSteps;
+    }
+}
@@ -0,0 +1,575 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.sorting.SortingResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Run-adaptive merge sort in the style of TimSort: natural runs are detected (descending
+ * ones reversed), short runs are extended with binary insertion, and runs are merged with
+ * galloping while the run stack keeps the TimSort length invariants. Presorted input is a
+ * single run and costs n - 1 comparisons.
+ */
+@Slf4j
+@Service
+public class TimSortService {
+    
+    private static final int MIN_MERGE = 32;
+    private static final int MIN_GALLOP = 7;
+    
+    public SortingResult sort(List<Integer> inputArray) {
+        return sort(inputArray.stream().mapToInt(Integer::intValue).toArray());
+    }
+    
+    public SortingResult sort(int[] array) {
+        return sort(array, true);
+    }
+    
+    public SortingResult sort(int[] array, boolean recordSteps) {
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addStep(array, -1, -1, "INITIAL", "Starting TimSort");
+        new RunMerger(context, array).sort();
+        context.addStep(array, -1, -1, "COMPLETE", "Array is sorted");
+        
+        long executionTime = context.elapsedMillis();
+        
+        return SortingResult.builder()
+                .sortedArray(PackedIntArray.asList(array))
+                .steps(context.getSteps())
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity("O(n log n) worst, O(n) on presorted input")
+                        .spaceComplexity("O(n)")
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(getCodeSnippet())
+                .algorithmName("TimSort")
+                .build();
+    }
+    
+    /** State of one sort: the run stack, the merge buffer and the adaptive gallop threshold. */
+    private static final class RunMerger {
+        
+        private final SortingContext context;
+        private final int[] a;
+        private final int[] tmp;
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize;
+        private int minGallop = MIN_GALLOP;
+        
+        RunMerger(SortingContext context, int[] a) {
+            this.context = context;
+            this.a = a;
+            // A merge never buffers more than the shorter run
+            this.tmp = new int[Math.max(1, a.length / 2)];
+        }
+        
+        void sort() {
+            int n = a.length;
+            if (n < 2) {
+                return;
+            }
+            if (n < MIN_MERGE) {
+                int initRunLen = countRunAndMakeAscending(0, n);
+                binarySort(0, n, initRunLen);
+                return;
+            }
+            
+            int minRun = minRunLength(n);
+            int lo = 0;
+            int remaining = n;
+            do {
+                int runLength = countRunAndMakeAscending(lo, n);
+                if (runLength < minRun) {
+                    int force = Math.min(remaining, minRun);
+                    binarySort(lo, lo + force, lo + runLength);
+                    if (context.isRecording()) {
+                        context.addStep(a, rangeHighlights(lo, lo + force - 1), "RUN_EXTENDED", String.format(
+                                "Extended run [%d..%d] to minimum length %d with binary insertion",
+                                lo, lo + runLength - 1, force));
+                    }
+                    runLength = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize] = runLength;
+                stackSize++;
+                mergeCollapse();
+                lo += runLength;
+                remaining -= runLength;
+            } while (remaining != 0);
+            
+            while (stackSize > 1) {
+                int i = stackSize - 2;
+                if (i > 0 && runLen[i - 1] < runLen[i + 1]) {
+                    i--;
+                }
+                mergeAt(i);
+            }
+        }
+        
+        private boolean less(int x, int y) {
+            context.comparisons++;
+            return x < y;
+        }
+        
+        private static int minRunLength(int n) {
+            int r = 0;
+            while (n >= MIN_MERGE) {
+                r |= n & 1;
+                n >>= 1;
+            }
+            return n + r;
+        }
+        
+        /** Returns the length of the run starting at {@code lo}, reversing it if strictly descending. */
+        private int countRunAndMakeAscending(int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi) {
+                return 1;
+            }
+            boolean descending = less(a[runHi++], a[lo]);
+            if (descending) {
+                while (runHi < hi && less(a[runHi], a[runHi - 1])) {
+                    runHi++;
+                }
+            } else {
+                while (runHi < hi && !less(a[runHi], a[runHi - 1])) {
+                    runHi++;
+                }
+            }
+            
+            if (context.isRecording()) {
+                Map<String, Object> highlights = rangeHighlights(lo, runHi - 1);
+                highlights.put("descending", descending);
+                context.addStep(a, highlights, "RUN_DETECTED", String.format(
+                        "Found %s run [%d..%d] of length %d", descending ? "descending" : "ascending",
+                        lo, runHi - 1, runHi - lo));
+            }
+            if (descending) {
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    int t = a[i];
+                    a[i] = a[j];
+                    a[j] = t;
+                    context.swaps++;
+                }
+                if (context.isRecording()) {
+                    context.addStep(a, rangeHighlights(lo, runHi - 1), "RUN_REVERSED",
+                            String.format("Reversed run [%d..%d] in place", lo, runHi - 1));
+                }
+            }
+            return runHi - lo;
+        }
+        
+        /** Binary-inserts {@code a[start..hi)} into the sorted prefix {@code a[lo..start)}. */
+        private void binarySort(int lo, int hi, int start) {
+            if (start == lo) {
+                start++;
+            }
+            for (; start < hi; start++) {
+                int pivot = a[start];
+                int left = lo;
+                int right = start;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (less(pivot, a[mid])) {
+                        right = mid;
+                    } else {
+                        left = mid + 1;
+                    }
+                }
+                int shift = start - left;
+                System.arraycopy(a, left, a, left + 1, shift);
+                a[left] = pivot;
+                context.swaps += shift;
+                context.addStep(a, left, start, "BINARY_INSERT",
+                        "Binary-inserted %d from index %d at index %d", pivot, start, left);
+            }
+        }
+        
+        /** Merges runs until the stack lengths satisfy X > Y + Z and Y > Z for the top runs. */
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+        
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+            
+            if (context.isRecording()) {
+                Map<String, Object> highlights = rangeHighlights(base1, base2 + len2 - 1);
+                highlights.put("mid", base2);
+                highlights.put("stackSize", stackSize);
+                context.addStep(a, highlights, "MERGE", String.format(
+                        "Merging runs [%d..%d] and [%d..%d]", base1, base2 - 1, base2, base2 + len2 - 1));
+            }
+            
+            // Elements of run 1 already below run 2, and of run 2 already above run 1, stay put
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            int trimmed1 = k;
+            base1 += k;
+            len1 -= k;
+            if (len1 != 0) {
+                int newLen2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+                int trimmed2 = len2 - newLen2;
+                len2 = newLen2;
+                if (context.isRecording() && (trimmed1 > 0 || trimmed2 > 0)) {
+                    Map<String, Object> highlights = rangeHighlights(base1, base2 + len2 - 1);
+                    highlights.put("skippedLeft", trimmed1);
+                    highlights.put("skippedRight", trimmed2);
+                    context.addStep(a, highlights, "GALLOP_TRIM", String.format(
+                            "Galloping left %d and right %d elements already in place", trimmed1, trimmed2));
+                }
+                if (len2 != 0) {
+                    context.swaps += len1 + len2 + Math.min(len1, len2);
+                    if (len1 <= len2) {
+                        mergeLo(base1, len1, base2, len2);
+                    } else {
+                        mergeHi(base1, len1, base2, len2);
+                    }
+                }
+            }
+            
+            if (context.isRecording()) {
+                context.addStep(a, rangeHighlights(runBase[i], runBase[i] + runLen[i] - 1), "MERGE_COMPLETE",
+                        String.format("Merged run [%d..%d]", runBase[i], runBase[i] + runLen[i] - 1));
+            }
+        }
+        
+        /** Leftmost position in {@code arr[base..base+len)} at which {@code key} could be inserted. */
+        private int gallopLeft(int key, int[] arr, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (less(arr[base + hint], key)) {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && less(arr[base + hint + ofs], key)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                ofs = Math.min(ofs, maxOfs);
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && !less(arr[base + hint - ofs], key)) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                ofs = Math.min(ofs, maxOfs);
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            }
+            
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (less(arr[base + m], key)) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+        
+        /** Rightmost position in {@code arr[base..base+len)} at which {@code key} could be inserted. */
+        private int gallopRight(int key, int[] arr, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (less(key, arr[base + hint])) {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && less(key, arr[base + hint - ofs])) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                ofs = Math.min(ofs, maxOfs);
+                int t = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - t;
+            } else {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && !less(key, arr[base + hint + ofs])) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                ofs = Math.min(ofs, maxOfs);
+                lastOfs += hint;
+                ofs += hint;
+            }
+            
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (less(key, arr[base + m])) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+        
+        /** Merges left to right with run 1 (the shorter) copied to the buffer. */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+                return;
+            }
+            
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                
+                do {
+                    if (less(a[cursor2], tmp[cursor1])) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+                
+                // One run keeps winning: switch to galloping until it stops paying off
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        recordGallop(dest, count1, 1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                    
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        recordGallop(dest, count2, 2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                gallop = Math.max(gallop, 0) + 2;
+            }
+            minGallop = Math.max(gallop, 1);
+            
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+            } else {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+            }
+        }
+        
+        /** Merges right to left with run 2 (the shorter) copied to the buffer. */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+                return;
+            }
+            
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                
+                do {
+                    if (less(tmp[cursor2], a[cursor1])) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+                
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        recordGallop(dest + 1, count1, 1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+                    
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        recordGallop(dest + 1, count2, 2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                gallop = Math.max(gallop, 0) + 2;
+            }
+            minGallop = Math.max(gallop, 1);
+            
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+            } else {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+        
+        private void recordGallop(int dest, int count, int run) {
+            if (context.isRecording()) {
+                Map<String, Object> highlights = rangeHighlights(dest, dest + count - 1);
+                highlights.put("run", run);
+                highlights.put("minGallop", minGallop);
+                context.addStep(a, highlights, "GALLOP", String.format(
+                        "Galloped %d elements from run %d to [%d..%d]", count, run, dest, dest + count - 1));
+            }
+        }
+        
+        private static Map<String, Object> rangeHighlights(int low, int high) {
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("low", low);
+            highlights.put("high", high);
+            return highlights;
+        }
+    }
+    
+    private String getCodeSnippet() {
+        return """
+                public void timSort(int[] arr) {
+                    int n = arr.length, minRun = minRunLength(n);
+                    Deque<int[]> runs = new ArrayDeque<>();
+                    for (int lo = 0; lo < n; ) {
+                        int len = countRunAndMakeAscending(arr, lo, n); // reverses descending runs
+                        if (len < minRun) {
+                            int force = Math.min(n - lo, minRun);
+                            binaryInsertionSort(arr, lo, lo + force, lo + len);
+                            len = force;
+                        }
+                        runs.push(new int[]{lo, len});
+                        // keep |X| > |Y| + |Z| and |Y| > |Z| for the top three runs
+                        mergeCollapse(arr, runs);
+                        lo += len;
+                    }
+                    mergeForceCollapse(arr, runs);
+                }
+                
+                // Merging gallops (exponential + binary search) once one run
+                // wins MIN_GALLOP comparisons in a row, copying whole blocks.
+                """;
+    }
+}
@@ -0,0 +1,399 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.sorting.TypedSortingResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Sorts long, double and String arrays with kernels specialized per type, never through boxed
+ * {@code Comparable}. Longs and doubles become unsigned-ordered 64-bit keys for an LSD radix
+ * sort; strings use multikey (three-way radix) quicksort. Steps follow {@link RadixSortService}
+ * and the three-way quicksort, except that radix passes over more than
+ * {@link RadixSortService#BUCKET_STEPS_MAX_SIZE} keys record one step per pass instead of one per bucket.
+ */
+@Slf4j
+@Service
+public class TypedSortService {
+    
+    private static final int DIGIT_BITS = 8;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+    private static final int STRING_INSERTION_CUTOFF = 16;
+    
+    private final int maxArraySize;
+    
+    public TypedSortService(@Value("${algorithm.max-array-size:10000}") int maxArraySize) {
+        this.maxArraySize = maxArraySize;
+    }
+    
+    public TypedSortingResult sortLongs(long[] array, boolean recordSteps) {
+        checkSize(array.length);
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addSnapshot(array.clone(), new HashMap<>(), "INITIAL",
+                "Starting LSD RadixSort with 8-bit digits on 64-bit keys");
+        // Flipping the sign bit orders signed longs as unsigned keys; sorted in place
+        for (int i = 0; i < array.length; i++) {
+            array[i] ^= Long.MIN_VALUE;
+        }
+        radixSort(context, array, TypedSortService::decodeLongs);
+        for (int i = 0; i < array.length; i++) {
+            array[i] ^= Long.MIN_VALUE;
+        }
+        context.addSnapshot(array.clone(), new HashMap<>(), "COMPLETE", "Array is sorted");
+        
+        return buildResult(context, "O(8·(n + 256))", "O(n + 256)", getRadixCodeSnippet(), "LSD RadixSort (long)")
+                .valueType("LONG")
+                .sortedLongs(array)
+                .build();
+    }
+    
+    /**
+     * Orders like {@link Double#compare}: -0.0 before 0.0, and NaN last.
+     */
+    public TypedSortingResult sortDoubles(double[] array, boolean recordSteps) {
+        checkSize(array.length);
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addSnapshot(array.clone(), new HashMap<>(), "INITIAL",
+                "Starting LSD RadixSort with 8-bit digits on 64-bit keys");
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            keys[i] = doubleKey(array[i]);
+        }
+        radixSort(context, keys, TypedSortService::decodeDoubles);
+        for (int i = 0; i < array.length; i++) {
+            array[i] = keyToDouble(keys[i]);
+        }
+        context.addSnapshot(array.clone(), new HashMap<>(), "COMPLETE", "Array is sorted");
+        
+        return buildResult(context, "O(8·(n + 256))", "O(n + 256)", getRadixCodeSnippet(), "LSD RadixSort (double)")
+                .valueType("DOUBLE")
+                .sortedDoubles(array)
+                .build();
+    }
+    
+    /**
+     * Sorts by UTF-16 code unit, as {@link String#compareTo}. Comparisons count characters.
+     */
+    public TypedSortingResult sortStrings(String[] array, boolean recordSteps) {
+        checkSize(array.length);
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == null) {
+                throw new IllegalArgumentException("strings[" + i + "] is null");
+            }
+        }
+        SortingContext context = new SortingContext(recordSteps);
+        
+        context.addSnapshot(array.clone(), new HashMap<>(), "INITIAL", "Starting multikey QuickSort");
+        multikeySort(context, array, 0, array.length - 1, 0);
+        context.addSnapshot(array.clone(), new HashMap<>(), "COMPLETE", "Array is sorted");
+        
+        return buildResult(context, "O(n log n + D), D = distinguishing prefix length", "O(log n)",
+                getMultikeyCodeSnippet(), "Multikey QuickSort (String)")
+                .valueType("STRING")
+                .sortedStrings(array)
+                .build();
+    }
+    
+    private void radixSort(SortingContext context, long[] keys, Function<long[], Object> snapshot) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        int[] counts = new int[1 << DIGIT_BITS];
+        long[] source = keys;
+        long[] target = new long[n];
+        long[] view = context.isRecording() && n <= RadixSortService.BUCKET_STEPS_MAX_SIZE ? new long[n] : null;
+        
+        for (int shift = 0, pass = 1; shift < Long.SIZE; shift += DIGIT_BITS, pass++) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) (source[i] >>> shift) & DIGIT_MASK]++;
+            }
+            if (counts[(int) (source[0] >>> shift) & DIGIT_MASK] == n) {
+                if (context.isRecording()) {
+                    context.addSnapshot(snapshot.apply(source),
+                            RadixSortService.passHighlights(pass, shift, DIGIT_BITS), "PASS_SKIPPED",
+                            String.format("Pass %d: every key has the same digit at bits %d-%d",
+                                    pass, shift, shift + DIGIT_BITS - 1));
+                }
+                continue;
+            }
+            if (context.isRecording()) {
+                Map<String, Object> highlights = RadixSortService.passHighlights(pass, shift, DIGIT_BITS);
+                highlights.put("bucketCounts", RadixSortService.nonEmptyBuckets(counts));
+                context.addSnapshot(snapshot.apply(source), highlights, "DIGIT_PASS", String.format(
+                        "Pass %d: counted digits at bits %d-%d", pass, shift, shift + DIGIT_BITS - 1));
+            }
+            
+            int[] starts = new int[counts.length];
+            for (int d = 1; d < counts.length; d++) {
+                starts[d] = starts[d - 1] + counts[d - 1];
+            }
+            int[] next = starts.clone();
+            for (int i = 0; i < n; i++) {
+                long key = source[i];
+                target[next[(int) (key >>> shift) & DIGIT_MASK]++] = key;
+            }
+            context.swaps += n;
+            
+            if (context.isRecording() && n > RadixSortService.BUCKET_STEPS_MAX_SIZE) {
+                Map<String, Object> highlights = RadixSortService.passHighlights(pass, shift, DIGIT_BITS);
+                context.addSnapshot(snapshot.apply(target), highlights, "PASS_COMPLETE", String.format(
+                        "Pass %d: scattered %d keys into buckets by digit", pass, n));
+            } else if (context.isRecording()) {
+                System.arraycopy(source, 0, view, 0, n);
+                for (int d = 0; d < counts.length; d++) {
+                    if (counts[d] == 0) {
+                        continue;
+                    }
+                    System.arraycopy(target, starts[d], view, starts[d], counts[d]);
+                    Map<String, Object> highlights = RadixSortService.passHighlights(pass, shift, DIGIT_BITS);
+                    highlights.put("digit", d);
+                    highlights.put("low", starts[d]);
+                    highlights.put("high", starts[d] + counts[d] - 1);
+                    context.addSnapshot(snapshot.apply(view), highlights, "BUCKET_SCATTER", String.format(
+                            "Pass %d: scattered %d keys with digit %d to [%d..%d]",
+                            pass, counts[d], d, starts[d], starts[d] + counts[d] - 1));
+                }
+            }
+            
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        
+        if (source != keys) {
+            System.arraycopy(source, 0, keys, 0, n);
+            context.swaps += n;
+        }
+    }
+    
+    // Recurses into the two smaller of the less, equal and greater parts and loops on the largest.
+    // A recursive part never holds more than half the range, so the stack depth is at most log2(n)
+    private void multikeySort(SortingContext context, String[] array, int low, int high, int depth) {
+        while (high - low + 1 > STRING_INSERTION_CUTOFF) {
+            int mid = low + (high - low) / 2;
+            swap(context, array, low, medianOfThree(context, array, low, mid, high, depth));
+            int pivot = charAt(array[low], depth);
+            
+            int lt = low;
+            int gt = high;
+            int i = low + 1;
+            while (i <= gt) {
+                int c = charAt(array[i], depth);
+                context.comparisons++;
+                if (c < pivot) {
+                    swap(context, array, lt++, i++);
+                } else if (c > pivot) {
+                    context.comparisons++;
+                    swap(context, array, i, gt--);
+                } else {
+                    context.comparisons++;
+                    i++;
+                }
+            }
+            
+            if (context.isRecording()) {
+                Map<String, Object> highlights = new HashMap<>();
+                highlights.put("low", low);
+                highlights.put("high", high);
+                highlights.put("depth", depth);
+                highlights.put("equalLow", lt);
+                highlights.put("equalHigh", gt);
+                context.addSnapshot(array.clone(), highlights, "PARTITION_COMPLETE", String.format(
+                        "Split [%d..%d] on character %d = %s: equal keys at [%d..%d]",
+                        low, high, depth, pivot < 0 ? "end of string" : "'" + (char) pivot + "'", lt, gt));
+            }
+            
+            // Keys equal on an end-of-string pivot are identical, so that part is already done
+            int lessSize = lt - low;
+            int equalSize = pivot < 0 ? 0 : gt - lt + 1;
+            int greaterSize = high - gt;
+            if (equalSize >= lessSize && equalSize >= greaterSize) {
+                multikeySort(context, array, low, lt - 1, depth);
+                multikeySort(context, array, gt + 1, high, depth);
+                if (pivot < 0) {
+                    return;
+                }
+                low = lt;
+                high = gt;
+                depth++;
+            } else if (lessSize >= greaterSize) {
+                multikeySort(context, array, gt + 1, high, depth);
+                if (pivot >= 0) {
+                    multikeySort(context, array, lt, gt, depth + 1);
+                }
+                high = lt - 1;
+            } else {
+                multikeySort(context, array, low, lt - 1, depth);
+                if (pivot >= 0) {
+                    multikeySort(context, array, lt, gt, depth + 1);
+                }
+                low = gt + 1;
+            }
+        }
+        insertionSort(context, array, low, high, depth);
+    }
+    
+    private int medianOfThree(SortingContext context, String[] array, int a, int b, int c, int depth) {
+        int ca = charAt(array[a], depth);
+        int cb = charAt(array[b], depth);
+        int cc = charAt(array[c], depth);
+        context.comparisons += 3;
+        if (ca < cb) {
+            return cb < cc ? b : (ca < cc ? c : a);
+        }
+        return ca < cc ? a : (cb < cc ? c : b);
+    }
+    
+    // All keys in [low..high] share their first `depth` characters
+    private void insertionSort(SortingContext context, String[] array, int low, int high, int depth) {
+        if (high <= low) {
+            return;
+        }
+        for (int i = low + 1; i <= high; i++) {
+            String key = array[i];
+            int j = i - 1;
+            while (j >= low && lessFrom(context, key, array[j], depth)) {
+                array[j + 1] = array[j];
+                context.swaps++;
+                j--;
+            }
+            array[j + 1] = key;
+        }
+        if (context.isRecording()) {
+            Map<String, Object> highlights = new HashMap<>();
+            highlights.put("low", low);
+            highlights.put("high", high);
+            highlights.put("depth", depth);
+            context.addSnapshot(array.clone(), highlights, "INSERTION_SORT",
+                    String.format("Insertion-sorted small range [%d..%d] from character %d", low, high, depth));
+        }
+    }
+    
+    private boolean lessFrom(SortingContext context, String a, String b, int depth) {
+        int length = Math.min(a.length(), b.length());
+        for (int d = depth; d < length; d++) {
+            context.comparisons++;
+            char ca = a.charAt(d);
+            char cb = b.charAt(d);
+            if (ca != cb) {
+                return ca < cb;
+            }
+        }
+        return a.length() < b.length();
+    }
+    
+    private void checkSize(int n) {
+        if (n > maxArraySize) {
+            throw new IllegalArgumentException(String.format(
+                    "Input holds %d values; the maximum is %d", n, maxArraySize));
+        }
+    }
+    
+    private void swap(SortingContext context, String[] array, int i, int j) {
+        if (i != j) {
+            String temp = array[i];
+            array[i] = array[j];
+            array[j] = temp;
+            context.swaps++;
+        }
+    }
+    
+    private static int charAt(String s, int depth) {
+        return depth < s.length() ? s.charAt(depth) : -1;
+    }
+    
+    // Negative doubles flip every bit and positive ones only the sign bit, giving an unsigned order
+    private static long doubleKey(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+    
+    private static double keyToDouble(long key) {
+        return Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+    }
+    
+    private static Object decodeLongs(long[] keys) {
+        long[] values = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = keys[i] ^ Long.MIN_VALUE;
+        }
+        return values;
+    }
+    
+    private static Object decodeDoubles(long[] keys) {
+        double[] values = new double[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = keyToDouble(keys[i]);
+        }
+        return values;
+    }
+    
+    private TypedSortingResult.TypedSortingResultBuilder buildResult(SortingContext context, String timeComplexity,
+            String spaceComplexity, String codeSnippet, String algorithmName) {
+        long executionTime = context.elapsedMillis();
+        
+        return TypedSortingResult.builder()
+                .steps(context.getSteps())
+                .metrics(ComplexityMetrics.builder()
+                        .timeComplexity(timeComplexity)
+                        .spaceComplexity(spaceComplexity)
+                        .actualOperations(context.comparisons + context.swaps)
+                        .comparisons(context.comparisons)
+                        .swaps(context.swaps)
+                        .executionTimeMs(executionTime)
+                        .build())
+                .codeSnippet(codeSnippet)
+                .algorithmName(algorithmName);
+    }
+    
+    private String getRadixCodeSnippet() {
+        return """
+                // longs: key = x ^ Long.MIN_VALUE
+                // doubles: bits = doubleToLongBits(x); key = bits ^ ((bits >> 63) | Long.MIN_VALUE)
+                public void radixSort(long[] keys) {
+                    long[] source = keys, target = new long[keys.length];
+                    for (int shift = 0; shift < 64; shift += 8) {
+                        int[] count = new int[257];
+                        for (long k : source) {
+                            count[(int) ((k >>> shift) & 0xFF) + 1]++;
+                        }
+                        for (int d = 0; d < 256; d++) {
+                            count[d + 1] += count[d];
+                        }
+                        for (long k : source) {
+                            target[count[(int) ((k >>> shift) & 0xFF)]++] = k;
+                        }
+                        long[] tmp = source; source = target; target = tmp;
+                    }
+                    // eight passes: the result is back in keys
+                }
+                """;
+    }
+    
+    private String getMultikeyCodeSnippet() {
+        return """
+                private void sort(String[] a, int low, int high, int d) {
+                    if (high <= low) return;
+                    int lt = low, gt = high, i = low + 1;
+                    int v = charAt(a[low], d); // -1 past the end of the string
+                    while (i <= gt) {
+                        int t = charAt(a[i], d);
+                        if (t < v) swap(a, lt++, i++);
+                        else if (t > v) swap(a, i, gt--);
+                        else i++;
+                    }
+                    sort(a, low, lt - 1, d);
+                    if (v >= 0) sort(a, lt, gt, d + 1);
+                    sort(a, gt + 1, high, d);
+                }
+                """;
+    }
+}
@@ -0,0 +1,58 @@
+package com.algoviz.controller;
+
+import com.algoviz.model.batch.BatchRequest;
+import com.algoviz.service.BatchExecutionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/algorithms/batch")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Batch Execution", description = "APIs for running many algorithm requests in one call")
+@CrossOrigin(origins = "*")
+public class BatchController {
+    
+    private final BatchExecutionService batchExecutionService;
+    private final ObjectMapper objectMapper;
+    
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Execute a batch", 
+               description = "Runs heterogeneous algorithm requests in parallel and streams one JSON result per line")
+    public ResponseEntity<StreamingResponseBody> batch(@Valid @RequestBody BatchRequest request) {
+        batchExecutionService.validate(request);
+        log.info("Batch request received with {} items", request.getItems().size());
+        
+        StreamingResponseBody body = out -> {
+            try {
+                batchExecutionService.execute(request, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -2,19 +2,25 @@ package com.algoviz.controller;
 
 import com.algoviz.algorithms.graph.*;
 import com.algoviz.datastructures.Graph;
-import com.algoviz.model.graph.Edge;
 import com.algoviz.model.graph.GraphRequest;
 import com.algoviz.model.graph.GraphResult;
+import com.algoviz.model.graph.StoredGraph;
+import com.algoviz.service.GraphImportService;
+import com.algoviz.service.GraphInputService;
+import com.algoviz.service.GraphStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/algorithms/graph")
@@ -24,73 +30,190 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "*")
 public class GraphController {
     
-    private final BFSService bfsService;
     private final DFSService dfsService;
-    private final DijkstraService dijkstraService;
-    private final KruskalMSTService kruskalMSTService;
+    private final GraphAlgorithmRegistry graphAlgorithmRegistry;
+    private final GraphInputService graphInputService;
+    private final GraphImportService graphImportService;
+    private final GraphStore graphStore;
     
-    @PostMapping("/bfs")
+    @PostMapping(value = "/bfs", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute BFS", 
-               description = "Performs Breadth-First Search on the input graph")
+               description = "Performs Breadth-First Search on the input graph. Mode DIRECTION_OPTIMIZING "
+                       + "expands whole levels in parallel, switching between top-down and bottom-up")
     public ResponseEntity<GraphResult> bfs(@Valid @RequestBody GraphRequest request) {
-        log.info("BFS request received for graph with {} vertices", request.getVertices());
-        Graph graph = buildGraph(request);
-        GraphResult result = bfsService.bfs(graph, request.getStartVertex());
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("BFS request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = graphAlgorithmRegistry.get("bfs").run(graph, request);
         return ResponseEntity.ok(result);
     }
     
-    @PostMapping("/dfs")
+    @PostMapping(value = "/dfs", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute DFS", 
                description = "Performs Depth-First Search on the input graph")
     public ResponseEntity<GraphResult> dfs(@Valid @RequestBody GraphRequest request) {
-        log.info("DFS request received for graph with {} vertices", request.getVertices());
-        Graph graph = buildGraph(request);
-        GraphResult result = dfsService.dfs(graph, request.getStartVertex());
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("DFS request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = dfsService.dfs(graph, request.getStartVertex(),
+                graphAlgorithmRegistry.includeSteps(graph, request));
         return ResponseEntity.ok(result);
     }
     
-    @PostMapping("/dijkstra")
+    @PostMapping(value = "/dijkstra", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute Dijkstra's Algorithm", 
-               description = "Finds shortest paths from start vertex using Dijkstra's algorithm")
+               description = "Finds shortest paths from start vertex using Dijkstra's algorithm. "
+                       + "Mode INDEXED_HEAP uses a 4-ary heap with decrease-key instead of lazy deletion; "
+                       + "DELTA_STEPPING relaxes buckets of width delta in parallel; compareBaseline adds its speedup")
     public ResponseEntity<GraphResult> dijkstra(@Valid @RequestBody GraphRequest request) {
-        log.info("Dijkstra request received for graph with {} vertices", request.getVertices());
-        Graph graph = buildGraph(request);
-        GraphResult result = dijkstraService.dijkstra(graph, request.getStartVertex());
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("Dijkstra request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = graphAlgorithmRegistry.get("dijkstra").run(graph, request);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/shortest-path", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Find a point-to-point shortest path", 
+               description = "Stops once endVertex is settled. Modes: DIJKSTRA, BIDIRECTIONAL and A_STAR "
+                       + "(heuristic ZERO, EUCLIDEAN or MANHATTAN over the vertex coordinates)")
+    public ResponseEntity<GraphResult> shortestPath(@Valid @RequestBody GraphRequest request) {
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("Shortest path request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = graphAlgorithmRegistry.get("shortest-path").run(graph, request);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/scc", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Find strongly connected components", 
+               description = "Tarjan's algorithm on an iterative DFS; components are listed in reverse "
+                       + "topological order of the condensation")
+    public ResponseEntity<GraphResult> stronglyConnectedComponents(@Valid @RequestBody GraphRequest request) {
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("SCC request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = graphAlgorithmRegistry.get("scc").run(graph, request);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/topological-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Topologically sort a directed acyclic graph", 
+               description = "Orders vertices by decreasing DFS finish time; a cycle is rejected with 400")
+    public ResponseEntity<GraphResult> topologicalSort(@Valid @RequestBody GraphRequest request) {
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("Topological sort request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = graphAlgorithmRegistry.get("topological-sort").run(graph, request);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/connected-components", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Find connected components", 
+               description = "Lock-free union-find over edge chunks on the shared fork-join pool; directed "
+                       + "graphs give their weakly connected components")
+    public ResponseEntity<GraphResult> connectedComponents(@Valid @RequestBody GraphRequest request) {
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("Connected components request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = graphAlgorithmRegistry.get("connected-components").run(graph, request);
         return ResponseEntity.ok(result);
     }
     
-    @PostMapping("/kruskal-mst")
+    @PostMapping(value = "/kruskal-mst", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute Kruskal's MST", 
-               description = "Finds Minimum Spanning Tree using Kruskal's algorithm")
+               description = "Finds Minimum Spanning Tree using Kruskal's algorithm. Mode FILTER_KRUSKAL "
+                       + "filters heavy edges before sorting them; BORUVKA contracts components in parallel rounds")
     public ResponseEntity<GraphResult> kruskalMST(@Valid @RequestBody GraphRequest request) {
-        log.info("Kruskal MST request received for graph with {} vertices", request.getVertices());
-        Graph graph = buildGraph(request);
-        GraphResult result = kruskalMSTService.kruskalMST(graph);
+        Graph graph = graphInputService.buildGraph(request);
+        log.info("Kruskal MST request received for graph with {} vertices", graph.getVertices());
+        GraphResult result = graphAlgorithmRegistry.get("kruskal-mst").run(graph, request);
         return ResponseEntity.ok(result);
     }
     
-    private Graph buildGraph(GraphRequest request) {
-        Graph graph = new Graph(
-            request.getVertices(), 
-            request.isDirected(), 
-            request.isWeighted()
-        );
-        
-        if (request.getEdges() != null) {
-            for (Edge edge : request.getEdges()) {
-                graph.addEdge(edge.getSource(), edge.getDestination(), edge.getWeight());
-            }
-        }
-        
-        if (request.getAdjacencyList() != null) {
-            for (var entry : request.getAdjacencyList().entrySet()) {
-                int source = entry.getKey();
-                for (int dest : entry.getValue()) {
-                    graph.addEdge(source, dest, 1);
-                }
-            }
-        }
-        
-        return graph;
+    @PostMapping(value = "/graphs", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Store a graph for repeated queries", 
+               description = "Returns a graphId and content hash; pass graphId to any graph endpoint instead "
+                       + "of the edges. The same graph always gets the same id")
+    public ResponseEntity<StoredGraph> storeGraph(@Valid @RequestBody GraphRequest request) {
+        StoredGraph stored = graphInputService.storeGraph(request);
+        log.info("Stored graph {} with {} vertices and {} edges", stored.getGraphId(), stored.getVertices(), 
+                stored.getEdges());
+        return ResponseEntity.ok(stored);
+    }
+    
+    @PostMapping(value = "/graphs", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Store a binary edge list for repeated queries", 
+               description = "Same body as the binary algorithm endpoints")
+    public ResponseEntity<StoredGraph> storeBinaryGraph(InputStream body,
+            @RequestParam(defaultValue = "false") boolean directed,
+            @RequestParam(defaultValue = "false") boolean weighted) {
+        StoredGraph stored = graphInputService.storeGraph(body, directed, weighted);
+        log.info("Stored binary graph {} with {} vertices and {} edges", stored.getGraphId(), stored.getVertices(), 
+                stored.getEdges());
+        return ResponseEntity.ok(stored);
+    }
+    
+    @PostMapping(value = "/graphs/import", 
+                 consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Import a SNAP or DIMACS edge-list file", 
+               description = "Parsed in parallel chunks straight into CSR; returns a graphId with the load time "
+                       + "and throughput. directed defaults to true for DIMACS and false for SNAP")
+    public ResponseEntity<StoredGraph> importGraph(InputStream body,
+            @RequestParam(defaultValue = "SNAP") String format,
+            @RequestParam(required = false) Boolean directed) {
+        StoredGraph stored = graphImportService.importUpload(body, format, directed);
+        log.info("Imported {} graph {} with {} vertices and {} edges in {} ms", format, stored.getGraphId(), 
+                stored.getVertices(), stored.getEdges(), stored.getLoadTimeMs());
+        return ResponseEntity.ok(stored);
+    }
+    
+    @PostMapping("/graphs/datasets/{fileName}")
+    @Operation(summary = "Import a SNAP or DIMACS file from the server's dataset directory", 
+               description = "The file is memory-mapped in place instead of uploaded; see "
+                       + "algorithm.graph-import.dataset-dir")
+    public ResponseEntity<StoredGraph> importDataset(@PathVariable String fileName,
+            @RequestParam(defaultValue = "SNAP") String format,
+            @RequestParam(required = false) Boolean directed) {
+        StoredGraph stored = graphImportService.importDataset(fileName, format, directed);
+        log.info("Imported dataset {} as graph {} with {} vertices and {} edges in {} ms", fileName, 
+                stored.getGraphId(), stored.getVertices(), stored.getEdges(), stored.getLoadTimeMs());
+        return ResponseEntity.ok(stored);
+    }
+    
+    @GetMapping("/graphs/{graphId}")
+    @Operation(summary = "Describe a stored graph")
+    public ResponseEntity<StoredGraph> storedGraph(@PathVariable String graphId) {
+        return ResponseEntity.ok(graphStore.info(graphId));
+    }
+    
+    @DeleteMapping("/graphs/{graphId}")
+    @Operation(summary = "Remove a stored graph")
+    public ResponseEntity<Void> removeGraph(@PathVariable String graphId) {
+        graphStore.remove(graphId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping(value = "/{algorithm}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Run a graph algorithm on a binary edge list", 
+               description = "Body: little-endian int32 vertices and edgeCount, then (source, destination) pairs, "
+                       + "or (source, destination, weight) triples when weighted")
+    public ResponseEntity<GraphResult> runBinary(@PathVariable String algorithm, InputStream body,
+            @RequestParam(defaultValue = "false") boolean directed,
+            @RequestParam(defaultValue = "false") boolean weighted,
+            @RequestParam(defaultValue = "0") int startVertex,
+            @RequestParam(required = false) Integer endVertex,
+            @RequestParam(defaultValue = "false") boolean includeSteps,
+            @RequestParam(required = false) String mode,
+            @RequestParam(required = false) Integer delta,
+            @RequestParam(defaultValue = "false") boolean compareBaseline) {
+        GraphAlgorithm graphAlgorithm = graphAlgorithmRegistry.get(algorithm);
+        Graph graph = graphInputService.buildGraph(body, directed, weighted);
+        log.info("Binary {} request received for graph with {} vertices", algorithm, graph.getVertices());
+        GraphRequest request = GraphRequest.builder()
+                .vertices(graph.getVertices())
+                .startVertex(startVertex)
+                .endVertex(endVertex)
+                .directed(directed)
+                .weighted(weighted)
+                .includeSteps(includeSteps)
+                .mode(mode)
+                .delta(delta)
+                .compareBaseline(compareBaseline)
+                .build();
+        return ResponseEntity.ok(graphAlgorithm.run(graph, request));
     }
 }
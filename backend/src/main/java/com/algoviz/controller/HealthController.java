@@ -35,7 +35,8 @@ public class HealthController {
         Map<String, Object> algorithms = new HashMap<>();
         
         algorithms.put("sorting", new String[]{
-            "quick-sort", "merge-sort", "bubble-sort", "insertion-sort"
+            "quick-sort", "merge-sort", "bubble-sort", "insertion-sort", "radix-sort", "counting-sort",
+            "tim-sort"
         });
         
         algorithms.put("graph", new String[]{
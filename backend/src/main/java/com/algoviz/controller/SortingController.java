@@ -1,18 +1,38 @@
 package com.algoviz.controller;
 
 import com.algoviz.algorithms.sorting.*;
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.sorting.ExternalSortRequest;
+import com.algoviz.model.sorting.ExternalSortResult;
+import com.algoviz.model.sorting.IncrementalSortRequest;
+import com.algoviz.model.sorting.SelectionRequest;
+import com.algoviz.model.sorting.SelectionResult;
+import com.algoviz.model.sorting.SortingRaceRequest;
+import com.algoviz.model.sorting.SortingRaceResult;
 import com.algoviz.model.sorting.SortingRequest;
 import com.algoviz.model.sorting.SortingResult;
+import com.algoviz.model.sorting.TypedSortingRequest;
+import com.algoviz.model.sorting.TypedSortingResult;
+import com.algoviz.service.ArrayGeneratorService;
+import com.algoviz.service.ExternalSortService;
+import com.algoviz.service.SortedResultStore;
+import com.algoviz.service.SortingRaceService;
+import com.algoviz.service.SortingSelectionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.Set;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/algorithms/sorting")
@@ -22,44 +42,248 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "*")
 public class SortingController {
     
+    // Quadratic sorts keep max-array-size even without steps
+    private static final Set<String> QUADRATIC_SORTS = Set.of("bubble-sort", "insertion-sort");
+    
     private final QuickSortService quickSortService;
     private final MergeSortService mergeSortService;
     private final BubbleSortService bubbleSortService;
     private final InsertionSortService insertionSortService;
+    private final RadixSortService radixSortService;
+    private final CountingSortService countingSortService;
+    private final TimSortService timSortService;
+    private final TypedSortService typedSortService;
+    private final SelectionService selectionService;
+    private final IncrementalSortService incrementalSortService;
+    private final SortingAlgorithmRegistry sortingAlgorithmRegistry;
+    private final ArrayGeneratorService arrayGeneratorService;
+    private final SortingRaceService sortingRaceService;
+    private final SortingSelectionService sortingSelectionService;
+    private final ExternalSortService externalSortService;
+    private final SortedResultStore sortedResultStore;
     
-    @PostMapping("/quick-sort")
+    @PostMapping(value = "/quick-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute QuickSort", 
-               description = "Performs QuickSort on the input array and returns step-by-step visualization")
+               description = "Performs QuickSort on the input array and returns step-by-step visualization. "
+                       + "Modes: INTROSORT, DUAL_PIVOT (Yaroslavskiy) and THREE_WAY (Bentley-McIlroy)")
     public ResponseEntity<SortingResult> quickSort(@Valid @RequestBody SortingRequest request) {
-        log.info("QuickSort request received for array: {}", request.getArray());
-        SortingResult result = quickSortService.sort(request.getArray());
-        return ResponseEntity.ok(result);
+        int[] array = resolveInput(request);
+        log.info("QuickSort request received for array of {} elements", array.length);
+        boolean recordSteps = recordSteps(request);
+        SortingResult result = switch (Objects.toString(request.getMode(), "").toUpperCase()) {
+            case "INTROSORT" -> quickSortService.sortIntrosort(array, recordSteps);
+            case "DUAL_PIVOT" -> quickSortService.sortDualPivot(array, recordSteps);
+            case "THREE_WAY" -> quickSortService.sortThreeWay(array, recordSteps);
+            default -> quickSortService.sort(array, recordSteps);
+        };
+        return respond(request, result);
     }
     
-    @PostMapping("/merge-sort")
+    @PostMapping(value = "/merge-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute MergeSort", 
-               description = "Performs MergeSort on the input array and returns step-by-step visualization")
+               description = "Performs MergeSort on the input array and returns step-by-step visualization. "
+                       + "Mode PARALLEL sorts on the fork-join pool")
     public ResponseEntity<SortingResult> mergeSort(@Valid @RequestBody SortingRequest request) {
-        log.info("MergeSort request received for array: {}", request.getArray());
-        SortingResult result = mergeSortService.sort(request.getArray());
-        return ResponseEntity.ok(result);
+        int[] array = resolveInput(request);
+        log.info("MergeSort request received for array of {} elements", array.length);
+        SortingResult result = "PARALLEL".equalsIgnoreCase(request.getMode())
+                ? mergeSortService.sortParallel(array, recordSteps(request))
+                : mergeSortService.sort(array, recordSteps(request));
+        return respond(request, result);
     }
     
-    @PostMapping("/bubble-sort")
+    @PostMapping(value = "/bubble-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute BubbleSort", 
                description = "Performs BubbleSort on the input array and returns step-by-step visualization")
     public ResponseEntity<SortingResult> bubbleSort(@Valid @RequestBody SortingRequest request) {
-        log.info("BubbleSort request received for array: {}", request.getArray());
-        SortingResult result = bubbleSortService.sort(request.getArray());
-        return ResponseEntity.ok(result);
+        int[] array = resolveInput(request, true);
+        log.info("BubbleSort request received for array of {} elements", array.length);
+        SortingResult result = bubbleSortService.sort(array, recordSteps(request));
+        return respond(request, result);
     }
     
-    @PostMapping("/insertion-sort")
+    @PostMapping(value = "/insertion-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Execute InsertionSort", 
                description = "Performs InsertionSort on the input array and returns step-by-step visualization")
     public ResponseEntity<SortingResult> insertionSort(@Valid @RequestBody SortingRequest request) {
-        log.info("InsertionSort request received for array: {}", request.getArray());
-        SortingResult result = insertionSortService.sort(request.getArray());
+        int[] array = resolveInput(request, true);
+        log.info("InsertionSort request received for array of {} elements", array.length);
+        SortingResult result = insertionSortService.sort(array, recordSteps(request));
+        return respond(request, result);
+    }
+    
+    @PostMapping(value = "/radix-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Execute RadixSort", 
+               description = "Performs LSD RadixSort (8- or 11-bit digits via radixBits) on the input array. "
+                       + "Mode MSD sorts most significant digit first with an insertion-sort cutoff")
+    public ResponseEntity<SortingResult> radixSort(@Valid @RequestBody SortingRequest request) {
+        int[] array = resolveInput(request);
+        log.info("RadixSort request received for array of {} elements", array.length);
+        SortingResult result = "MSD".equalsIgnoreCase(request.getMode())
+                ? radixSortService.sortMsd(array, recordSteps(request))
+                : radixSortService.sortLsd(array, 
+                        request.getRadixBits() == null ? 8 : request.getRadixBits(), recordSteps(request));
+        return respond(request, result);
+    }
+    
+    @PostMapping(value = "/counting-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Execute CountingSort", 
+               description = "Performs CountingSort on an input array with a small value range")
+    public ResponseEntity<SortingResult> countingSort(@Valid @RequestBody SortingRequest request) {
+        int[] array = resolveInput(request);
+        log.info("CountingSort request received for array of {} elements", array.length);
+        SortingResult result = countingSortService.sort(array, recordSteps(request));
+        return respond(request, result);
+    }
+    
+    @PostMapping(value = "/tim-sort", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Execute TimSort", 
+               description = "Performs a run-adaptive merge sort (natural runs, binary insertion, galloping merges)")
+    public ResponseEntity<SortingResult> timSort(@Valid @RequestBody SortingRequest request) {
+        int[] array = resolveInput(request);
+        log.info("TimSort request received for array of {} elements", array.length);
+        SortingResult result = timSortService.sort(array, recordSteps(request));
+        return respond(request, result);
+    }
+    
+    @PostMapping(value = "/auto", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Sort with an automatically chosen algorithm", 
+               description = "Samples the input (runs, inversions, duplicates, value range), picks the cheapest "
+                       + "algorithm and reports the decision in selection")
+    public ResponseEntity<SortingResult> autoSort(@Valid @RequestBody SortingRequest request) {
+        int[] array = resolveInput(request);
+        log.info("Auto sort request received for array of {} elements", array.length);
+        SortingResult result = sortingSelectionService.sortAuto(array, recordSteps(request));
+        return respond(request, result);
+    }
+    
+    @PostMapping(value = "/incremental", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Edit a previous sorting result", 
+               description = "Applies SET, INSERT and DELETE edits to the result with the given resultId by "
+                       + "binary-search relocation, or by one merge pass when many elements would move")
+    public ResponseEntity<SortingResult> incrementalSort(@RequestBody IncrementalSortRequest request) {
+        int[] sorted = sortedResultStore.get(request.getResultId());
+        log.info("Incremental sort request received: {} edits to {} elements", 
+                request.getEdits() == null ? 0 : request.getEdits().size(), sorted.length);
+        SortingResult result = incrementalSortService.apply(sorted, request.getEdits(),
+                request.getIncludeSteps() == null || request.getIncludeSteps());
+        result.getIncremental().setPreviousResultId(request.getResultId());
+        return respond(result, Boolean.TRUE.equals(request.getPackedOutput()));
+    }
+    
+    @PostMapping(value = "/select", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Order statistics without sorting", 
+               description = "KTH returns the k-th smallest (or largest) element, MEDIAN the lower median and TOP_K "
+                       + "the k smallest (or largest) in order. Introselect runs in linear time; small k uses a heap")
+    public ResponseEntity<SelectionResult> select(@RequestBody SelectionRequest request) {
+        boolean recordSteps = request.getIncludeSteps() == null || request.getIncludeSteps();
+        int[] array = arrayGeneratorService.resolve(
+                request.getArray(), request.getPackedArray(), request.getGenerator(), recordSteps);
+        log.info("Selection request received for {} over array of {} elements", request.getOperation(), array.length);
+        SelectionResult result = selectionService.select(array, request.getOperation(), request.getK(),
+                request.isLargest(), recordSteps);
         return ResponseEntity.ok(result);
     }
+    
+    @PostMapping(value = "/typed", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Sort longs, doubles or strings", 
+               description = "Radix sorts longs and doubles as 64-bit keys, and sorts strings with multikey "
+                       + "quicksort. Set exactly one of longs, doubles or strings")
+    public ResponseEntity<TypedSortingResult> typedSort(@RequestBody TypedSortingRequest request) {
+        int inputs = (request.getLongs() != null ? 1 : 0) + (request.getDoubles() != null ? 1 : 0)
+                + (request.getStrings() != null ? 1 : 0);
+        if (inputs != 1) {
+            throw new IllegalArgumentException("Exactly one of longs, doubles or strings must be provided");
+        }
+        boolean recordSteps = request.getIncludeSteps() == null || request.getIncludeSteps();
+        TypedSortingResult result;
+        if (request.getLongs() != null) {
+            log.info("Typed sort request received for {} longs", request.getLongs().length);
+            result = typedSortService.sortLongs(request.getLongs(), recordSteps);
+        } else if (request.getDoubles() != null) {
+            log.info("Typed sort request received for {} doubles", request.getDoubles().length);
+            result = typedSortService.sortDoubles(request.getDoubles(), recordSteps);
+        } else {
+            log.info("Typed sort request received for {} strings", request.getStrings().length);
+            result = typedSortService.sortStrings(request.getStrings(), recordSteps);
+        }
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/external", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "External merge sort of a generated input", 
+               description = "Streams a generated input to disk, sorts it in chunks into run files and k-way merges "
+                       + "the runs with a loser tree over memory-mapped windows")
+    public ResponseEntity<ExternalSortResult> externalSort(@RequestBody ExternalSortRequest request) {
+        log.info("External sort request received for generated input of {} elements", 
+                request.getGenerator() == null ? 0 : request.getGenerator().getSize());
+        return ResponseEntity.ok(externalSortService.sortGenerated(request));
+    }
+    
+    @PostMapping(value = "/external", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "External merge sort of an uploaded input", 
+               description = "Sorts a body of little-endian int32 values without loading it into memory")
+    public ResponseEntity<ExternalSortResult> externalSortUpload(InputStream body,
+            @RequestParam(required = false) Integer chunkSize,
+            @RequestParam(required = false) Integer fanIn) {
+        log.info("External sort request received for uploaded input");
+        return ResponseEntity.ok(externalSortService.sortUpload(body, chunkSize, fanIn));
+    }
+    
+    @PostMapping(value = "/{algorithm}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Sort a packed binary array", 
+               description = "Sorts a body of little-endian int32 values with any registered algorithm or auto. "
+                       + "Steps are off by default; packedOutput returns packedSortedArray instead of sortedArray")
+    public ResponseEntity<SortingResult> sortPacked(@PathVariable String algorithm,
+            @RequestBody byte[] body,
+            @RequestParam(defaultValue = "false") boolean includeSteps,
+            @RequestParam(defaultValue = "false") boolean packedOutput) {
+        int[] array = arrayGeneratorService.decodePacked(body,
+                includeSteps || QUADRATIC_SORTS.contains(algorithm.toLowerCase()));
+        log.info("Packed {} request received for array of {} elements", algorithm, array.length);
+        SortingResult result = "auto".equalsIgnoreCase(algorithm)
+                ? sortingSelectionService.sortAuto(array, includeSteps)
+                : sortingAlgorithmRegistry.get(algorithm).sort(array, includeSteps);
+        return respond(result, packedOutput);
+    }
+    
+    @PostMapping(value = "/race", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Race sorting algorithms", 
+               description = "Runs several sorting algorithms concurrently on the same input and compares their metrics")
+    public ResponseEntity<SortingRaceResult> race(@Valid @RequestBody SortingRaceRequest request) {
+        int[] array = arrayGeneratorService.resolve(request.getArray(), request.getGenerator());
+        log.info("Sorting race request received for {} over array of {} elements", 
+                request.getAlgorithms(), array.length);
+        SortingRaceResult result = sortingRaceService.race(
+                array, request.getAlgorithms(), request.isIncludeSteps(), request.getMaxSteps());
+        return ResponseEntity.ok(result);
+    }
+    
+    private int[] resolveInput(SortingRequest request) {
+        return resolveInput(request, recordSteps(request));
+    }
+    
+    private int[] resolveInput(SortingRequest request, boolean traced) {
+        return arrayGeneratorService.resolve(request.getArray(), request.getPackedArray(), request.getGenerator(),
+                traced);
+    }
+    
+    private ResponseEntity<SortingResult> respond(SortingRequest request, SortingResult result) {
+        return respond(result, Boolean.TRUE.equals(request.getPackedOutput()));
+    }
+    
+    private ResponseEntity<SortingResult> respond(SortingResult result, boolean packedOutput) {
+        result.setResultId(sortedResultStore.put(PackedIntArray.toIntArray(result.getSortedArray())));
+        return ResponseEntity.ok(packedOutput ? pack(result) : result);
+    }
+    
+    private SortingResult pack(SortingResult result) {
+        result.setPackedSortedArray(PackedIntArray.encode(result.getSortedArray()));
+        result.setSortedArray(null);
+        return result;
+    }
+    
+    private boolean recordSteps(SortingRequest request) {
+        return request.getIncludeSteps() == null || request.getIncludeSteps();
+    }
 }
@@ -0,0 +1,78 @@
+package com.algoviz.datastructures;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find for many threads at once. Parents live in an
+ * {@link AtomicIntegerArray}. A union links the larger root under the smaller one with a
+ * single compare-and-set, so parents only ever point to lower indices and no cycle can form.
+ * The root of a set is always its smallest member. Finds halve the path with compare-and-set,
+ * and a failed halving is simply skipped because the other writer also moved toward the root.
+ */
+public class ConcurrentDisjointSet {
+    private final AtomicIntegerArray parent;
+    
+    public ConcurrentDisjointSet(int size) {
+        parent = new AtomicIntegerArray(size);
+        
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+    
+    public int size() {
+        return parent.length();
+    }
+    
+    public int find(int x) {
+        int p = parent.get(x);
+        while (p != x) {
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = grandparent;
+            p = parent.get(x);
+        }
+        return x;
+    }
+    
+    /**
+     * Merges the sets of {@code x} and {@code y}; false when they were already one set.
+     * Retries only when another union changed one of the two roots first.
+     */
+    public boolean union(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) {
+                return false;
+            }
+            if (x < y) {
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+            if (parent.compareAndSet(x, x, y)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * True when {@code x} and {@code y} are in one set; linearizable under concurrent unions
+     * because a negative answer is only given while the first root is still a root.
+     */
+    public boolean connected(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) {
+                return true;
+            }
+            if (parent.get(x) == x) {
+                return false;
+            }
+        }
+    }
+}
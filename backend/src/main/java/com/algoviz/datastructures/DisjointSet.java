@@ -14,19 +14,27 @@ public class DisjointSet {
         }
     }
     
+    /**
+     * Iterative, with path halving: every vertex on the way up is pointed at its grandparent,
+     * so long chains flatten over repeated finds without recursing.
+     */
     public int find(int x) {
-        if (parent[x] != x) {
-            parent[x] = find(parent[x]); // Path compression
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
         }
-        return parent[x];
+        return x;
     }
     
-    public void union(int x, int y) {
+    /**
+     * Merges the sets of {@code x} and {@code y}; false when they were already one set.
+     */
+    public boolean union(int x, int y) {
         int rootX = find(x);
         int rootY = find(y);
         
         if (rootX == rootY) {
-            return;
+            return false;
         }
         
         // Union by rank
@@ -38,6 +46,7 @@ public class DisjointSet {
             parent[rootY] = rootX;
             rank[rootX]++;
         }
+        return true;
     }
     
     public boolean connected(int x, int y) {
@@ -0,0 +1,63 @@
+package com.algoviz.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Growable edge list backed by parallel primitive arrays, so large inputs can be
+ * assembled without allocating an {@code Edge} object per edge.
+ */
+public class EdgeList {
+    private int[] sources;
+    private int[] targets;
+    private int[] weights;
+    private int size;
+    private int maxVertex = -1;
+    
+    public EdgeList() {
+        this(16);
+    }
+    
+    public EdgeList(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        sources = new int[capacity];
+        targets = new int[capacity];
+        weights = new int[capacity];
+    }
+    
+    public void add(int source, int target, int weight) {
+        if (size == sources.length) {
+            int capacity = sources.length + (sources.length >> 1) + 1;
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        sources[size] = source;
+        targets[size] = target;
+        weights[size] = weight;
+        size++;
+        maxVertex = Math.max(maxVertex, Math.max(source, target));
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Largest vertex id added so far, or -1 when empty.
+     */
+    public int maxVertex() {
+        return maxVertex;
+    }
+    
+    public int source(int index) {
+        return sources[index];
+    }
+    
+    public int target(int index) {
+        return targets[index];
+    }
+    
+    public int weight(int index) {
+        return weights[index];
+    }
+}
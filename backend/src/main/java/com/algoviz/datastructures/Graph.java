@@ -1,76 +1,269 @@
 package com.algoviz.datastructures;
 
 import com.algoviz.model.graph.Edge;
-import lombok.Getter;
 
 import java.util.*;
 
-@Getter
+/**
+ * Graph in compressed sparse row form: the out-edges of vertex {@code v} occupy
+ * {@code [neighborStart(v), neighborEnd(v))} of the parallel {@code targets} and
+ * {@code weights} arrays, sorted by target. Edges are buffered until the first read, which
+ * freezes the graph in one counting pass; adding edges after that is an error.
+ * Undirected edges are stored once in each direction. Neighbor ranges are sorted by target, not
+ * kept in insertion order, so traversals such as BFS and DFS visit neighbors in ascending order,
+ * and {@link #getEdgeWeight} reports the lightest of parallel edges rather than the last added.
+ */
 public class Graph {
     private final int vertices;
-    private final List<List<Edge>> adjacencyList;
-    private final int[][] adjacencyMatrix;
     private final boolean directed;
     private final boolean weighted;
+    private EdgeList pending = new EdgeList();
+    private volatile boolean frozen;
+    private int[] offsets;
+    private int[] targets;
+    private int[] weights;
+    private volatile Graph reversed;
     
     public Graph(int vertices, boolean directed, boolean weighted) {
         this.vertices = vertices;
         this.directed = directed;
         this.weighted = weighted;
-        this.adjacencyList = new ArrayList<>();
-        this.adjacencyMatrix = new int[vertices][vertices];
-        
-        for (int i = 0; i < vertices; i++) {
-            adjacencyList.add(new ArrayList<>());
-            Arrays.fill(adjacencyMatrix[i], Integer.MAX_VALUE);
-            adjacencyMatrix[i][i] = 0;
+    }
+    
+    /**
+     * Wraps CSR arrays built elsewhere, such as by a parallel loader, without copying them. The
+     * arrays must follow this class's layout: {@code offsets} has {@code vertices + 1} entries,
+     * every range is sorted by target and then weight, and undirected edges appear in both
+     * directions. The graph is frozen from the start.
+     */
+    public static Graph ofCsr(int vertices, boolean directed, boolean weighted, 
+                              int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != vertices + 1 || offsets[vertices] != targets.length 
+                || targets.length != weights.length) {
+            throw new IllegalArgumentException("CSR arrays do not match the vertex count");
         }
+        Graph graph = new Graph(vertices, directed, weighted);
+        graph.offsets = offsets;
+        graph.targets = targets;
+        graph.weights = weights;
+        graph.pending = null;
+        graph.frozen = true;
+        return graph;
     }
     
     public void addEdge(int source, int destination, int weight) {
         if (source >= vertices || destination >= vertices || source < 0 || destination < 0) {
             throw new IllegalArgumentException("Invalid vertex");
         }
-        
-        adjacencyList.get(source).add(new Edge(source, destination, weight));
-        adjacencyMatrix[source][destination] = weight;
-        
-        if (!directed) {
-            adjacencyList.get(destination).add(new Edge(destination, source, weight));
-            adjacencyMatrix[destination][source] = weight;
+        if (frozen) {
+            throw new IllegalStateException("Graph is frozen; edges cannot be added after it has been read");
         }
+        pending.add(source, destination, weight);
     }
     
     public void addEdge(int source, int destination) {
         addEdge(source, destination, 1);
     }
     
+    public void addEdges(EdgeList edges) {
+        for (int i = 0; i < edges.size(); i++) {
+            addEdge(edges.source(i), edges.target(i), edges.weight(i));
+        }
+    }
+    
+    public int getVertices() {
+        return vertices;
+    }
+    
+    public boolean isDirected() {
+        return directed;
+    }
+    
+    public boolean isWeighted() {
+        return weighted;
+    }
+    
+    public int neighborStart(int vertex) {
+        checkVertex(vertex);
+        return csr()[vertex];
+    }
+    
+    public int neighborEnd(int vertex) {
+        checkVertex(vertex);
+        return csr()[vertex + 1];
+    }
+    
+    public int degree(int vertex) {
+        return neighborEnd(vertex) - neighborStart(vertex);
+    }
+    
+    /**
+     * Destination of the edge at position {@code index}, taken from a neighbor range. Like every
+     * read, it freezes the graph first.
+     */
+    public int target(int index) {
+        csr();
+        return targets[index];
+    }
+    
+    public int weight(int index) {
+        csr();
+        return weights[index];
+    }
+    
+    /**
+     * Number of stored edge entries; an undirected edge counts twice.
+     */
+    public int edgeCount() {
+        return csr()[vertices];
+    }
+    
     public List<Edge> getNeighbors(int vertex) {
-        if (vertex < 0 || vertex >= vertices) {
-            throw new IllegalArgumentException("Invalid vertex");
+        int start = neighborStart(vertex);
+        int end = neighborEnd(vertex);
+        List<Edge> edges = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            edges.add(new Edge(vertex, targets[i], weights[i]));
         }
-        return adjacencyList.get(vertex);
+        return edges;
     }
     
     public List<Integer> getNeighborVertices(int vertex) {
-        return getNeighbors(vertex).stream()
-                .map(Edge::getDestination)
-                .toList();
+        // neighborStart builds the CSR arrays, so it has to run before targets is read
+        int start = neighborStart(vertex);
+        return PackedIntArray.asList(Arrays.copyOfRange(targets, start, neighborEnd(vertex)));
     }
     
+    /**
+     * Weight of the lightest edge from {@code source} to {@code destination}, found by binary
+     * search in the sorted neighbor range; 0 on the diagonal without a self-loop and
+     * {@code Integer.MAX_VALUE} when there is no edge.
+     */
     public int getEdgeWeight(int source, int destination) {
-        return adjacencyMatrix[source][destination];
+        checkVertex(destination);
+        int index = lowerBound(neighborStart(source), neighborEnd(source), destination);
+        if (index < offsets[source + 1] && targets[index] == destination) {
+            return weights[index];
+        }
+        return source == destination ? 0 : Integer.MAX_VALUE;
     }
     
     public boolean hasEdge(int source, int destination) {
-        return adjacencyMatrix[source][destination] != Integer.MAX_VALUE;
+        return getEdgeWeight(source, destination) != Integer.MAX_VALUE;
     }
     
     public List<Edge> getAllEdges() {
-        List<Edge> edges = new ArrayList<>();
-        for (int i = 0; i < vertices; i++) {
-            edges.addAll(adjacencyList.get(i));
+        int[] csr = csr();
+        List<Edge> edges = new ArrayList<>(csr[vertices]);
+        for (int v = 0; v < vertices; v++) {
+            for (int i = csr[v]; i < csr[v + 1]; i++) {
+                edges.add(new Edge(v, targets[i], weights[i]));
+            }
         }
         return edges;
     }
+    
+    /**
+     * The graph with every edge reversed, built on first use and kept; an undirected graph is
+     * its own reverse.
+     */
+    public Graph reversed() {
+        if (!directed) {
+            return this;
+        }
+        Graph result = reversed;
+        if (result == null) {
+            synchronized (this) {
+                result = reversed;
+                if (result == null) {
+                    int[] csr = csr();
+                    result = new Graph(vertices, true, weighted);
+                    for (int v = 0; v < vertices; v++) {
+                        for (int i = csr[v]; i < csr[v + 1]; i++) {
+                            result.pending.add(targets[i], v, weights[i]);
+                        }
+                    }
+                    result.csr();
+                    reversed = result;
+                }
+            }
+        }
+        return result;
+    }
+    
+    // First index in [low, high) whose target is not less than destination
+    private int lowerBound(int low, int high, int destination) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (targets[mid] < destination) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertices) {
+            throw new IllegalArgumentException("Invalid vertex");
+        }
+    }
+    
+    private int[] csr() {
+        if (!frozen) {
+            freeze();
+        }
+        return offsets;
+    }
+    
+    private synchronized void freeze() {
+        if (frozen) {
+            return;
+        }
+        EdgeList edges = pending;
+        int entries = directed ? edges.size() : Math.multiplyExact(edges.size(), 2);
+        
+        // Count out-degrees, prefix-sum them into offsets, then scatter each edge into its slot
+        int[] offsets = new int[vertices + 1];
+        for (int i = 0; i < edges.size(); i++) {
+            offsets[edges.source(i) + 1]++;
+            if (!directed) {
+                offsets[edges.target(i) + 1]++;
+            }
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        // Target in the high half, sign-flipped weight in the low half, so sorting a range
+        // orders it by target and then by weight
+        long[] slots = new long[entries];
+        int[] next = Arrays.copyOf(offsets, vertices);
+        for (int i = 0; i < edges.size(); i++) {
+            int source = edges.source(i);
+            int target = edges.target(i);
+            long weightBits = (edges.weight(i) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+            slots[next[source]++] = ((long) target << 32) | weightBits;
+            if (!directed) {
+                slots[next[target]++] = ((long) source << 32) | weightBits;
+            }
+        }
+        
+        int[] targets = new int[entries];
+        int[] weights = new int[entries];
+        for (int v = 0; v < vertices; v++) {
+            if (offsets[v + 1] - offsets[v] > 1) {
+                Arrays.sort(slots, offsets[v], offsets[v + 1]);
+            }
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                targets[i] = (int) (slots[i] >>> 32);
+                weights[i] = (int) slots[i] ^ Integer.MIN_VALUE;
+            }
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.pending = null;
+        frozen = true;
+    }
 }
@@ -0,0 +1,160 @@
+package com.algoviz.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Min-heap of the items {@code 0..capacity-1} keyed by {@code int}, with {@code d} children
+ * per node. A position array maps each item to its slot, so {@link #decreaseKey} moves an
+ * entry in place and the heap never holds more than one entry per item. Keys are stored by
+ * slot next to the items, so sifting compares adjacent memory. All storage is allocated up front.
+ */
+public class IndexedDaryHeap {
+    
+    /**
+     * Notified after each sift with the slots the item moved between; equal slots mean it
+     * stayed put.
+     */
+    @FunctionalInterface
+    public interface SiftListener {
+        void sifted(String operation, int item, int fromSlot, int toSlot);
+    }
+    
+    private final int arity;
+    private final int[] heap;
+    private final int[] heapKeys;
+    private final int[] positions;
+    private int size;
+    private SiftListener listener;
+    
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.heapKeys = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+    
+    public void setListener(SiftListener listener) {
+        this.listener = listener;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+    
+    public int key(int item) {
+        if (!contains(item)) {
+            throw new IllegalStateException("Item " + item + " is not in the heap");
+        }
+        return heapKeys[positions[item]];
+    }
+    
+    public void insert(int item, int key) {
+        if (contains(item)) {
+            throw new IllegalStateException("Item " + item + " is already in the heap");
+        }
+        siftUp(size++, item, key);
+    }
+    
+    public void decreaseKey(int item, int key) {
+        if (!contains(item)) {
+            throw new IllegalStateException("Item " + item + " is not in the heap");
+        }
+        int slot = positions[item];
+        if (key > heapKeys[slot]) {
+            throw new IllegalArgumentException("New key " + key + " is greater than current key " + heapKeys[slot]);
+        }
+        siftUp(slot, item, key);
+    }
+    
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heap[0];
+    }
+    
+    public int extractMin() {
+        int min = peek();
+        positions[min] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(heap[size], heapKeys[size]);
+        }
+        return min;
+    }
+    
+    /**
+     * Items in slot order; slot {@code i} has children {@code d·i + 1 .. d·i + d}.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+    
+    // Moves a hole up from `slot` instead of swapping, then drops the item into it
+    private void siftUp(int slot, int item, int key) {
+        int from = slot;
+        while (slot > 0) {
+            int parent = (slot - 1) / arity;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        place(slot, item, key);
+        if (listener != null) {
+            listener.sifted("SIFT_UP", item, from, slot);
+        }
+    }
+    
+    // Moves a hole down from the root, then drops the item into it
+    private void siftDown(int item, int key) {
+        int slot = 0;
+        while (true) {
+            int first = arity * slot + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int best = first;
+            for (int child = first + 1; child < last; child++) {
+                if (heapKeys[child] < heapKeys[best]) {
+                    best = child;
+                }
+            }
+            if (heapKeys[best] >= key) {
+                break;
+            }
+            move(best, slot);
+            slot = best;
+        }
+        place(slot, item, key);
+        if (listener != null) {
+            listener.sifted("SIFT_DOWN", item, 0, slot);
+        }
+    }
+    
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        heapKeys[to] = heapKeys[from];
+        positions[heap[to]] = to;
+    }
+    
+    private void place(int slot, int item, int key) {
+        heap[slot] = item;
+        heapKeys[slot] = key;
+        positions[item] = slot;
+    }
+}
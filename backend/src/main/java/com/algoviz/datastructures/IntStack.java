@@ -0,0 +1,56 @@
+package com.algoviz.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Growable stack of primitive ints, so deep traversals keep their stack on the heap
+ * without boxing or the synchronization of {@code java.util.Stack}.
+ */
+public class IntStack {
+    private int[] values;
+    private int size;
+    
+    public IntStack() {
+        this(16);
+    }
+    
+    public IntStack(int initialCapacity) {
+        values = new int[Math.max(initialCapacity, 1)];
+    }
+    
+    public void push(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length + (values.length >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+    
+    public int pop() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return values[--size];
+    }
+    
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return values[size - 1];
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Elements from the bottom of the stack to the top.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
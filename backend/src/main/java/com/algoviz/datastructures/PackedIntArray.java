@@ -0,0 +1,140 @@
+package com.algoviz.datastructures;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Packed little-endian int32 encoding for binary array payloads, plus read-only
+ * {@code List<Integer>} and index-keyed {@code Map<Integer, Integer>} views over an
+ * {@code int[]} that box elements only when read.
+ */
+public final class PackedIntArray {
+    
+    private PackedIntArray() {
+    }
+    
+    public static int[] decode(byte[] bytes) {
+        if (bytes.length % Integer.BYTES != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Packed array length %d is not a multiple of %d bytes", bytes.length, Integer.BYTES));
+        }
+        int[] values = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values);
+        return values;
+    }
+    
+    public static byte[] encode(int[] values) {
+        byte[] bytes = new byte[values.length * Integer.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(values);
+        return bytes;
+    }
+    
+    public static byte[] encode(List<Integer> values) {
+        return encode(toIntArray(values));
+    }
+    
+    /**
+     * Wraps {@code values} without copying, so later writes to the array show through.
+     */
+    public static List<Integer> asList(int[] values) {
+        return new IntListView(values);
+    }
+    
+    /**
+     * Wraps {@code values} as a map from each index to its value, without copying.
+     */
+    public static Map<Integer, Integer> asMap(int[] values) {
+        return new IntMapView(values);
+    }
+    
+    /**
+     * Returns the backing array of a view from {@link #asList}, otherwise an unboxed copy.
+     */
+    public static int[] toIntArray(List<Integer> values) {
+        if (values instanceof IntListView view) {
+            return view.values;
+        }
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    private static final class IntListView extends AbstractList<Integer> implements RandomAccess {
+        private final int[] values;
+        
+        IntListView(int[] values) {
+            this.values = values;
+        }
+        
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+        
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+    
+    private static final class IntMapView extends AbstractMap<Integer, Integer> {
+        private final int[] values;
+        
+        IntMapView(int[] values) {
+            this.values = values;
+        }
+        
+        @Override
+        public Integer get(Object key) {
+            return containsKey(key) ? values[(Integer) key] : null;
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer index && index >= 0 && index < values.length;
+        }
+        
+        @Override
+        public int size() {
+            return values.length;
+        }
+        
+        @Override
+        public Set<Entry<Integer, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+                        
+                        @Override
+                        public boolean hasNext() {
+                            return next < values.length;
+                        }
+                        
+                        @Override
+                        public Entry<Integer, Integer> next() {
+                            if (next >= values.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(index, values[index]);
+                        }
+                    };
+                }
+                
+                @Override
+                public int size() {
+                    return values.length;
+                }
+            };
+        }
+    }
+}
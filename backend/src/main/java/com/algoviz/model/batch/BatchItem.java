@@ -0,0 +1,25 @@
+package com.algoviz.model.batch;
+
+import com.algoviz.model.dp.KnapsackRequest;
+import com.algoviz.model.graph.GraphRequest;
+import com.algoviz.model.sorting.SortingRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItem {
+    private String id; // echoed back so clients can correlate results
+    private String algorithm; // e.g. quick-sort, bfs, knapsack, lcs, fibonacci
+    private boolean includeSteps;
+    private SortingRequest sorting;
+    private GraphRequest graph;
+    private KnapsackRequest knapsack;
+    private String text1; // lcs
+    private String text2; // lcs
+    private Integer n; // fibonacci
+}
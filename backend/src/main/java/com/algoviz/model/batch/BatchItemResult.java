@@ -0,0 +1,20 @@
+package com.algoviz.model.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+    private String id;
+    private String algorithm;
+    private String status; // OK or ERROR
+    private String error;
+    private double elapsedMs;
+    private Object result;
+}
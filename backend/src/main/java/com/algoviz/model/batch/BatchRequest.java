@@ -0,0 +1,18 @@
+package com.algoviz.model.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+    private List<BatchItem> items;
+    private Integer maxConcurrency;
+    private boolean ordered; // false streams results as they complete
+}
@@ -0,0 +1,43 @@
+package com.algoviz.model.graph;
+
+import com.algoviz.datastructures.EdgeList;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Streams {@code {"0": [1, 2], "1": [2]}} into an {@link EdgeList} of weight-1 edges, without
+ * building the intermediate map of boxed lists.
+ */
+public class AdjacencyListDeserializer extends JsonDeserializer<EdgeList> {
+    
+    @Override
+    public EdgeList deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return context.reportInputMismatch(EdgeList.class, "adjacencyList must be an object of arrays");
+        }
+        EdgeList edges = new EdgeList();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String key = parser.currentName();
+            int source;
+            try {
+                source = Integer.parseInt(key);
+            } catch (NumberFormatException ex) {
+                return context.reportInputMismatch(EdgeList.class, "adjacencyList key is not a vertex: %s", key);
+            }
+            if (source < 0) {
+                return context.reportInputMismatch(EdgeList.class, "adjacencyList key is negative: %d", source);
+            }
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return context.reportInputMismatch(EdgeList.class, "adjacencyList[%d] must be an array", source);
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                edges.add(source, EdgeListDeserializer.readVertex(parser, context, edges.size(), "destination"), 1);
+            }
+        }
+        return edges;
+    }
+}
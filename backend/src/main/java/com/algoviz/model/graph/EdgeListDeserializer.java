@@ -0,0 +1,66 @@
+package com.algoviz.model.graph;
+
+import com.algoviz.datastructures.EdgeList;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Streams {@code [{"source": 0, "destination": 1, "weight": 4}, ...]} token by token into an
+ * {@link EdgeList}, without an {@link Edge} object per edge. Weight defaults to 1.
+ */
+public class EdgeListDeserializer extends JsonDeserializer<EdgeList> {
+    
+    @Override
+    public EdgeList deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return context.reportInputMismatch(EdgeList.class, "edges must be an array of objects");
+        }
+        EdgeList edges = new EdgeList();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return context.reportInputMismatch(EdgeList.class, "edges[%d] must be an object", edges.size());
+            }
+            int source = -1;
+            int destination = -1;
+            int weight = 1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "source" -> source = readVertex(parser, context, edges.size(), field);
+                    case "destination" -> destination = readVertex(parser, context, edges.size(), field);
+                    case "weight" -> weight = readInt(parser, context, edges.size(), field);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (source < 0 || destination < 0) {
+                return context.reportInputMismatch(EdgeList.class,
+                        "edges[%d] needs both source and destination", edges.size());
+            }
+            edges.add(source, destination, weight);
+        }
+        return edges;
+    }
+    
+    static int readVertex(JsonParser parser, DeserializationContext context, int index, String field)
+            throws IOException {
+        int vertex = readInt(parser, context, index, field);
+        if (vertex < 0) {
+            return context.reportInputMismatch(EdgeList.class, "edges[%d].%s is negative: %d", index, field, vertex);
+        }
+        return vertex;
+    }
+    
+    static int readInt(JsonParser parser, DeserializationContext context, int index, String field)
+            throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT
+                || parser.getNumberType() != JsonParser.NumberType.INT) {
+            return context.reportInputMismatch(EdgeList.class, "edges[%d].%s must be a 32-bit integer", index, field);
+        }
+        return parser.getIntValue();
+    }
+}
@@ -0,0 +1,23 @@
+package com.algoviz.model.graph;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphGeneratorSpec {
+    private String type; // GNP, GNM, GRID, TREE, BARABASI_ALBERT
+    private int vertices;
+    private long seed;
+    private Double edgeProbability; // GNP
+    private Integer edgeCount; // GNM
+    private Integer rows; // GRID
+    private Integer columns; // GRID
+    private Integer attachmentEdges; // BARABASI_ALBERT
+    private Integer minWeight;
+    private Integer maxWeight;
+}
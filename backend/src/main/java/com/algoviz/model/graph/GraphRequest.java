@@ -1,23 +1,32 @@
 package com.algoviz.model.graph;
 
+import com.algoviz.datastructures.EdgeList;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-import java.util.Map;
-
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class GraphRequest {
+    private String graphId; // a stored graph from POST /graphs; replaces vertices, edges and generator
     private int vertices;
-    private List<Edge> edges;
-    private Map<Integer, List<Integer>> adjacencyList;
+    @JsonDeserialize(using = EdgeListDeserializer.class)
+    private EdgeList edges;
+    @JsonDeserialize(using = AdjacencyListDeserializer.class)
+    private EdgeList adjacencyList; // {"0": [1, 2]} read as weight-1 edges
+    private GraphGeneratorSpec generator; // replaces vertices/edges when present
     private int startVertex;
     private Integer endVertex;
     private boolean directed;
     private boolean weighted;
+    private String mode; // algorithm variant, e.g. DIRECTION_OPTIMIZING (bfs), DELTA_STEPPING (dijkstra), A_STAR
+    private Integer delta; // DELTA_STEPPING bucket width; defaults to max weight / average degree
+    private String heuristic; // A_STAR: ZERO, EUCLIDEAN or MANHATTAN
+    private double[][] coordinates; // [x, y] per vertex for A_STAR; GRID generators supply their own
+    private boolean compareBaseline; // parallel modes: also time a single-threaded run and the classic algorithm
+    private Boolean includeSteps; // defaults to true up to max-graph-step-vertices
 }
@@ -20,6 +20,10 @@ public class GraphResult {
     private Map<Integer, Integer> distances;
     private Map<Integer, Integer> predecessors;
     private List<Edge> resultEdges;
+    private List<List<Integer>> components;
+    private List<Integer> path;
+    private PathStatistics pathStatistics;
+    private ParallelStatistics parallelStatistics;
     private ComplexityMetrics metrics;
     private String codeSnippet;
     private String algorithmName;
@@ -0,0 +1,42 @@
+package com.algoviz.model.graph;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParallelStatistics {
+    private String method; // DELTA_STEPPING, DIRECTION_OPTIMIZING or UNION_FIND
+    private int parallelism;
+    private int phases; // relaxation rounds, BFS levels or union-find chunks, each one parallel step
+    private double parallelTimeMs;
+    // The comparison fields are only set when the request asks for compareBaseline
+    private Double sequentialTimeMs; // same algorithm with every round on one thread
+    private Double speedup; // sequentialTimeMs / parallelTimeMs
+    private Double baselineTimeMs; // classic sequential version: indexed-heap Dijkstra, queue BFS, union-find
+    private Double speedupOverBaseline;
+    private Boolean matchesBaseline; // distances agree with the sequential baseline
+    private Integer delta; // DELTA_STEPPING only, bucket width
+    private Integer buckets; // DELTA_STEPPING only, non-empty buckets processed
+    private Long lightRelaxations; // DELTA_STEPPING only
+    private Long heavyRelaxations; // DELTA_STEPPING only
+    private Integer topDownLevels; // DIRECTION_OPTIMIZING only
+    private Integer bottomUpLevels; // DIRECTION_OPTIMIZING only
+    private Long edgesExamined; // DIRECTION_OPTIMIZING only
+    private Long unions; // UNION_FIND only, unions that joined two components
+    
+    /**
+     * Fills in the comparison fields from the single-threaded, baseline and parallel run times.
+     */
+    public void recordComparison(long sequentialNanos, long baselineNanos, long parallelNanos, boolean matches) {
+        sequentialTimeMs = sequentialNanos / 1e6;
+        speedup = (double) sequentialNanos / Math.max(1, parallelNanos);
+        baselineTimeMs = baselineNanos / 1e6;
+        speedupOverBaseline = (double) baselineNanos / Math.max(1, parallelNanos);
+        matchesBaseline = matches;
+    }
+}
@@ -0,0 +1,22 @@
+package com.algoviz.model.graph;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PathStatistics {
+    private String method; // DIJKSTRA, BIDIRECTIONAL or A_STAR
+    private Integer distance; // null when the end vertex is unreachable
+    private int settledVertices; // both directions for BIDIRECTIONAL
+    private int baselineSettledVertices; // what Dijkstra stopping at the end vertex settles
+    private double settledFraction; // settledVertices / vertices
+    private long relaxedEdges;
+    private String heuristic; // A_STAR only
+    private Double heuristicScale; // A_STAR only, largest scale that keeps the heuristic admissible
+    private Integer meetingVertex; // BIDIRECTIONAL only
+}
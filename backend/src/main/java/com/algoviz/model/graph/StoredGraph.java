@@ -0,0 +1,24 @@
+package com.algoviz.model.graph;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredGraph {
+    private String graphId; // pass as graphId to any graph endpoint
+    private String contentHash; // SHA-256 of the stored records, or of an imported file and its options; hex
+    private int vertices;
+    private int edges;
+    private boolean directed;
+    private boolean weighted;
+    private String storage; // HEAP, MAPPED once the records exceed spill-bytes, or FILE for imports
+    private long bytes; // size of the stored records or the imported file
+    private boolean built; // the CSR graph is cached, so the next query skips the build
+    private Double loadTimeMs; // imports only: parse and parallel CSR build
+    private Double loadMegabytesPerSecond; // imports only: file size / loadTimeMs
+}
@@ -0,0 +1,20 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArrayGeneratorSpec {
+    private String type; // RANDOM, SORTED, REVERSED, NEARLY_SORTED, FEW_UNIQUE, ORGAN_PIPE
+    private int size;
+    private long seed;
+    private Integer minValue;
+    private Integer maxValue;
+    private Double disorder; // fraction of positions swapped for NEARLY_SORTED
+    private Integer distinctValues; // pool size for FEW_UNIQUE
+}
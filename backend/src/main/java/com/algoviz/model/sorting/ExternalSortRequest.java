@@ -0,0 +1,16 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalSortRequest {
+    private ArrayGeneratorSpec generator; // RANDOM or FEW_UNIQUE, streamed to a temp file
+    private Integer chunkSize; // elements sorted in memory per run
+    private Integer fanIn; // runs merged at once
+}
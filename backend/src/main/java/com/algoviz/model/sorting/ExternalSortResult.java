@@ -0,0 +1,29 @@
+package com.algoviz.model.sorting;
+
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.ComplexityMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExternalSortResult {
+    private long elementCount;
+    private int chunkSize; // as used, raised from the request when the run count would exceed 4096
+    private int fanIn;
+    private int runCount; // initial sorted runs
+    private int mergePasses;
+    private List<Integer> head; // first sorted values
+    private List<Integer> tail; // last sorted values
+    private boolean verified; // output is ordered and has the input's checksum
+    private List<AlgorithmStep> steps; // one per phase, not per element
+    private ComplexityMetrics metrics;
+    private String codeSnippet;
+    private String algorithmName;
+}
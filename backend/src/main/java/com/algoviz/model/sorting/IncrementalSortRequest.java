@@ -0,0 +1,19 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncrementalSortRequest {
+    private String resultId; // from a previous sorting response
+    private List<SortEdit> edits;
+    private Boolean includeSteps; // defaults to true; false skips trace recording
+    private Boolean packedOutput; // returns packedSortedArray instead of sortedArray
+}
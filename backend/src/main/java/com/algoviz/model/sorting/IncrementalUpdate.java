@@ -0,0 +1,20 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncrementalUpdate {
+    private String previousResultId;
+    private int edits;
+    private int removed;
+    private int inserted;
+    private String strategy; // RELOCATE (binary search and shift) or MERGE (one pass with the sorted edits)
+    private long elementsMoved; // shifts or merge writes, not counting the copy of the stored result
+    private long fullSortComparisons; // n·log2(n), what re-sorting from scratch would cost
+}
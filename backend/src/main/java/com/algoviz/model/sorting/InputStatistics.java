@@ -0,0 +1,22 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InputStatistics {
+    private int size;
+    private int ascendingRuns; // maximal non-descending runs
+    private int descendingRuns; // maximal non-ascending runs
+    private double inversionRatio; // sampled estimate of inversions / (n choose 2)
+    private double duplicateRatio; // sampled share of repeated values
+    private int minValue;
+    private int maxValue;
+    private long valueRange;
+    private int sampleSize;
+}
@@ -0,0 +1,22 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SelectionRequest {
+    private List<Integer> array;
+    private byte[] packedArray; // base64 of little-endian int32 values, used when array is omitted
+    private ArrayGeneratorSpec generator; // used when array and packedArray are omitted
+    private String operation; // KTH (default), MEDIAN or TOP_K
+    private Integer k; // 1-based rank for KTH, result count for TOP_K
+    private boolean largest; // rank from the top instead of the bottom
+    private Boolean includeSteps; // defaults to true; false skips trace recording
+}
@@ -0,0 +1,27 @@
+package com.algoviz.model.sorting;
+
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.ComplexityMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SelectionResult {
+    private String operation;
+    private int k;
+    private Integer value; // KTH and MEDIAN
+    private List<Integer> topK; // TOP_K, smallest first (largest first when largest is set)
+    private String method; // INTROSELECT or HEAP
+    private boolean fallbackUsed; // introselect switched to median-of-medians pivots
+    private List<AlgorithmStep> steps;
+    private ComplexityMetrics metrics;
+    private String codeSnippet;
+    private String algorithmName;
+}
@@ -0,0 +1,20 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One change to a stored sorted result. Indices refer to positions in that result, not to
+ * the array after earlier edits.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SortEdit {
+    private String type; // SET, INSERT or DELETE
+    private Integer index; // SET and DELETE
+    private Integer value; // SET and INSERT
+}
@@ -0,0 +1,23 @@
+package com.algoviz.model.sorting;
+
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.ComplexityMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SortingRaceEntry {
+    private String algorithm;
+    private String algorithmName;
+    private ComplexityMetrics metrics;
+    private double elapsedMs;
+    private int totalSteps;
+    private List<AlgorithmStep> steps;
+}
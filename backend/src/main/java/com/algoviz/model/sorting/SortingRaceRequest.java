@@ -0,0 +1,20 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SortingRaceRequest {
+    private List<Integer> array;
+    private ArrayGeneratorSpec generator; // used when array is omitted
+    private List<String> algorithms; // e.g. quick-sort, merge-sort
+    private boolean includeSteps;
+    private Integer maxSteps; // traces are decimated to at most this many steps
+}
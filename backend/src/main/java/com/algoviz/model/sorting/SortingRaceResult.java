@@ -0,0 +1,21 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SortingRaceResult {
+    private int inputSize;
+    private List<SortingRaceEntry> entries;
+    private Map<String, String> winners; // metric -> algorithm
+    private double wallTimeMs;
+    private double sequentialTimeMs; // sum of individual run times
+}
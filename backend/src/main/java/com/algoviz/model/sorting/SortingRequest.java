@@ -13,5 +13,11 @@ import java.util.List;
 @AllArgsConstructor
 public class SortingRequest {
     private List<Integer> array;
+    private byte[] packedArray; // base64 of little-endian int32 values, used when array is omitted
+    private ArrayGeneratorSpec generator; // used when array and packedArray are omitted
     private String visualizationSpeed; // SLOW, NORMAL, FAST
+    private String mode; // algorithm variant, e.g. PARALLEL for merge-sort, INTROSORT, DUAL_PIVOT or THREE_WAY for quick-sort
+    private Integer radixBits; // LSD radix-sort digit width, 8 (default) or 11
+    private Boolean includeSteps; // defaults to true; false skips trace recording
+    private Boolean packedOutput; // returns packedSortedArray instead of sortedArray
 }
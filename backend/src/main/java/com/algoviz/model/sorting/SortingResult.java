@@ -15,8 +15,12 @@ import java.util.List;
 @AllArgsConstructor
 public class SortingResult {
     private List<Integer> sortedArray;
+    private byte[] packedSortedArray; // base64 little-endian int32, set instead of sortedArray on request
     private List<AlgorithmStep> steps;
     private ComplexityMetrics metrics;
     private String codeSnippet;
     private String algorithmName;
+    private SortingSelection selection; // only set by the auto endpoint
+    private String resultId; // pass to the incremental endpoint to edit this result
+    private IncrementalUpdate incremental; // only set by the incremental endpoint
 }
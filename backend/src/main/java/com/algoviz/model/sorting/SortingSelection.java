@@ -0,0 +1,17 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SortingSelection {
+    private String algorithm; // registry name of the chosen algorithm
+    private String reason;
+    private InputStatistics statistics;
+    private double analysisTimeMs;
+}
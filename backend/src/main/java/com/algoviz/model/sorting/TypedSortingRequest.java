@@ -0,0 +1,20 @@
+package com.algoviz.model.sorting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Input for the typed sort endpoint; exactly one of the value arrays must be set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypedSortingRequest {
+    private long[] longs;
+    private double[] doubles;
+    private String[] strings;
+    private Boolean includeSteps; // defaults to true; false skips trace recording
+}
@@ -0,0 +1,35 @@
+package com.algoviz.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Owns the fork-join pool shared by every parallel algorithm mode. The pool is only reachable
+ * through {@link #getPool()}, not registered as an Executor bean, so Spring's own task executor
+ * is unaffected.
+ */
+@Slf4j
+@Component
+public class AlgorithmExecutor {
+    
+    private final ForkJoinPool pool;
+    
+    public AlgorithmExecutor(@Value("${algorithm.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        log.info("Algorithm fork-join pool started with parallelism {}", threads);
+    }
+    
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,237 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.sorting.ArrayGeneratorSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+@Slf4j
+@Service
+public class ArrayGeneratorService {
+    
+    private static final int DEFAULT_MIN_VALUE = 1;
+    private static final int DEFAULT_MAX_VALUE = 1000;
+    private static final double DEFAULT_DISORDER = 0.05;
+    private static final int DEFAULT_DISTINCT_VALUES = 10;
+    
+    private final int maxArraySize;
+    private final int maxUntracedArraySize;
+    
+    public ArrayGeneratorService(@Value("${algorithm.max-array-size:10000}") int maxArraySize,
+                                 @Value("${algorithm.max-untraced-array-size:16777216}") int maxUntracedArraySize) {
+        this.maxArraySize = maxArraySize;
+        this.maxUntracedArraySize = Math.max(maxArraySize, maxUntracedArraySize);
+    }
+    
+    public int[] resolve(List<Integer> array, ArrayGeneratorSpec generator) {
+        return resolve(array, null, generator);
+    }
+    
+    public int[] resolve(List<Integer> array, byte[] packedArray, ArrayGeneratorSpec generator) {
+        return resolve(array, packedArray, generator, true);
+    }
+    
+    /**
+     * Resolves the input from whichever form is set, all under the same limit: {@code max-array-size}
+     * when steps are recorded, {@code max-untraced-array-size} when they are not.
+     */
+    public int[] resolve(List<Integer> array, byte[] packedArray, ArrayGeneratorSpec generator, boolean traced) {
+        int maxSize = maxSize(traced);
+        if (array != null) {
+            if (array.size() > maxSize) {
+                throw new IllegalArgumentException(String.format(
+                        "Array holds %d values; the maximum is %d", array.size(), maxSize));
+            }
+            return array.stream().mapToInt(Integer::intValue).toArray();
+        }
+        if (packedArray != null) {
+            return decodePacked(packedArray, traced);
+        }
+        if (generator != null) {
+            return generate(generator, traced);
+        }
+        throw new IllegalArgumentException("Either array, packedArray or generator must be provided");
+    }
+    
+    public int[] decodePacked(byte[] bytes) {
+        return decodePacked(bytes, true);
+    }
+    
+    /**
+     * Decodes little-endian int32 values, checking the size before allocating the array.
+     */
+    public int[] decodePacked(byte[] bytes, boolean traced) {
+        int maxSize = maxSize(traced);
+        if (bytes.length / Integer.BYTES > maxSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Packed array holds %d values; the maximum is %d", bytes.length / Integer.BYTES, maxSize));
+        }
+        return PackedIntArray.decode(bytes);
+    }
+    
+    public int[] generate(ArrayGeneratorSpec spec) {
+        return generate(spec, true);
+    }
+    
+    public int[] generate(ArrayGeneratorSpec spec, boolean traced) {
+        int n = spec.getSize();
+        checkSize(n, maxSize(traced));
+        int min = minValue(spec);
+        int max = maxValue(spec);
+        
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        String type = spec.getType() == null ? "RANDOM" : spec.getType().toUpperCase();
+        
+        int[] array = switch (type) {
+            case "RANDOM" -> randomValues(random, n, min, max);
+            case "SORTED" -> sortedValues(random, n, min, max);
+            case "REVERSED" -> reverse(sortedValues(random, n, min, max));
+            case "NEARLY_SORTED" -> nearlySorted(random, n, min, max, 
+                    spec.getDisorder() != null ? spec.getDisorder() : DEFAULT_DISORDER);
+            case "FEW_UNIQUE" -> fewUnique(random, n, min, max, 
+                    spec.getDistinctValues() != null ? spec.getDistinctValues() : DEFAULT_DISTINCT_VALUES);
+            case "ORGAN_PIPE" -> organPipe(random, n, min, max);
+            default -> throw new IllegalArgumentException("Unknown array generator type: " + spec.getType());
+        };
+        
+        log.debug("Generated {} array of {} elements with seed {}", type, n, spec.getSeed());
+        return array;
+    }
+    
+    /**
+     * Streams a RANDOM or FEW_UNIQUE array into {@code sink} without materializing it, for
+     * inputs beyond {@code max-array-size}. The same seed yields the same values as {@link #generate}.
+     */
+    public void generateTo(ArrayGeneratorSpec spec, long maxSize, IntConsumer sink) {
+        int n = spec.getSize();
+        checkSize(n, maxSize);
+        int min = minValue(spec);
+        int max = maxValue(spec);
+        
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        String type = spec.getType() == null ? "RANDOM" : spec.getType().toUpperCase();
+        switch (type) {
+            case "RANDOM" -> {
+                for (int i = 0; i < n; i++) {
+                    sink.accept(nextValue(random, min, max));
+                }
+            }
+            case "FEW_UNIQUE" -> {
+                int distinctValues = spec.getDistinctValues() != null ? spec.getDistinctValues() : DEFAULT_DISTINCT_VALUES;
+                if (distinctValues < 1) {
+                    throw new IllegalArgumentException("distinctValues must be at least 1");
+                }
+                int[] pool = randomValues(random, distinctValues, min, max);
+                for (int i = 0; i < n; i++) {
+                    sink.accept(pool[random.nextInt(pool.length)]);
+                }
+            }
+            default -> throw new IllegalArgumentException(
+                    "Only RANDOM and FEW_UNIQUE inputs can be streamed, got " + spec.getType());
+        }
+    }
+    
+    private int maxSize(boolean traced) {
+        return traced ? maxArraySize : maxUntracedArraySize;
+    }
+    
+    private void checkSize(int n, long maxSize) {
+        if (n < 0 || n > maxSize) {
+            throw new IllegalArgumentException(
+                    String.format("Generated array size must be between 0 and %d", maxSize));
+        }
+    }
+    
+    private int minValue(ArrayGeneratorSpec spec) {
+        int min = spec.getMinValue() != null ? spec.getMinValue() : DEFAULT_MIN_VALUE;
+        if (min > maxValue(spec)) {
+            throw new IllegalArgumentException("minValue must not be greater than maxValue");
+        }
+        return min;
+    }
+    
+    private int maxValue(ArrayGeneratorSpec spec) {
+        return spec.getMaxValue() != null ? spec.getMaxValue() : DEFAULT_MAX_VALUE;
+    }
+    
+    private int[] randomValues(SplittableRandom random, int n, int min, int max) {
+        int[] array = new int[n];
+        for (int i = 0; i < n; i++) {
+            array[i] = nextValue(random, min, max);
+        }
+        return array;
+    }
+    
+    private int[] sortedValues(SplittableRandom random, int n, int min, int max) {
+        int[] array = randomValues(random, n, min, max);
+        Arrays.sort(array);
+        return array;
+    }
+    
+    private int[] nearlySorted(SplittableRandom random, int n, int min, int max, double disorder) {
+        if (disorder < 0 || disorder > 1) {
+            throw new IllegalArgumentException("disorder must be between 0 and 1");
+        }
+        int[] array = sortedValues(random, n, min, max);
+        if (n < 2) {
+            return array;
+        }
+        
+        int swaps = disorder > 0 ? Math.max(1, (int) Math.round(n * disorder / 2)) : 0;
+        for (int s = 0; s < swaps; s++) {
+            swap(array, random.nextInt(n), random.nextInt(n));
+        }
+        return array;
+    }
+    
+    private int[] fewUnique(SplittableRandom random, int n, int min, int max, int distinctValues) {
+        if (distinctValues < 1) {
+            throw new IllegalArgumentException("distinctValues must be at least 1");
+        }
+        int[] pool = randomValues(random, distinctValues, min, max);
+        int[] array = new int[n];
+        for (int i = 0; i < n; i++) {
+            array[i] = pool[random.nextInt(pool.length)];
+        }
+        return array;
+    }
+    
+    private int[] organPipe(SplittableRandom random, int n, int min, int max) {
+        int[] sorted = sortedValues(random, n, min, max);
+        int[] array = new int[n];
+        int front = 0;
+        int back = n - 1;
+        // Even ranks climb from the left, odd ranks descend from the right
+        for (int i = 0; i < n; i++) {
+            if ((i & 1) == 0) {
+                array[front++] = sorted[i];
+            } else {
+                array[back--] = sorted[i];
+            }
+        }
+        return array;
+    }
+    
+    private int[] reverse(int[] array) {
+        for (int i = 0, j = array.length - 1; i < j; i++, j--) {
+            swap(array, i, j);
+        }
+        return array;
+    }
+    
+    private int nextValue(SplittableRandom random, int min, int max) {
+        return (int) random.nextLong(min, (long) max + 1);
+    }
+    
+    private void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+}
@@ -0,0 +1,235 @@
+package com.algoviz.service;
+
+import com.algoviz.algorithms.dp.FibonacciService;
+import com.algoviz.algorithms.dp.KnapsackService;
+import com.algoviz.algorithms.dp.LCSService;
+import com.algoviz.algorithms.graph.GraphAlgorithmRegistry;
+import com.algoviz.algorithms.sorting.SortingAlgorithmRegistry;
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.batch.BatchItem;
+import com.algoviz.model.batch.BatchItemResult;
+import com.algoviz.model.batch.BatchRequest;
+import com.algoviz.model.dp.DPResult;
+import com.algoviz.model.dp.KnapsackRequest;
+import com.algoviz.model.graph.GraphResult;
+import com.algoviz.model.sorting.SortingRequest;
+import com.algoviz.model.sorting.SortingResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+public class BatchExecutionService {
+    
+    private final SortingAlgorithmRegistry sortingAlgorithms;
+    private final GraphAlgorithmRegistry graphAlgorithms;
+    private final KnapsackService knapsackService;
+    private final LCSService lcsService;
+    private final FibonacciService fibonacciService;
+    private final ArrayGeneratorService arrayGeneratorService;
+    private final GraphInputService graphInputService;
+    private final AlgorithmExecutor executor;
+    private final int maxItems;
+    private final int maxConcurrency;
+    private final long resultTimeoutMs;
+    
+    public BatchExecutionService(SortingAlgorithmRegistry sortingAlgorithms,
+                                 GraphAlgorithmRegistry graphAlgorithms,
+                                 KnapsackService knapsackService,
+                                 LCSService lcsService,
+                                 FibonacciService fibonacciService,
+                                 ArrayGeneratorService arrayGeneratorService,
+                                 GraphInputService graphInputService,
+                                 AlgorithmExecutor executor,
+                                 @Value("${algorithm.batch.max-items:1000}") int maxItems,
+                                 @Value("${algorithm.batch.max-concurrency:0}") int maxConcurrency,
+                                 @Value("${algorithm.batch.result-timeout-ms:120000}") long resultTimeoutMs) {
+        this.sortingAlgorithms = sortingAlgorithms;
+        this.graphAlgorithms = graphAlgorithms;
+        this.knapsackService = knapsackService;
+        this.lcsService = lcsService;
+        this.fibonacciService = fibonacciService;
+        this.arrayGeneratorService = arrayGeneratorService;
+        this.graphInputService = graphInputService;
+        this.executor = executor;
+        this.maxItems = maxItems;
+        this.maxConcurrency = maxConcurrency > 0 ? maxConcurrency : executor.getPool().getParallelism();
+        this.resultTimeoutMs = resultTimeoutMs;
+    }
+    
+    public void validate(BatchRequest request) {
+        List<BatchItem> items = request.getItems();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException(
+                    String.format("Batch contains %d items, limit is %d", items.size(), maxItems));
+        }
+        if (request.getMaxConcurrency() != null && request.getMaxConcurrency() < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+    }
+    
+    /**
+     * Runs every item on the shared pool with at most maxConcurrency in flight and hands
+     * each result to the sink on the calling thread, either in request order or as completed.
+     */
+    public void execute(BatchRequest request, Consumer<BatchItemResult> sink) {
+        validate(request);
+        List<BatchItem> items = request.getItems();
+        int concurrency = Math.min(items.size(), request.getMaxConcurrency() != null 
+                ? Math.min(request.getMaxConcurrency(), maxConcurrency) : maxConcurrency);
+        
+        BatchRun run = new BatchRun(items);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                run.submitNext();
+            }
+            
+            BatchItemResult[] pending = request.isOrdered() ? new BatchItemResult[items.size()] : null;
+            int nextToEmit = 0;
+            for (int received = 0; received < items.size(); received++) {
+                BatchItemResult result = run.completed.poll(resultTimeoutMs, TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    throw new IllegalStateException(String.format(
+                            "No batch result within %d ms; %d of %d items were delivered", 
+                            resultTimeoutMs, received, items.size()));
+                }
+                if (pending == null) {
+                    sink.accept(result);
+                    continue;
+                }
+                pending[result.getIndex()] = result;
+                while (nextToEmit < pending.length && pending[nextToEmit] != null) {
+                    sink.accept(pending[nextToEmit]);
+                    pending[nextToEmit++] = null;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch execution was interrupted");
+        } finally {
+            // Stops scheduling further items if the client went away mid-stream
+            run.cancelled.set(true);
+        }
+        log.debug("Batch of {} items finished with concurrency {}", items.size(), concurrency);
+    }
+    
+    private BatchItemResult runItem(int index, BatchItem item) {
+        long start = System.nanoTime();
+        BatchItemResult.BatchItemResultBuilder result = BatchItemResult.builder()
+                .index(index)
+                .id(item.getId())
+                .algorithm(item.getAlgorithm());
+        try {
+            result.result(dispatch(item)).status("OK");
+        } catch (RuntimeException ex) {
+            result.status("ERROR").error(ex.getMessage());
+        } catch (StackOverflowError ex) {
+            result.status("ERROR").error("Input too deep for this algorithm");
+        } catch (Throwable ex) {
+            // Errors such as OutOfMemoryError still produce a result, or execute() would wait for it forever
+            log.warn("Batch item {} ({}) failed", index, item.getAlgorithm(), ex);
+            result.status("ERROR").error(ex.getClass().getSimpleName());
+        }
+        return result.elapsedMs((System.nanoTime() - start) / 1_000_000.0).build();
+    }
+    
+    private Object dispatch(BatchItem item) {
+        String algorithm = item.getAlgorithm();
+        boolean includeSteps = item.isIncludeSteps();
+        
+        if (sortingAlgorithms.contains(algorithm)) {
+            SortingRequest sorting = require(item.getSorting(), "sorting", algorithm);
+            int[] array = arrayGeneratorService.resolve(
+                    sorting.getArray(), sorting.getPackedArray(), sorting.getGenerator());
+            SortingResult result = sortingAlgorithms.get(algorithm).sort(array, includeSteps);
+            if (!includeSteps) {
+                result.setSteps(null);
+                result.setCodeSnippet(null);
+            }
+            if (Boolean.TRUE.equals(sorting.getPackedOutput())) {
+                result.setPackedSortedArray(PackedIntArray.encode(result.getSortedArray()));
+                result.setSortedArray(null);
+            }
+            return result;
+        }
+        
+        if (graphAlgorithms.contains(algorithm)) {
+            var graphRequest = require(item.getGraph(), "graph", algorithm);
+            if (!includeSteps) {
+                graphRequest.setIncludeSteps(false);
+            }
+            GraphResult result = graphAlgorithms.get(algorithm)
+                    .run(graphInputService.buildGraph(graphRequest), graphRequest);
+            if (!includeSteps) {
+                result.setSteps(null);
+                result.setCodeSnippet(null);
+            }
+            return result;
+        }
+        
+        DPResult result = switch (algorithm == null ? "" : algorithm.toLowerCase()) {
+            case "knapsack" -> {
+                KnapsackRequest knapsack = require(item.getKnapsack(), "knapsack", algorithm);
+                yield knapsackService.solveZeroOne(
+                        knapsack.getWeights(), knapsack.getValues(), knapsack.getCapacity());
+            }
+            case "lcs" -> lcsService.findLCS(require(item.getText1(), "text1", algorithm), 
+                    require(item.getText2(), "text2", algorithm));
+            case "fibonacci", "fibonacci-tabulated" -> 
+                    fibonacciService.fibonacciTabulated(require(item.getN(), "n", algorithm));
+            case "fibonacci-memoized" -> 
+                    fibonacciService.fibonacciMemoized(require(item.getN(), "n", algorithm));
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        };
+        if (!includeSteps) {
+            result.setSteps(null);
+            result.setCodeSnippet(null);
+        }
+        return result;
+    }
+    
+    private <T> T require(T value, String field, String algorithm) {
+        if (value == null) {
+            throw new IllegalArgumentException(
+                    String.format("Field '%s' is required for algorithm %s", field, algorithm));
+        }
+        return value;
+    }
+    
+    private class BatchRun {
+        private final List<BatchItem> items;
+        private final BlockingQueue<BatchItemResult> completed = new LinkedBlockingQueue<>();
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        
+        BatchRun(List<BatchItem> items) {
+            this.items = items;
+        }
+        
+        // Each finished item schedules the next one, which keeps the in-flight count fixed
+        void submitNext() {
+            if (cancelled.get()) {
+                return;
+            }
+            int index = next.getAndIncrement();
+            if (index < items.size()) {
+                executor.getPool().execute(() -> {
+                    completed.add(runItem(index, items.get(index)));
+                    submitNext();
+                });
+            }
+        }
+    }
+}
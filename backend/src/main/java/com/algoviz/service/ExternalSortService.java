@@ -0,0 +1,538 @@
+package com.algoviz.service;
+
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.ComplexityMetrics;
+import com.algoviz.model.sorting.ExternalSortRequest;
+import com.algoviz.model.sorting.ExternalSortResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * External merge sort over little-endian int32 files. The input is cut into chunks that are
+ * sorted in memory and written as run files, then runs are merged {@code fanIn} at a time
+ * through a loser tree reading memory-mapped windows. Heap use is one chunk plus fixed-size
+ * I/O buffers, whatever the file size: chunks grow past the requested size when the input
+ * would otherwise form more than {@code MAX_RUNS} runs, one direct write buffer is shared by
+ * every file a job writes, and each phase keeps at most {@code MAX_PHASE_STEPS} trace steps.
+ */
+@Slf4j
+@Service
+public class ExternalSortService {
+    
+    private static final int WINDOW_BYTES = 1 << 20;
+    private static final int MIN_CHUNK_SIZE = 16;
+    private static final int MAX_RUNS = 4096;
+    private static final int MAX_PHASE_STEPS = 64;
+    private static final int PREVIEW_SIZE = 20;
+    private static final long EXHAUSTED = Long.MAX_VALUE;
+    
+    private final ArrayGeneratorService arrayGeneratorService;
+    private final long maxElements;
+    private final int maxChunkSize;
+    private final int maxFanIn;
+    private final Path tempRoot;
+    
+    public ExternalSortService(ArrayGeneratorService arrayGeneratorService,
+                               @Value("${algorithm.external-sort.max-elements:100000000}") long maxElements,
+                               @Value("${algorithm.external-sort.chunk-size:1048576}") int maxChunkSize,
+                               @Value("${algorithm.external-sort.max-fan-in:64}") int maxFanIn,
+                               @Value("${algorithm.external-sort.temp-dir:}") String tempDir) {
+        this.arrayGeneratorService = arrayGeneratorService;
+        this.maxElements = maxElements;
+        this.maxChunkSize = maxChunkSize;
+        this.maxFanIn = maxFanIn;
+        this.tempRoot = Path.of(tempDir.isBlank() ? System.getProperty("java.io.tmpdir") : tempDir);
+    }
+    
+    public ExternalSortResult sortGenerated(ExternalSortRequest request) {
+        if (request.getGenerator() == null) {
+            throw new IllegalArgumentException("generator must be provided");
+        }
+        return run(request.getChunkSize(), request.getFanIn(), (input, buffer) -> {
+            try (IntFileWriter writer = new IntFileWriter(input, buffer)) {
+                arrayGeneratorService.generateTo(request.getGenerator(), maxElements, writer);
+                return writer.count();
+            }
+        });
+    }
+    
+    public ExternalSortResult sortUpload(InputStream body, Integer chunkSize, Integer fanIn) {
+        return run(chunkSize, fanIn, (input, buffer) -> copyUpload(body, input));
+    }
+    
+    private ExternalSortResult run(Integer chunkSize, Integer fanIn, InputWriter inputWriter) {
+        int chunk = chunkSize != null ? chunkSize : maxChunkSize;
+        if (chunk < MIN_CHUNK_SIZE || chunk > maxChunkSize) {
+            throw new IllegalArgumentException(String.format(
+                    "chunkSize must be between %d and %d", MIN_CHUNK_SIZE, maxChunkSize));
+        }
+        int fan = fanIn != null ? fanIn : maxFanIn;
+        if (fan < 2 || fan > maxFanIn) {
+            throw new IllegalArgumentException(String.format("fanIn must be between 2 and %d", maxFanIn));
+        }
+        
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory(tempRoot, "external-sort-");
+            Path input = dir.resolve("input.bin");
+            ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WINDOW_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long count = inputWriter.write(input, writeBuffer);
+            // Tiny chunks on a large input would mean millions of run files, so the run count is capped
+            int effectiveChunk = (int) Math.max(chunk, Math.min(maxChunkSize, (count + MAX_RUNS - 1) / MAX_RUNS));
+            ExternalSortResult result = new Job(dir, effectiveChunk, fan, writeBuffer).sort(input, count);
+            result.setCodeSnippet(getCodeSnippet());
+            return result;
+        } catch (IOException | UncheckedIOException ex) {
+            throw new IllegalStateException("External sort failed: " + ex.getMessage(), ex);
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+    
+    private long copyUpload(InputStream body, Path input) throws IOException {
+        long maxBytes = maxElements * Integer.BYTES;
+        long total = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(input)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new IllegalArgumentException(String.format(
+                            "Input exceeds the external sort limit of %d elements", maxElements));
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total % Integer.BYTES != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Body length %d is not a multiple of 4 bytes (little-endian int32 values)", total));
+        }
+        return total / Integer.BYTES;
+    }
+    
+    private void deleteRecursively(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException ex) {
+            log.warn("Could not clean up external sort directory {}: {}", dir, ex.getMessage());
+        }
+    }
+    
+    @FunctionalInterface
+    private interface InputWriter {
+        long write(Path input, ByteBuffer writeBuffer) throws IOException;
+    }
+    
+    private record Run(Path file, long count) {
+    }
+    
+    /** One sort: its work directory, settings, counters and phase trace. */
+    private static final class Job {
+        
+        private final Path dir;
+        private final int chunkSize;
+        private final int fanIn;
+        private final ByteBuffer writeBuffer;
+        private final long startTime = System.currentTimeMillis();
+        private final List<AlgorithmStep> steps = new ArrayList<>();
+        private long comparisons;
+        private long writes;
+        private int fileCounter;
+        
+        Job(Path dir, int chunkSize, int fanIn, ByteBuffer writeBuffer) {
+            this.dir = dir;
+            this.chunkSize = chunkSize;
+            this.fanIn = fanIn;
+            this.writeBuffer = writeBuffer;
+        }
+        
+        ExternalSortResult sort(Path input, long count) throws IOException {
+            addStep("INPUT_READY", String.format("Input holds %d int32 values (%d bytes)",
+                    count, count * Integer.BYTES), Map.of("elementCount", count));
+            
+            long inputChecksum = 0;
+            List<Run> runs = new ArrayList<>();
+            int[] chunk = new int[(int) Math.min(chunkSize, Math.max(count, 1))];
+            int expectedRuns = (int) ((count + chunk.length - 1) / chunk.length);
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                for (long offset = 0; offset < count; offset += chunk.length) {
+                    int length = (int) Math.min(chunk.length, count - offset);
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                            offset * Integer.BYTES, (long) length * Integer.BYTES);
+                    window.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(chunk, 0, length);
+                    for (int i = 0; i < length; i++) {
+                        inputChecksum += chunk[i];
+                    }
+                    Arrays.sort(chunk, 0, length);
+                    
+                    Path file = nextFile();
+                    try (IntFileWriter writer = new IntFileWriter(file, writeBuffer)) {
+                        writer.write(chunk, length);
+                    }
+                    writes += length;
+                    runs.add(new Run(file, length));
+                    if (sampled(runs.size() - 1, expectedRuns)) {
+                        addStep("RUN_WRITTEN", String.format(
+                                "Sorted chunk %d of %d in memory and wrote run of %d values",
+                                runs.size(), expectedRuns, length), Map.of(
+                                "run", runs.size(), "elements", length, "progress", progress(offset + length, count)));
+                    }
+                }
+            }
+            Files.delete(input);
+            int runCount = runs.size();
+            addStep("RUNS_FORMED", String.format("Formed %d sorted runs of up to %d values", runCount, chunk.length),
+                    Map.of("runs", runCount, "chunkSize", chunkSize));
+            
+            int passes = 0;
+            while (runs.size() > 1) {
+                passes++;
+                int groups = (runs.size() + fanIn - 1) / fanIn;
+                addStep("MERGE_PASS", String.format("Pass %d: merging %d runs in %d groups of up to %d",
+                        passes, runs.size(), groups, fanIn), Map.of(
+                        "pass", passes, "runs", runs.size(), "groups", groups));
+                
+                List<Run> merged = new ArrayList<>();
+                long done = 0;
+                int group = 0;
+                for (int from = 0; from < runs.size(); from += fanIn, group++) {
+                    List<Run> inputs = runs.subList(from, Math.min(from + fanIn, runs.size()));
+                    Run run = mergeGroup(inputs);
+                    merged.add(run);
+                    done += run.count();
+                    for (Run source : inputs) {
+                        Files.delete(source.file());
+                    }
+                    if (sampled(group, groups)) {
+                        addStep("RUNS_MERGED", String.format(
+                                "Pass %d: merged group %d of %d, %d runs into one of %d values",
+                                passes, group + 1, groups, inputs.size(), run.count()), Map.of(
+                                "pass", passes, "inputs", inputs.size(), "progress", progress(done, count)));
+                    }
+                }
+                runs = merged;
+                log.debug("External sort pass {} produced {} runs", passes, runs.size());
+            }
+            
+            Verification verification = verify(runs.isEmpty() ? null : runs.get(0), inputChecksum);
+            addStep(verification.ordered && verification.checksumMatches ? "VERIFIED" : "VERIFICATION_FAILED",
+                    String.format("Output is %s and its checksum %s the input's",
+                            verification.ordered ? "ordered" : "NOT ordered",
+                            verification.checksumMatches ? "matches" : "does NOT match"),
+                    Map.of("ordered", verification.ordered, "checksumMatches", verification.checksumMatches));
+            
+            return ExternalSortResult.builder()
+                    .elementCount(count)
+                    .chunkSize(chunkSize)
+                    .fanIn(fanIn)
+                    .runCount(runCount)
+                    .mergePasses(passes)
+                    .head(verification.head)
+                    .tail(verification.tail)
+                    .verified(verification.ordered && verification.checksumMatches)
+                    .steps(steps)
+                    .metrics(ComplexityMetrics.builder()
+                            .timeComplexity("O(n log n), 1 + ⌈log_k(runs)⌉ passes over the data")
+                            .spaceComplexity("O(chunk + k) heap, O(n) disk")
+                            .actualOperations(comparisons + writes)
+                            .comparisons(comparisons)
+                            .swaps(writes)
+                            .memoryUsedBytes(memoryUsedBytes(chunk.length, runCount))
+                            .executionTimeMs(System.currentTimeMillis() - startTime)
+                            .build())
+                    .algorithmName("External Merge Sort")
+                    .build();
+        }
+        
+        // The chunk, the shared write buffer and, while merging, one mapped window per merged run
+        private long memoryUsedBytes(int chunkLength, int runCount) {
+            long mappedWindows = runCount > 1 ? (long) Math.min(fanIn, runCount) * WINDOW_BYTES : 0;
+            return (long) chunkLength * Integer.BYTES + WINDOW_BYTES + mappedWindows;
+        }
+        
+        private Run mergeGroup(List<Run> group) throws IOException {
+            Path target = nextFile();
+            RunCursor[] cursors = new RunCursor[group.size()];
+            long count = 0;
+            try {
+                long[] heads = new long[cursors.length];
+                for (int i = 0; i < cursors.length; i++) {
+                    cursors[i] = new RunCursor(group.get(i));
+                    heads[i] = cursors[i].hasNext() ? cursors[i].next() : EXHAUSTED;
+                }
+                LoserTree tree = new LoserTree(heads);
+                try (IntFileWriter writer = new IntFileWriter(target, writeBuffer)) {
+                    while (tree.winnerKey() != EXHAUSTED) {
+                        int winner = tree.winner();
+                        writer.accept((int) tree.winnerKey());
+                        tree.replaceWinner(cursors[winner].hasNext() ? cursors[winner].next() : EXHAUSTED);
+                    }
+                    count = writer.count();
+                }
+                comparisons += tree.comparisons;
+                writes += count;
+            } finally {
+                for (RunCursor cursor : cursors) {
+                    if (cursor != null) {
+                        cursor.close();
+                    }
+                }
+            }
+            return new Run(target, count);
+        }
+        
+        private Verification verify(Run output, long inputChecksum) throws IOException {
+            Verification verification = new Verification();
+            if (output == null) {
+                verification.checksumMatches = inputChecksum == 0;
+                return verification;
+            }
+            ArrayDeque<Integer> tail = new ArrayDeque<>(PREVIEW_SIZE);
+            long checksum = 0;
+            try (RunCursor cursor = new RunCursor(output)) {
+                long previous = Long.MIN_VALUE;
+                while (cursor.hasNext()) {
+                    int value = cursor.next();
+                    checksum += value;
+                    if (value < previous) {
+                        verification.ordered = false;
+                    }
+                    previous = value;
+                    if (verification.head.size() < PREVIEW_SIZE) {
+                        verification.head.add(value);
+                    }
+                    if (tail.size() == PREVIEW_SIZE) {
+                        tail.removeFirst();
+                    }
+                    tail.addLast(value);
+                }
+            }
+            verification.tail = new ArrayList<>(tail);
+            verification.checksumMatches = checksum == inputChecksum;
+            return verification;
+        }
+        
+        private Path nextFile() {
+            return dir.resolve("run-" + (fileCounter++) + ".bin");
+        }
+        
+        private void addStep(String operationType, String description, Map<String, Object> highlights) {
+            steps.add(AlgorithmStep.builder()
+                    .stepNumber(steps.size())
+                    .description(description)
+                    .highlights(highlights)
+                    .timestamp(System.currentTimeMillis())
+                    .operationType(operationType)
+                    .build());
+        }
+        
+        // Evenly spaced indexes, at most MAX_PHASE_STEPS of them, always including the last
+        private static boolean sampled(int index, int total) {
+            return total <= MAX_PHASE_STEPS 
+                    || (long) (index + 1) * MAX_PHASE_STEPS / total != (long) index * MAX_PHASE_STEPS / total;
+        }
+        
+        private static double progress(long done, long total) {
+            return total == 0 ? 1.0 : (double) done / total;
+        }
+    }
+    
+    private static final class Verification {
+        private boolean ordered = true;
+        private boolean checksumMatches;
+        private List<Integer> head = new ArrayList<>();
+        private List<Integer> tail = new ArrayList<>();
+    }
+    
+    /**
+     * Tournament tree of losers over k run heads: the root holds the overall winner, and
+     * replacing it replays only the log2(k) matches on its leaf-to-root path.
+     */
+    private static final class LoserTree {
+        
+        private final int k;
+        private final int[] tree;
+        private final long[] keys;
+        private long comparisons;
+        
+        LoserTree(long[] heads) {
+            k = heads.length;
+            tree = new int[k];
+            // keys[k] is a -infinity sentinel that loses its way out while the tree is built
+            keys = Arrays.copyOf(heads, k + 1);
+            keys[k] = Long.MIN_VALUE;
+            Arrays.fill(tree, k);
+            for (int i = k - 1; i >= 0; i--) {
+                adjust(i);
+            }
+        }
+        
+        int winner() {
+            return tree[0];
+        }
+        
+        long winnerKey() {
+            return keys[tree[0]];
+        }
+        
+        void replaceWinner(long key) {
+            int winner = tree[0];
+            keys[winner] = key;
+            adjust(winner);
+        }
+        
+        private void adjust(int leaf) {
+            int winner = leaf;
+            for (int node = (leaf + k) >> 1; node > 0; node >>= 1) {
+                comparisons++;
+                if (keys[winner] > keys[tree[node]]) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+    }
+    
+    /** Sequential reader over a run file through a sliding memory-mapped window. */
+    private static final class RunCursor implements Closeable {
+        
+        private final FileChannel channel;
+        private final long count;
+        private long read;
+        private MappedByteBuffer window;
+        
+        RunCursor(Run run) throws IOException {
+            this.channel = FileChannel.open(run.file(), StandardOpenOption.READ);
+            this.count = run.count();
+        }
+        
+        boolean hasNext() {
+            return read < count;
+        }
+        
+        int next() {
+            if (window == null || !window.hasRemaining()) {
+                long bytes = Math.min(WINDOW_BYTES, (count - read) * Integer.BYTES);
+                try {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, read * Integer.BYTES, bytes);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                window.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            read++;
+            return window.getInt();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+    
+    /**
+     * Buffered little-endian int32 writer. The direct buffer belongs to the job and is reused by
+     * each writer in turn, so only one writer may be open at a time.
+     */
+    private static final class IntFileWriter implements IntConsumer, Closeable {
+        
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long count;
+        
+        IntFileWriter(Path file, ByteBuffer buffer) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.buffer = buffer.clear();
+        }
+        
+        @Override
+        public void accept(int value) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+            count++;
+        }
+        
+        void write(int[] values, int length) {
+            for (int i = 0; i < length; i++) {
+                accept(values[i]);
+            }
+        }
+        
+        long count() {
+            return count;
+        }
+        
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            buffer.clear();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+    
+    private String getCodeSnippet() {
+        return """
+                // Phase 1: sorted runs
+                for (long offset = 0; offset < n; offset += chunkSize) {
+                    int length = (int) Math.min(chunkSize, n - offset);
+                    input.map(READ_ONLY, offset * 4, length * 4L).asIntBuffer().get(chunk, 0, length);
+                    Arrays.sort(chunk, 0, length);
+                    runs.add(writeRun(chunk, length));
+                }
+                
+                // Phase 2: k-way merges until one run is left
+                while (runs.size() > 1) {
+                    List<Run> next = new ArrayList<>();
+                    for (List<Run> group : partition(runs, k)) {
+                        LoserTree tree = new LoserTree(heads(group));   // mapped windows per run
+                        while (tree.winnerKey() != EXHAUSTED) {
+                            out.write((int) tree.winnerKey());
+                            tree.replaceWinner(nextOf(group, tree.winner()));  // log2(k) matches
+                        }
+                        next.add(out.finish());
+                    }
+                    runs = next;
+                }
+                """;
+    }
+}
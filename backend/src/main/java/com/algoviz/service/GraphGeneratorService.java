@@ -0,0 +1,321 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.EdgeList;
+import com.algoviz.model.graph.GraphGeneratorSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.SplittableRandom;
+
+@Slf4j
+@Service
+public class GraphGeneratorService {
+    
+    private static final int DEFAULT_MIN_WEIGHT = 1;
+    private static final int DEFAULT_MAX_WEIGHT = 10;
+    private static final int DEFAULT_ATTACHMENT_EDGES = 2;
+    
+    private final int maxGraphVertices;
+    private final int maxGraphEdges;
+    
+    public GraphGeneratorService(@Value("${algorithm.max-graph-vertices:1000000}") int maxGraphVertices,
+                                 @Value("${algorithm.max-graph-edges:1000000}") int maxGraphEdges) {
+        this.maxGraphVertices = maxGraphVertices;
+        this.maxGraphEdges = maxGraphEdges;
+    }
+    
+    public int vertexCount(GraphGeneratorSpec spec) {
+        if ("GRID".equalsIgnoreCase(spec.getType()) && spec.getRows() != null && spec.getColumns() != null) {
+            return Math.multiplyExact(spec.getRows(), spec.getColumns());
+        }
+        return spec.getVertices();
+    }
+    
+    /**
+     * Lattice positions of a GRID graph's vertices, or null for the other generator types.
+     */
+    public double[][] coordinates(GraphGeneratorSpec spec) {
+        if (!"GRID".equalsIgnoreCase(spec.getType())) {
+            return null;
+        }
+        int n = vertexCount(spec);
+        int cols = gridColumns(n, spec.getColumns());
+        double[][] coordinates = new double[n][];
+        for (int v = 0; v < n; v++) {
+            coordinates[v] = new double[]{v % cols, v / cols};
+        }
+        return coordinates;
+    }
+    
+    public EdgeList generate(GraphGeneratorSpec spec, boolean directed, boolean weighted) {
+        int n = vertexCount(spec);
+        if (n < 1 || n > maxGraphVertices) {
+            throw new IllegalArgumentException(
+                    String.format("Generated graph must have between 1 and %d vertices", maxGraphVertices));
+        }
+        
+        int minWeight = spec.getMinWeight() != null ? spec.getMinWeight() : DEFAULT_MIN_WEIGHT;
+        int maxWeight = spec.getMaxWeight() != null ? spec.getMaxWeight() : DEFAULT_MAX_WEIGHT;
+        if (weighted && minWeight > maxWeight) {
+            throw new IllegalArgumentException("minWeight must not be greater than maxWeight");
+        }
+        
+        WeightSource weights = new WeightSource(new SplittableRandom(spec.getSeed() ^ 0x5DEECE66DL), 
+                weighted, minWeight, maxWeight);
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        String type = spec.getType() == null ? "" : spec.getType().toUpperCase();
+        
+        EdgeList edges = switch (type) {
+            case "GNP" -> gnp(random, weights, n, directed, spec.getEdgeProbability(), spec.getSeed());
+            case "GNM" -> gnm(random, weights, n, directed, spec.getEdgeCount());
+            case "GRID" -> grid(weights, n, spec.getColumns());
+            case "TREE" -> tree(random, weights, n);
+            case "BARABASI_ALBERT" -> barabasiAlbert(random, weights, n, 
+                    spec.getAttachmentEdges() != null ? spec.getAttachmentEdges() : DEFAULT_ATTACHMENT_EDGES);
+            default -> throw new IllegalArgumentException("Unknown graph generator type: " + spec.getType());
+        };
+        
+        log.debug("Generated {} graph with {} vertices and {} edges (seed {})", 
+                type, n, edges.size(), spec.getSeed());
+        return edges;
+    }
+    
+    // Batagelj-Brandes geometric skipping: O(n + m) instead of testing all pairs
+    private EdgeList gnp(SplittableRandom random, WeightSource weights, int n, boolean directed, Double p,
+                         long seed) {
+        if (p == null || p < 0 || p > 1) {
+            throw new IllegalArgumentException("GNP generator requires edgeProbability between 0 and 1");
+        }
+        long pairs = maxPairs(n, directed);
+        double expectedEdges = pairs * p;
+        if (expectedEdges > maxGraphEdges) {
+            throw new IllegalArgumentException(
+                    String.format("GNP generator would produce ~%.0f edges, limit is %d", expectedEdges, maxGraphEdges));
+        }
+        EdgeList edges = new EdgeList((int) (expectedEdges * 1.1) + 16);
+        if (p == 0 || pairs == 0) {
+            return edges;
+        }
+        
+        double logQ = Math.log(1.0 - p);
+        long index = -1;
+        while (true) {
+            long skip = p == 1 ? 0 : (long) Math.floor(Math.log(1.0 - random.nextDouble()) / logQ);
+            index += 1 + skip;
+            if (index >= pairs || index < 0) {
+                break;
+            }
+            // Truncating the sample would bias it towards low pair indices, so a seed that lands
+            // above the limit is rejected instead
+            if (edges.size() >= maxGraphEdges) {
+                throw new IllegalArgumentException(String.format(
+                        "GNP generator produced more than %d edges with seed %d; lower edgeProbability or "
+                                + "try another seed", maxGraphEdges, seed));
+            }
+            addPair(edges, weights, n, directed, index);
+        }
+        return edges;
+    }
+    
+    private EdgeList gnm(SplittableRandom random, WeightSource weights, int n, boolean directed, Integer m) {
+        long pairs = maxPairs(n, directed);
+        long limit = Math.min(pairs, maxGraphEdges);
+        if (m == null || m < 0 || m > limit) {
+            throw new IllegalArgumentException(
+                    String.format("GNM generator requires edgeCount between 0 and %d", limit));
+        }
+        EdgeList edges = new EdgeList(Math.max(m, 16));
+        
+        if (m > pairs / 2) {
+            // Dense: selection sampling over every pair index (Knuth's Algorithm S)
+            long needed = m;
+            for (long index = 0; index < pairs && needed > 0; index++) {
+                if (random.nextLong(pairs - index) < needed) {
+                    addPair(edges, weights, n, directed, index);
+                    needed--;
+                }
+            }
+        } else {
+            // Sparse: rejection sampling against a primitive hash set of chosen pair indices
+            LongHashSet chosen = new LongHashSet(m);
+            while (edges.size() < m) {
+                long index = random.nextLong(pairs);
+                if (chosen.add(index)) {
+                    addPair(edges, weights, n, directed, index);
+                }
+            }
+        }
+        return edges;
+    }
+    
+    private EdgeList grid(WeightSource weights, int n, Integer columns) {
+        int cols = gridColumns(n, columns);
+        // Each row of length L has L - 1 horizontal edges, and every vertex below the first row one vertical
+        long rows = (n + (long) cols - 1) / cols;
+        checkEdgeCount("GRID", n - rows + Math.max(0, n - cols));
+        EdgeList edges = new EdgeList(2 * n);
+        for (int v = 0; v < n; v++) {
+            if ((v + 1) % cols != 0 && v + 1 < n) {
+                edges.add(v, v + 1, weights.next());
+            }
+            if (v + cols < n) {
+                edges.add(v, v + cols, weights.next());
+            }
+        }
+        return edges;
+    }
+    
+    private void checkEdgeCount(String type, long edgeCount) {
+        if (edgeCount > maxGraphEdges) {
+            throw new IllegalArgumentException(String.format(
+                    "%s generator would produce %d edges, limit is %d", type, edgeCount, maxGraphEdges));
+        }
+    }
+    
+    private int gridColumns(int n, Integer columns) {
+        return columns != null && columns > 0 ? columns : (int) Math.ceil(Math.sqrt(n));
+    }
+    
+    // Random recursive tree: every vertex attaches to a uniformly chosen earlier vertex
+    private EdgeList tree(SplittableRandom random, WeightSource weights, int n) {
+        checkEdgeCount("TREE", n - 1);
+        EdgeList edges = new EdgeList(n);
+        for (int v = 1; v < n; v++) {
+            edges.add(random.nextInt(v), v, weights.next());
+        }
+        return edges;
+    }
+    
+    private EdgeList barabasiAlbert(SplittableRandom random, WeightSource weights, int n, int m) {
+        if (m < 1 || m >= n) {
+            throw new IllegalArgumentException("BARABASI_ALBERT generator requires 1 <= attachmentEdges < vertices");
+        }
+        
+        long totalEdges = (long) m * (m + 1) / 2 + (long) (n - m - 1) * m;
+        checkEdgeCount("BARABASI_ALBERT", totalEdges);
+        EdgeList edges = new EdgeList((int) totalEdges);
+        // Every edge endpoint is recorded once, so a uniform pick is degree-proportional
+        int[] endpoints = new int[(int) (2 * totalEdges)];
+        int endpointCount = 0;
+        
+        for (int u = 0; u <= m; u++) {
+            for (int v = u + 1; v <= m; v++) {
+                edges.add(u, v, weights.next());
+                endpoints[endpointCount++] = u;
+                endpoints[endpointCount++] = v;
+            }
+        }
+        
+        int[] targets = new int[m];
+        for (int v = m + 1; v < n; v++) {
+            int chosen = 0;
+            while (chosen < m) {
+                int candidate = endpoints[random.nextInt(endpointCount)];
+                if (!contains(targets, chosen, candidate)) {
+                    targets[chosen++] = candidate;
+                }
+            }
+            for (int i = 0; i < m; i++) {
+                edges.add(v, targets[i], weights.next());
+                endpoints[endpointCount++] = v;
+                endpoints[endpointCount++] = targets[i];
+            }
+        }
+        return edges;
+    }
+    
+    private long maxPairs(int n, boolean directed) {
+        return directed ? (long) n * (n - 1) : (long) n * (n - 1) / 2;
+    }
+    
+    private void addPair(EdgeList edges, WeightSource weights, int n, boolean directed, long index) {
+        if (directed) {
+            int u = (int) (index / (n - 1));
+            int k = (int) (index % (n - 1));
+            edges.add(u, k < u ? k : k + 1, weights.next());
+        } else {
+            // Row v holds pairs (v, 0..v-1); invert the triangular numbering
+            int v = (int) ((1 + Math.sqrt(1 + 8.0 * index)) / 2);
+            while ((long) v * (v - 1) / 2 > index) v--;
+            while ((long) (v + 1) * v / 2 <= index) v++;
+            int w = (int) (index - (long) v * (v - 1) / 2);
+            edges.add(w, v, weights.next());
+        }
+    }
+    
+    private boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static class WeightSource {
+        private final SplittableRandom random;
+        private final boolean weighted;
+        private final int min;
+        private final int max;
+        
+        WeightSource(SplittableRandom random, boolean weighted, int min, int max) {
+            this.random = random;
+            this.weighted = weighted;
+            this.min = min;
+            this.max = max;
+        }
+        
+        int next() {
+            return weighted ? (int) random.nextLong(min, (long) max + 1) : 1;
+        }
+    }
+    
+    private static class LongHashSet {
+        private long[] slots;
+        private int size;
+        
+        LongHashSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+            slots = new long[capacity];
+        }
+        
+        // Stores value + 1 so that 0 can mark an empty slot
+        boolean add(long value) {
+            long key = value + 1;
+            int mask = slots.length - 1;
+            int slot = (int) (mix(key) & mask);
+            while (slots[slot] != 0) {
+                if (slots[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = key;
+            if (++size * 2 > slots.length) {
+                grow();
+            }
+            return true;
+        }
+        
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            int mask = slots.length - 1;
+            for (long key : old) {
+                if (key != 0) {
+                    int slot = (int) (mix(key) & mask);
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = key;
+                }
+            }
+        }
+        
+        private static long mix(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return key ^ (key >>> 32);
+        }
+    }
+}
@@ -0,0 +1,595 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.EdgeList;
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.StoredGraph;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Loads SNAP edge lists and DIMACS shortest-path ({@code .gr}) files into the {@link GraphStore}.
+ * The file is memory-mapped in line-aligned chunks that are parsed in parallel into primitive
+ * edge lists. The CSR arrays are then built in parallel passes. First out-degrees are counted
+ * with atomic adds. After a prefix sum, every edge claims its slot with an atomic increment of
+ * its source's cursor. Last, each vertex's range is sorted by target, the order {@link Graph}
+ * expects. The file's SHA-256 is computed on the pool at the same time. A graph must fit the
+ * {@link GraphStore}'s built-graph cache, so graphId queries never parse the file again unless
+ * other graphs evicted it, and the vertex limit keeps per-vertex results to a few arrays of
+ * {@code max-vertices} ints.
+ */
+@Slf4j
+@Service
+public class GraphImportService {
+    
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final long MAX_CHUNK_BYTES = 64 << 20;
+    private static final int HASH_WINDOW_BYTES = 1 << 28;
+    private static final int LEAF_VERTICES = 1 << 14;
+    private static final int INSERTION_SORT_DEGREE = 16;
+    private static final int BLOCK_SLOTS = 1 << 17;
+    
+    private final AlgorithmExecutor executor;
+    private final GraphStore graphStore;
+    private final int maxVertices;
+    private final int maxEdges;
+    private final long maxUploadBytes;
+    private final long minChunkBytes;
+    private final Path tempRoot;
+    private final Path datasetRoot;
+    
+    public GraphImportService(AlgorithmExecutor executor,
+                              GraphStore graphStore,
+                              @Value("${algorithm.graph-import.max-vertices:8388608}") int maxVertices,
+                              @Value("${algorithm.graph-import.max-edges:16777216}") int maxEdges,
+                              @Value("${algorithm.graph-import.max-upload-bytes:4294967296}") long maxUploadBytes,
+                              @Value("${algorithm.graph-import.min-chunk-bytes:1048576}") long minChunkBytes,
+                              @Value("${algorithm.graph-store.temp-dir:}") String tempDir,
+                              @Value("${algorithm.graph-import.dataset-dir:}") String datasetDir) {
+        this.executor = executor;
+        this.graphStore = graphStore;
+        this.maxVertices = maxVertices;
+        this.maxEdges = maxEdges;
+        this.maxUploadBytes = maxUploadBytes;
+        this.minChunkBytes = minChunkBytes;
+        this.tempRoot = Path.of(tempDir.isBlank() ? System.getProperty("java.io.tmpdir") : tempDir);
+        this.datasetRoot = datasetDir.isBlank() ? null : Path.of(datasetDir).toAbsolutePath().normalize();
+    }
+    
+    /**
+     * Copies an uploaded file to a temp file, which then belongs to the stored graph. Uploads
+     * over {@code max-upload-bytes} are rejected while they are copied.
+     */
+    public StoredGraph importUpload(InputStream body, String format, Boolean directed) {
+        String kind = checkFormat(format);
+        Path file;
+        try {
+            file = Files.createTempFile(tempRoot, "graph-import-", ".txt");
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to create import file: " + ex.getMessage(), ex);
+        }
+        try {
+            copyUpload(body, file);
+            return importFile(file, true, kind, directed);
+        } catch (IOException ex) {
+            delete(file);
+            throw new IllegalStateException("Failed to read graph upload: " + ex.getMessage(), ex);
+        } catch (RuntimeException ex) {
+            delete(file);
+            throw ex;
+        }
+    }
+    
+    private void copyUpload(InputStream body, Path file) throws IOException {
+        long total = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxUploadBytes) {
+                    throw new IllegalArgumentException(String.format(
+                            "Upload exceeds the graph import limit of %d bytes", maxUploadBytes));
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+    
+    /**
+     * Loads {@code fileName} from {@code algorithm.graph-import.dataset-dir}, which stays in place
+     * and is read again if the built graph is evicted.
+     */
+    public StoredGraph importDataset(String fileName, String format, Boolean directed) {
+        String kind = checkFormat(format);
+        if (datasetRoot == null) {
+            throw new IllegalArgumentException("Dataset imports are disabled; set algorithm.graph-import.dataset-dir");
+        }
+        Path file = datasetRoot.resolve(fileName).normalize();
+        if (!file.startsWith(datasetRoot) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Unknown dataset: " + fileName);
+        }
+        return importFile(file, false, kind, directed);
+    }
+    
+    private StoredGraph importFile(Path file, boolean owned, String format, Boolean directed) {
+        // DIMACS road networks list every arc on its own, so they default to directed
+        boolean isDirected = directed != null ? directed : format.equals("DIMACS");
+        long start = System.nanoTime();
+        ForkJoinTask<String> hash = executor.getPool().submit(() -> sha256(file, format, isDirected));
+        Loaded loaded = load(file, format, isDirected);
+        String contentHash = hash.join();
+        long nanos = System.nanoTime() - start;
+        
+        long bytes = size(file);
+        StoredGraph stored = graphStore.putLoaded(contentHash, loaded.graph(), loaded.edges(), bytes,
+                owned ? file : null, () -> load(file, format, isDirected).graph());
+        stored.setLoadTimeMs(nanos / 1e6);
+        stored.setLoadMegabytesPerSecond(bytes / 1e6 / Math.max(nanos / 1e9, 1e-9));
+        return stored;
+    }
+    
+    private record Loaded(Graph graph, int edges) {
+    }
+    
+    private Loaded load(Path file, String format, boolean directed) {
+        long size = size(file);
+        if (size == 0) {
+            throw new IllegalArgumentException("Graph file is empty");
+        }
+        boolean dimacs = format.equals("DIMACS");
+        int parallelism = executor.getPool().getParallelism();
+        Chunk[] chunks = split(file, size, Math.max(minChunkBytes, Math.min(MAX_CHUNK_BYTES,
+                size / (4L * parallelism))));
+        
+        parallel(chunks.length, 1, (low, high) -> {
+            for (int c = low; c < high; c++) {
+                chunks[c].parse(file, dimacs, maxVertices);
+            }
+        });
+        long edges = 0;
+        int maxVertex = -1;
+        int declaredVertices = -1;
+        boolean weighted = dimacs;
+        for (Chunk chunk : chunks) {
+            if (chunk.error != null) {
+                throw new IllegalArgumentException(chunk.error);
+            }
+            edges += chunk.edges.size();
+            maxVertex = Math.max(maxVertex, chunk.edges.maxVertex());
+            weighted |= chunk.weighted;
+            if (chunk.declaredVertices >= 0) {
+                if (declaredVertices >= 0) {
+                    throw new IllegalArgumentException("DIMACS file has more than one problem line");
+                }
+                declaredVertices = chunk.declaredVertices;
+            }
+        }
+        int vertices = dimacs ? declaredVertices : maxVertex + 1;
+        if (dimacs && declaredVertices < 0) {
+            throw new IllegalArgumentException("DIMACS file has no problem line (p sp <vertices> <arcs>)");
+        }
+        if (dimacs && maxVertex >= declaredVertices) {
+            throw new IllegalArgumentException(String.format(
+                    "Arc references vertex %d, but the problem line declares %d", maxVertex + 1, declaredVertices));
+        }
+        if (vertices < 1 || vertices > maxVertices) {
+            throw new IllegalArgumentException(String.format(
+                    "Graph must have between 1 and %d vertices, got %d", maxVertices, vertices));
+        }
+        long entries = directed ? edges : 2 * edges;
+        if (edges > maxEdges || entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(String.format("Graph has %d edges, limit is %d", edges, maxEdges));
+        }
+        if (entries > graphStore.getMaxBuiltEdges()) {
+            throw new IllegalArgumentException(String.format(
+                    "Graph needs %d adjacency entries, but the graph cache holds at most %d",
+                    entries, graphStore.getMaxBuiltEdges()));
+        }
+        return new Loaded(buildCsr(chunks, vertices, (int) entries, directed, weighted), (int) edges);
+    }
+    
+    // Pass one counts degrees, pass two scatters each edge into a slot claimed from its source's cursor.
+    // A slot packs target and weight into one long, and the packed value is already the sort key for the
+    // per-vertex ordering. Shuffled input makes the scatter one cache and TLB miss per edge, so each chunk
+    // first partitions its edges by block of sources; a block's slots span about BLOCK_SLOTS longs (1 MB),
+    // and the scatter of one partition stays inside that range.
+    private Graph buildCsr(Chunk[] chunks, int vertices, int entries, boolean directed, boolean weighted) {
+        int[] offsets = new int[vertices + 1];
+        parallel(chunks.length, 1, (low, high) -> {
+            for (int c = low; c < high; c++) {
+                EdgeList edges = chunks[c].edges;
+                for (int i = 0; i < edges.size(); i++) {
+                    INTS.getAndAdd(offsets, edges.source(i) + 1, 1);
+                    if (!directed) {
+                        INTS.getAndAdd(offsets, edges.target(i) + 1, 1);
+                    }
+                }
+            }
+        });
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        
+        int blockShift = 0;
+        while ((long) vertices >> blockShift > Math.max(1, entries / BLOCK_SLOTS)) {
+            blockShift++;
+        }
+        int shift = blockShift;
+        int blocks = (vertices - 1 >> shift) + 1;
+        int[] cursors = Arrays.copyOf(offsets, vertices);
+        long[] slots = new long[entries];
+        parallel(chunks.length, 1, (low, high) -> {
+            for (int c = low; c < high; c++) {
+                EdgeList edges = chunks[c].edges;
+                int count = directed ? edges.size() : 2 * edges.size();
+                int[] starts = new int[blocks + 1];
+                for (int i = 0; i < edges.size(); i++) {
+                    starts[(edges.source(i) >> shift) + 1]++;
+                    if (!directed) {
+                        starts[(edges.target(i) >> shift) + 1]++;
+                    }
+                }
+                for (int b = 0; b < blocks; b++) {
+                    starts[b + 1] += starts[b];
+                }
+                int[] sources = new int[count];
+                long[] packed = new long[count];
+                for (int i = 0; i < edges.size(); i++) {
+                    int source = edges.source(i);
+                    int target = edges.target(i);
+                    int at = starts[source >> shift]++;
+                    sources[at] = source;
+                    packed[at] = pack(target, edges.weight(i));
+                    if (!directed) {
+                        at = starts[target >> shift]++;
+                        sources[at] = target;
+                        packed[at] = pack(source, edges.weight(i));
+                    }
+                }
+                chunks[c].edges = null;
+                for (int i = 0; i < count; i++) {
+                    slots[(int) INTS.getAndAdd(cursors, sources[i], 1)] = packed[i];
+                }
+            }
+        });
+        
+        // Slots were claimed in arbitrary order, so each range is sorted by target, then weight
+        int[] targets = new int[entries];
+        int[] weights = new int[entries];
+        parallel(vertices, LEAF_VERTICES, (low, high) -> {
+            for (int v = low; v < high; v++) {
+                int start = offsets[v];
+                int end = offsets[v + 1];
+                if (end - start <= INSERTION_SORT_DEGREE) {
+                    insertionSort(slots, start, end);
+                } else {
+                    Arrays.sort(slots, start, end);
+                }
+                for (int i = start; i < end; i++) {
+                    targets[i] = (int) (slots[i] >>> 32);
+                    weights[i] = (int) slots[i] ^ Integer.MIN_VALUE;
+                }
+            }
+        });
+        return Graph.ofCsr(vertices, directed, weighted, offsets, targets, weights);
+    }
+    
+    // Targets are non-negative, and flipping the weight's sign bit makes the low half order as a signed int
+    private static long pack(int target, int weight) {
+        return (long) target << 32 | (weight ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+    
+    private static void insertionSort(long[] slots, int start, int end) {
+        for (int i = start + 1; i < end; i++) {
+            long slot = slots[i];
+            int j = i - 1;
+            while (j >= start && slots[j] > slot) {
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            slots[j + 1] = slot;
+        }
+    }
+    
+    // Cuts near every multiple of chunkBytes, each moved just past the next newline
+    private Chunk[] split(Path file, long size, long chunkBytes) {
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long start = 0;
+            while (start < size) {
+                long end = Math.min(size, start + chunkBytes);
+                while (end < size) {
+                    probe.clear();
+                    int read = channel.read(probe, end);
+                    int newline = -1;
+                    for (int i = 0; i < read && newline < 0; i++) {
+                        if (probe.get(i) == '\n') {
+                            newline = i;
+                        }
+                    }
+                    if (newline >= 0) {
+                        end += newline + 1;
+                        break;
+                    }
+                    end = read < 0 ? size : Math.min(size, end + read);
+                }
+                chunks.add(new Chunk(start, end));
+                start = end;
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to read graph file: " + ex.getMessage(), ex);
+        }
+        return chunks.toArray(new Chunk[0]);
+    }
+    
+    @FunctionalInterface
+    private interface RangeAction {
+        void run(int low, int high);
+    }
+    
+    private void parallel(int count, int grain, RangeAction action) {
+        RangeTask task = new RangeTask(0, count, grain, action);
+        if (count <= grain) {
+            action.run(0, count);
+        } else {
+            executor.getPool().invoke(task);
+        }
+    }
+    
+    private static final class RangeTask extends RecursiveAction {
+        private final int low;
+        private final int high;
+        private final int grain;
+        private final RangeAction action;
+        
+        RangeTask(int low, int high, int grain, RangeAction action) {
+            this.low = low;
+            this.high = high;
+            this.grain = grain;
+            this.action = action;
+        }
+        
+        @Override
+        protected void compute() {
+            if (high - low > grain) {
+                int mid = (low + high) >>> 1;
+                invokeAll(new RangeTask(low, mid, grain, action), new RangeTask(mid, high, grain, action));
+            } else {
+                action.run(low, high);
+            }
+        }
+    }
+    
+    /**
+     * Bytes {@code [start, end)} of the file, whole lines only. Parse errors are kept rather than
+     * thrown, so the message reaches the caller unwrapped by the pool.
+     */
+    private static final class Chunk {
+        private final long start;
+        private final long end;
+        private EdgeList edges;
+        private boolean weighted;
+        private int declaredVertices = -1;
+        private String error;
+        private MappedByteBuffer buffer;
+        private int position;
+        
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+        
+        void parse(Path file, boolean dimacs, int maxVertices) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException ex) {
+                error = "Failed to map graph file: " + ex.getMessage();
+                return;
+            }
+            // Roughly one edge per 16 bytes for SNAP, per 20 for DIMACS
+            edges = new EdgeList((int) ((end - start) / 16));
+            int limit = buffer.limit();
+            try {
+                position = 0;
+                while (position < limit) {
+                    skipBlanks();
+                    if (atLineEnd()) {
+                        position++;
+                        continue;
+                    }
+                    byte first = buffer.get(position);
+                    if (dimacs) {
+                        parseDimacsLine(first);
+                    } else {
+                        parseSnapLine(first, maxVertices);
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                error = ex.getMessage();
+            }
+            buffer = null;
+        }
+        
+        // "<source> <target> [weight]", or a comment starting with # or %
+        private void parseSnapLine(byte first, int maxVertices) {
+            if (first == '#' || first == '%') {
+                skipLine();
+                return;
+            }
+            int source = readInt(false);
+            skipBlanks();
+            int target = readInt(false);
+            skipBlanks();
+            int weight = 1;
+            if (!atLineEnd()) {
+                weight = readInt(true);
+                weighted = true;
+                skipBlanks();
+            }
+            if (source >= maxVertices || target >= maxVertices) {
+                throw error("vertex id " + Math.max(source, target) + " is above the limit of " + maxVertices);
+            }
+            endLine();
+            edges.add(source, target, weight);
+        }
+        
+        // "c ..." comments, one "p sp <vertices> <arcs>" line and "a <source> <target> <weight>" arcs, 1-based
+        private void parseDimacsLine(byte first) {
+            if (first == 'c') {
+                skipLine();
+                return;
+            }
+            if (first == 'p') {
+                if (declaredVertices >= 0) {
+                    throw error("DIMACS file has more than one problem line");
+                }
+                position++;
+                skipBlanks();
+                while (position < buffer.limit() && buffer.get(position) > ' ') {
+                    position++;
+                }
+                skipBlanks();
+                declaredVertices = readInt(false);
+                skipBlanks();
+                readInt(false);
+                skipBlanks();
+                endLine();
+                return;
+            }
+            if (first != 'a') {
+                throw error("expected a 'c', 'p' or 'a' line");
+            }
+            position++;
+            skipBlanks();
+            int source = readInt(false);
+            skipBlanks();
+            int target = readInt(false);
+            skipBlanks();
+            int weight = readInt(true);
+            skipBlanks();
+            if (source == 0 || target == 0) {
+                throw error("DIMACS vertices are numbered from 1");
+            }
+            endLine();
+            edges.add(source - 1, target - 1, weight);
+        }
+        
+        private int readInt(boolean signed) {
+            int limit = buffer.limit();
+            boolean negative = signed && position < limit && buffer.get(position) == '-';
+            if (negative) {
+                position++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (position < limit) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE) {
+                    throw error("number is out of int range");
+                }
+                position++;
+                digits++;
+            }
+            if (digits == 0) {
+                throw error("expected a number");
+            }
+            return (int) (negative ? -value : value);
+        }
+        
+        private void skipBlanks() {
+            while (position < buffer.limit() && (buffer.get(position) == ' ' || buffer.get(position) == '\t')) {
+                position++;
+            }
+        }
+        
+        private boolean atLineEnd() {
+            if (position >= buffer.limit()) {
+                return true;
+            }
+            byte next = buffer.get(position);
+            return next == '\n' || next == '\r';
+        }
+        
+        private void endLine() {
+            if (!atLineEnd()) {
+                throw error("unexpected text after the edge");
+            }
+        }
+        
+        private void skipLine() {
+            while (position < buffer.limit() && buffer.get(position) != '\n') {
+                position++;
+            }
+        }
+        
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(String.format("Malformed graph file at byte %d: %s",
+                    start + position, message));
+        }
+    }
+    
+    private static String checkFormat(String format) {
+        String kind = Objects.toString(format, "").toUpperCase();
+        if (!kind.equals("SNAP") && !kind.equals("DIMACS")) {
+            throw new IllegalArgumentException("Unknown graph format: " + format + ". Available: [SNAP, DIMACS]");
+        }
+        return kind;
+    }
+    
+    private static String sha256(Path file, String format, boolean directed) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((format + (directed ? " directed\n" : " undirected\n")).getBytes(StandardCharsets.UTF_8));
+            long size = channel.size();
+            for (long offset = 0; offset < size; offset += HASH_WINDOW_BYTES) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                        Math.min(HASH_WINDOW_BYTES, size - offset)));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to hash graph file: " + ex.getMessage(), ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to read graph file: " + ex.getMessage(), ex);
+        }
+    }
+    
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete import file {}: {}", file, ex.getMessage());
+        }
+    }
+}
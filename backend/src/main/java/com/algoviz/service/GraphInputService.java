@@ -0,0 +1,216 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.EdgeList;
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphRequest;
+import com.algoviz.model.graph.StoredGraph;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+@Service
+public class GraphInputService {
+    
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    
+    private final GraphGeneratorService graphGeneratorService;
+    private final GraphStore graphStore;
+    private final int maxGraphVertices;
+    private final int maxGraphEdges;
+    
+    public GraphInputService(GraphGeneratorService graphGeneratorService,
+                             GraphStore graphStore,
+                             @Value("${algorithm.max-graph-vertices:1000000}") int maxGraphVertices,
+                             @Value("${algorithm.max-graph-edges:1000000}") int maxGraphEdges) {
+        this.graphGeneratorService = graphGeneratorService;
+        this.graphStore = graphStore;
+        this.maxGraphVertices = maxGraphVertices;
+        this.maxGraphEdges = maxGraphEdges;
+    }
+    
+    /**
+     * The request's graph: the stored one when {@code graphId} is set, otherwise built from the
+     * generator or the inline edges.
+     */
+    public Graph buildGraph(GraphRequest request) {
+        if (request.getGraphId() != null) {
+            return graphStore.get(request.getGraphId());
+        }
+        if (request.getGenerator() != null) {
+            Graph graph = new Graph(
+                graphGeneratorService.vertexCount(request.getGenerator()),
+                request.isDirected(),
+                request.isWeighted()
+            );
+            graph.addEdges(graphGeneratorService.generate(
+                request.getGenerator(), request.isDirected(), request.isWeighted()));
+            return graph;
+        }
+        
+        int vertices = request.getVertices();
+        checkVertices(vertices);
+        // The deserializers tracked the largest vertex id while streaming, so this is O(1)
+        checkEdges(request.getEdges(), vertices, "edges");
+        checkEdges(request.getAdjacencyList(), vertices, "adjacencyList");
+        
+        Graph graph = new Graph(vertices, request.isDirected(), request.isWeighted());
+        if (request.getEdges() != null) {
+            graph.addEdges(request.getEdges());
+        }
+        if (request.getAdjacencyList() != null) {
+            graph.addEdges(request.getAdjacencyList());
+        }
+        return graph;
+    }
+    
+    /**
+     * Stores the request's graph, generated or inline, so later requests can pass its id
+     * instead of the edges. The limits are the same as for building it directly.
+     */
+    public StoredGraph storeGraph(GraphRequest request) {
+        if (request.getGraphId() != null) {
+            throw new IllegalArgumentException("graphId refers to a stored graph; send the edges to store a new one");
+        }
+        if (request.getGenerator() != null) {
+            return graphStore.put(graphGeneratorService.vertexCount(request.getGenerator()), 
+                    request.isDirected(), request.isWeighted(), graphGeneratorService.generate(
+                            request.getGenerator(), request.isDirected(), request.isWeighted()));
+        }
+        
+        int vertices = request.getVertices();
+        checkVertices(vertices);
+        checkEdges(request.getEdges(), vertices, "edges");
+        checkEdges(request.getAdjacencyList(), vertices, "adjacencyList");
+        
+        EdgeList edges = request.getEdges() == null ? new EdgeList(0) : request.getEdges();
+        if (request.getAdjacencyList() != null) {
+            EdgeList lists = request.getAdjacencyList();
+            if (request.getEdges() == null) {
+                edges = lists;
+            } else {
+                edges = new EdgeList(request.getEdges().size() + lists.size());
+                append(edges, request.getEdges());
+                append(edges, lists);
+            }
+        }
+        return graphStore.put(vertices, request.isDirected(), request.isWeighted(), edges);
+    }
+    
+    /**
+     * Stores a binary edge list in the format of {@link #buildGraph(InputStream, boolean, boolean)}.
+     */
+    public StoredGraph storeGraph(InputStream body, boolean directed, boolean weighted) {
+        BinaryGraph binary = readBinary(body, weighted);
+        return graphStore.put(binary.vertices(), directed, weighted, binary.edges());
+    }
+    
+    /**
+     * Vertex positions for geometric A* heuristics: the request's own, or the lattice of a
+     * GRID generator.
+     */
+    public double[][] coordinates(GraphRequest request) {
+        if (request.getCoordinates() != null || request.getGenerator() == null) {
+            return request.getCoordinates();
+        }
+        return graphGeneratorService.coordinates(request.getGenerator());
+    }
+    
+    /**
+     * Reads a binary edge list: little-endian int32 {@code vertices} and {@code edgeCount}, then
+     * {@code edgeCount} records of {@code (source, destination)}, or {@code (source, destination,
+     * weight)} when {@code weighted}. Vertices are range-checked as they are read.
+     */
+    public Graph buildGraph(InputStream body, boolean directed, boolean weighted) {
+        BinaryGraph binary = readBinary(body, weighted);
+        Graph graph = new Graph(binary.vertices(), directed, weighted);
+        graph.addEdges(binary.edges());
+        return graph;
+    }
+    
+    private record BinaryGraph(int vertices, EdgeList edges) {
+    }
+    
+    private BinaryGraph readBinary(InputStream body, boolean weighted) {
+        int recordInts = weighted ? 3 : 2;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.limit(0);
+        try {
+            fill(body, buffer, 2 * Integer.BYTES, -1);
+            int vertices = buffer.getInt();
+            int edgeCount = buffer.getInt();
+            checkVertices(vertices);
+            if (edgeCount < 0 || edgeCount > maxGraphEdges) {
+                throw new IllegalArgumentException(
+                        String.format("Edge count must be between 0 and %d, got %d", maxGraphEdges, edgeCount));
+            }
+            
+            EdgeList edges = new EdgeList(edgeCount);
+            for (int i = 0; i < edgeCount; i++) {
+                fill(body, buffer, recordInts * Integer.BYTES, i);
+                int source = buffer.getInt();
+                int destination = buffer.getInt();
+                int weight = weighted ? buffer.getInt() : 1;
+                if (source < 0 || source >= vertices || destination < 0 || destination >= vertices) {
+                    throw new IllegalArgumentException(String.format(
+                            "Edge %d (%d -> %d) has a vertex outside 0..%d", i, source, destination, vertices - 1));
+                }
+                edges.add(source, destination, weight);
+            }
+            if (buffer.hasRemaining() || body.read() != -1) {
+                throw new IllegalArgumentException(
+                        String.format("Body has data after the declared %d edges", edgeCount));
+            }
+            return new BinaryGraph(vertices, edges);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to read graph body: " + ex.getMessage(), ex);
+        }
+    }
+    
+    // Ensures at least `needed` bytes are readable, refilling the buffer from the stream
+    private void fill(InputStream body, ByteBuffer buffer, int needed, int edge) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < needed) {
+            int read = body.read(buffer.array(), buffer.position(), buffer.remaining());
+            if (read < 0) {
+                throw new IllegalArgumentException(edge < 0
+                        ? "Body is shorter than the 8-byte header" : "Body ends in the middle of edge " + edge);
+            }
+            buffer.position(buffer.position() + read);
+        }
+        buffer.flip();
+    }
+    
+    private void append(EdgeList to, EdgeList from) {
+        for (int i = 0; i < from.size(); i++) {
+            to.add(from.source(i), from.target(i), from.weight(i));
+        }
+    }
+    
+    private void checkVertices(int vertices) {
+        if (vertices < 1 || vertices > maxGraphVertices) {
+            throw new IllegalArgumentException(
+                    String.format("Graph must have between 1 and %d vertices", maxGraphVertices));
+        }
+    }
+    
+    private void checkEdges(EdgeList edges, int vertices, String field) {
+        if (edges == null) {
+            return;
+        }
+        if (edges.size() > maxGraphEdges) {
+            throw new IllegalArgumentException(
+                    String.format("%s has %d edges, limit is %d", field, edges.size(), maxGraphEdges));
+        }
+        if (edges.maxVertex() >= vertices) {
+            throw new IllegalArgumentException(String.format(
+                    "%s references vertex %d, but the graph has %d vertices", field, edges.maxVertex(), vertices));
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.EdgeList;
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.StoredGraph;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Uploaded graphs, kept so repeated queries skip parsing and building. Each graph is stored
+ * as packed little-endian int32 records: a header of vertices, edge count, flags and record
+ * width, then (source, destination) per edge, or (source, destination, weight) unless every
+ * weight is 1. The records stay on the heap up to {@code spill-bytes} and are written into a
+ * memory-mapped temp file beyond that. Built CSR graphs are cached on top, evicting the least
+ * recently used once their edge entries exceed {@code max-built-edges}; an evicted graph is
+ * rebuilt from its records. Stored graphs are evicted least recently used past
+ * {@code max-entries}. Imported datasets keep their source file as the stored form instead of
+ * records. Ids are the first 16 hex digits of the SHA-256 content hash, so the same graph always
+ * gets the same id; a graph whose short id is already taken by a different hash is keyed by its
+ * full hash instead.
+ */
+@Slf4j
+@Component
+public class GraphStore {
+    
+    private static final int HEADER_INTS = 4;
+    private static final int DIRECTED = 1;
+    private static final int WEIGHTED = 2;
+    
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Graph> built = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxBuiltEdges;
+    private final long spillBytes;
+    private final Path tempRoot;
+    private long builtEdges;
+    
+    public GraphStore(@Value("${algorithm.graph-store.max-entries:32}") int maxEntries,
+                      @Value("${algorithm.graph-store.max-built-edges:16777216}") long maxBuiltEdges,
+                      @Value("${algorithm.graph-store.spill-bytes:8388608}") long spillBytes,
+                      @Value("${algorithm.graph-store.temp-dir:}") String tempDir) {
+        this.maxEntries = maxEntries;
+        this.maxBuiltEdges = maxBuiltEdges;
+        this.spillBytes = spillBytes;
+        this.tempRoot = Path.of(tempDir.isBlank() ? System.getProperty("java.io.tmpdir") : tempDir);
+    }
+    
+    /**
+     * Packs {@code edges} into records and stores them. A graph with the same content that is
+     * already stored keeps its entry, and the new copy is discarded.
+     */
+    public StoredGraph put(int vertices, boolean directed, boolean weighted, EdgeList edges) {
+        int recordInts = 2;
+        for (int i = 0; i < edges.size() && recordInts == 2; i++) {
+            if (edges.weight(i) != 1) {
+                recordInts = 3;
+            }
+        }
+        long bytes = (HEADER_INTS + (long) edges.size() * recordInts) * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                    "Graph needs %d bytes of records, more than a single buffer can hold", bytes));
+        }
+        Path file = bytes > spillBytes ? createSpillFile() : null;
+        ByteBuffer records = file == null ? ByteBuffer.allocate((int) bytes) : map(file, bytes);
+        records.order(ByteOrder.LITTLE_ENDIAN);
+        records.putInt(vertices).putInt(edges.size())
+                .putInt((directed ? DIRECTED : 0) | (weighted ? WEIGHTED : 0)).putInt(recordInts);
+        for (int i = 0; i < edges.size(); i++) {
+            records.putInt(edges.source(i)).putInt(edges.target(i));
+            if (recordInts == 3) {
+                records.putInt(edges.weight(i));
+            }
+        }
+        records.flip();
+        String contentHash = sha256(records.duplicate());
+        return insert(new Entry(contentHash, vertices, edges.size(), directed, weighted, 
+                file == null ? "HEAP" : "MAPPED", bytes, file, () -> fromRecords(records)), null);
+    }
+    
+    /**
+     * Stores a graph loaded from a file and caches it right away. The file is its stored form:
+     * once the built graph is evicted, {@code reload} parses the file again. {@code ownedFile},
+     * when set, is deleted with the entry.
+     */
+    public StoredGraph putLoaded(String contentHash, Graph graph, int edges, long bytes, Path ownedFile, 
+                                 Supplier<Graph> reload) {
+        return insert(new Entry(contentHash, graph.getVertices(), edges, graph.isDirected(), graph.isWeighted(), 
+                "FILE", bytes, ownedFile, reload), graph);
+    }
+    
+    private synchronized StoredGraph insert(Entry entry, Graph graph) {
+        Entry existing = entries.get(entry.id);
+        if (existing != null && !existing.contentHash.equals(entry.contentHash)) {
+            entry = entry.keyedByFullHash();
+            existing = entries.get(entry.id);
+        }
+        if (existing != null) {
+            delete(entry.ownedFile);
+            return info(existing);
+        }
+        entries.put(entry.id, entry);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            uncache(evicted.id);
+            delete(evicted.ownedFile);
+        }
+        if (graph != null) {
+            cache(entry, graph);
+        }
+        return info(entry);
+    }
+    
+    /**
+     * The built graph for {@code id}, from the cache or rebuilt from its records. Graphs are
+     * frozen, so one instance is safely shared by concurrent queries.
+     */
+    public Graph get(String id) {
+        Entry entry;
+        synchronized (this) {
+            entry = id == null ? null : entries.get(id);
+            if (entry == null) {
+                throw new IllegalArgumentException("Unknown or expired graphId: " + id);
+            }
+            Graph graph = built.get(id);
+            if (graph != null) {
+                return graph;
+            }
+        }
+        // Built outside the lock; a concurrent build of the same graph just caches an equal copy
+        Graph graph = entry.source.get();
+        synchronized (this) {
+            cache(entry, graph);
+        }
+        return graph;
+    }
+    
+    /**
+     * The edge-entry budget of the built-graph cache. {@link GraphImportService} rejects larger
+     * graphs, since a file that does not fit would be parsed again on every query.
+     */
+    public long getMaxBuiltEdges() {
+        return maxBuiltEdges;
+    }
+    
+    public synchronized StoredGraph info(String id) {
+        Entry entry = id == null ? null : entries.get(id);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown or expired graphId: " + id);
+        }
+        return info(entry);
+    }
+    
+    public synchronized void remove(String id) {
+        Entry entry = id == null ? null : entries.remove(id);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown or expired graphId: " + id);
+        }
+        uncache(id);
+        delete(entry.ownedFile);
+    }
+    
+    @PreDestroy
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            delete(entry.ownedFile);
+        }
+        entries.clear();
+        built.clear();
+        builtEdges = 0;
+    }
+    
+    private StoredGraph info(Entry entry) {
+        return StoredGraph.builder()
+                .graphId(entry.id)
+                .contentHash(entry.contentHash)
+                .vertices(entry.vertices)
+                .edges(entry.edgeCount)
+                .directed(entry.directed)
+                .weighted(entry.weighted)
+                .storage(entry.storage)
+                .bytes(entry.bytes)
+                .built(built.containsKey(entry.id))
+                .build();
+    }
+    
+    // Only a graph whose entry is still stored is cached, and never one larger than the whole budget
+    private void cache(Entry entry, Graph graph) {
+        if (entries.get(entry.id) != entry || built.containsKey(entry.id) || graph.edgeCount() > maxBuiltEdges) {
+            return;
+        }
+        built.put(entry.id, graph);
+        builtEdges += graph.edgeCount();
+        Iterator<Graph> eldest = built.values().iterator();
+        while (builtEdges > maxBuiltEdges) {
+            builtEdges -= eldest.next().edgeCount();
+            eldest.remove();
+        }
+    }
+    
+    private void uncache(String id) {
+        Graph graph = built.remove(id);
+        if (graph != null) {
+            builtEdges -= graph.edgeCount();
+        }
+    }
+    
+    private Path createSpillFile() {
+        try {
+            return Files.createTempFile(tempRoot, "graph-", ".bin");
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to create graph spill file: " + ex.getMessage(), ex);
+        }
+    }
+    
+    // The mapping outlives the channel, and stays valid until the buffer is collected
+    private ByteBuffer map(Path file, long bytes) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } catch (IOException ex) {
+            delete(file);
+            throw new IllegalStateException("Failed to map graph spill file: " + ex.getMessage(), ex);
+        }
+    }
+    
+    private void delete(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete graph spill file {}: {}", file, ex.getMessage());
+        }
+    }
+    
+    private static Graph fromRecords(ByteBuffer records) {
+        // duplicate() resets the byte order, so it is set again on every view
+        IntBuffer ints = records.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int edgeCount = ints.get(1);
+        int flags = ints.get(2);
+        int recordInts = ints.get(3);
+        Graph graph = new Graph(ints.get(0), (flags & DIRECTED) != 0, (flags & WEIGHTED) != 0);
+        for (int i = 0, position = HEADER_INTS; i < edgeCount; i++, position += recordInts) {
+            graph.addEdge(ints.get(position), ints.get(position + 1), recordInts == 3 ? ints.get(position + 2) : 1);
+        }
+        graph.edgeCount();
+        return graph;
+    }
+    
+    private static String sha256(ByteBuffer records) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(records);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    // The source rebuilds the graph from its records or from the file it was loaded from
+    private static final class Entry {
+        private final String id;
+        private final String contentHash;
+        private final int vertices;
+        private final int edgeCount;
+        private final boolean directed;
+        private final boolean weighted;
+        private final String storage;
+        private final long bytes;
+        private final Path ownedFile;
+        private final Supplier<Graph> source;
+        
+        Entry(String contentHash, int vertices, int edgeCount, boolean directed, boolean weighted, 
+              String storage, long bytes, Path ownedFile, Supplier<Graph> source) {
+            this(contentHash.substring(0, 16), contentHash, vertices, edgeCount, directed, weighted, storage, bytes,
+                    ownedFile, source);
+        }
+        
+        private Entry(String id, String contentHash, int vertices, int edgeCount, boolean directed,
+                      boolean weighted, String storage, long bytes, Path ownedFile, Supplier<Graph> source) {
+            this.id = id;
+            this.contentHash = contentHash;
+            this.vertices = vertices;
+            this.edgeCount = edgeCount;
+            this.directed = directed;
+            this.weighted = weighted;
+            this.storage = storage;
+            this.bytes = bytes;
+            this.ownedFile = ownedFile;
+            this.source = source;
+        }
+        
+        Entry keyedByFullHash() {
+            return new Entry(contentHash, contentHash, vertices, edgeCount, directed, weighted, storage, bytes,
+                    ownedFile, source);
+        }
+    }
+}
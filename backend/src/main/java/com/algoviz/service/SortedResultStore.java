@@ -0,0 +1,94 @@
+package com.algoviz.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps recent sorted arrays for incremental re-sorts, evicting the least recently used once
+ * either the entry or the total element budget is exceeded. Ids are the first 16 hex digits of
+ * the SHA-256 of the sorted values, as in {@link GraphStore}, so inputs with the same values
+ * share one entry. Arrays over {@code max-elements}, and values whose id is already taken by
+ * different values, are not stored and get no id. Stored arrays are never written to; edits
+ * always produce a new array.
+ */
+@Component
+public class SortedResultStore {
+    
+    private final Map<String, int[]> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxEntries;
+    private final long maxElements;
+    private long storedElements;
+    
+    public SortedResultStore(@Value("${algorithm.result-store.max-entries:256}") int maxEntries,
+                             @Value("${algorithm.result-store.max-elements:16777216}") long maxElements) {
+        this.maxEntries = maxEntries;
+        this.maxElements = maxElements;
+    }
+    
+    /**
+     * Stores {@code sorted} without copying and returns its id, or null if it is not stored; the
+     * caller must not modify it afterwards.
+     */
+    public String put(int[] sorted) {
+        if (sorted.length > maxElements) {
+            return null;
+        }
+        // Hashed outside the lock, so concurrent sort responses only queue for the map update
+        String id = idOf(sorted);
+        synchronized (this) {
+            int[] existing = results.get(id);
+            if (existing != null) {
+                return Arrays.equals(existing, sorted) ? id : null;
+            }
+            store(id, sorted);
+        }
+        return id;
+    }
+    
+    private void store(String id, int[] sorted) {
+        results.put(id, sorted);
+        storedElements += sorted.length;
+        
+        Iterator<int[]> eldest = results.values().iterator();
+        while (results.size() > maxEntries || storedElements > maxElements) {
+            storedElements -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+    
+    public synchronized int[] get(String id) {
+        int[] sorted = id == null ? null : results.get(id);
+        if (sorted == null) {
+            throw new IllegalArgumentException("Unknown or expired resultId: " + id);
+        }
+        return sorted;
+    }
+    
+    static String idOf(int[] values) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+            for (int value : values) {
+                if (!buffer.hasRemaining()) {
+                    digest.update(buffer.flip());
+                    buffer.clear();
+                }
+                buffer.putInt(value);
+            }
+            digest.update(buffer.flip());
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
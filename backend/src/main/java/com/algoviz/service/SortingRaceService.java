@@ -0,0 +1,121 @@
+package com.algoviz.service;
+
+import com.algoviz.algorithms.sorting.SortingAlgorithm;
+import com.algoviz.algorithms.sorting.SortingAlgorithmRegistry;
+import com.algoviz.algorithms.sorting.StepSampling;
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.sorting.SortingRaceEntry;
+import com.algoviz.model.sorting.SortingRaceResult;
+import com.algoviz.model.sorting.SortingResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToDoubleFunction;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SortingRaceService {
+    
+    private static final int DEFAULT_MAX_STEPS = 200;
+    
+    private final SortingAlgorithmRegistry registry;
+    private final AlgorithmExecutor executor;
+    
+    public SortingRaceResult race(int[] input, List<String> algorithms, boolean includeSteps, Integer maxSteps) {
+        if (algorithms == null || algorithms.isEmpty()) {
+            throw new IllegalArgumentException("At least one algorithm must be provided");
+        }
+        if (new HashSet<>(algorithms).size() != algorithms.size()) {
+            throw new IllegalArgumentException("Algorithms in a race must be distinct");
+        }
+        int stepLimit = maxSteps != null && maxSteps > 0 ? maxSteps : DEFAULT_MAX_STEPS;
+        
+        // Resolve everything up front so an unknown name fails before any work starts
+        List<SortingAlgorithm> resolved = algorithms.stream().map(registry::get).toList();
+        
+        long raceStart = System.nanoTime();
+        List<CompletableFuture<SortingRaceEntry>> runs = new ArrayList<>();
+        for (int i = 0; i < resolved.size(); i++) {
+            String name = algorithms.get(i);
+            SortingAlgorithm algorithm = resolved.get(i);
+            // Each run sorts its own copy, so no run ever waits on another
+            runs.add(CompletableFuture.supplyAsync(
+                    () -> run(name, algorithm, input.clone(), includeSteps, stepLimit), executor.getPool()));
+        }
+        
+        List<SortingRaceEntry> entries;
+        try {
+            entries = runs.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        double wallTimeMs = (System.nanoTime() - raceStart) / 1_000_000.0;
+        
+        Map<String, String> winners = new LinkedHashMap<>();
+        winners.put("comparisons", winner(entries, e -> e.getMetrics().getComparisons()));
+        winners.put("swaps", winner(entries, e -> e.getMetrics().getSwaps()));
+        winners.put("actualOperations", winner(entries, e -> e.getMetrics().getActualOperations()));
+        winners.put("elapsedMs", winner(entries, SortingRaceEntry::getElapsedMs));
+        
+        log.debug("Race of {} algorithms over {} elements finished in {} ms", 
+                entries.size(), input.length, wallTimeMs);
+        
+        return SortingRaceResult.builder()
+                .inputSize(input.length)
+                .entries(entries)
+                .winners(winners)
+                .wallTimeMs(wallTimeMs)
+                .sequentialTimeMs(entries.stream().mapToDouble(SortingRaceEntry::getElapsedMs).sum())
+                .build();
+    }
+    
+    private SortingRaceEntry run(String name, SortingAlgorithm algorithm, int[] array, 
+                                 boolean includeSteps, int stepLimit) {
+        long start = System.nanoTime();
+        // Sampled while recording, so a long trace never holds more than 2 * stepLimit snapshots
+        SortingResult result = StepSampling.limit(stepLimit, () -> algorithm.sort(array, includeSteps));
+        double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+        
+        List<AlgorithmStep> steps = result.getSteps();
+        return SortingRaceEntry.builder()
+                .algorithm(name)
+                .algorithmName(result.getAlgorithmName())
+                .metrics(result.getMetrics())
+                .elapsedMs(elapsedMs)
+                .totalSteps(steps.isEmpty() ? 0 : steps.get(steps.size() - 1).getStepNumber() + 1)
+                .steps(includeSteps ? decimate(steps, stepLimit) : null)
+                .build();
+    }
+    
+    // Trims the sampled trace to exactly limit evenly spaced steps, always including the first and the last
+    private List<AlgorithmStep> decimate(List<AlgorithmStep> steps, int limit) {
+        if (steps.size() <= limit) {
+            return steps;
+        }
+        List<AlgorithmStep> kept = new ArrayList<>(limit);
+        double stride = (steps.size() - 1) / (double) (limit - 1);
+        for (int i = 0; i < limit - 1; i++) {
+            kept.add(steps.get((int) Math.round(i * stride)));
+        }
+        kept.add(steps.get(steps.size() - 1));
+        return kept;
+    }
+    
+    private String winner(List<SortingRaceEntry> entries, ToDoubleFunction<SortingRaceEntry> metric) {
+        SortingRaceEntry best = entries.get(0);
+        for (SortingRaceEntry entry : entries) {
+            if (metric.applyAsDouble(entry) < metric.applyAsDouble(best)) {
+                best = entry;
+            }
+        }
+        return best.getAlgorithm();
+    }
+}
@@ -0,0 +1,146 @@
+package com.algoviz.service;
+
+import com.algoviz.algorithms.sorting.SortingAlgorithmRegistry;
+import com.algoviz.model.sorting.InputStatistics;
+import com.algoviz.model.sorting.SortingResult;
+import com.algoviz.model.sorting.SortingSelection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Picks a sorting algorithm from cheap input statistics: one linear pass for runs and the
+ * value range, plus fixed-size samples for inversions and duplicates.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SortingSelectionService {
+    
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int SMALL_INPUT = 32;
+    private static final int RADIX_THRESHOLD = 4096;
+    private static final long COUNTING_SORT_MAX_RANGE = 1 << 20;
+    
+    private final SortingAlgorithmRegistry registry;
+    
+    public SortingResult sortAuto(int[] array, boolean recordSteps) {
+        SortingSelection selection = select(array);
+        log.info("Auto sort chose {} for {} elements: {}",
+                selection.getAlgorithm(), array.length, selection.getReason());
+        SortingResult result = registry.get(selection.getAlgorithm()).sort(array, recordSteps);
+        result.setSelection(selection);
+        return result;
+    }
+    
+    public SortingSelection select(int[] array) {
+        long start = System.nanoTime();
+        InputStatistics stats = analyze(array);
+        int n = stats.getSize();
+        
+        String algorithm;
+        String reason;
+        if (n <= SMALL_INPUT) {
+            algorithm = "insertion-sort";
+            reason = String.format("Only %d elements; insertion sort has the lowest overhead", n);
+        } else if (stats.getAscendingRuns() == 1 || stats.getDescendingRuns() == 1) {
+            algorithm = "tim-sort";
+            reason = "Input is already sorted or reversed; TimSort finishes in one linear run scan";
+        } else if (stats.getAscendingRuns() <= n / SMALL_INPUT || stats.getInversionRatio() < 0.02) {
+            algorithm = "tim-sort";
+            reason = String.format("Input is nearly sorted (%d runs, inversion ratio %.3f); "
+                    + "TimSort merges the natural runs", stats.getAscendingRuns(), stats.getInversionRatio());
+        } else if (stats.getValueRange() <= 2L * n && stats.getValueRange() <= COUNTING_SORT_MAX_RANGE) {
+            algorithm = "counting-sort";
+            reason = String.format("Value range %d is at most twice the size; counting sort is linear",
+                    stats.getValueRange());
+        } else if (stats.getDuplicateRatio() > 0.5) {
+            algorithm = "three-way-quick-sort";
+            reason = String.format("About %.0f%% of sampled values repeat; three-way partitioning "
+                    + "never revisits equal keys", stats.getDuplicateRatio() * 100);
+        } else if (n >= RADIX_THRESHOLD) {
+            algorithm = "radix-sort";
+            reason = String.format("%d mostly distinct keys; four linear radix passes beat n log n comparisons", n);
+        } else {
+            algorithm = "dual-pivot-quick-sort";
+            reason = "Random-looking input of moderate size; dual-pivot quicksort, as in the JDK";
+        }
+        
+        return SortingSelection.builder()
+                .algorithm(algorithm)
+                .reason(reason)
+                .statistics(stats)
+                .analysisTimeMs((System.nanoTime() - start) / 1_000_000.0)
+                .build();
+    }
+    
+    public InputStatistics analyze(int[] array) {
+        int n = array.length;
+        if (n == 0) {
+            return InputStatistics.builder().build();
+        }
+        
+        int descents = 0;
+        int ascents = 0;
+        int min = array[0];
+        int max = array[0];
+        for (int i = 1; i < n; i++) {
+            int value = array[i];
+            if (value < array[i - 1]) {
+                descents++;
+            } else if (value > array[i - 1]) {
+                ascents++;
+            }
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        
+        // Seeded by size so the same input always gets the same decision
+        SplittableRandom random = new SplittableRandom(n);
+        int sampleSize = Math.min(n, SAMPLE_SIZE);
+        
+        double inversionRatio = 0;
+        if (n > 1) {
+            int inversions = 0;
+            for (int s = 0; s < SAMPLE_SIZE; s++) {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (i != j && array[Math.min(i, j)] > array[Math.max(i, j)]) {
+                    inversions++;
+                }
+            }
+            inversionRatio = (double) inversions / SAMPLE_SIZE;
+        }
+        
+        // Evenly spaced positions, so no index is drawn twice
+        int[] sample = new int[sampleSize];
+        for (int s = 0; s < sampleSize; s++) {
+            sample[s] = array[(int) ((long) s * n / sampleSize)];
+        }
+        Arrays.sort(sample);
+        int repeats = 0;
+        for (int s = 1; s < sample.length; s++) {
+            if (sample[s] == sample[s - 1]) {
+                repeats++;
+            }
+        }
+        
+        return InputStatistics.builder()
+                .size(n)
+                .ascendingRuns(descents + 1)
+                .descendingRuns(ascents + 1)
+                .inversionRatio(inversionRatio)
+                .duplicateRatio((double) repeats / sample.length)
+                .minValue(min)
+                .maxValue(max)
+                .valueRange((long) max - min + 1)
+                .sampleSize(sampleSize)
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -44,6 +46,61 @@ class BFSServiceTest {
         assertTrue(result.getTraversalOrder().contains(1));
     }
     
+    @Test
+    void testBFSLargeGraphWithoutSteps() {
+        int vertices = 100_000;
+        Graph graph = new Graph(vertices, false, false);
+        for (int v = 1; v < vertices; v++) {
+            graph.addEdge(v - 1, v);
+        }
+        
+        GraphResult result = bfsService.bfs(graph, 0, false);
+        
+        assertEquals(vertices, result.getTraversalOrder().size());
+        assertEquals(vertices - 1, result.getDistances().get(vertices - 1));
+        assertTrue(result.getSteps().isEmpty());
+        assertThrows(IllegalStateException.class, () -> graph.addEdge(0, 2));
+    }
+    
+    @Test
+    void testBFSDirectionOptimizingMatchesQueue() {
+        int vertices = 20_000;
+        Graph graph = new Graph(vertices, true, false);
+        Random random = new Random(42);
+        for (int i = 0; i < vertices * 8; i++) {
+            graph.addEdge(random.nextInt(vertices), random.nextInt(vertices));
+        }
+        
+        GraphResult queue = bfsService.bfs(graph, 0, false);
+        GraphResult levels = bfsService.bfsDirectionOptimizing(graph, 0, false, true);
+        
+        assertEquals(queue.getDistances(), levels.getDistances());
+        assertEquals(queue.getTraversalOrder().size(), levels.getTraversalOrder().size());
+        assertTrue(levels.getParallelStatistics().getMatchesBaseline());
+        assertTrue(levels.getParallelStatistics().getBottomUpLevels() > 0);
+        for (int v = 1; v < vertices; v++) {
+            int parent = levels.getPredecessors().get(v);
+            if (parent >= 0) {
+                assertTrue(graph.hasEdge(parent, v));
+                assertEquals(levels.getDistances().get(parent) + 1, levels.getDistances().get(v));
+            }
+        }
+    }
+    
+    @Test
+    void testBFSDirectionOptimizingSkipsComparisonByDefault() {
+        Graph graph = new Graph(1_000, false, false);
+        for (int v = 1; v < 1_000; v++) {
+            graph.addEdge(v / 2, v);
+        }
+        
+        GraphResult result = bfsService.bfsDirectionOptimizing(graph, 0, false);
+        
+        assertEquals(1_000, result.getTraversalOrder().size());
+        assertNull(result.getParallelStatistics().getMatchesBaseline());
+        assertNull(result.getParallelStatistics().getSpeedup());
+    }
+    
     @Test
     void testBFSSingleNode() {
         Graph graph = new Graph(1, false, false);
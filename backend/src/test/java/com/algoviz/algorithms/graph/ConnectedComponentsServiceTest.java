@@ -0,0 +1,52 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "algorithm.parallelism=4")
+class ConnectedComponentsServiceTest {
+    
+    @Autowired
+    private ConnectedComponentsService connectedComponentsService;
+    
+    @Test
+    void testComponentsListedBySmallestVertex() {
+        Graph graph = new Graph(7, false, false);
+        graph.addEdge(5, 1);
+        graph.addEdge(1, 3);
+        graph.addEdge(6, 2);
+        
+        GraphResult result = connectedComponentsService.connectedComponents(graph, true);
+        
+        assertEquals(List.of(List.of(0), List.of(1, 3, 5), List.of(2, 6), List.of(4)), result.getComponents());
+        assertEquals("COMPLETE", result.getSteps().get(result.getSteps().size() - 1).getOperationType());
+    }
+    
+    @Test
+    void testComparisonRunsOnlyWhenRequested() {
+        int vertices = 50_000;
+        Graph graph = new Graph(vertices, true, false);
+        Random random = new Random(12);
+        for (int i = 0; i < vertices; i++) {
+            graph.addEdge(random.nextInt(vertices), random.nextInt(vertices));
+        }
+        
+        GraphResult plain = connectedComponentsService.connectedComponents(graph, false);
+        GraphResult compared = connectedComponentsService.connectedComponents(graph, false, true);
+        
+        assertEquals(plain.getComponents(), compared.getComponents());
+        assertNull(plain.getParallelStatistics().getMatchesBaseline());
+        assertNull(plain.getParallelStatistics().getSequentialTimeMs());
+        assertTrue(compared.getParallelStatistics().getMatchesBaseline());
+        assertNotNull(compared.getParallelStatistics().getSpeedupOverBaseline());
+        assertTrue(plain.getParallelStatistics().getPhases() > 1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class DFSServiceTest {
+    
+    @Autowired
+    private DFSService dfsService;
+    
+    // The recursive walk the service replaced
+    private static void recursiveDfs(Graph graph, int vertex, boolean[] visited, List<Integer> order) {
+        visited[vertex] = true;
+        order.add(vertex);
+        for (int neighbor : graph.getNeighborVertices(vertex)) {
+            if (!visited[neighbor]) {
+                recursiveDfs(graph, neighbor, visited, order);
+            }
+        }
+    }
+    
+    @Test
+    void testDFSMatchesRecursiveOrder() {
+        Random random = new Random(3);
+        for (boolean directed : new boolean[] {true, false}) {
+            Graph graph = new Graph(60, directed, false);
+            for (int i = 0; i < 150; i++) {
+                graph.addEdge(random.nextInt(60), random.nextInt(60));
+            }
+            List<Integer> expected = new ArrayList<>();
+            recursiveDfs(graph, 0, new boolean[60], expected);
+            
+            GraphResult result = dfsService.dfs(graph, 0);
+            
+            assertEquals(expected, result.getTraversalOrder());
+            assertEquals("COMPLETE", result.getSteps().get(result.getSteps().size() - 1).getOperationType());
+        }
+    }
+    
+    @Test
+    void testDFSDeepPathDoesNotOverflow() {
+        int vertices = 1_000_000;
+        Graph graph = new Graph(vertices, true, false);
+        for (int v = 1; v < vertices; v++) {
+            graph.addEdge(v - 1, v);
+        }
+        
+        GraphResult result = dfsService.dfs(graph, 0, false);
+        
+        assertEquals(vertices, result.getTraversalOrder().size());
+        assertEquals(vertices - 1, result.getTraversalOrder().get(vertices - 1));
+        assertTrue(result.getSteps().isEmpty());
+    }
+}
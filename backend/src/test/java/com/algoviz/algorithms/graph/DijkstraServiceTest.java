@@ -0,0 +1,71 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "algorithm.parallelism=4")
+class DijkstraServiceTest {
+    
+    @Autowired
+    private DijkstraService dijkstraService;
+    
+    private static Graph randomGraph(int vertices, int edges, int maxWeight, long seed) {
+        Graph graph = new Graph(vertices, true, true);
+        Random random = new Random(seed);
+        // The last vertices get no edges at all, so some stay unreachable
+        int connected = vertices - vertices / 50;
+        for (int i = 0; i < edges; i++) {
+            graph.addEdge(random.nextInt(connected), random.nextInt(connected), random.nextInt(maxWeight + 1));
+        }
+        return graph;
+    }
+    
+    @Test
+    void testIndexedHeapMatchesPriorityQueue() {
+        Graph graph = randomGraph(20_000, 120_000, 1000, 17);
+        
+        GraphResult expected = dijkstraService.dijkstra(graph, 0, false);
+        GraphResult result = dijkstraService.dijkstraIndexedHeap(graph, 0, false);
+        
+        assertEquals(expected.getDistances(), result.getDistances());
+        for (int v = 0; v < graph.getVertices(); v++) {
+            int parent = result.getPredecessors().get(v);
+            if (parent >= 0) {
+                assertTrue(graph.hasEdge(parent, v));
+            }
+        }
+    }
+    
+    @Test
+    void testDeltaSteppingMatchesDijkstra() {
+        Graph graph = randomGraph(20_000, 120_000, 1000, 7);
+        GraphResult expected = dijkstraService.dijkstra(graph, 0, false);
+        
+        for (int delta : new int[] {1, 37, 250, 5000}) {
+            GraphResult result = dijkstraService.dijkstraDeltaStepping(graph, 0, delta, false, delta == 37);
+            
+            assertEquals(expected.getDistances(), result.getDistances(), "delta " + delta);
+            assertEquals(delta, result.getParallelStatistics().getDelta());
+            assertEquals(delta == 37 ? Boolean.TRUE : null, result.getParallelStatistics().getMatchesBaseline());
+        }
+    }
+    
+    @Test
+    void testDeltaSteppingSkipsEmptyBuckets() {
+        // Large weights with delta 1 leave almost every bucket empty
+        Graph graph = randomGraph(2_000, 10_000, 1_000_000, 11);
+        GraphResult expected = dijkstraService.dijkstra(graph, 0, false);
+        
+        GraphResult result = dijkstraService.dijkstraDeltaStepping(graph, 0, 1, false);
+        
+        assertEquals(expected.getDistances(), result.getDistances());
+        assertTrue(result.getParallelStatistics().getBuckets() <= graph.getVertices());
+    }
+}
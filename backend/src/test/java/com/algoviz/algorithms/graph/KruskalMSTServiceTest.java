@@ -0,0 +1,111 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.DisjointSet;
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.Edge;
+import com.algoviz.model.graph.GraphResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "algorithm.parallelism=4")
+class KruskalMSTServiceTest {
+    
+    @Autowired
+    private KruskalMSTService kruskalMSTService;
+    
+    // Random undirected graph over `components` disjoint vertex ranges, with parallel edges,
+    // self-loops and many equal weights
+    private static Graph randomGraph(int vertices, int edges, int components, int maxWeight, long seed) {
+        Graph graph = new Graph(vertices, false, true);
+        Random random = new Random(seed);
+        int part = vertices / components;
+        for (int i = 0; i < edges; i++) {
+            int base = random.nextInt(components) * part;
+            int source = base + random.nextInt(part);
+            int destination = i % 50 == 0 ? source : base + random.nextInt(part);
+            int weight = random.nextInt(maxWeight + 1);
+            graph.addEdge(source, destination, weight);
+            if (i % 20 == 0) {
+                graph.addEdge(source, destination, weight + random.nextInt(3) - 1);
+            }
+        }
+        return graph;
+    }
+    
+    private static long totalWeight(GraphResult result) {
+        long total = 0;
+        for (Edge edge : result.getResultEdges()) {
+            total += edge.getWeight();
+        }
+        return total;
+    }
+    
+    // The edges must form a spanning forest: no cycles, and as many trees as the graph has components
+    private static void assertSpanningForest(Graph graph, GraphResult result) {
+        DisjointSet graphComponents = new DisjointSet(graph.getVertices());
+        int components = graph.getVertices();
+        for (Edge edge : graph.getAllEdges()) {
+            if (graphComponents.union(edge.getSource(), edge.getDestination())) {
+                components--;
+            }
+        }
+        DisjointSet forest = new DisjointSet(graph.getVertices());
+        for (Edge edge : result.getResultEdges()) {
+            assertTrue(graph.hasEdge(edge.getSource(), edge.getDestination()));
+            assertTrue(forest.union(edge.getSource(), edge.getDestination()), "cycle through " + edge);
+        }
+        assertEquals(graph.getVertices() - components, result.getResultEdges().size());
+    }
+    
+    @Test
+    void testModesMatchClassicKruskal() {
+        int[][] shapes = {
+                // vertices, edges, components, max weight
+                {200, 600, 1, 5},
+                {3_000, 15_000, 4, 1_000},
+                {20_000, 100_000, 1, 50},
+                {10_000, 30_000, 7, 0},
+        };
+        for (int[] shape : shapes) {
+            Graph graph = randomGraph(shape[0], shape[1], shape[2], shape[3], shape[0]);
+            GraphResult classic = kruskalMSTService.kruskalMST(graph, false);
+            assertSpanningForest(graph, classic);
+            
+            GraphResult filter = kruskalMSTService.filterKruskalMST(graph, false);
+            GraphResult boruvka = kruskalMSTService.boruvkaMST(graph, false);
+            
+            assertEquals(totalWeight(classic), totalWeight(filter), "FILTER_KRUSKAL, " + shape[0] + " vertices");
+            assertEquals(totalWeight(classic), totalWeight(boruvka), "BORUVKA, " + shape[0] + " vertices");
+            assertSpanningForest(graph, filter);
+            assertSpanningForest(graph, boruvka);
+        }
+    }
+    
+    @Test
+    void testModesWithStepsMatchClassicKruskal() {
+        Graph graph = randomGraph(60, 200, 2, 10, 5);
+        GraphResult classic = kruskalMSTService.kruskalMST(graph, true);
+        
+        GraphResult filter = kruskalMSTService.filterKruskalMST(graph, true);
+        GraphResult boruvka = kruskalMSTService.boruvkaMST(graph, true);
+        
+        assertEquals(totalWeight(classic), totalWeight(filter));
+        assertEquals(totalWeight(classic), totalWeight(boruvka));
+        assertEquals("COMPLETE", boruvka.getSteps().get(boruvka.getSteps().size() - 1).getOperationType());
+    }
+    
+    @Test
+    void testGraphWithoutEdges() {
+        Graph graph = new Graph(5, false, true);
+        graph.addEdge(2, 2, 4);
+        
+        assertTrue(kruskalMSTService.kruskalMST(graph, false).getResultEdges().isEmpty());
+        assertTrue(kruskalMSTService.filterKruskalMST(graph, false).getResultEdges().isEmpty());
+        assertTrue(kruskalMSTService.boruvkaMST(graph, false).getResultEdges().isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ShortestPathServiceTest {
+    
+    @Autowired
+    private ShortestPathService shortestPathService;
+    
+    @Autowired
+    private DijkstraService dijkstraService;
+    
+    private static Graph randomGraph(int vertices, int edges, boolean directed, double[][] coordinates, long seed) {
+        Graph graph = new Graph(vertices, directed, true);
+        Random random = new Random(seed);
+        for (int v = 0; v < vertices; v++) {
+            coordinates[v] = new double[] {random.nextDouble() * 100, random.nextDouble() * 100};
+        }
+        // The last vertices get no edges at all, so some targets are unreachable
+        int connected = vertices - vertices / 20;
+        for (int i = 0; i < edges; i++) {
+            graph.addEdge(random.nextInt(connected), random.nextInt(connected), random.nextInt(50));
+        }
+        return graph;
+    }
+    
+    // Length of the path, taking the lightest of any parallel edges; -1 if a hop has no edge
+    private static long pathWeight(Graph graph, List<Integer> path) {
+        long total = 0;
+        for (int i = 1; i < path.size(); i++) {
+            int u = path.get(i - 1);
+            int best = -1;
+            for (int e = graph.neighborStart(u); e < graph.neighborEnd(u); e++) {
+                if (graph.target(e) == path.get(i) && (best < 0 || graph.weight(e) < best)) {
+                    best = graph.weight(e);
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+    
+    private static void assertMatches(Graph graph, Map<Integer, Integer> expected, int start, int end,
+                                      GraphResult result) {
+        int distance = expected.get(end);
+        String where = result.getAlgorithmName() + " " + start + " -> " + end;
+        if (distance == Integer.MAX_VALUE) {
+            assertNull(result.getPathStatistics().getDistance(), where);
+            assertTrue(result.getPath().isEmpty(), where);
+            return;
+        }
+        List<Integer> path = result.getPath();
+        assertEquals(distance, result.getPathStatistics().getDistance(), where);
+        assertEquals(start, path.get(0), where);
+        assertEquals(end, path.get(path.size() - 1), where);
+        assertEquals(distance, pathWeight(graph, path), where);
+    }
+    
+    @Test
+    void testModesMatchDijkstraOnRandomGraphs() {
+        Random random = new Random(21);
+        for (boolean directed : new boolean[] {true, false}) {
+            int vertices = 2_000;
+            double[][] coordinates = new double[vertices][];
+            Graph graph = randomGraph(vertices, 6_000, directed, coordinates, directed ? 1 : 2);
+            for (int query = 0; query < 15; query++) {
+                int start = random.nextInt(vertices);
+                int end = query % 5 == 0 ? vertices - 1 : random.nextInt(vertices);
+                Map<Integer, Integer> expected = dijkstraService.dijkstra(graph, start, false).getDistances();
+                
+                assertMatches(graph, expected, start, end, shortestPathService.dijkstra(graph, start, end, false));
+                assertMatches(graph, expected, start, end,
+                        shortestPathService.bidirectional(graph, start, end, false));
+                for (String heuristic : new String[] {"ZERO", "EUCLIDEAN", "MANHATTAN"}) {
+                    assertMatches(graph, expected, start, end,
+                            shortestPathService.aStar(graph, start, end, heuristic, coordinates, false));
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testSameStartAndEnd() {
+        double[][] coordinates = new double[100][];
+        Graph graph = randomGraph(100, 300, true, coordinates, 4);
+        
+        GraphResult result = shortestPathService.bidirectional(graph, 7, 7, false);
+        
+        assertEquals(0, result.getPathStatistics().getDistance());
+        assertEquals(List.of(7), result.getPath());
+    }
+    
+    @Test
+    void testNegativeWeightIsRejected() {
+        Graph graph = new Graph(3, true, true);
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(1, 2, -1);
+        
+        assertThrows(IllegalArgumentException.class, () -> shortestPathService.dijkstra(graph, 0, 2, false));
+        assertThrows(IllegalArgumentException.class, () -> shortestPathService.bidirectional(graph, 0, 2, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> shortestPathService.aStar(graph, 0, 2, "ZERO", null, false));
+    }
+}
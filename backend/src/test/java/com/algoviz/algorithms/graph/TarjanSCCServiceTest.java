@@ -0,0 +1,83 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TarjanSCCServiceTest {
+    
+    @Autowired
+    private TarjanSCCService tarjanSCCService;
+    
+    private static Set<Set<Integer>> asSets(List<List<Integer>> components) {
+        Set<Set<Integer>> sets = new HashSet<>();
+        for (List<Integer> component : components) {
+            sets.add(new HashSet<>(component));
+        }
+        return sets;
+    }
+    
+    @Test
+    void testSCCKnownGraph() {
+        // 0 -> 1 -> 2 -> 0 is one cycle, 3 <-> 4 another, 5 and 6 are on their own
+        Graph graph = new Graph(7, true, false);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 0);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 3);
+        graph.addEdge(4, 5);
+        graph.addEdge(6, 5);
+        
+        GraphResult result = tarjanSCCService.stronglyConnectedComponents(graph, true);
+        
+        assertEquals(Set.of(Set.of(0, 1, 2), Set.of(3, 4), Set.of(5), Set.of(6)), asSets(result.getComponents()));
+        // Reverse topological order of the condensation: a sink component comes before its sources
+        List<Set<Integer>> order = new ArrayList<>();
+        for (List<Integer> component : result.getComponents()) {
+            order.add(new HashSet<>(component));
+        }
+        assertTrue(order.indexOf(Set.of(5)) < order.indexOf(Set.of(3, 4)));
+        assertTrue(order.indexOf(Set.of(3, 4)) < order.indexOf(Set.of(0, 1, 2)));
+        assertFalse(result.getSteps().isEmpty());
+    }
+    
+    @Test
+    void testSCCDeepPathDoesNotOverflow() {
+        int vertices = 1_000_000;
+        Graph graph = new Graph(vertices, true, false);
+        for (int v = 1; v < vertices; v++) {
+            graph.addEdge(v - 1, v);
+        }
+        
+        GraphResult result = tarjanSCCService.stronglyConnectedComponents(graph, false);
+        
+        assertEquals(vertices, result.getComponents().size());
+    }
+    
+    @Test
+    void testSCCDeepCycleIsOneComponent() {
+        int vertices = 1_000_000;
+        Graph graph = new Graph(vertices, true, false);
+        for (int v = 1; v < vertices; v++) {
+            graph.addEdge(v - 1, v);
+        }
+        graph.addEdge(vertices - 1, 0);
+        
+        GraphResult result = tarjanSCCService.stronglyConnectedComponents(graph, false);
+        
+        assertEquals(1, result.getComponents().size());
+        assertEquals(vertices, result.getComponents().get(0).size());
+    }
+}
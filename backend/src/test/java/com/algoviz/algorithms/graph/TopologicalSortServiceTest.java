@@ -0,0 +1,96 @@
+package com.algoviz.algorithms.graph;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.GraphResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TopologicalSortServiceTest {
+    
+    @Autowired
+    private TopologicalSortService topologicalSortService;
+    
+    @Test
+    void testTopologicalOrderRespectsEdges() {
+        // Edges only go from a lower to a higher label, so the graph is acyclic
+        int vertices = 500;
+        int[] label = new int[vertices];
+        Random random = new Random(8);
+        for (int v = 0; v < vertices; v++) {
+            label[v] = v;
+        }
+        for (int v = vertices - 1; v > 0; v--) {
+            int j = random.nextInt(v + 1);
+            int swap = label[v];
+            label[v] = label[j];
+            label[j] = swap;
+        }
+        Graph graph = new Graph(vertices, true, false);
+        int[][] edges = new int[2_000][];
+        for (int i = 0; i < edges.length; i++) {
+            int a = random.nextInt(vertices);
+            int b = random.nextInt(vertices);
+            edges[i] = label[a] < label[b] ? new int[] {a, b} : new int[] {b, a};
+            if (a != b) {
+                graph.addEdge(edges[i][0], edges[i][1]);
+            }
+        }
+        
+        GraphResult result = topologicalSortService.topologicalSort(graph, false);
+        
+        List<Integer> order = result.getTraversalOrder();
+        assertEquals(vertices, order.size());
+        int[] position = new int[vertices];
+        for (int i = 0; i < vertices; i++) {
+            position[order.get(i)] = i;
+        }
+        for (int[] edge : edges) {
+            if (edge[0] != edge[1]) {
+                assertTrue(position[edge[0]] < position[edge[1]]);
+            }
+        }
+    }
+    
+    @Test
+    void testTopologicalSortDeepPathDoesNotOverflow() {
+        int vertices = 1_000_000;
+        Graph graph = new Graph(vertices, true, false);
+        for (int v = 1; v < vertices; v++) {
+            graph.addEdge(v - 1, v);
+        }
+        
+        GraphResult result = topologicalSortService.topologicalSort(graph, false);
+        
+        List<Integer> order = result.getTraversalOrder();
+        assertEquals(vertices, order.size());
+        for (int i = 0; i < vertices; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+    
+    @Test
+    void testTopologicalSortRejectsCycle() {
+        Graph graph = new Graph(4, true, false);
+        graph.addEdge(0, 1);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 1);
+        
+        assertThrows(IllegalArgumentException.class, () -> topologicalSortService.topologicalSort(graph, false));
+    }
+    
+    @Test
+    void testTopologicalSortRejectsUndirectedGraph() {
+        Graph graph = new Graph(2, false, false);
+        graph.addEdge(0, 1);
+        
+        assertThrows(IllegalArgumentException.class, () -> topologicalSortService.topologicalSort(graph, false));
+    }
+}
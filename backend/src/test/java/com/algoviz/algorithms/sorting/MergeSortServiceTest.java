@@ -0,0 +1,115 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.sorting.SortingResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "algorithm.parallelism=4")
+class MergeSortServiceTest {
+    
+    @Autowired
+    private MergeSortService mergeSortService;
+    
+    private static int[] toArray(Object state) {
+        return ((List<?>) state).stream().mapToInt(value -> (Integer) value).toArray();
+    }
+    
+    private static String range(int low, int high) {
+        return low + ".." + high;
+    }
+    
+    private void assertSortsLikeArraysSort(int[] array) {
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        
+        SortingResult result = mergeSortService.sortParallel(array, false);
+        
+        assertArrayEquals(expected, toArray(result.getSortedArray()), "n = " + array.length);
+        assertTrue(result.getSteps().isEmpty());
+    }
+    
+    // Every task range is sorted when it completes, holding exactly its slice of the input, and
+    // completes only after its split and both halves, as in a sequential recursive merge sort
+    private List<String> assertSequentialOrder(int[] input, SortingResult result) {
+        List<AlgorithmStep> steps = result.getSteps();
+        assertEquals("INITIAL", steps.get(0).getOperationType());
+        assertEquals("COMPLETE", steps.get(steps.size() - 1).getOperationType());
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, toArray(steps.get(steps.size() - 1).getCurrentState()));
+        
+        Set<String> split = new HashSet<>();
+        Set<String> completed = new HashSet<>();
+        List<String> order = new ArrayList<>();
+        int leafElements = 0;
+        for (AlgorithmStep step : steps.subList(1, steps.size() - 1)) {
+            int low = (Integer) step.getHighlights().get("index1");
+            int high = (Integer) step.getHighlights().get("index2") + 1;
+            String type = step.getOperationType();
+            order.add(type + " " + range(low, high));
+            if (type.equals("SPLIT")) {
+                assertTrue(split.add(range(low, high)));
+                continue;
+            }
+            if (type.equals("MERGE_COMPLETE")) {
+                int mid = (low + high) >>> 1;
+                assertTrue(split.contains(range(low, high)));
+                assertTrue(completed.contains(range(low, mid)), "left half of " + range(low, high));
+                assertTrue(completed.contains(range(mid, high)), "right half of " + range(low, high));
+            } else {
+                assertEquals("LEAF_SORTED", type);
+                leafElements += high - low;
+            }
+            assertTrue(completed.add(range(low, high)));
+            int[] slice = Arrays.copyOfRange(input, low, high);
+            Arrays.sort(slice);
+            assertArrayEquals(slice, Arrays.copyOfRange(toArray(step.getCurrentState()), low, high));
+        }
+        assertEquals(input.length, leafElements);
+        assertTrue(completed.contains(range(0, input.length)));
+        return order;
+    }
+    
+    @Test
+    void testUntracedBelowAndAboveSequentialCutoff() {
+        SplittableRandom random = new SplittableRandom(3);
+        int cutoff = ParallelMergeSort.SEQUENTIAL_CUTOFF;
+        for (int n : new int[] {0, 1, 31, 1_000, cutoff, cutoff + 1, 3 * cutoff + 7, 200_000}) {
+            assertSortsLikeArraysSort(random.ints(n).toArray());
+            assertSortsLikeArraysSort(random.ints(n, 0, 5).toArray());
+        }
+        int[] ascending = new int[100_000];
+        Arrays.setAll(ascending, i -> i);
+        int[] descending = new int[100_000];
+        Arrays.setAll(descending, i -> -i);
+        assertSortsLikeArraysSort(ascending);
+        assertSortsLikeArraysSort(descending);
+    }
+    
+    @Test
+    void testTraceBelowSequentialCutoff() {
+        int[] input = new SplittableRandom(5).ints(1_000, -500, 500).toArray();
+        
+        List<String> order = assertSequentialOrder(input, mergeSortService.sortParallel(input.clone(), true));
+        
+        assertEquals(order, assertSequentialOrder(input, mergeSortService.sortParallel(input.clone(), true)));
+    }
+    
+    @Test
+    void testTraceAboveSequentialCutoff() {
+        int[] input = new SplittableRandom(7).ints(ParallelMergeSort.SEQUENTIAL_CUTOFF + 1_000).toArray();
+        
+        List<String> order = assertSequentialOrder(input, mergeSortService.sortParallel(input.clone(), true));
+        
+        // Logical time orders the replay the same way whichever worker ran each task
+        for (int run = 0; run < 3; run++) {
+            assertEquals(order, assertSequentialOrder(input, mergeSortService.sortParallel(input.clone(), true)));
+        }
+    }
+}
@@ -62,4 +62,53 @@ class QuickSortServiceTest {
         assertNotNull(result);
         assertEquals(Arrays.asList(1, 1, 2, 3, 4, 5, 5, 6, 9), result.getSortedArray());
     }
+    
+    @Test
+    void testIntrosortLargeSortedInput() {
+        int[] input = new int[10000];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = i;
+        }
+        SortingResult result = quickSortService.sortIntrosort(input, false);
+        
+        for (int i = 0; i < input.length; i++) {
+            assertEquals(i, result.getSortedArray().get(i));
+        }
+        assertTrue(result.getMetrics().getComparisons() < 1_000_000);
+        assertTrue(result.getSteps().isEmpty());
+    }
+    
+    @Test
+    void testIntrosortRecordsStrategy() {
+        int[] input = new int[100];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (i * 37) % 100;
+        }
+        SortingResult result = quickSortService.sortIntrosort(input, true);
+        
+        for (int i = 0; i < input.length; i++) {
+            assertEquals(i, result.getSortedArray().get(i));
+        }
+        assertTrue(result.getSteps().stream()
+                .anyMatch(step -> "NINTHER".equals(step.getHighlights().get("strategy"))));
+        assertTrue(result.getSteps().stream()
+                .anyMatch(step -> "INSERTION_SORT".equals(step.getOperationType())));
+    }
+    
+    @Test
+    void testDualPivotAndThreeWayFewUnique() {
+        int[] input = new int[20000];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (i * 7919) % 3;
+        }
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        
+        for (SortingResult result : List.of(
+                quickSortService.sortDualPivot(input.clone(), false),
+                quickSortService.sortThreeWay(input.clone(), false))) {
+            assertEquals(Arrays.stream(expected).boxed().toList(), result.getSortedArray());
+            assertTrue(result.getMetrics().getComparisons() < 10L * input.length);
+        }
+    }
 }
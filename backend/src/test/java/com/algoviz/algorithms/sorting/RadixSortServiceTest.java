@@ -0,0 +1,104 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.model.sorting.SortingResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RadixSortServiceTest {
+    
+    @Autowired
+    private RadixSortService radixSortService;
+    
+    @Autowired
+    private CountingSortService countingSortService;
+    
+    private static int[] sorted(SortingResult result) {
+        return result.getSortedArray().stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    // Random ints with both extremes, zero and -1 mixed in
+    private static int[] withExtremes(int n, long seed) {
+        int[] array = new SplittableRandom(seed).ints(n).toArray();
+        array[0] = Integer.MAX_VALUE;
+        array[1] = Integer.MIN_VALUE;
+        array[n / 2] = 0;
+        array[n - 1] = -1;
+        array[n - 2] = Integer.MIN_VALUE;
+        return array;
+    }
+    
+    @Test
+    void testLsdAndMsdMatchArraysSort() {
+        for (int n : new int[] {2, 31, 33, 257, 5_000}) {
+            int[] array = withExtremes(n, n);
+            int[] expected = array.clone();
+            Arrays.sort(expected);
+            
+            assertArrayEquals(expected, sorted(radixSortService.sortLsd(array.clone(), 8, false)), "LSD8 " + n);
+            assertArrayEquals(expected, sorted(radixSortService.sortLsd(array.clone(), 11, false)), "LSD11 " + n);
+            assertArrayEquals(expected, sorted(radixSortService.sortMsd(array.clone(), false)), "MSD " + n);
+        }
+    }
+    
+    @Test
+    void testMsdWithSharedHighBytes() {
+        // Negative keys that differ only in the low byte, so every bucket recurses to the last digit
+        int[] array = new SplittableRandom(3).ints(2_000, -300, -44).toArray();
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        
+        assertArrayEquals(expected, sorted(radixSortService.sortMsd(array, true)));
+    }
+    
+    @Test
+    void testCountingSortWithNegativesAndExtremes() {
+        int[] array = new SplittableRandom(5).ints(3_000, -500, 500).toArray();
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        
+        assertArrayEquals(expected, sorted(countingSortService.sort(array, false)));
+        
+        int[] top = {Integer.MAX_VALUE, Integer.MAX_VALUE - 3, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        assertArrayEquals(new int[] {Integer.MAX_VALUE - 3, Integer.MAX_VALUE - 1, Integer.MAX_VALUE,
+                Integer.MAX_VALUE}, sorted(countingSortService.sort(top, false)));
+        int[] bottom = {Integer.MIN_VALUE + 2, Integer.MIN_VALUE, Integer.MIN_VALUE + 1};
+        assertArrayEquals(new int[] {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MIN_VALUE + 2},
+                sorted(countingSortService.sort(bottom, false)));
+        assertThrows(IllegalArgumentException.class,
+                () -> countingSortService.sort(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE}, false));
+    }
+    
+    @Test
+    void testLargeInputsRecordBoundedSteps() {
+        int[] array = withExtremes(10_000, 7);
+        
+        SortingResult lsd = radixSortService.sortLsd(array.clone(), 11, true);
+        SortingResult msd = radixSortService.sortMsd(array.clone(), true);
+        SortingResult counting = countingSortService.sort(new SplittableRandom(9).ints(10_000, 0, 5_000).toArray(),
+                true);
+        
+        // INITIAL, COMPLETE and at most two steps for each of the 3 passes
+        assertTrue(lsd.getSteps().size() <= 2 + 2 * 3);
+        assertTrue(lsd.getSteps().stream().noneMatch(step -> "BUCKET_SCATTER".equals(step.getOperationType())));
+        // At most 16 ranges of at least n/16 keys on each of the 4 levels
+        assertTrue(msd.getSteps().size() <= 2 + 16 * 4);
+        assertEquals(5, counting.getSteps().size());
+    }
+    
+    @Test
+    void testSmallInputRecordsOneStepPerBucket() {
+        int[] array = {170, -45, 75, -90, 802, 24, 2, 66};
+        
+        SortingResult result = radixSortService.sortLsd(array, 8, true);
+        
+        assertTrue(result.getSteps().stream().anyMatch(step -> "BUCKET_SCATTER".equals(step.getOperationType())));
+        assertArrayEquals(new int[] {-90, -45, 2, 24, 66, 75, 170, 802}, sorted(result));
+    }
+}
@@ -0,0 +1,102 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.model.sorting.SortingResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TimSortServiceTest {
+    
+    @Autowired
+    private TimSortService timSortService;
+    
+    private static int[] sorted(SortingResult result) {
+        return result.getSortedArray().stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    private static long count(SortingResult result, String operationType) {
+        return result.getSteps().stream().filter(step -> operationType.equals(step.getOperationType())).count();
+    }
+    
+    private SortingResult assertSortsLikeArraysSort(int[] array, boolean recordSteps) {
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        SortingResult result = timSortService.sort(array.clone(), recordSteps);
+        assertArrayEquals(expected, sorted(result));
+        return result;
+    }
+    
+    // Ascending run of blocks [0, block), [2·block, 3·block), ... and one of the blocks in between
+    private static int[] interleavedRuns(int leftBlocks, int rightBlocks, int block) {
+        int[] array = new int[(leftBlocks + rightBlocks) * block];
+        int pos = 0;
+        for (int b = 0; b < leftBlocks; b++) {
+            for (int i = 0; i < block; i++) {
+                array[pos++] = 2 * b * block + i;
+            }
+        }
+        for (int b = 0; b < rightBlocks; b++) {
+            for (int i = 0; i < block; i++) {
+                array[pos++] = (2 * b + 1) * block + i;
+            }
+        }
+        return array;
+    }
+    
+    @Test
+    void testDescendingRuns() {
+        // Strictly descending runs of 100, each reversed in place, then merged
+        int[] array = new int[1_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = (i / 100) * 7 + 1_000 - i % 100;
+        }
+        
+        SortingResult result = assertSortsLikeArraysSort(array, true);
+        
+        assertEquals(10, count(result, "RUN_REVERSED"));
+        assertTrue(count(result, "MERGE") > 0);
+    }
+    
+    @Test
+    void testLongInterleavedRunsGallop() {
+        // Blocks of 40 alternate between the runs, so each side wins far more than MIN_GALLOP times in a row
+        int[] array = interleavedRuns(20, 20, 40);
+        
+        SortingResult result = assertSortsLikeArraysSort(array, true);
+        
+        assertEquals(2, count(result, "RUN_DETECTED"));
+        assertTrue(count(result, "GALLOP") > 0);
+    }
+    
+    @Test
+    void testShorterRightRunMergesFromTheHighEnd() {
+        // After trimming, the left run is still longer than the right one, so mergeHi runs
+        int[] array = interleavedRuns(30, 8, 25);
+        
+        SortingResult result = assertSortsLikeArraysSort(array, true);
+        
+        assertTrue(count(result, "GALLOP") > 0);
+        assertTrue(count(result, "GALLOP_TRIM") > 0);
+    }
+    
+    @Test
+    void testRandomInputsAboveMinMerge() {
+        SplittableRandom random = new SplittableRandom(13);
+        for (int n : new int[] {33, 64, 65, 500, 5_000, 50_000}) {
+            assertSortsLikeArraysSort(random.ints(n).toArray(), false);
+            assertSortsLikeArraysSort(random.ints(n, 0, 8).toArray(), false);
+            // Partly sorted: sorted chunks of random length with random values between
+            int[] partly = random.ints(n, 0, 1_000_000).toArray();
+            for (int start = 0; start < n; start += 200) {
+                Arrays.sort(partly, start, Math.min(n, start + random.nextInt(1, 150)));
+            }
+            assertSortsLikeArraysSort(partly, false);
+        }
+    }
+}
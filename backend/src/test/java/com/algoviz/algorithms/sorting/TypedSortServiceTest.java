@@ -0,0 +1,65 @@
+package com.algoviz.algorithms.sorting;
+
+import com.algoviz.model.sorting.TypedSortingResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TypedSortServiceTest {
+    
+    @Autowired
+    private TypedSortService typedSortService;
+    
+    @Test
+    void testLongsAndDoublesMatchArraysSort() {
+        SplittableRandom random = new SplittableRandom(5);
+        long[] longs = random.longs(5000).toArray();
+        double[] doubles = random.doubles(5000, -1e9, 1e9).toArray();
+        doubles[0] = -0.0;
+        doubles[1] = 0.0;
+        doubles[2] = Double.NaN;
+        long[] expectedLongs = longs.clone();
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedLongs);
+        Arrays.sort(expectedDoubles);
+        
+        assertArrayEquals(expectedLongs, typedSortService.sortLongs(longs, false).getSortedLongs());
+        assertArrayEquals(expectedDoubles, typedSortService.sortDoubles(doubles, false).getSortedDoubles());
+    }
+    
+    @Test
+    void testLargeRadixInputRecordsOneStepPerPass() {
+        long[] longs = new SplittableRandom(9).longs(10_000).toArray();
+        
+        TypedSortingResult result = typedSortService.sortLongs(longs, true);
+        
+        // INITIAL, COMPLETE and at most two steps for each of the 8 passes
+        assertTrue(result.getSteps().size() <= 2 + 2 * 8);
+        assertTrue(result.getSteps().stream().noneMatch(step -> "BUCKET_SCATTER".equals(step.getOperationType())));
+    }
+    
+    @Test
+    void testStringsWithSharedPrefixes() {
+        String[] strings = new String[10_000];
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = "prefix/".repeat(random.nextInt(1, 20)) + random.nextInt(100);
+        }
+        String[] expected = strings.clone();
+        Arrays.sort(expected);
+        
+        assertArrayEquals(expected, typedSortService.sortStrings(strings, false).getSortedStrings());
+    }
+    
+    @Test
+    void testRejectsInputAboveMaxArraySize() {
+        assertThrows(IllegalArgumentException.class, () -> typedSortService.sortLongs(new long[10_001], false));
+        assertThrows(IllegalArgumentException.class, () -> typedSortService.sortStrings(new String[10_001], false));
+    }
+}
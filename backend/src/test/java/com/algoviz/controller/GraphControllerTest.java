@@ -0,0 +1,149 @@
+package com.algoviz.controller;
+
+import com.algoviz.model.graph.GraphRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GraphControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private static byte[] ints(int... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+    
+    private void expectJsonRejected(String json, String message) throws Exception {
+        mockMvc.perform(post("/api/v1/algorithms/graph/bfs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString(message)));
+    }
+    
+    private void expectBinaryRejected(byte[] body, boolean weighted, String message) throws Exception {
+        mockMvc.perform(post("/api/v1/algorithms/graph/bfs")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .param("weighted", String.valueOf(weighted))
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString(message)));
+    }
+    
+    @Test
+    void testUnknownGraphIdIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/algorithms/graph/graphs/0123456789abcdef"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown or expired graphId: 0123456789abcdef"));
+        mockMvc.perform(delete("/api/v1/algorithms/graph/graphs/0123456789abcdef"))
+                .andExpect(status().isBadRequest());
+        
+        GraphRequest request = GraphRequest.builder().graphId("0123456789abcdef").build();
+        mockMvc.perform(post("/api/v1/algorithms/graph/bfs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void testStoredGraphRunsByGraphId() throws Exception {
+        String stored = mockMvc.perform(post("/api/v1/algorithms/graph/graphs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"vertices\": 3, \"edges\": [{\"source\": 0, \"destination\": 1}, "
+                        + "{\"source\": 1, \"destination\": 2}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.storage").value("HEAP"))
+                .andReturn().getResponse().getContentAsString();
+        String graphId = objectMapper.readTree(stored).get("graphId").asText();
+        
+        GraphRequest request = GraphRequest.builder().graphId(graphId).build();
+        mockMvc.perform(post("/api/v1/algorithms/graph/bfs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.traversalOrder.length()").value(3));
+    }
+    
+    @Test
+    void testMalformedEdgeListIsBadRequest() throws Exception {
+        expectJsonRejected("{\"vertices\": 3, \"edges\": {\"source\": 0}}", "edges must be an array of objects");
+        expectJsonRejected("{\"vertices\": 3, \"edges\": [[0, 1]]}", "edges[0] must be an object");
+        expectJsonRejected("{\"vertices\": 3, \"edges\": [{\"source\": 0, \"destination\": 1}, "
+                + "{\"source\": \"a\", \"destination\": 2}]}", "edges[1].source must be a 32-bit integer");
+        expectJsonRejected("{\"vertices\": 3, \"edges\": [{\"source\": 0, \"destination\": 1, \"weight\": 1.5}]}",
+                "edges[0].weight must be a 32-bit integer");
+        expectJsonRejected("{\"vertices\": 3, \"edges\": [{\"source\": 2147483648, \"destination\": 1}]}",
+                "edges[0].source must be a 32-bit integer");
+        expectJsonRejected("{\"vertices\": 3, \"edges\": [{\"source\": -1, \"destination\": 1}]}",
+                "edges[0].source is negative: -1");
+        expectJsonRejected("{\"vertices\": 3, \"edges\": [{\"source\": 0}]}",
+                "edges[0] needs both source and destination");
+    }
+    
+    @Test
+    void testMalformedAdjacencyListIsBadRequest() throws Exception {
+        expectJsonRejected("{\"vertices\": 3, \"adjacencyList\": [[1]]}", "adjacencyList must be an object of arrays");
+        expectJsonRejected("{\"vertices\": 3, \"adjacencyList\": {\"x\": [1]}}",
+                "adjacencyList key is not a vertex: x");
+        expectJsonRejected("{\"vertices\": 3, \"adjacencyList\": {\"-2\": [1]}}", "adjacencyList key is negative: -2");
+        expectJsonRejected("{\"vertices\": 3, \"adjacencyList\": {\"0\": 1}}", "adjacencyList[0] must be an array");
+        expectJsonRejected("{\"vertices\": 3, \"adjacencyList\": {\"0\": [1, \"2\"]}}",
+                "edges[1].destination must be a 32-bit integer");
+    }
+    
+    @Test
+    void testOutOfRangeVerticesAreBadRequest() throws Exception {
+        expectJsonRejected("{\"vertices\": 3, \"edges\": [{\"source\": 0, \"destination\": 3}]}",
+                "edges references vertex 3, but the graph has 3 vertices");
+        expectJsonRejected("{\"vertices\": 3, \"adjacencyList\": {\"5\": [0]}}",
+                "adjacencyList references vertex 5, but the graph has 3 vertices");
+        expectJsonRejected("{\"vertices\": 0, \"edges\": []}", "Graph must have between 1 and");
+        expectBinaryRejected(ints(3, 1, 0, 3), false, "Edge 0 (0 -> 3) has a vertex outside 0..2");
+        expectBinaryRejected(ints(3, 2, 0, 1, 5, -1, 2, 7), true, "Edge 1 (-1 -> 2) has a vertex outside 0..2");
+        expectBinaryRejected(ints(0, 0), false, "Graph must have between 1 and");
+    }
+    
+    @Test
+    void testTruncatedOrMismatchedBinaryBodyIsBadRequest() throws Exception {
+        expectBinaryRejected(new byte[0], false, "Body is shorter than the 8-byte header");
+        expectBinaryRejected(new byte[] {3, 0, 0, 0, 1, 0}, false, "Body is shorter than the 8-byte header");
+        // Two edges declared, one and a half sent
+        byte[] body = ints(3, 2, 0, 1, 1, 2);
+        expectBinaryRejected(Arrays.copyOf(body, body.length - 2), false, "Body ends in the middle of edge 1");
+        expectBinaryRejected(ints(3, 2, 0, 1), false, "Body ends in the middle of edge 1");
+        // An unweighted record read as weighted leaves the second edge short
+        expectBinaryRejected(ints(3, 2, 0, 1, 1, 2), true, "Body ends in the middle of edge 1");
+        expectBinaryRejected(ints(3, 1, 0, 1, 2), false, "Body has data after the declared 1 edges");
+        expectBinaryRejected(ints(3, -1), false, "Edge count must be between 0 and");
+        // Stored graphs go through the same reader
+        mockMvc.perform(post("/api/v1/algorithms/graph/graphs")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(ints(3, 2, 0, 1)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Body ends in the middle of edge 1"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.algoviz.controller;
 
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.sorting.ArrayGeneratorSpec;
 import com.algoviz.model.sorting.SortingRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.SplittableRandom;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -52,4 +56,153 @@ class SortingControllerTest {
                 .andExpect(jsonPath("$.sortedArray").isArray())
                 .andExpect(jsonPath("$.algorithmName").value("BubbleSort"));
     }
+    
+    @Test
+    void testGeneratedInputEndpoint() throws Exception {
+        SortingRequest request = new SortingRequest();
+        request.setGenerator(ArrayGeneratorSpec.builder()
+                .type("NEARLY_SORTED")
+                .size(50)
+                .seed(42L)
+                .build());
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/merge-sort")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sortedArray.length()").value(50))
+                .andExpect(jsonPath("$.algorithmName").value("MergeSort"));
+    }
+    
+    @Test
+    void testRadixSortEndpoint() throws Exception {
+        SortingRequest request = new SortingRequest();
+        request.setArray(Arrays.asList(170, -45, 75, -90, 802, 24, 2, 66));
+        request.setRadixBits(11);
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/radix-sort")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sortedArray[0]").value(-90))
+                .andExpect(jsonPath("$.sortedArray[7]").value(802))
+                .andExpect(jsonPath("$.algorithmName").value("LSD RadixSort"));
+    }
+    
+    @Test
+    void testSelectEndpoint() throws Exception {
+        mockMvc.perform(post("/api/v1/algorithms/sorting/select")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"array\": [9, 4, 7, 1, 8, 2], \"operation\": \"KTH\", \"k\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.value").value(2))
+                .andExpect(jsonPath("$.method").value("INTROSELECT"));
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/select")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"generator\": {\"type\": \"RANDOM\", \"size\": 1000, \"seed\": 3}, "
+                        + "\"operation\": \"TOP_K\", \"k\": 5, \"largest\": true, \"includeSteps\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.method").value("HEAP"))
+                .andExpect(jsonPath("$.topK.length()").value(5));
+    }
+    
+    @Test
+    void testIncrementalSortEndpoint() throws Exception {
+        String response = mockMvc.perform(post("/api/v1/algorithms/sorting/insertion-sort")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"array\": [50, 10, 40, 20, 30]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resultId").isString())
+                .andReturn().getResponse().getContentAsString();
+        String resultId = objectMapper.readTree(response).get("resultId").asText();
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/incremental")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"resultId\": \"" + resultId + "\", \"edits\": ["
+                        + "{\"type\": \"SET\", \"index\": 0, \"value\": 35}, "
+                        + "{\"type\": \"DELETE\", \"index\": 4}, "
+                        + "{\"type\": \"INSERT\", \"value\": 5}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sortedArray[0]").value(5))
+                .andExpect(jsonPath("$.sortedArray[3]").value(35))
+                .andExpect(jsonPath("$.sortedArray[4]").value(40))
+                .andExpect(jsonPath("$.incremental.previousResultId").value(resultId))
+                .andExpect(jsonPath("$.incremental.removed").value(2))
+                .andExpect(jsonPath("$.resultId").isString());
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/incremental")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"resultId\": \"missing\", \"edits\": [{\"type\": \"DELETE\", \"index\": 0}]}"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void testTypedSortEndpoint() throws Exception {
+        mockMvc.perform(post("/api/v1/algorithms/sorting/typed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"doubles\": [2.5, -0.0, -7.25, 0.0, 1e300]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valueType").value("DOUBLE"))
+                .andExpect(jsonPath("$.sortedDoubles[0]").value(-7.25))
+                .andExpect(jsonPath("$.sortedDoubles[4]").value(1e300));
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/typed")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"strings\": [\"pear\", \"peach\", \"apple\", \"pea\"], \"includeSteps\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sortedStrings[0]").value("apple"))
+                .andExpect(jsonPath("$.sortedStrings[1]").value("pea"))
+                .andExpect(jsonPath("$.sortedStrings[3]").value("pear"));
+    }
+    
+    @Test
+    void testPackedBinaryEndpoint() throws Exception {
+        int[] values = {5, -2, 9, 0, 3};
+        byte[] sorted = PackedIntArray.encode(new int[]{-2, 0, 3, 5, 9});
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/tim-sort")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .param("packedOutput", "true")
+                .content(PackedIntArray.encode(values)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.packedSortedArray").value(Base64.getEncoder().encodeToString(sorted)))
+                .andExpect(jsonPath("$.sortedArray").doesNotExist());
+        
+        SortingRequest request = new SortingRequest();
+        request.setPackedArray(PackedIntArray.encode(values));
+        mockMvc.perform(post("/api/v1/algorithms/sorting/quick-sort")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sortedArray[0]").value(-2))
+                .andExpect(jsonPath("$.sortedArray[4]").value(9));
+    }
+    
+    @Test
+    void testInputLimitDependsOnSteps() throws Exception {
+        int[] values = new SplittableRandom(1).ints(10_001).toArray();
+        SortingRequest request = new SortingRequest();
+        request.setArray(Arrays.stream(values).boxed().toList());
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/merge-sort")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        request.setIncludeSteps(false);
+        mockMvc.perform(post("/api/v1/algorithms/sorting/merge-sort")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sortedArray.length()").value(10_001));
+        
+        mockMvc.perform(post("/api/v1/algorithms/sorting/radix-sort")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(PackedIntArray.encode(values)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/algorithms/sorting/bubble-sort")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(PackedIntArray.encode(values)))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,47 @@
+package com.algoviz.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphTest {
+    
+    @Test
+    void testTargetAndWeightFreezeTheGraph() {
+        Graph graph = new Graph(3, true, true);
+        graph.addEdge(0, 2, 5);
+        graph.addEdge(0, 1, 7);
+        
+        // Read before any neighbor range was asked for
+        assertEquals(1, graph.target(0));
+        assertEquals(5, graph.weight(1));
+        assertThrows(IllegalStateException.class, () -> graph.addEdge(1, 2, 1));
+    }
+    
+    @Test
+    void testNeighborsSortedByTarget() {
+        Graph graph = new Graph(5, false, false);
+        graph.addEdge(0, 4);
+        graph.addEdge(0, 2);
+        graph.addEdge(3, 0);
+        graph.addEdge(1, 0);
+        
+        assertEquals(List.of(1, 2, 3, 4), graph.getNeighborVertices(0));
+        assertEquals(List.of(0), graph.getNeighborVertices(4));
+    }
+    
+    @Test
+    void testEdgeWeightIsLightestParallelEdge() {
+        Graph graph = new Graph(3, true, true);
+        graph.addEdge(0, 1, 9);
+        graph.addEdge(0, 1, 4);
+        graph.addEdge(0, 1, 6);
+        
+        assertEquals(4, graph.getEdgeWeight(0, 1));
+        assertEquals(Integer.MAX_VALUE, graph.getEdgeWeight(1, 0));
+        assertEquals(0, graph.getEdgeWeight(2, 2));
+        assertEquals(3, graph.degree(0));
+    }
+}
@@ -0,0 +1,107 @@
+package com.algoviz.datastructures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedDaryHeapTest {
+    
+    private static final int[] ARITIES = {2, 3, 4, 8, 16};
+    
+    @Test
+    void testPollOrderAcrossArities() {
+        Random random = new Random(5);
+        int items = 2_000;
+        int[] keys = new int[items];
+        for (int i = 0; i < items; i++) {
+            keys[i] = random.nextInt(500); // plenty of ties
+        }
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        
+        for (int arity : ARITIES) {
+            IndexedDaryHeap heap = new IndexedDaryHeap(items, arity);
+            for (int i = 0; i < items; i++) {
+                heap.insert(i, keys[i]);
+            }
+            assertEquals(items, heap.size());
+            
+            for (int i = 0; i < items; i++) {
+                int item = heap.peek();
+                assertEquals(sorted[i], heap.key(item), "arity " + arity);
+                assertEquals(item, heap.extractMin());
+                assertFalse(heap.contains(item));
+            }
+            assertTrue(heap.isEmpty());
+        }
+    }
+    
+    @Test
+    void testDecreaseKeyReordersAcrossArities() {
+        Random random = new Random(9);
+        int items = 1_000;
+        for (int arity : ARITIES) {
+            IndexedDaryHeap heap = new IndexedDaryHeap(items, arity);
+            int[] keys = new int[items];
+            for (int i = 0; i < items; i++) {
+                keys[i] = 10_000 + random.nextInt(10_000);
+                heap.insert(i, keys[i]);
+            }
+            for (int round = 0; round < 3 * items; round++) {
+                int item = random.nextInt(items);
+                keys[item] -= random.nextInt(keys[item] + 1);
+                heap.decreaseKey(item, keys[item]);
+                assertEquals(keys[item], heap.key(item));
+            }
+            
+            int previous = Integer.MIN_VALUE;
+            while (!heap.isEmpty()) {
+                int item = heap.extractMin();
+                assertTrue(keys[item] >= previous, "arity " + arity);
+                previous = keys[item];
+            }
+        }
+    }
+    
+    @Test
+    void testHeapPropertyHoldsAfterEachOperation() {
+        Random random = new Random(13);
+        int items = 300;
+        for (int arity : ARITIES) {
+            IndexedDaryHeap heap = new IndexedDaryHeap(items, arity);
+            int[] keys = new int[items];
+            for (int op = 0; op < 5_000; op++) {
+                int item = random.nextInt(items);
+                if (!heap.contains(item)) {
+                    keys[item] = random.nextInt(1_000);
+                    heap.insert(item, keys[item]);
+                } else if (random.nextBoolean()) {
+                    keys[item] = Math.max(0, keys[item] - random.nextInt(100));
+                    heap.decreaseKey(item, keys[item]);
+                } else {
+                    heap.extractMin();
+                }
+                int[] slots = heap.toArray();
+                for (int slot = 1; slot < slots.length; slot++) {
+                    assertTrue(keys[slots[(slot - 1) / arity]] <= keys[slots[slot]], "arity " + arity);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testInvalidOperations() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(4, 4);
+        heap.insert(1, 10);
+        
+        assertThrows(IllegalArgumentException.class, () -> new IndexedDaryHeap(4, 1));
+        assertThrows(IllegalStateException.class, () -> heap.insert(1, 5));
+        assertThrows(IllegalStateException.class, () -> heap.decreaseKey(2, 5));
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(1, 11));
+        assertEquals(1, heap.extractMin());
+        assertThrows(IllegalStateException.class, heap::peek);
+    }
+}
@@ -0,0 +1,47 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.PackedIntArray;
+import com.algoviz.model.sorting.ArrayGeneratorSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrayGeneratorServiceTest {
+    
+    private final ArrayGeneratorService arrayGeneratorService = new ArrayGeneratorService(100, 1_000);
+    
+    private static ArrayGeneratorSpec spec(int size) {
+        ArrayGeneratorSpec spec = new ArrayGeneratorSpec();
+        spec.setType("RANDOM");
+        spec.setSize(size);
+        spec.setSeed(1);
+        return spec;
+    }
+    
+    @Test
+    void testEveryInputFormSharesTheLimit() {
+        List<Integer> boxed = Collections.nCopies(101, 7);
+        byte[] packed = PackedIntArray.encode(new int[101]);
+        
+        assertThrows(IllegalArgumentException.class, () -> arrayGeneratorService.resolve(boxed, null, null, true));
+        assertThrows(IllegalArgumentException.class, () -> arrayGeneratorService.resolve(null, packed, null, true));
+        assertThrows(IllegalArgumentException.class, () -> arrayGeneratorService.resolve(null, null, spec(101), true));
+        
+        assertEquals(101, arrayGeneratorService.resolve(boxed, null, null, false).length);
+        assertEquals(101, arrayGeneratorService.resolve(null, packed, null, false).length);
+        assertEquals(101, arrayGeneratorService.resolve(null, null, spec(101), false).length);
+    }
+    
+    @Test
+    void testUntracedLimit() {
+        List<Integer> boxed = Collections.nCopies(1_001, 7);
+        
+        assertThrows(IllegalArgumentException.class, () -> arrayGeneratorService.resolve(boxed, null, null, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> arrayGeneratorService.decodePacked(PackedIntArray.encode(new int[1_001]), false));
+        assertEquals(1_000, arrayGeneratorService.generate(spec(1_000), false).length);
+    }
+}
@@ -0,0 +1,83 @@
+package com.algoviz.service;
+
+import com.algoviz.model.batch.BatchItem;
+import com.algoviz.model.batch.BatchItemResult;
+import com.algoviz.model.batch.BatchRequest;
+import com.algoviz.model.sorting.ArrayGeneratorSpec;
+import com.algoviz.model.sorting.SortingRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"algorithm.parallelism=4", "algorithm.batch.max-concurrency=4"})
+class BatchExecutionServiceTest {
+    
+    @Autowired
+    private BatchExecutionService batchExecutionService;
+    
+    @Test
+    void testFailingItemsReportErrorAndBatchCompletes() {
+        BatchRequest request = BatchRequest.builder()
+                .items(List.of(
+                        BatchItem.builder().id("a").algorithm("fibonacci").n(20).build(),
+                        BatchItem.builder().id("b").algorithm("no-such-algorithm").build(),
+                        BatchItem.builder().id("c").algorithm("merge-sort").build(),
+                        BatchItem.builder().id("d").algorithm("fibonacci").n(10).build()))
+                .ordered(true)
+                .build();
+        List<BatchItemResult> results = new ArrayList<>();
+        
+        batchExecutionService.execute(request, results::add);
+        
+        assertEquals(4, results.size());
+        assertEquals(List.of("OK", "ERROR", "ERROR", "OK"), results.stream().map(BatchItemResult::getStatus).toList());
+        assertTrue(results.get(1).getError().contains("Unknown algorithm"));
+        assertTrue(results.get(2).getError().contains("'sorting' is required"));
+        assertNull(results.get(1).getResult());
+        assertNotNull(results.get(3).getResult());
+    }
+    
+    @Test
+    void testOrderedStreamsInRequestOrder() {
+        List<BatchItemResult> results = new ArrayList<>();
+        
+        batchExecutionService.execute(slowThenFast(true), results::add);
+        
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchItemResult::getIndex).toList());
+        assertEquals("slow", results.get(0).getId());
+    }
+    
+    @Test
+    void testUnorderedStreamsInCompletionOrder() {
+        List<BatchItemResult> results = new ArrayList<>();
+        
+        batchExecutionService.execute(slowThenFast(false), results::add);
+        
+        assertEquals(4, results.size());
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchItemResult::getIndex).sorted().toList());
+        // The fast items run beside the slow one and finish first
+        assertEquals("slow", results.get(results.size() - 1).getId());
+    }
+    
+    @Test
+    void testRejectsEmptyBatch() {
+        assertThrows(IllegalArgumentException.class, 
+                () -> batchExecutionService.execute(BatchRequest.builder().items(List.of()).build(), result -> { }));
+    }
+    
+    private BatchRequest slowThenFast(boolean ordered) {
+        SortingRequest slowSort = new SortingRequest();
+        slowSort.setGenerator(ArrayGeneratorSpec.builder().type("REVERSED").size(10_000).build());
+        List<BatchItem> items = new ArrayList<>();
+        items.add(BatchItem.builder().id("slow").algorithm("bubble-sort").sorting(slowSort).build());
+        for (int i = 1; i < 4; i++) {
+            items.add(BatchItem.builder().id("fast-" + i).algorithm("fibonacci").n(10).build());
+        }
+        return BatchRequest.builder().items(items).maxConcurrency(4).ordered(ordered).build();
+    }
+}
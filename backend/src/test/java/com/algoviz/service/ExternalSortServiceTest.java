@@ -0,0 +1,62 @@
+package com.algoviz.service;
+
+import com.algoviz.model.sorting.ArrayGeneratorSpec;
+import com.algoviz.model.sorting.ExternalSortRequest;
+import com.algoviz.model.sorting.ExternalSortResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ExternalSortServiceTest {
+    
+    @Autowired
+    private ExternalSortService externalSortService;
+    
+    @Test
+    void testTinyChunksAreRaisedToCapRuns() {
+        ExternalSortRequest request = new ExternalSortRequest();
+        request.setGenerator(ArrayGeneratorSpec.builder().type("RANDOM").size(1_000_000).seed(7).build());
+        request.setChunkSize(16);
+        request.setFanIn(8);
+        
+        ExternalSortResult result = externalSortService.sortGenerated(request);
+        
+        assertTrue(result.isVerified());
+        assertEquals(1_000_000, result.getElementCount());
+        assertTrue(result.getRunCount() <= 4096);
+        assertTrue(result.getChunkSize() >= 1_000_000 / 4096);
+        assertTrue(result.getSteps().size() < 64 * (2 + result.getMergePasses()) + 8);
+        assertEquals("VERIFIED", result.getSteps().get(result.getSteps().size() - 1).getOperationType());
+    }
+    
+    @Test
+    void testSmallUploadKeepsRequestedChunk() {
+        int[] values = {9, -3, 7, 7, 0, Integer.MIN_VALUE, 42, Integer.MAX_VALUE, 5, -3, 1, 8, 2, 6, 4, 3, 11};
+        ByteBuffer body = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) {
+            body.putInt(value);
+        }
+        
+        ExternalSortResult result = externalSortService.sortUpload(new ByteArrayInputStream(body.array()), 16, 2);
+        
+        assertTrue(result.isVerified());
+        assertEquals(16, result.getChunkSize());
+        assertEquals(2, result.getRunCount());
+        assertEquals(List.of(Integer.MIN_VALUE, -3, -3, 0, 1), result.getHead().subList(0, 5));
+        assertEquals(Integer.MAX_VALUE, result.getTail().get(result.getTail().size() - 1));
+    }
+    
+    @Test
+    void testRejectsChunkBelowMinimum() {
+        assertThrows(IllegalArgumentException.class, 
+                () -> externalSortService.sortUpload(new ByteArrayInputStream(new byte[16]), 8, 2));
+    }
+}
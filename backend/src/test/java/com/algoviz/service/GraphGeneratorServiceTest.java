@@ -0,0 +1,51 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.EdgeList;
+import com.algoviz.model.graph.GraphGeneratorSpec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphGeneratorServiceTest {
+    
+    private static GraphGeneratorSpec grid(int rows, int columns) {
+        return GraphGeneratorSpec.builder().type("GRID").rows(rows).columns(columns).build();
+    }
+    
+    private static GraphGeneratorSpec gnp(int vertices, double p, long seed) {
+        return GraphGeneratorSpec.builder().type("GNP").vertices(vertices).edgeProbability(p).seed(seed).build();
+    }
+    
+    @Test
+    void testGridAndTreeCheckTheEdgeLimit() {
+        GraphGeneratorService generator = new GraphGeneratorService(1_000_000, 19_800);
+        
+        // 100×100 grid: 100 rows of 99 horizontal edges plus 99 rows of 100 vertical ones
+        assertEquals(19_800, generator.generate(grid(100, 100), false, false).size());
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(grid(101, 100), false, false));
+        assertEquals(19_800, generator.generate(
+                GraphGeneratorSpec.builder().type("TREE").vertices(19_801).build(), false, false).size());
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(
+                GraphGeneratorSpec.builder().type("TREE").vertices(19_802).build(), false, false));
+    }
+    
+    @Test
+    void testGnpIsNeverTruncated() {
+        // The expected edge count sits right at the limit, so about half the seeds land above it
+        GraphGeneratorService limited = new GraphGeneratorService(1_000_000, 5_000);
+        GraphGeneratorService unlimited = new GraphGeneratorService(1_000_000, 1_000_000);
+        double p = 5_000.0 / (1_000L * 999 / 2);
+        int rejected = 0;
+        for (long seed = 0; seed < 20; seed++) {
+            EdgeList full = unlimited.generate(gnp(1_000, p, seed), false, false);
+            try {
+                EdgeList edges = limited.generate(gnp(1_000, p, seed), false, false);
+                assertEquals(full.size(), edges.size());
+            } catch (IllegalArgumentException ex) {
+                assertTrue(full.size() > 5_000);
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0 && rejected < 20);
+    }
+}
@@ -0,0 +1,199 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.StoredGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "algorithm.parallelism=4")
+class GraphImportServiceTest {
+    
+    @Autowired
+    private AlgorithmExecutor executor;
+    
+    @Autowired
+    private GraphStore graphStore;
+    
+    private Path root;
+    private Path datasets;
+    private Path uploads;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("graph-import-test");
+        datasets = Files.createDirectory(root.resolve("datasets"));
+        uploads = Files.createDirectory(root.resolve("uploads"));
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        graphStore.clear();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    // 64-byte minimum chunks, so files of a few KB are cut into many chunks
+    private GraphImportService importService(long maxUploadBytes) {
+        return new GraphImportService(executor, graphStore, 1_000_000, 10_000_000, maxUploadBytes, 64,
+                uploads.toString(), datasets.toString());
+    }
+    
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.getVertices(), actual.getVertices());
+        assertEquals(expected.isDirected(), actual.isDirected());
+        assertEquals(expected.isWeighted(), actual.isWeighted());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int v = 0; v < expected.getVertices(); v++) {
+            assertEquals(expected.neighborStart(v), actual.neighborStart(v));
+        }
+        for (int e = 0; e < expected.edgeCount(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            assertEquals(expected.weight(e), actual.weight(e));
+        }
+    }
+    
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    @Test
+    void testSnapUploadMatchesAddEdge() {
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder("# random SNAP graph\n");
+        Graph expected = new Graph(300, false, false);
+        for (int i = 0; i < 1_000; i++) {
+            int source = random.nextInt(300);
+            int target = random.nextInt(300);
+            text.append(source).append(i % 3 == 0 ? "\t" : " ").append(target).append(i % 7 == 0 ? "\r\n" : "\n");
+            expected.addEdge(source, target);
+            if (i % 100 == 0) {
+                text.append("% comment\n\n");
+            }
+        }
+        // Vertex 299 fixes the vertex count even if no random edge reached it
+        text.append("299 299\n");
+        expected.addEdge(299, 299);
+        
+        StoredGraph stored = importService(1 << 20).importUpload(body(text.toString()), "SNAP", null);
+        
+        assertEquals("FILE", stored.getStorage());
+        assertEquals(1_001, stored.getEdges());
+        assertEquals(text.length(), stored.getBytes());
+        assertSameGraph(expected, graphStore.get(stored.getGraphId()));
+    }
+    
+    @Test
+    void testWeightedSnapAndDimacsMatchAddEdge() throws IOException {
+        Random random = new Random(2);
+        StringBuilder snap = new StringBuilder();
+        StringBuilder dimacs = new StringBuilder("c random DIMACS graph\np sp 200 800\n");
+        Graph expected = new Graph(200, true, true);
+        for (int i = 0; i < 800; i++) {
+            int source = random.nextInt(200);
+            int target = random.nextInt(200);
+            int weight = random.nextInt(2_000) - 100;
+            snap.append(source).append(' ').append(target).append(' ').append(weight).append('\n');
+            dimacs.append("a ").append(source + 1).append(' ').append(target + 1).append(' ').append(weight)
+                    .append('\n');
+            expected.addEdge(source, target, weight);
+        }
+        snap.append("199 199 1\n");
+        expected.addEdge(199, 199, 1);
+        dimacs.append("a 200 200 1\n");
+        Files.writeString(datasets.resolve("graph.gr"), dimacs);
+        GraphImportService imports = importService(1 << 20);
+        
+        StoredGraph fromSnap = imports.importUpload(body(snap.toString()), "SNAP", true);
+        StoredGraph fromDimacs = imports.importDataset("graph.gr", "DIMACS", null);
+        
+        assertTrue(fromDimacs.isDirected());
+        assertSameGraph(expected, graphStore.get(fromSnap.getGraphId()));
+        assertSameGraph(expected, graphStore.get(fromDimacs.getGraphId()));
+        // A dataset stays where it is
+        assertTrue(Files.exists(datasets.resolve("graph.gr")));
+    }
+    
+    @Test
+    void testMalformedLineReportsByteOffset() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append(i).append(' ').append(i + 1).append('\n');
+        }
+        int offset = text.length() + "17 ".length();
+        text.append("17 x\n");
+        for (int i = 0; i < 500; i++) {
+            text.append(i + 1).append(' ').append(i).append('\n');
+        }
+        
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> importService(1 << 20).importUpload(body(text.toString()), "SNAP", null));
+        
+        assertEquals("Malformed graph file at byte " + offset + ": expected a number", ex.getMessage());
+    }
+    
+    @Test
+    void testDatasetPathCannotLeaveDatasetDir() throws IOException {
+        Files.writeString(root.resolve("outside.txt"), "0 1\n");
+        Files.writeString(datasets.resolve("inside.txt"), "0 1\n");
+        GraphImportService imports = importService(1 << 20);
+        
+        assertThrows(IllegalArgumentException.class, () -> imports.importDataset("../outside.txt", "SNAP", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> imports.importDataset("sub/../../outside.txt", "SNAP", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> imports.importDataset(root.resolve("outside.txt").toString(), "SNAP", null));
+        assertEquals(2, imports.importDataset("inside.txt", "SNAP", null).getVertices());
+    }
+    
+    @Test
+    void testUploadOverLimitIsRejected() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append(i).append(' ').append(i + 1).append('\n');
+        }
+        
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> importService(100_000).importUpload(body(text.toString()), "SNAP", null));
+        
+        assertEquals("Upload exceeds the graph import limit of 100000 bytes", ex.getMessage());
+        try (Stream<Path> files = Files.list(uploads)) {
+            assertEquals(0, files.count());
+        }
+    }
+    
+    @Test
+    void testGraphLargerThanCacheBudgetIsRejected() {
+        // 60 undirected edges need 120 CSR entries, more than a 100-entry cache holds
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            text.append(i).append(' ').append(i + 1).append('\n');
+        }
+        GraphStore smallStore = new GraphStore(4, 100, 1 << 20, root.toString());
+        GraphImportService imports = new GraphImportService(executor, smallStore, 1_000, 1_000, 1 << 20, 64,
+                uploads.toString(), datasets.toString());
+        
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> imports.importUpload(body(text.toString()), "SNAP", null));
+        
+        assertEquals("Graph needs 120 adjacency entries, but the graph cache holds at most 100", ex.getMessage());
+        StoredGraph directed = imports.importUpload(body(text.toString()), "SNAP", true);
+        assertTrue(directed.isBuilt());
+    }
+}
@@ -0,0 +1,192 @@
+package com.algoviz.service;
+
+import com.algoviz.datastructures.EdgeList;
+import com.algoviz.datastructures.Graph;
+import com.algoviz.model.graph.StoredGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphStoreTest {
+    
+    private Path tempDir;
+    private GraphStore store;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("graph-store-test");
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.clear();
+        }
+        try (Stream<Path> files = Files.list(tempDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(tempDir);
+    }
+    
+    private GraphStore store(int maxEntries, long maxBuiltEdges, long spillBytes) {
+        store = new GraphStore(maxEntries, maxBuiltEdges, spillBytes, tempDir.toString());
+        return store;
+    }
+    
+    private static EdgeList randomEdges(int vertices, int count, boolean weighted, long seed) {
+        EdgeList edges = new EdgeList();
+        Random random = new Random(seed);
+        for (int i = 0; i < count; i++) {
+            edges.add(random.nextInt(vertices), random.nextInt(vertices), weighted ? random.nextInt(100) : 1);
+        }
+        return edges;
+    }
+    
+    private static long spillFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+    
+    private static void assertSameGraph(int vertices, boolean directed, EdgeList edges, Graph actual) {
+        Graph expected = new Graph(vertices, directed, true);
+        expected.addEdges(edges);
+        assertEquals(expected.getVertices(), actual.getVertices());
+        assertEquals(expected.isDirected(), actual.isDirected());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int v = 0; v < vertices; v++) {
+            assertEquals(expected.neighborStart(v), actual.neighborStart(v));
+        }
+        for (int e = 0; e < expected.edgeCount(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            assertEquals(expected.weight(e), actual.weight(e));
+        }
+    }
+    
+    @Test
+    void testRoundTripOnHeapAndMapped() throws IOException {
+        EdgeList weighted = randomEdges(50, 200, true, 1);
+        EdgeList unweighted = randomEdges(50, 200, false, 2);
+        for (long spillBytes : new long[] {1 << 20, 64}) {
+            GraphStore graphs = store(8, 1 << 20, spillBytes);
+            String storage = spillBytes == 64 ? "MAPPED" : "HEAP";
+            
+            StoredGraph first = graphs.put(50, true, true, weighted);
+            StoredGraph second = graphs.put(50, false, false, unweighted);
+            
+            assertEquals(storage, first.getStorage());
+            assertEquals(storage, second.getStorage());
+            assertEquals(spillBytes == 64 ? 2 : 0, spillFiles(tempDir));
+            assertFalse(first.isBuilt());
+            // Weight-1 edges are packed without the weight column
+            assertEquals((4 + 200 * 3) * 4, first.getBytes());
+            assertEquals((4 + 200 * 2) * 4, second.getBytes());
+            assertSameGraph(50, true, weighted, graphs.get(first.getGraphId()));
+            assertSameGraph(50, false, unweighted, graphs.get(second.getGraphId()));
+            assertTrue(graphs.info(first.getGraphId()).isBuilt());
+            
+            graphs.remove(first.getGraphId());
+            graphs.remove(second.getGraphId());
+            assertEquals(0, spillFiles(tempDir));
+        }
+    }
+    
+    @Test
+    void testSameContentGetsSameId() throws IOException {
+        GraphStore graphs = store(8, 1 << 20, 64);
+        
+        StoredGraph first = graphs.put(50, true, true, randomEdges(50, 100, true, 3));
+        StoredGraph again = graphs.put(50, true, true, randomEdges(50, 100, true, 3));
+        StoredGraph undirected = graphs.put(50, false, true, randomEdges(50, 100, true, 3));
+        
+        assertEquals(first.getGraphId(), again.getGraphId());
+        assertEquals(first.getContentHash(), again.getContentHash());
+        assertEquals(16, first.getGraphId().length());
+        assertTrue(first.getContentHash().startsWith(first.getGraphId()));
+        assertNotEquals(first.getGraphId(), undirected.getGraphId());
+        // The duplicate's spill file is dropped right away
+        assertEquals(2, spillFiles(tempDir));
+    }
+    
+    @Test
+    void testEntriesEvictedLeastRecentlyUsed() {
+        GraphStore graphs = store(2, 1 << 20, 1 << 20);
+        StoredGraph a = graphs.put(10, true, false, randomEdges(10, 20, false, 4));
+        StoredGraph b = graphs.put(10, true, false, randomEdges(10, 20, false, 5));
+        graphs.get(a.getGraphId());
+        
+        StoredGraph c = graphs.put(10, true, false, randomEdges(10, 20, false, 6));
+        
+        assertNotNull(graphs.get(a.getGraphId()));
+        assertNotNull(graphs.get(c.getGraphId()));
+        assertThrows(IllegalArgumentException.class, () -> graphs.get(b.getGraphId()));
+    }
+    
+    @Test
+    void testBuiltGraphsEvictedLeastRecentlyUsed() {
+        // Room for two built graphs of 20 edge entries each
+        GraphStore graphs = store(8, 45, 1 << 20);
+        EdgeList edgesA = randomEdges(10, 20, true, 7);
+        StoredGraph a = graphs.put(10, true, true, edgesA);
+        StoredGraph b = graphs.put(10, true, true, randomEdges(10, 20, true, 8));
+        StoredGraph c = graphs.put(10, true, true, randomEdges(10, 20, true, 9));
+        StoredGraph tooLarge = graphs.put(10, true, true, randomEdges(10, 50, true, 10));
+        
+        Graph builtA = graphs.get(a.getGraphId());
+        graphs.get(b.getGraphId());
+        graphs.get(a.getGraphId());
+        graphs.get(c.getGraphId());
+        graphs.get(tooLarge.getGraphId());
+        
+        assertTrue(graphs.info(a.getGraphId()).isBuilt());
+        assertFalse(graphs.info(b.getGraphId()).isBuilt());
+        assertTrue(graphs.info(c.getGraphId()).isBuilt());
+        assertFalse(graphs.info(tooLarge.getGraphId()).isBuilt());
+        assertSame(builtA, graphs.get(a.getGraphId()));
+        // An evicted graph is rebuilt from its records
+        assertNotNull(graphs.get(b.getGraphId()));
+        assertFalse(graphs.info(c.getGraphId()).isBuilt());
+    }
+    
+    @Test
+    void testUnknownIdIsRejected() {
+        GraphStore graphs = store(8, 1 << 20, 1 << 20);
+        StoredGraph stored = graphs.put(10, true, false, randomEdges(10, 20, false, 11));
+        graphs.remove(stored.getGraphId());
+        
+        assertThrows(IllegalArgumentException.class, () -> graphs.get("0123456789abcdef"));
+        assertThrows(IllegalArgumentException.class, () -> graphs.get(null));
+        assertThrows(IllegalArgumentException.class, () -> graphs.info(stored.getGraphId()));
+        assertThrows(IllegalArgumentException.class, () -> graphs.remove(stored.getGraphId()));
+    }
+    
+    @Test
+    void testShortIdCollisionIsKeyedByFullHash() {
+        GraphStore graphs = store(8, 1 << 20, 1 << 20);
+        String prefix = "0123456789abcdef";
+        Graph first = new Graph(3, true, false);
+        first.addEdge(0, 1);
+        Graph second = new Graph(4, true, false);
+        second.addEdge(2, 3);
+        
+        StoredGraph a = graphs.putLoaded(prefix + "0".repeat(48), first, 1, 10, null, () -> first);
+        StoredGraph b = graphs.putLoaded(prefix + "1".repeat(48), second, 1, 10, null, () -> second);
+        StoredGraph bAgain = graphs.putLoaded(prefix + "1".repeat(48), second, 1, 10, null, () -> second);
+        
+        assertEquals(prefix, a.getGraphId());
+        assertEquals(prefix + "1".repeat(48), b.getGraphId());
+        assertEquals(b.getGraphId(), bAgain.getGraphId());
+        assertEquals(3, graphs.get(a.getGraphId()).getVertices());
+        assertEquals(4, graphs.get(b.getGraphId()).getVertices());
+    }
+}
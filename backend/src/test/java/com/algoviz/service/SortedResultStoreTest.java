@@ -0,0 +1,52 @@
+package com.algoviz.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedResultStoreTest {
+    
+    @Test
+    void testSameValuesShareOneId() {
+        SortedResultStore store = new SortedResultStore(4, 100);
+        
+        String id = store.put(new int[] {1, 2, 3});
+        
+        assertEquals(id, store.put(new int[] {1, 2, 3}));
+        assertArrayEquals(new int[] {1, 2, 3}, store.get(id));
+        assertNotEquals(id, store.put(new int[] {1, 2, 4}));
+    }
+    
+    @Test
+    void testArrayOverBudgetGetsNoId() {
+        SortedResultStore store = new SortedResultStore(4, 100);
+        
+        assertNull(store.put(new int[101]));
+        assertNotNull(store.put(new int[100]));
+    }
+    
+    @Test
+    void testIdTakenByOtherValuesGetsNoId() {
+        SortedResultStore store = new SortedResultStore(4, 100);
+        int[] stored = {1, 2, 3};
+        String id = store.put(stored);
+        // The store keeps the caller's array, so changing it stands in for a hash collision
+        stored[2] = 4;
+        
+        assertNull(store.put(new int[] {1, 2, 3}));
+        assertArrayEquals(new int[] {1, 2, 4}, store.get(id));
+    }
+    
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        SortedResultStore store = new SortedResultStore(2, 100);
+        String first = store.put(new int[] {1});
+        String second = store.put(new int[] {2});
+        store.get(first);
+        
+        store.put(new int[] {3});
+        
+        assertArrayEquals(new int[] {1}, store.get(first));
+        assertThrows(IllegalArgumentException.class, () -> store.get(second));
+    }
+}
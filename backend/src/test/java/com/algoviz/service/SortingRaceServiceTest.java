@@ -0,0 +1,86 @@
+package com.algoviz.service;
+
+import com.algoviz.model.AlgorithmStep;
+import com.algoviz.model.sorting.SortingRaceEntry;
+import com.algoviz.model.sorting.SortingRaceResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SortingRaceServiceTest {
+    
+    @Autowired
+    private SortingRaceService sortingRaceService;
+    
+    @Test
+    void testRaceWinnersPerMetric() {
+        int[] input = new int[2000];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (i * 7919) % input.length;
+        }
+        
+        SortingRaceResult result = sortingRaceService.race(input, 
+                List.of("bubble-sort", "merge-sort", "counting-sort"), false, null);
+        
+        assertEquals(input.length, result.getInputSize());
+        assertEquals(3, result.getEntries().size());
+        Map<String, String> winners = result.getWinners();
+        assertEquals(List.of("comparisons", "swaps", "actualOperations", "elapsedMs"), 
+                List.copyOf(winners.keySet()));
+        for (String metric : List.of("comparisons", "swaps", "actualOperations")) {
+            long best = result.getEntries().stream()
+                    .mapToLong(entry -> metricOf(entry, metric))
+                    .min().orElseThrow();
+            SortingRaceEntry winner = result.getEntries().stream()
+                    .filter(entry -> entry.getAlgorithm().equals(winners.get(metric)))
+                    .findFirst().orElseThrow();
+            assertEquals(best, metricOf(winner, metric), metric);
+        }
+        assertNotEquals("bubble-sort", winners.get("comparisons"));
+        for (SortingRaceEntry entry : result.getEntries()) {
+            assertNull(entry.getSteps());
+        }
+    }
+    
+    @Test
+    void testRaceKeepsAtMostMaxSteps() {
+        int[] input = new int[300];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = input.length - i;
+        }
+        
+        SortingRaceResult result = sortingRaceService.race(input, List.of("bubble-sort", "insertion-sort"), true, 50);
+        
+        for (SortingRaceEntry entry : result.getEntries()) {
+            List<AlgorithmStep> steps = entry.getSteps();
+            assertEquals(50, steps.size());
+            assertTrue(entry.getTotalSteps() > 10_000);
+            assertEquals(0, steps.get(0).getStepNumber());
+            assertEquals(entry.getTotalSteps() - 1, steps.get(steps.size() - 1).getStepNumber());
+            assertEquals("COMPLETE", steps.get(steps.size() - 1).getOperationType());
+            for (int i = 1; i < steps.size(); i++) {
+                assertTrue(steps.get(i).getStepNumber() > steps.get(i - 1).getStepNumber());
+            }
+        }
+    }
+    
+    @Test
+    void testRaceRejectsDuplicateAlgorithms() {
+        assertThrows(IllegalArgumentException.class, 
+                () -> sortingRaceService.race(new int[]{3, 1, 2}, List.of("merge-sort", "merge-sort"), false, null));
+    }
+    
+    private static long metricOf(SortingRaceEntry entry, String metric) {
+        return switch (metric) {
+            case "comparisons" -> entry.getMetrics().getComparisons();
+            case "swaps" -> entry.getMetrics().getSwaps();
+            default -> entry.getMetrics().getActualOperations();
+        };
+    }
+}
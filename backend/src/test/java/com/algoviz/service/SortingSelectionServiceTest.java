@@ -0,0 +1,116 @@
+package com.algoviz.service;
+
+import com.algoviz.model.sorting.SortingResult;
+import com.algoviz.model.sorting.SortingSelection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SortingSelectionServiceTest {
+    
+    @Autowired
+    private SortingSelectionService selectionService;
+    
+    private static int[] randomArray(int size, int bound, long seed) {
+        Random random = new Random(seed);
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = bound > 0 ? random.nextInt(bound) : random.nextInt();
+        }
+        return array;
+    }
+    
+    private void assertSelects(String algorithm, int[] array) {
+        SortingSelection selection = selectionService.select(array);
+        assertEquals(algorithm, selection.getAlgorithm(), selection.getReason());
+        
+        SortingResult result = selectionService.sortAuto(array.clone(), false);
+        
+        assertEquals(algorithm, result.getSelection().getAlgorithm());
+        int[] expected = array.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, result.getSortedArray().stream().mapToInt(Integer::intValue).toArray());
+    }
+    
+    @Test
+    void testSmallInputUsesInsertionSort() {
+        assertSelects("insertion-sort", randomArray(32, 0, 1));
+        assertSelects("insertion-sort", new int[] {Integer.MAX_VALUE, 0, Integer.MIN_VALUE});
+    }
+    
+    @Test
+    void testSortedOrReversedInputUsesTimSort() {
+        int[] sorted = new int[5_000];
+        int[] reversed = new int[5_000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i * 3;
+            reversed[i] = -i * 3;
+        }
+        
+        assertSelects("tim-sort", sorted);
+        assertSelects("tim-sort", reversed);
+        assertTrue(selectionService.select(sorted).getReason().startsWith("Input is already sorted"));
+    }
+    
+    @Test
+    void testNearlySortedInputUsesTimSort() {
+        // Wide values so the range rule cannot apply; 20 swaps leave the sample almost inversion-free
+        int[] array = new int[10_000];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = i * 1_000;
+        }
+        Random random = new Random(2);
+        for (int s = 0; s < 20; s++) {
+            int i = random.nextInt(array.length);
+            int j = random.nextInt(array.length);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+        
+        assertSelects("tim-sort", array);
+        assertTrue(selectionService.select(array).getReason().startsWith("Input is nearly sorted"));
+    }
+    
+    @Test
+    void testNarrowRangeUsesCountingSort() {
+        // Range 2n, shifted negative to check the offset from the minimum
+        int[] array = randomArray(5_000, 10_000, 3);
+        for (int i = 0; i < array.length; i++) {
+            array[i] -= 5_000;
+        }
+        
+        assertSelects("counting-sort", array);
+    }
+    
+    @Test
+    void testManyDuplicatesUseThreeWayQuickSort() {
+        // Ten distinct keys spread over a range far wider than the input
+        int[] array = randomArray(5_000, 10, 4);
+        for (int i = 0; i < array.length; i++) {
+            array[i] *= 100_000_000;
+        }
+        
+        assertSelects("three-way-quick-sort", array);
+    }
+    
+    @Test
+    void testLargeDistinctInputUsesRadixSort() {
+        int[] array = randomArray(100_000, 0, 5);
+        array[0] = Integer.MIN_VALUE;
+        array[1] = Integer.MAX_VALUE;
+        
+        assertSelects("radix-sort", array);
+    }
+    
+    @Test
+    void testModerateRandomInputUsesDualPivotQuickSort() {
+        assertSelects("dual-pivot-quick-sort", randomArray(4_095, 0, 6));
+    }
+}